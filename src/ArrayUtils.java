@@ -0,0 +1,169 @@
+import java.util.Arrays;
+import java.util.ArrayList;
+
+////////// ARRAY UTILS///////////
+// An arrayUtils class that is used to help sort ArrayLists used throughout this program
+class ArrayUtils {
+  // Effect: Exchanges the values at the given two indices in the given array
+  <T> void swap(ArrayList<T> arr, int index1, int index2) {
+    T oldValueAtI1 = arr.get(index1);
+    T oldValueAtI2 = arr.get(index2);
+
+    arr.set(index1, oldValueAtI2);
+    arr.set(index2, oldValueAtI1);
+  }
+
+  // EFFEECT: sorts the ArrayList in ascending order using the heapsort technique
+  // by downheaping each item on the arrayList starting at the center of the
+  // ArrayList
+  // and ending at index 0 to create a valid heap.
+  // Then, swap elements at index 0 of the valid heap with elements at index
+  // heap.size() - 1,
+  // and add the element previously at index 0 to a new ArrayList that is the
+  // resulting sorted ArrayList, while downheaping the new element at index 0 with 
+  // the rest of the heap.
+  // The elements come off the heap from largest to smallest, so they are added to the end
+  // of the sorted ArrayList (adding to the front would shift every element each time),
+  // and the ArrayList is reversed once at the end:
+  <T> ArrayList<T> heapsort(ArrayList<T> arr, IComparator<T> comp) {
+    // Reorder arr into a heap:
+    for (int i = (arr.size() - 1) / 2; i >= 0; i = i - 1) {
+      downheap(arr, i, comp);
+    }
+    // put into non-increasing order:
+    ArrayList<T> sortedOrder = new ArrayList<T>(arr.size());
+    for (int i = arr.size() - 1; i >= 0; i = i - 1) {
+      this.swap(arr, i, 0);
+      T addThis = arr.remove(arr.size() - 1);
+      this.downheap(arr, 0, comp);
+      sortedOrder.add(addThis);
+    }
+    // then flip it into non-decreasing order:
+    for (int i = 0; i < sortedOrder.size() / 2; i++) {
+      this.swap(sortedOrder, i, sortedOrder.size() - 1 - i);
+    }
+    return sortedOrder;
+  }
+  
+  // Returns a new ArrayList of the given Edges sorted from smallest weight to largest weight.
+  // Edge weights are generated by random.nextInt(maxWeight), so they are never negative,
+  // which means they can be sorted in linear time with radixSortByWeight.
+  // If any of the given Edges has a negative (unbounded) weight, the Edges are instead
+  // heapsorted using the given comparator.
+  <T> ArrayList<Edge<T>> sortByWeight(ArrayList<Edge<T>> edges, IComparator<Edge<T>> comp) {
+    for (int i = 0; i < edges.size(); i++) {
+      if (edges.get(i).weight < 0) {
+        return this.heapsort(edges, comp);
+      }
+    }
+    return this.radixSortByWeight(edges);
+  }
+  
+  // Returns a new ArrayList of the given Edges sorted from smallest weight to largest weight,
+  // using a least-significant-digit radix sort with 8-bit digits:
+  // Each pass is a stable counting sort on one byte of the weights, starting from the lowest
+  // byte, and only as many passes are made as there are bytes in the largest weight.
+  // Edges of equal weight keep the order they were given in.
+  // Every weight must be non-negative.
+  <T> ArrayList<Edge<T>> radixSortByWeight(ArrayList<Edge<T>> edges) {
+    int maxWeight = 0;
+    for (int i = 0; i < edges.size(); i++) {
+      maxWeight = Math.max(maxWeight, edges.get(i).weight);
+    }
+    ArrayList<Edge<T>> from = new ArrayList<Edge<T>>(edges);
+    ArrayList<Edge<T>> to = new ArrayList<Edge<T>>(edges);
+    for (int shift = 0; shift < 32 && (maxWeight >> shift) > 0; shift = shift + 8) {
+      // counts[d + 1] is the number of Edges whose current digit is d:
+      int[] counts = new int[257];
+      for (int i = 0; i < from.size(); i++) {
+        counts[((from.get(i).weight >> shift) & 255) + 1] += 1;
+      }
+      // then counts[d] becomes the index at which the first Edge with digit d belongs:
+      for (int d = 0; d < 256; d++) {
+        counts[d + 1] += counts[d];
+      }
+      for (int i = 0; i < from.size(); i++) {
+        Edge<T> e = from.get(i);
+        int digit = (e.weight >> shift) & 255;
+        to.set(counts[digit], e);
+        counts[digit] += 1;
+      }
+      ArrayList<Edge<T>> temp = from;
+      from = to;
+      to = temp;
+    }
+    return from;
+  }
+  
+  // Returns the indices 0 to size - 1 of the given weights, ordered from smallest weight to
+  // largest weight, using the same stable 8-bit radix sort as above on primitive arrays.
+  // This is how an EdgeList is sorted without making an Edge object per edge.
+  // Every weight must be non-negative.
+  int[] radixSortByWeight(int[] weights, int size) {
+    int maxWeight = 0;
+    int[] from = new int[size];
+    for (int i = 0; i < size; i++) {
+      maxWeight = Math.max(maxWeight, weights[i]);
+      from[i] = i;
+    }
+    int[] to = new int[size];
+    int[] counts = new int[257];
+    for (int shift = 0; shift < 32 && (maxWeight >> shift) > 0; shift = shift + 8) {
+      Arrays.fill(counts, 0);
+      for (int i = 0; i < size; i++) {
+        counts[((weights[i] >> shift) & 255) + 1] += 1;
+      }
+      for (int d = 0; d < 256; d++) {
+        counts[d + 1] += counts[d];
+      }
+      for (int i = 0; i < size; i++) {
+        int digit = (weights[from[i]] >> shift) & 255;
+        to[counts[digit]] = from[i];
+        counts[digit] += 1;
+      }
+      int[] temp = from;
+      from = to;
+      to = temp;
+    }
+    return from;
+  }
+
+  // EFFECT: helps heap sort the given array by comparing the element at index i
+  // to the elements at both child indices, determining if the element at index i is in place by
+  // checking if it is less of a priority than either of its children elements. If so, it is
+  // swapped with the child with the greatest priority,
+  // and recurs until the element at the starting index is in place.
+  <T> void downheap(ArrayList<T> arr, int startingIdx, IComparator<T> comp) {
+    int leftChildIdx = 2 * startingIdx + 1;
+    int rightChildIdx = 2 * startingIdx + 2;
+    int biggerChildIdx = leftChildIdx;
+    // IF BOTH CHILDREN EXIST:
+    if (arr.size() - 1 >= leftChildIdx && arr.size() - 1 >= rightChildIdx) {
+      // To determine which child has greater priority, we create a variable called
+      // biggerChildIdx that is the left child by default, but once the two children's
+      // elements are compared is reset to the right child if necessary.
+      if (comp.compare(arr.get(rightChildIdx), arr.get(leftChildIdx)) > 0) {
+        biggerChildIdx = rightChildIdx;
+      }
+      if (comp.compare(arr.get(startingIdx), arr.get(leftChildIdx)) < 0 || comp.compare(arr.get(
+          startingIdx), arr.get(rightChildIdx)) < 0) {
+        this.swap(arr, startingIdx, biggerChildIdx);
+        this.downheap(arr, biggerChildIdx, comp);
+      }
+    }
+    // IF ONLY THE RIGHT CHILD EXISTS
+    if (arr.size() - 1 < leftChildIdx && arr.size() - 1 >= rightChildIdx) {
+      if (comp.compare(arr.get(startingIdx), arr.get(rightChildIdx)) < 0) {
+        this.swap(arr, startingIdx, rightChildIdx);
+        this.downheap(arr, rightChildIdx, comp);
+      }
+    }
+    // IF ONLY THE LEFT CHILD EXISTS
+    if (arr.size() - 1 < rightChildIdx && arr.size() - 1 >= leftChildIdx) {
+      if (comp.compare(arr.get(startingIdx), arr.get(leftChildIdx)) < 0) {
+        this.swap(arr, startingIdx, leftChildIdx);
+        this.downheap(arr, leftChildIdx, comp);
+      }
+    }
+  }
+}
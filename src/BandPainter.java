@@ -0,0 +1,46 @@
+import java.util.concurrent.RecursiveAction;
+
+////////// BAND PAINTER //////////
+// Represents painting the rows of a frame from top (inclusive) to bottom (exclusive) with the
+// board in view, split in halves until each band is at most bandRows high, so that the bands
+// are painted at the same time by the workers of a ForkJoinPool (see rasterScene in the
+// GameEngine class).
+// Each band only paints its own rows of the frame's pixels (see paintRect), in the same order
+// as painting the whole frame at once, so the frame comes out the same either way, and no pixel
+// is painted by two workers. The bands do not show their rows in the image of the frame: the
+// frame is shown once every band is done (see rasterScene). The workers only read the board
+// and its stamps, which are all painted before the bands begin.
+class BandPainter extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+  GameEngine<?> game;
+  RasterFrame frame;
+  int top;
+  int bottom;
+  int bandRows;
+
+  // Constructor takes the game whose board is painted, the frame it is painted into, the rows
+  // to paint, and the most rows that one worker paints
+  BandPainter(GameEngine<?> game, RasterFrame frame, int top, int bottom, int bandRows) {
+    if (bandRows <= 0) {
+      throw new IllegalArgumentException("Cannot paint bands without rows.");
+    }
+    this.game = game;
+    this.frame = frame;
+    this.top = top;
+    this.bottom = bottom;
+    this.bandRows = bandRows;
+  }
+
+  // EFFECT: paints the rows of this band, or splits it in two bands that are painted at the
+  // same time, and waits for both
+  protected void compute() {
+    if (this.bottom - this.top <= this.bandRows) {
+      this.game.paintRect(this.frame, 0, this.top, this.frame.width, this.bottom);
+    }
+    else {
+      int middle = this.top + (this.bottom - this.top) / 2;
+      invokeAll(new BandPainter(this.game, this.frame, this.top, middle, this.bandRows),
+          new BandPainter(this.game, this.frame, middle, this.bottom, this.bandRows));
+    }
+  }
+}
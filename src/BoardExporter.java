@@ -0,0 +1,169 @@
+import java.awt.Color;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+////////// BOARD EXPORTER //////////
+// Represents writing boards to PNG images without opening a canvas, for snapshots of puzzles.
+// A board is exported as a PackedBoard, so a board can be exported as it is generated from a
+// seed, solved or scrambled (see generate in PackedBoard), without ever making its GamePieces,
+// and any state of a game can be exported as well (see pack in the GameEngine class).
+// The image is painted in strips of at most stripRows rows of pixels, the whole width of the
+// board, each of which is written out (see PngWriter) before the next is painted, so only one
+// strip of the image is ever in memory, however large the board.
+// Each tile is painted with the stamp of its shape at tileSize (see TilePainter), which is
+// painted once per kind of tile, as makeScene does when painting the board as pixels.
+class BoardExporter {
+  // the size of each tile in pixels: the width and height of a square tile, or the length of
+  // each side of a hexagon
+  int tileSize;
+  // the most rows of pixels painted at once
+  int stripRows = 64;
+
+  // Constructor takes the size of each tile in pixels
+  BoardExporter(int tileSize) {
+    if (tileSize <= 0) {
+      throw new IllegalArgumentException("Cannot export tiles without pixels.");
+    }
+    this.tileSize = tileSize;
+  }
+
+  // Returns the painter of the tiles of the given board, by their number of sides
+  TilePainter painterFor(PackedBoard board) {
+    if (board.sides == 4) {
+      return new SquarePainter(this.tileSize, this.tileSize);
+    }
+    return new HexPainter(this.tileSize);
+  }
+
+  // EFFECT: writes the given board to the given stream as a PNG image, one strip at a time.
+  // The stream is flushed but not closed.
+  void writePng(PackedBoard board, OutputStream out) throws IOException {
+    TilePainter painter = this.painterFor(board);
+    BoardLayout whole = painter.layout(board.width, board.height, 0, 0);
+    int imageWidth = whole.pixelWidth();
+    int imageHeight = whole.pixelHeight();
+    PngWriter png = new PngWriter(out, imageWidth, imageHeight);
+    SpriteCache stamps = new SpriteCache(board.sides);
+    RasterFrame strip = new RasterFrame(imageWidth, Math.min(this.stripRows, imageHeight));
+    for (int top = 0; top < imageHeight; top = top + strip.height) {
+      this.paintStrip(board, painter, stamps, strip, top);
+      int rows = Math.min(strip.height, imageHeight - top);
+      for (int y = 0; y < rows; y++) {
+        png.writeRow(strip.pixels, y * imageWidth);
+      }
+    }
+    png.finish();
+  }
+
+  // EFFECT: paints the given strip with the rows of pixels of the image of the given board
+  // that begin at the given row, over white: only the rows of tiles drawn there are looked at.
+  // Each kind of tile is painted once, and remembered in the given stamps.
+  void paintStrip(PackedBoard board, TilePainter painter, SpriteCache stamps, RasterFrame strip,
+      int top) {
+    BoardLayout layout = painter.layout(board.width, board.height, 0, -top);
+    strip.fillRect(0, 0, strip.width, strip.height, Color.WHITE.getRGB());
+    int firstRow = Math.max(0, layout.rowNear(0) - 1);
+    int lastRow = Math.min(board.height - 1, layout.rowNear(strip.height) + 1);
+    for (int i = firstRow; i <= lastRow; i++) {
+      for (int j = 0; j < board.width; j++) {
+        int idx = i * board.width + j;
+        int bucket = board.colorBucket(idx);
+        boolean powerStation = idx == board.powerIdx;
+        int key = stamps.keyOf(board.maskOf(idx), bucket, powerStation);
+        RasterFrame stamp = stamps.getStamp(key);
+        if (stamp == null) {
+          stamp = painter.paint(board.maskOf(idx), bucket, powerStation);
+          stamps.putStamp(key, stamp);
+        }
+        strip.stamp(stamp, layout.centerX(i, j), layout.centerY(i, j));
+      }
+    }
+  }
+
+  // EFFECT: writes the given board to the given file as a PNG image
+  void exportPng(PackedBoard board, File file) throws IOException {
+    OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+    try {
+      this.writePng(board, out);
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  // EFFECT: generates each of the given boards and writes it to the file at the same index as
+  // a PNG image, on a pool of the given number of threads, and waits for all of them.
+  // Each board is generated by the task that writes it, and let go of once it is written, so
+  // only as many boards as there are threads are ever in memory at once.
+  // If a board could not be written, stops every task still running or waiting and throws an
+  // exception naming the first such file.
+  void exportAll(ArrayList<SeededBoard> boards, ArrayList<File> files, int threads) {
+    if (boards.size() != files.size()) {
+      throw new IllegalArgumentException("Every board must be given one file.");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Cannot export on fewer than one thread.");
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    boolean written = false;
+    try {
+      ArrayList<Future<File>> results = new ArrayList<Future<File>>();
+      for (int i = 0; i < boards.size(); i++) {
+        results.add(pool.submit(new ExportTask(this, boards.get(i), files.get(i))));
+      }
+      for (int i = 0; i < results.size(); i++) {
+        try {
+          results.get(i).get();
+        }
+        catch (ExecutionException e) {
+          throw new IllegalStateException("Could not export " + files.get(i).getName() + ".",
+              e.getCause());
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while exporting boards.", e);
+        }
+      }
+      written = true;
+    }
+    finally {
+      // After a failure, the boards not yet written are abandoned rather than waited for:
+      if (written) {
+        pool.shutdown();
+      }
+      else {
+        pool.shutdownNow();
+      }
+    }
+  }
+}
+
+// Represents generating one board and writing it to one file, on a thread of the pool of
+// exportAll. The board only exists while the task runs.
+class ExportTask implements Callable<File> {
+  BoardExporter exporter;
+  SeededBoard board;
+  File file;
+
+  // Constructor takes the exporter that writes the board, the board to generate and the file
+  ExportTask(BoardExporter exporter, SeededBoard board, File file) {
+    this.exporter = exporter;
+    this.board = board;
+    this.file = file;
+  }
+
+  // Returns the file, once the board has been generated and written to it
+  public File call() throws IOException {
+    this.exporter.exportPng(this.board.generate(), this.file);
+    return this.file;
+  }
+}
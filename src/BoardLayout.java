@@ -0,0 +1,36 @@
+import javalib.worldimages.*;
+
+////////// BOARD LAYOUT //////////
+// Represents where the GamePieces of a board are drawn on the canvas: the center of the
+// GamePiece at each row and column, and which GamePiece is under a point of the canvas.
+// Finding the GamePiece under a point (when the player clicks) is the inverse of placing the
+// GamePieces, worked out in constant time from the point itself, so a click costs the same on a
+// board of any size. makeScene places every GamePiece at the center given here, so a click
+// always lands on the GamePiece that is drawn there.
+// The top-left corner of the board is drawn at (originX, originY) on the canvas, which is
+// negative once the view is scrolled (see Viewport), so that only part of the board is seen.
+interface BoardLayout {
+  // Returns the x-coordinate of the center of the GamePiece at the given row and column
+  int centerX(int row, int col);
+
+  // Returns the y-coordinate of the center of the GamePiece at the given row and column
+  int centerY(int row, int col);
+
+  // Returns the flat index (row * width + col) of the GamePiece under the given point, or -1
+  // if the point is not on any GamePiece
+  int tileAt(Posn pos);
+
+  // Returns the row that is drawn at about the given y-coordinate, which may be off the board.
+  // The GamePieces drawn at that y-coordinate are all within one row of it.
+  int rowNear(int y);
+
+  // Returns the column that is drawn at about the given x-coordinate, which may be off the
+  // board. The GamePieces drawn at that x-coordinate are all within one column of it.
+  int colNear(int x);
+
+  // Returns the width of the whole board in pixels
+  int pixelWidth();
+
+  // Returns the height of the whole board in pixels
+  int pixelHeight();
+}
@@ -0,0 +1,29 @@
+import java.util.SplittableRandom;
+
+////////// REPRESENTS EDGE CLASS//////////
+// Represents an Edge on a graph of GamePieces
+// The board itself is generated with an EdgeList of flat indices, so Edge objects are only
+// made as a view of an EdgeList (see EdgeList.toEdges) and to test Kruskal's algorithm
+class Edge<T> {
+  T fromNode;
+  T toNode;
+  // Takes an integer representing the maximum weight that an Edge can be assigned
+  int weight;
+
+  // General constructor for random-weight Edges, which draws the weight from the given stream
+  // (such as one split from a board's GenerationContext)
+  Edge(T from, T to, int maxWeight, SplittableRandom r) {
+    this.fromNode = from;
+    this.toNode = to;
+    this.weight = r.nextInt(maxWeight);
+  }
+
+  // Constructor to test Edges in the createMST() method:
+  // If every edge has a weight of one, the sum of all the weights
+  // of the min spanning tree.
+  Edge(T from, T to) {
+    this.fromNode = from;
+    this.toNode = to;
+    this.weight = 1;
+  }
+}
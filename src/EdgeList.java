@@ -0,0 +1,75 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+////////// EDGE LIST //////////
+// Represents a list of weighted Edges between GamePieces, stored as three parallel arrays
+// of primitives rather than as one Edge object per edge:
+// the i-th edge goes from the GamePiece at flat index from[i] to the GamePiece at flat index
+// to[i] and has weight weight[i], where a flat index is row * width + col.
+// This is the representation used to generate the board and to run Kruskal's algorithm, so
+// that a large board never allocates an object per edge. Edge objects are only made as a
+// view of this list, by the toEdges method.
+class EdgeList {
+  int[] from;
+  int[] to;
+  int[] weight;
+  // The number of edges in this list, which may be less than the length of the arrays
+  int size;
+
+  // Constructor takes the number of edges this list is expected to hold
+  EdgeList(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Cannot hold a negative number of edges.");
+    }
+    this.from = new int[capacity];
+    this.to = new int[capacity];
+    this.weight = new int[capacity];
+    this.size = 0;
+  }
+
+  // EFFECT: adds an edge between the two given flat indices to the end of this list,
+  // growing the arrays if they are full.
+  // Weights are never negative, which is what allows them to be radix sorted.
+  void add(int from, int to, int weight) {
+    if (weight < 0) {
+      throw new IllegalArgumentException("Edge weights must not be negative.");
+    }
+    if (this.size == this.from.length) {
+      int capacity = Math.max(4, this.size * 2);
+      this.from = Arrays.copyOf(this.from, capacity);
+      this.to = Arrays.copyOf(this.to, capacity);
+      this.weight = Arrays.copyOf(this.weight, capacity);
+    }
+    this.from[this.size] = from;
+    this.to[this.size] = to;
+    this.weight[this.size] = weight;
+    this.size = this.size + 1;
+  }
+
+  // Returns the indices of the edges in this list ordered from smallest weight to largest
+  // weight, in linear time
+  int[] orderByWeight() {
+    return new ArrayUtils().radixSortByWeight(this.weight, this.size);
+  }
+
+  // Returns the sum of the weights of all edges in this list
+  int totalWeight() {
+    int sum = 0;
+    for (int i = 0; i < this.size; i++) {
+      sum = sum + this.weight[i];
+    }
+    return sum;
+  }
+
+  // Returns a view of this list as Edge objects between the given nodes, where the GamePiece
+  // at flat index i is nodes.get(i)
+  <T> ArrayList<Edge<T>> toEdges(ArrayList<T> nodes) {
+    ArrayList<Edge<T>> edges = new ArrayList<Edge<T>>(this.size);
+    for (int i = 0; i < this.size; i++) {
+      Edge<T> e = new Edge<T>(nodes.get(this.from[i]), nodes.get(this.to[i]));
+      e.weight = this.weight[i];
+      edges.add(e);
+    }
+    return edges;
+  }
+}
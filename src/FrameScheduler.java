@@ -0,0 +1,105 @@
+////////// FRAME SCHEDULER //////////
+// Represents when a game's clock ticks and when its scene is drawn again, apart from how often
+// big bang calls onTick and makeScene.
+// A paced scheduler (framesPerSecond above 0) is for a game on a canvas, where big bang calls
+// onTick once per frame (see tickSeconds) and makeScene after every tick and every event:
+// - the clock ticks once per clockPeriod of time that has passed, however many frames that is
+// - the scene is only drawn again if something changed since the last frame (see
+//   markChanged), and at most once per framePeriod, so a burst of events between two frames
+//   is drawn once, and an idle game is not drawn again at all
+// An unpaced scheduler (framesPerSecond of 0) is the reference: the clock ticks once per call
+// to onTick, and the scene is drawn every time it is asked for.
+// Times are given in nanoseconds (as by System.nanoTime), so any time can be given to test it.
+class FrameScheduler {
+  // the most frames drawn per second, or 0 if unpaced
+  int framesPerSecond;
+  // the least time between two frames, in nanoseconds
+  long framePeriod;
+  // the time between two ticks of the clock, in nanoseconds
+  long clockPeriod = 1000000000L;
+  // when the next tick of the clock is due, once the clock has started
+  long nextTick;
+  boolean clockStarted;
+  // when the last frame was drawn, once one has been
+  long lastFrame;
+  boolean drawnOnce;
+  // whether anything shown in the scene changed since the last frame
+  boolean changed;
+
+  // Constructor takes the most frames to draw per second, or 0 for an unpaced scheduler
+  FrameScheduler(int framesPerSecond) {
+    if (framesPerSecond < 0) {
+      throw new IllegalArgumentException("Cannot draw a negative number of frames per second.");
+    }
+    this.framesPerSecond = framesPerSecond;
+    this.framePeriod = 0;
+    if (framesPerSecond > 0) {
+      this.framePeriod = 1000000000L / framesPerSecond;
+    }
+    this.clockStarted = false;
+    this.drawnOnce = false;
+    this.changed = true;
+  }
+
+  // Returns whether this scheduler paces the frames
+  boolean paced() {
+    return this.framesPerSecond > 0;
+  }
+
+  // Returns how often big bang should call onTick, in seconds: once per frame if paced,
+  // otherwise once per tick of the clock
+  double tickSeconds() {
+    if (this.paced()) {
+      return 1.0 / this.framesPerSecond;
+    }
+    return this.clockPeriod / 1e9;
+  }
+
+  // Returns the number of ticks of the clock that are due at the given time since the last
+  // call (always 1 if unpaced). The clock starts at the first call, with no tick due.
+  // EFFECT: moves the time of the next tick past the given time
+  int clockTicks(long now) {
+    if (!this.paced()) {
+      return 1;
+    }
+    if (!this.clockStarted) {
+      this.clockStarted = true;
+      this.nextTick = now + this.clockPeriod;
+      return 0;
+    }
+    int ticks = 0;
+    while (now - this.nextTick >= 0) {
+      ticks = ticks + 1;
+      this.nextTick = this.nextTick + this.clockPeriod;
+    }
+    return ticks;
+  }
+
+  // EFFECT: starts the clock over at the next call to clockTicks, so a new game's first tick
+  // comes a whole clockPeriod after it begins
+  void restartClock() {
+    this.clockStarted = false;
+  }
+
+  // EFFECT: records that something shown in the scene has changed since the last frame
+  void markChanged() {
+    this.changed = true;
+  }
+
+  // Returns whether the scene should be drawn again at the given time: always if unpaced or
+  // never drawn, otherwise only if something changed and a whole frame has passed since the
+  // last one
+  boolean shouldRedraw(long now) {
+    if (!this.paced() || !this.drawnOnce) {
+      return true;
+    }
+    return this.changed && now - this.lastFrame >= this.framePeriod;
+  }
+
+  // EFFECT: records that a frame was drawn at the given time, showing every change so far
+  void frameDrawn(long now) {
+    this.lastFrame = now;
+    this.drawnOnce = true;
+    this.changed = false;
+  }
+}
@@ -0,0 +1,1476 @@
+import java.util.Arrays;
+import java.util.ArrayList;
+import javalib.impworld.*;
+import javalib.worldimages.*;
+import java.awt.Color;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+////////// GAME ENGINE //////////
+// Represents everything that the square and the hexagonal games of LightEmAll share:
+// generating the board (Kruskal's algorithm over its edges), lighting it (breadth-first search
+// and incremental re-lighting), moving the power station and keeping score.
+// All of it is written once in terms of the sides of a GamePiece, numbered clockwise, and the
+// Topology of the board says how many sides there are and where the neighbor on each side is.
+// The games themselves (LightEmAll and LightEmAllHex) only add the GamePiece of their shape,
+// and how the board is drawn (its BoardLayout) and played.
+abstract class GameEngine<T extends ITile<T>> extends World {
+  // the width and height of the board
+  // in terms of the number of GamePieces that go across and down the game board
+  int width;
+  int height;
+  int powerCol;
+  int powerRow;
+  // the shape of the GamePieces: the number of sides and the neighbor on each side
+  Topology topology;
+  // the keys that move the power station to its neighbor on each side, by side
+  String[] moveKeys;
+  // a list of rows of GamePieces
+  ArrayList<ArrayList<T>> board;
+  // a list of all nodes in game
+  ArrayList<T> nodes;
+  // a list of edges of the minimum spanning tree, by the flat indices of their GamePieces
+  EdgeList mst;
+  // the diameter, center and eccentricities of the minimum spanning tree, measured once when
+  // the board is generated
+  TreeMetrics metrics;
+  // the current location of the power station,
+  // as well as its effective radius
+  int radius;
+  // the source of every random number used to generate the current board
+  GenerationContext gen;
+  // the distance of each GamePiece from the power station by flat index, as of the last
+  // lighting of the board (see distOf)
+  int[] powerDist;
+  // the lighting epoch in which each distance in powerDist was set
+  int[] distEpoch;
+  // whether every incremental re-lighting is checked against a full refresh
+  boolean verifyLighting;
+  // the current lighting epoch: only GamePieces lit in this epoch count as lit
+  int lightEpoch;
+  // the number of GamePieces lit in the current lighting epoch (see score)
+  int litCount;
+  // the number of lit GamePieces in each block of the board, kept with litCount, for drawing
+  // the board zoomed out (null until the board is first lit)
+  LitDensity density;
+  // scratch marks for incremental re-lighting and for each breadth-first search, by flat index
+  // (see nextStamp)
+  int[] stamps;
+  int stampEpoch;
+  // the workList of each breadth-first search over the whole board, kept from one search to
+  // the next so that its buffer is only grown once (null until the first search)
+  TileQueue searchList;
+  // the part of the board that is shown on the canvas, and the size of its GamePieces
+  Viewport view;
+  // where each GamePiece is drawn on the canvas, and which GamePiece is under a click
+  BoardLayout layout;
+  // the image of each kind of GamePiece, at the size that the GamePieces are drawn
+  SpriteCache sprites;
+  // the image of each shade of block, when zoomed out past single GamePieces (see blockImage)
+  WorldImage[] blockSprites = new WorldImage[18];
+  // whether the board is painted as pixels into one frame (see rasterScene), rather than
+  // composed of the images of its GamePieces (the reference renderer, which places every
+  // GamePiece in view on every scene). The frame is kept from one scene to the next and only
+  // painted again where the board changed, so it is the renderer of every game.
+  boolean rasterize = true;
+  // the most rows of the frame that one worker paints, when painting the bands of a frame at
+  // the same time (see BandPainter), or 0 to paint the whole frame on one thread
+  int bandRows = 64;
+  // when the clock ticks and when the scene is drawn again (see FrameScheduler): unpaced until
+  // the game opens a canvas, with framesPerSecond
+  FrameScheduler frames = new FrameScheduler(0);
+  int framesPerSecond = 30;
+  // the scene as it was last drawn (null until it is first drawn)
+  WorldScene lastScene;
+  // the rotations and moves of the power station not yet applied to the board, in the order
+  // they were made (see applyInput): the flat index of a rotated GamePiece, or -1 - side for a
+  // move of the power station toward the given side
+  TileQueue input = new TileQueue(16);
+  // the number of wires on the board that connect two GamePieces (see connectedWires),
+  // counted when the wires are laid or scrambled, and kept up to date as each GamePiece turns
+  // (see turnTile)
+  int wireCount;
+  // the input of a frame is re-lit by one refresh, rather than change by change, once it is
+  // more than 1 / refreshFraction of the board (see applyInput)
+  int refreshFraction = 8;
+  // the frame that the board was last painted into, and the GamePieces that changed since
+  // (null until the board is first drawn)
+  RetainedScene retained;
+  // the most changed GamePieces that are painted again one at a time, rather than painting the
+  // whole frame again (see RetainedScene)
+  int repaintLimit = 1024;
+  // the parts of the game stats that never change (null until they are first drawn), and the
+  // whole game stats as last drawn, with the time, score and seed they were drawn for
+  WorldImage statsBackground;
+  WorldImage stats;
+  int statsTime;
+  int statsScore;
+  boolean statsWon;
+  long statsSeed;
+  int time;
+  boolean gameWon;
+  int whitespace = 300;
+  int bbWidth = 700;
+  int bbHeight = 700;
+
+  // Constructor takes the shape of the GamePieces, and the keys that move the power station
+  // to its neighbor on each side
+  GameEngine(Topology topology, String[] moveKeys) {
+    if (moveKeys.length != topology.sides()) {
+      throw new IllegalArgumentException("There must be one key to move toward each side.");
+    }
+    this.topology = topology;
+    this.moveKeys = moveKeys;
+    this.sprites = new SpriteCache(topology.sides());
+  }
+
+  // Returns a new GamePiece of this game's shape at the given column and row, with no wires,
+  // that is rotated the given number of times when the board is randomly rotated
+  abstract T newPiece(int col, int row, boolean powerStation, int orientation);
+
+  // Returns the view of this game's board that shows as much of it as fits on the canvas
+  abstract Viewport makeViewport();
+
+  // Returns the painter of this game's GamePieces at the size that they are viewed at, which
+  // also says how they are laid out (see makeLayout)
+  abstract TilePainter painter();
+
+  // Returns the layout of this game's board on the canvas, for its current width and height
+  // and its view
+  BoardLayout makeLayout() {
+    return this.painter().layout(this.width, this.height, -this.view.left, -this.view.top);
+  }
+
+  // Returns a new image of the given GamePiece, at the size that this game's GamePieces are
+  // drawn (see spriteOf)
+  abstract WorldImage drawPiece(T gp);
+
+  // Returns a new image of a GamePiece too small to show its wires: a cell of the given color
+  // that fills its place on the board, at the size that this game's GamePieces are drawn
+  abstract WorldImage drawCell(Color color);
+
+  // Returns the image of the given GamePiece, which is only drawn the first time a GamePiece
+  // with the same wires, color and power station is drawn at this size. GamePieces too small to
+  // show their wires are drawn as cells (see cellColor), which are the same for any wires.
+  // EFFECT: remembers the image in the sprites, if it is new
+  WorldImage spriteOf(T gp) {
+    boolean detail = this.view.showsDetail();
+    int wires = 0;
+    if (detail) {
+      wires = gp.wireMask();
+    }
+    int bucket = gp.colorBucket(this.radius, this.lightEpoch);
+    int key = this.sprites.keyOf(wires, bucket, gp.isPowerStation());
+    WorldImage sprite = this.sprites.get(key);
+    if (sprite == null) {
+      if (detail) {
+        sprite = this.drawPiece(gp);
+      }
+      else {
+        sprite = this.drawCell(this.cellColor(bucket, gp.isPowerStation()));
+      }
+      this.sprites.put(key, sprite);
+    }
+    return sprite;
+  }
+
+  // Returns a new stamp of a GamePiece with the given wires, color of wires and power station,
+  // painted as pixels at the size that this game's GamePieces are drawn: the raster version of
+  // drawPiece
+  RasterFrame paintPiece(int wires, int colorBucket, boolean powerStation) {
+    return this.painter().paint(wires, colorBucket, powerStation);
+  }
+
+  // Returns the stamp of the given GamePiece, which is only painted the first time a GamePiece
+  // with the same wires, color and power station is painted at this size. GamePieces too small
+  // to show their wires are painted as cells, of the same size and color as in spriteOf.
+  // EFFECT: remembers the stamp in the sprites, if it is new
+  RasterFrame stampOf(T gp) {
+    boolean detail = this.view.showsDetail();
+    int wires = 0;
+    if (detail) {
+      wires = gp.wireMask();
+    }
+    int bucket = gp.colorBucket(this.radius, this.lightEpoch);
+    int key = this.sprites.keyOf(wires, bucket, gp.isPowerStation());
+    RasterFrame stamp = this.sprites.getStamp(key);
+    if (stamp == null) {
+      if (detail) {
+        stamp = this.paintPiece(wires, bucket, gp.isPowerStation());
+      }
+      else {
+        WorldImage cell = this.spriteOf(gp);
+        stamp = new RasterFrame((int) Math.round(cell.getWidth()),
+            (int) Math.round(cell.getHeight()));
+        stamp.fillRect(0, 0, stamp.width, stamp.height,
+            this.cellColor(bucket, gp.isPowerStation()).getRGB());
+      }
+      this.sprites.putStamp(key, stamp);
+    }
+    return stamp;
+  }
+
+  // Returns the color of a GamePiece drawn as a cell: the color of its wires if it is lit (see
+  // colorBucket), dark grey if not, and red for the power station
+  Color cellColor(int colorBucket, boolean powerStation) {
+    if (powerStation) {
+      return Color.RED;
+    }
+    if (colorBucket == 1) {
+      return Color.YELLOW;
+    }
+    if (colorBucket == 2) {
+      return Color.ORANGE;
+    }
+    if (colorBucket == 3) {
+      return Color.PINK;
+    }
+    return Color.DARK_GRAY;
+  }
+
+  //////////////////Draw controls/////////////////////
+  // Draws the game as the GamePieces in view (or blocks of them, when zoomed out that far), with
+  // the game stats on the right side of the canvas, as of now.
+  public WorldScene makeScene() {
+    return this.sceneAt(System.nanoTime());
+  }
+
+  // Returns the scene of the game at the given time: drawn again only if the frame scheduler
+  // says so, otherwise the scene as it was last drawn, which already shows the game as it is if
+  // nothing has changed since.
+  // EFFECT: remembers the scene, and records the frame in the scheduler
+  WorldScene sceneAt(long now) {
+    if (this.lastScene == null || this.frames.shouldRedraw(now)) {
+      this.applyInput();
+      this.lastScene = this.drawScene();
+      this.frames.frameDrawn(now);
+    }
+    return this.lastScene;
+  }
+
+  // Draws the game as the GamePieces in view (or blocks of them, when zoomed out that far), with
+  // the game stats on the right side of the canvas.
+  WorldScene drawScene() {
+    this.prepareScene();
+    WorldScene w = new WorldScene(bbWidth, bbHeight);
+    if (this.rasterize) {
+      w.placeImageXY(this.rasterScene(), bbWidth / 2, bbHeight / 2);
+    }
+    else if (this.view.showsBlocks()) {
+      this.placeBlocks(w);
+    }
+    else {
+      this.placeTiles(w);
+    }
+    w.placeImageXY(this.writeGameStats(), bbWidth + (whitespace / 2), bbHeight / 2);
+    return w;
+  }
+
+  // EFFECT: places the GamePieces in view on the given scene, each at its center in the board's
+  // layout.
+  // Only the rows and columns in view are looked at, so drawing costs the same on a board of
+  // any size, and each kind of GamePiece is only drawn once (see spriteOf).
+  void placeTiles(WorldScene w) {
+    int firstRow = Math.max(0, this.layout.rowNear(0) - 1);
+    int lastRow = Math.min(this.height - 1, this.layout.rowNear(bbHeight) + 1);
+    int firstCol = Math.max(0, this.layout.colNear(0) - 1);
+    int lastCol = Math.min(this.width - 1, this.layout.colNear(bbWidth) + 1);
+    for (int i = firstRow; i <= lastRow; i++) {
+      for (int j = firstCol; j <= lastCol; j++) {
+        w.placeImageXY(this.spriteOf(this.pieceAt(i * this.width + j)),
+            this.layout.centerX(i, j), this.layout.centerY(i, j));
+      }
+    }
+  }
+
+  // EFFECT: places the blocks of GamePieces in view on the given scene, each as one cell at its
+  // center in the board's layout (which, when zoomed out this far, is a grid of blocks).
+  // A block is drawn from the number of its GamePieces that are lit (see LitDensity), which is
+  // counted as the lighting changes, so no GamePiece is looked at.
+  void placeBlocks(WorldScene w) {
+    int level = Integer.numberOfTrailingZeros(this.view.blockSize);
+    int blockRows = this.density.blocksAcross(this.height, level);
+    int blockCols = this.density.blocksAcross(this.width, level);
+    int firstRow = Math.max(0, this.layout.rowNear(0));
+    int lastRow = Math.min(blockRows - 1, this.layout.rowNear(bbHeight));
+    int firstCol = Math.max(0, this.layout.colNear(0));
+    int lastCol = Math.min(blockCols - 1, this.layout.colNear(bbWidth));
+    for (int i = firstRow; i <= lastRow; i++) {
+      for (int j = firstCol; j <= lastCol; j++) {
+        w.placeImageXY(this.blockImage(level, i, j), this.layout.centerX(i, j),
+            this.layout.centerY(i, j));
+      }
+    }
+  }
+
+  // Returns the image of the block of the given level at the given block row and column: a cell
+  // shaded from dark grey (none of its GamePieces lit) to yellow (all of them lit) in 8 steps,
+  // or red if it holds the power station. Each shade is only drawn once at this size.
+  // EFFECT: remembers the image in blockSprites, if it is new
+  WorldImage blockImage(int level, int blockRow, int blockCol) {
+    int key = this.blockKey(level, blockRow, blockCol);
+    if (this.blockSprites[key] == null) {
+      this.blockSprites[key] = new RectangleImage(this.view.tileWidth, this.view.tileHeight,
+          OutlineMode.SOLID, this.blockColor(key));
+    }
+    return this.blockSprites[key];
+  }
+
+  // Returns the key of the block of the given level at the given block row and column: twice
+  // its shade (0 to 8, by the fraction of its GamePieces that are lit), plus 1 if it holds the
+  // power station
+  int blockKey(int level, int blockRow, int blockCol) {
+    int size = this.density.sizeOf(level, blockRow, blockCol);
+    int shade = (this.density.litIn(level, blockRow, blockCol) * 8 + size / 2) / size;
+    int key = shade * 2;
+    if ((this.powerRow >> level) == blockRow && (this.powerCol >> level) == blockCol) {
+      key = key + 1;
+    }
+    return key;
+  }
+
+  // Returns the color of a block with the given key (see blockKey)
+  Color blockColor(int key) {
+    if (key % 2 == 1) {
+      return Color.RED;
+    }
+    int shade = key / 2;
+    return new Color(64 + 191 * shade / 8, 64 + 191 * shade / 8, 64 - 64 * shade / 8);
+  }
+
+  // Returns the GamePieces in view (or blocks of them) painted as pixels into one frame, as a
+  // single image the size of the board's part of the canvas. This is the raster backend of
+  // makeScene, which paints each GamePiece with a stamp (see stampOf) rather than placing an
+  // image of it on the scene.
+  // The frame is split into bands of rows that are painted at the same time, on the workers of
+  // the common ForkJoinPool, which are all done before this returns; the frame is the same as
+  // when it is painted on one thread (when bandRows is 0).
+  // The image of the frame is the same from one scene to the next, and is only changed where
+  // the frame is shown again (see show in RasterFrame). The bands only paint the pixels of the
+  // frame, each its own rows, and the frame is shown once all of them are done, on this
+  // thread, since the image is not made to be changed by more than one thread at once.
+  // The frame is kept from one scene to the next (see RetainedScene), so only the parts of it
+  // under the GamePieces that changed since are painted and shown again (see repaintTile),
+  // unless the whole frame has to be.
+  // EFFECT: paints the changed parts of the frame, and shows them in its image
+  WorldImage rasterScene() {
+    RetainedScene scene = this.retained;
+    if (scene.frame == null || scene.frame.width != bbWidth || scene.frame.height != bbHeight) {
+      scene.frame = new RasterFrame(bbWidth, bbHeight);
+      scene.markAllDirty();
+    }
+    RasterFrame frame = scene.frame;
+    WorldImage image = frame.toImage();
+    if (!scene.allChanged) {
+      while (!scene.changed.isEmpty()) {
+        this.repaintTile(frame, scene.changed.dequeue());
+      }
+    }
+    else if (this.bandRows > 0 && bbHeight > this.bandRows) {
+      this.prepareStamps();
+      ForkJoinPool.commonPool().invoke(new BandPainter(this, frame, 0, bbHeight, this.bandRows));
+      frame.show(0, 0, bbWidth, bbHeight);
+    }
+    else {
+      this.paintRect(frame, 0, 0, bbWidth, bbHeight);
+      frame.show(0, 0, bbWidth, bbHeight);
+    }
+    scene.markPainted();
+    return image;
+  }
+
+  // EFFECT: paints the part of the given frame under the GamePiece at the given flat index
+  // again (under its whole block, when zoomed out that far), with every GamePiece that overlaps
+  // it, and shows it, if it is in view
+  void repaintTile(RasterFrame frame, int idx) {
+    if (idx >= this.width * this.height) {
+      return;
+    }
+    int row = idx / this.width;
+    int col = idx % this.width;
+    int partWidth = this.view.tileWidth;
+    int partHeight = this.view.tileHeight;
+    if (this.view.showsBlocks()) {
+      int level = Integer.numberOfTrailingZeros(this.view.blockSize);
+      row = row >> level;
+      col = col >> level;
+    }
+    else {
+      RasterFrame stamp = this.stampOf(this.pieceAt(idx));
+      partWidth = stamp.width;
+      partHeight = stamp.height;
+    }
+    int left = this.layout.centerX(row, col) - partWidth / 2;
+    int top = this.layout.centerY(row, col) - partHeight / 2;
+    if (left < frame.width && top < frame.height && left + partWidth > 0
+        && top + partHeight > 0) {
+      this.paintRect(frame, left, top, left + partWidth, top + partHeight);
+      frame.show(left, top, left + partWidth, top + partHeight);
+    }
+  }
+
+  // EFFECT: paints the stamp of every GamePiece in view that has not been painted at this size
+  // yet (see stampOf), or when zoomed out that far, sums the counts of the blocks in view (see
+  // build in LitDensity), so that the bands of a frame only read them while they paint
+  void prepareStamps() {
+    if (this.view.showsBlocks()) {
+      this.density.build(Integer.numberOfTrailingZeros(this.view.blockSize));
+    }
+    else {
+      int firstRow = Math.max(0, this.layout.rowNear(0) - 1);
+      int lastRow = Math.min(this.height - 1, this.layout.rowNear(bbHeight) + 1);
+      int firstCol = Math.max(0, this.layout.colNear(0) - 1);
+      int lastCol = Math.min(this.width - 1, this.layout.colNear(bbWidth) + 1);
+      for (int i = firstRow; i <= lastRow; i++) {
+        for (int j = firstCol; j <= lastCol; j++) {
+          this.stampOf(this.pieceAt(i * this.width + j));
+        }
+      }
+    }
+  }
+
+  // EFFECT: paints the rectangle of the given frame from columns left to right and rows top to
+  // bottom (each inclusive, then exclusive) with the part of the board in view there, over
+  // white, and nothing outside that rectangle. Only the pixels are painted: the caller shows
+  // them in the image of the frame once they are all painted (see show in RasterFrame).
+  // Like makeScene, only the rows and columns of the board in the rectangle are looked at.
+  void paintRect(RasterFrame whole, int left, int top, int right, int bottom) {
+    RasterFrame frame = new RasterFrame(whole, left, top, right, bottom);
+    frame.fillRect(left, top, right - left, bottom - top, Color.WHITE.getRGB());
+    if (this.view.showsBlocks()) {
+      int level = Integer.numberOfTrailingZeros(this.view.blockSize);
+      int firstRow = Math.max(0, this.layout.rowNear(top));
+      int lastRow = Math.min(this.density.blocksAcross(this.height, level) - 1,
+          this.layout.rowNear(bottom));
+      int firstCol = Math.max(0, this.layout.colNear(left));
+      int lastCol = Math.min(this.density.blocksAcross(this.width, level) - 1,
+          this.layout.colNear(right));
+      int tileWidth = this.view.tileWidth;
+      int tileHeight = this.view.tileHeight;
+      int[] palette = new int[this.blockSprites.length];
+      for (int key = 0; key < palette.length; key++) {
+        palette[key] = this.blockColor(key).getRGB();
+      }
+      for (int i = firstRow; i <= lastRow; i++) {
+        for (int j = firstCol; j <= lastCol; j++) {
+          frame.fillRect(this.layout.centerX(i, j) - tileWidth / 2,
+              this.layout.centerY(i, j) - tileHeight / 2, tileWidth, tileHeight,
+              palette[this.blockKey(level, i, j)]);
+        }
+      }
+    }
+    else {
+      int firstRow = Math.max(0, this.layout.rowNear(top) - 1);
+      int lastRow = Math.min(this.height - 1, this.layout.rowNear(bottom) + 1);
+      int firstCol = Math.max(0, this.layout.colNear(left) - 1);
+      int lastCol = Math.min(this.width - 1, this.layout.colNear(right) + 1);
+      for (int i = firstRow; i <= lastRow; i++) {
+        for (int j = firstCol; j <= lastCol; j++) {
+          frame.stamp(this.stampOf(this.pieceAt(i * this.width + j)), this.layout.centerX(i, j),
+              this.layout.centerY(i, j));
+        }
+      }
+    }
+  }
+
+  // EFFECT: makes the retained scene of this board, and marks every GamePiece (and block) to
+  // be drawn again if the GamePieces are now viewed at a different size
+  void prepareScene() {
+    if (this.retained == null) {
+      this.retained = new RetainedScene(this.repaintLimit);
+    }
+    if (this.sprites.resize(this.view.tileWidth, this.view.tileHeight)) {
+      this.retained.markAllDirty();
+      this.blockSprites = new WorldImage[this.blockSprites.length];
+    }
+  }
+
+  // EFFECT: marks the GamePiece at the given flat index as changed since the board was last
+  // drawn (nothing needs marking before the board is first drawn), so the next frame shows it
+  void markDirty(int idx) {
+    this.frames.markChanged();
+    if (this.retained != null) {
+      this.retained.markDirty(idx);
+    }
+  }
+
+  // EFFECT: marks every GamePiece as changed since the board was last drawn, so the next frame
+  // shows them
+  void markAllDirty() {
+    this.frames.markChanged();
+    if (this.retained != null) {
+      this.retained.markAllDirty();
+    }
+  }
+
+  // Produces the parts of the game stats that never change during the game
+  abstract WorldImage drawStatsBackground();
+
+  // Produces the parts of the game stats that change during the game, for the given score,
+  // placed over the given background
+  abstract WorldImage drawStats(WorldImage background, int score);
+
+  // Produces a rectangular world image to be placed on the right side of the canvas and
+  // will contain text that keeps track of the game status throughout the game.
+  // The title and instructions are drawn once, and the time, score and winning notification
+  // are only drawn again when one of them has changed since the last call.
+  // EFFECT: remembers the game stats as drawn
+  WorldImage writeGameStats() {
+    int score = this.score();
+    if (this.statsBackground == null) {
+      // The game stats are drawn over white, which hides any GamePiece that is partly in view:
+      this.statsBackground = new OverlayImage(this.drawStatsBackground(),
+          new RectangleImage(whitespace, bbHeight, OutlineMode.SOLID, Color.WHITE));
+    }
+    if (this.stats == null || this.statsTime != this.time || this.statsScore != score
+        || this.statsWon != this.gameWon || this.statsSeed != this.gen.seed) {
+      this.stats = this.drawStats(this.statsBackground, score);
+      this.statsTime = this.time;
+      this.statsScore = score;
+      this.statsWon = this.gameWon;
+      this.statsSeed = this.gen.seed;
+    }
+    return this.stats;
+  }
+
+  ///////Constructs the game board and other initial properties://///////
+  // Creates a 2D representation of the LightEmAll game board in row-major orientation
+  // Allows coder to access a specific GamePiece, call this.board.get(i).get(j)
+  // Each row draws the random orientations of its GamePieces from its own stream of the
+  // board's GenerationContext.
+  ArrayList<ArrayList<T>> makeBoard() {
+    ArrayList<ArrayList<T>> allRows = new ArrayList<ArrayList<T>>();
+    SplittableRandom[] rowStreams = this.gen.split(height);
+    for (int i = 0; i < height; i++) {
+      ArrayList<T> aRow = new ArrayList<T>();
+      for (int j = 0; j < width; j++) {
+        boolean isPowerStation = j == this.powerCol && i == this.powerRow;
+        aRow.add(this.newPiece(j, i, isPowerStation, rowStreams[i].nextInt(4)));
+      }
+      allRows.add(aRow);
+    }
+    return allRows;
+  }
+
+  // Generates an ArrayList of all nodes in the game
+  // by iterating through the board, taking one GamePiece at a time, and
+  // adding it to a new flattened list
+  ArrayList<T> getNodes() {
+    ArrayList<T> nodeList = new ArrayList<T>();
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        nodeList.add(this.board.get(i).get(j));
+      }
+    }
+    return nodeList;
+  }
+
+  ///////////////KRUSKALS ALGORITHM//////////////////
+  // Generates an EdgeList of all weighted edges possible to connect the board, by locating
+  // each GamePiece's neighbors on its forward sides only (see Topology.forwardSides), because
+  // if we generated edges with all neighbors, there would be repeat edges.
+  // The weight of each edge is drawn at random below the given maximum weight of the side it
+  // is on, which is how a game is given a bias toward wires in one direction.
+  // The edge is stored by the flat indices of the two GamePieces, so no Edge object is made
+  // for it.
+  EdgeList makeEdgeList(int[] maxWeights) {
+    int[] forward = this.topology.forwardSides();
+    EdgeList edgeList = new EdgeList(forward.length * width * height);
+    SplittableRandom[] rowStreams = this.gen.split(height);
+    for (int i = 0; i < height; i++) {
+      SplittableRandom r = rowStreams[i];
+      for (int j = 0; j < width; j++) {
+        int curIdx = i * width + j;
+        for (int k = 0; k < forward.length; k++) {
+          int neighborIdx = this.neighborOf(curIdx, forward[k]);
+          // so long as curGP's neighbor on that side exists...
+          if (neighborIdx != -1) {
+            edgeList.add(curIdx, neighborIdx, r.nextInt(maxWeights[forward[k]]));
+          }
+        }
+      }
+    }
+    return edgeList;
+  }
+
+  // Performs Kruskal's algorithm to determine the minimum spanning tree of the solved game.
+  // Representatives are kept in a UnionFind keyed by each GamePiece's flat index, so each
+  // find and union is close to constant time, and the edges are visited in order of weight
+  // with a cursor into their radix sorted order.
+  EdgeList createMST(EdgeList edges) {
+    //Initialize the representatives:
+    UnionFind reps = new UnionFind(this.width * this.height);
+    //Initialize the workList, which is the indices of the edges from smallest weight
+    //to largest weight:
+    int[] edgeOrderSmToLg = edges.orderByWeight();
+    //Initialize the min spanning tree:
+    int treeSize = Math.max(0, this.width * this.height - 1);
+    EdgeList mst = new EdgeList(treeSize);
+    for (int i = 0; i < edges.size && mst.size < treeSize; i++) {
+      int curEdge = edgeOrderSmToLg[i];
+      //If this edge does not create a cycle in the mst:
+      if (reps.union(edges.from[curEdge], edges.to[curEdge])) {
+        //add it to the tree (the trees have been unioned):
+        mst.add(edges.from[curEdge], edges.to[curEdge], edges.weight[curEdge]);
+      }
+    }
+    return mst;
+  }
+  ////////////End Kruskal's Algorithm////////////////////
+
+  // Methods that finish up the initiation of the game board:
+
+  // Calculates the finite radius of effectiveness that is given off by
+  // the power station from the diameter of the solved puzzle (the length of the longest path
+  // in the minimum spanning tree), which is measured once by the TreeMetrics of the board,
+  // so this takes constant time.
+  // This method is called once at the initiation of the game, but before the pieces
+  // are randomly rotated (so, as a solved puzzle)
+  int calculateRadius() {
+    int diameter = this.metrics.diameter;
+    int rad = (diameter / 2) + 1;
+    return rad;
+  }
+
+  // EFFECT: deals a new game on the board just generated (its GamePieces and its minimum
+  // spanning tree): connects the wires of the solved puzzle, measures the radius of the power
+  // station from it, then rotates every GamePiece at random and resets the timer, whose clock
+  // starts over. The board is left for refresh() to light once it has been dealt.
+  void dealGame() {
+    this.connectTheWires();
+    this.metrics = new TreeMetrics(this.mst, this.nodes.size());
+    this.radius = this.calculateRadius();
+    this.randomRotateAll();
+    this.time = 0;
+    this.frames.restartClock();
+    this.gameWon = false;
+  }
+
+  // Traverses through the min spanning tree list of edges that represent the solved
+  // game and 'gives wires' to each GamePiece according to their connected neighbors.
+  // EFFECT: gives the two GamePieces of each edge a wire on the sides that face each other,
+  // and counts the wires that connect GamePieces (see wireCount)
+  void connectTheWires() {
+    for (int i = 0; i < this.mst.size; i++) {
+      int side = this.sideToward(this.mst.from[i], this.mst.to[i]);
+      this.pieceAt(this.mst.from[i]).setWire(side, true);
+      this.pieceAt(this.mst.to[i]).setWire(this.opposite(side), true);
+    }
+    this.wireCount = this.connectedWires();
+    this.markAllDirty();
+  }
+
+  // EFFECT: traverses through the total list of nodes of GamePieces and rotates
+  // them a random number of times to finally prepare the board for game play, and counts the
+  // wires that still connect GamePieces (see wireCount):
+  void randomRotateAll() {
+    for (int i = 0; i < this.nodes.size(); i++) {
+      this.nodes.get(i).rotateRandom();
+    }
+    this.wireCount = this.connectedWires();
+    this.markAllDirty();
+  }
+  //////////////////////////////////////////////////
+
+  // Keeps track of the user's "score" in terms of now many square on the
+  // game grid are lit. This integer is also subtracted from the total number of
+  // nodes in order to keep track of how many are remaining (the smaller the better).
+  // The count is kept up to date by every change of lighting (see countLight), so this takes
+  // constant time.
+  int score() {
+    return this.litCount;
+  }
+
+  // Counts the lit GamePieces by looking at every one of them, which is what the count kept
+  // by score() must always match (see lightingMatchesRefresh)
+  int keepScore() {
+    int score = 0;
+    for (int i = 0; i < this.nodes.size(); i++) {
+      if (this.isLit(this.nodes.get(i))) {
+        score = score + 1;
+      }
+    }
+    return score;
+  }
+
+  // EFFECT: updates the count of lit GamePieces, on the board and in each block of it (see
+  // LitDensity), for the GamePiece at the given flat index that was lit (or not) before a
+  // change of lighting, and is lit (or not) after it
+  void countLight(int idx, boolean wasLit, boolean isLit) {
+    if (!wasLit && isLit) {
+      this.litCount = this.litCount + 1;
+      this.density.change(idx, 1);
+    }
+    if (wasLit && !isLit) {
+      this.litCount = this.litCount - 1;
+      this.density.change(idx, -1);
+    }
+  }
+
+  // EFFECT: after a change of lighting, wins the game if every GamePiece is now lit and the
+  // game has not already been won (see onWin)
+  void checkWin() {
+    if (!this.gameWon && this.litCount == this.width * this.height) {
+      this.onWin();
+    }
+  }
+
+  // EFFECT: the event of the game being won, the moment the last GamePiece is lit: the game
+  // is won, and the timer pauses until the user restarts the game
+  void onWin() {
+    this.gameWon = true;
+  }
+
+  // Counts the number of seconds a user has been playing a game,
+  // to be displayed in the game stats secion of the canvas.
+  // When the game has been won, the timer pauses until the user restarts the game.
+  // at which time the timer is reset:
+  public void onTick() {
+    this.tickAt(System.nanoTime());
+  }
+
+  // EFFECT: applies the input of this frame, then advances the timer by the ticks of the clock
+  // due at the given time (see clockTicks in the FrameScheduler class), unless the game has
+  // been won, and records the change so the next frame shows it
+  void tickAt(long now) {
+    // The input of this frame is applied first, since winning the game pauses the timer:
+    this.applyInput();
+    int ticks = this.frames.clockTicks(now);
+    if (!this.gameWon && ticks > 0) {
+      this.time = this.time + ticks;
+      this.frames.markChanged();
+    }
+  }
+
+  ////////////////// MOVING THE POWER STATION/////////////////
+  // Returns the side that the given key moves the power station toward, or -1 if the key
+  // does not move the power station
+  int sideOfKey(String key) {
+    for (int side = 0; side < this.moveKeys.length; side++) {
+      if (key.equals(this.moveKeys[side])) {
+        return side;
+      }
+    }
+    return -1;
+  }
+
+  // EFFECT: passes the power station on to its neighbor on the given side, only if they are
+  // also wire neighbors, in order to keep the power station along the power lines.
+  // (If there is no such neighbor, the move is ignored, and nothing happens.)
+  // The board is not re-lit here (see relightAfterStationMove).
+  void movePowerStation(int side) {
+    int powerIdx = this.powerRow * this.width + this.powerCol;
+    if (this.wiredOn(powerIdx, side)) {
+      int newIdx = this.neighborOf(powerIdx, side);
+      this.pieceAt(powerIdx).givePowerStationTo(this.pieceAt(newIdx));
+      this.markDirty(powerIdx);
+      this.markDirty(newIdx);
+      this.powerCol = newIdx % this.width;
+      this.powerRow = newIdx / this.width;
+    }
+  }
+  //////////////////////////////////////////////////
+
+  ////////////////// INPUT QUEUE /////////////////
+  // On a canvas, many clicks and key presses can come between two frames. Rotations and moves
+  // of the power station are queued, and applied in order once per frame (see tickAt and
+  // sceneAt); input that is not paced by frames is applied at once.
+  // Each change is re-lit on its own, incrementally (see rotateTile and
+  // relightAfterStationMove), unless the input of a frame is so large a part of the board
+  // (see refreshFraction) that re-lighting the whole board once costs less. Then the changes
+  // are applied without re-lighting, and re-lit by one refresh.
+  // The game comes out the same as if each were re-lit on its own: the only thing an un-lit
+  // board could get wrong is whether the game was won in between, and the game can only be won
+  // once there are at least as many connected wires as GamePieces minus one. The connected
+  // wires are counted as each GamePiece turns (see wireCount), so a change that could bring
+  // them that high is re-lit on its own, once the changes before it have been.
+
+  // EFFECT: queues the rotation of the GamePiece at the given flat index
+  void queueRotation(int idx) {
+    this.input.enqueue(idx);
+    this.frames.markChanged();
+    if (!this.frames.paced()) {
+      this.applyInput();
+    }
+  }
+
+  // EFFECT: queues the move of the power station toward the given side
+  void queueStationMove(int side) {
+    this.input.enqueue(-1 - side);
+    this.frames.markChanged();
+    if (!this.frames.paced()) {
+      this.applyInput();
+    }
+  }
+
+  // EFFECT: applies the queued input to the board in order, re-lighting the board after each
+  // change, or once for many changes (see above). Moves of the power station are ignored once
+  // the game has been won, as they are by onKeyEvent.
+  void applyInput() {
+    int goal = this.width * this.height - 1;
+    boolean defer = this.input.size * this.refreshFraction > this.width * this.height;
+    // whether changes have been applied since the board was last re-lit
+    boolean unlit = false;
+    while (!this.input.isEmpty()) {
+      int event = this.input.dequeue();
+      int oldPowerIdx = this.powerRow * this.width + this.powerCol;
+      if (defer && this.wireCount + this.topology.sides() < goal) {
+        // This change cannot win the game, so it is applied without re-lighting the board:
+        if (event >= 0) {
+          this.turnTile(event, this.wiredNeighbors(event));
+          unlit = true;
+        }
+        else if (!this.gameWon) {
+          this.movePowerStation(-1 - event);
+          unlit = unlit || oldPowerIdx != this.powerRow * this.width + this.powerCol;
+        }
+      }
+      else {
+        if (unlit) {
+          this.refresh();
+          unlit = false;
+        }
+        if (event >= 0) {
+          this.rotateTile(event);
+        }
+        else if (!this.gameWon) {
+          this.movePowerStation(-1 - event);
+          int newPowerIdx = this.powerRow * this.width + this.powerCol;
+          if (oldPowerIdx != newPowerIdx) {
+            this.relightAfterStationMove(oldPowerIdx, newPowerIdx);
+          }
+        }
+      }
+    }
+    if (unlit) {
+      this.refresh();
+    }
+  }
+
+  // Returns the number of wires on the board that connect two GamePieces
+  int connectedWires() {
+    int ends = 0;
+    for (int idx = 0; idx < this.width * this.height; idx++) {
+      for (int side = 0; side < this.topology.sides(); side++) {
+        if (this.wiredOn(idx, side)) {
+          ends = ends + 1;
+        }
+      }
+    }
+    return ends / 2;
+  }
+  //////////////////////////////////////////////////
+
+  ////////////////// VIEWPORT /////////////////
+  // EFFECT: shows the board at the size that fits it on the canvas (or as close as the view
+  // allows), from its top-left corner
+  void fitView() {
+    this.view = this.makeViewport();
+    this.view.limitBlocks(this.width, this.height);
+    this.updateView();
+  }
+
+  // EFFECT: keeps the view on the board, and lays the board out as it is now viewed, which
+  // moves every GamePiece on the canvas, so they are all drawn again
+  void updateView() {
+    this.layout = this.viewLayout();
+    this.view.clamp(this.layout.pixelWidth(), this.layout.pixelHeight());
+    this.layout = this.viewLayout();
+    this.markAllDirty();
+  }
+
+  // Returns the layout of the board as it is now viewed: this game's layout (see makeLayout),
+  // or when zoomed out past single GamePieces, a grid of blocks of either shape of GamePiece
+  BoardLayout viewLayout() {
+    if (this.view.showsBlocks()) {
+      int blockSize = this.view.blockSize;
+      return new SquareLayout((this.width + blockSize - 1) / blockSize,
+          (this.height + blockSize - 1) / blockSize, this.view.tileWidth, this.view.tileHeight,
+          -this.view.left, -this.view.top);
+    }
+    return this.makeLayout();
+  }
+
+  // Returns whether the given key scrolls or zooms the view, or changes how it is drawn: "i",
+  // "j", "k" and "l" scroll up, left, down and right by a quarter of the canvas, "+" (or "=")
+  // zooms in, "-" zooms out, and "b" switches between painting the board as pixels and
+  // composing it of the images of its GamePieces (see rasterize).
+  // EFFECT: scrolls or zooms the view, or switches how it is drawn, for the key
+  boolean moveView(String key) {
+    int stepX = this.view.canvasWidth / 4;
+    int stepY = this.view.canvasHeight / 4;
+    if (key.equals("i")) {
+      this.view.pan(0, -stepY);
+    }
+    else if (key.equals("j")) {
+      this.view.pan(-stepX, 0);
+    }
+    else if (key.equals("k")) {
+      this.view.pan(0, stepY);
+    }
+    else if (key.equals("l")) {
+      this.view.pan(stepX, 0);
+    }
+    else if (key.equals("+") || key.equals("=")) {
+      this.view.zoom(true);
+    }
+    else if (key.equals("-")) {
+      this.view.zoom(false);
+    }
+    else if (key.equals("b")) {
+      this.rasterize = !this.rasterize;
+    }
+    else {
+      return false;
+    }
+    this.updateView();
+    return true;
+  }
+  //////////////////////////////////////////////////
+
+  ////////////////////MOUSE CONTROLS////////////////
+  // Controls the clicking functionality of the game
+  // when a GamePiece is clicked, the action of rotating the piece is delegated
+  // to the GamePiece class (with the rest of the input of this frame, see applyInput), and
+  // only the part of the board affected by the rotation is re-lit to reflect any new
+  // connections or any disconnected pieces being un-lit.
+  // The clicked GamePiece is found directly from the point by the board's layout, as it is
+  // viewed, without looking at any other GamePiece. Clicks off the board, on the game stats,
+  // or on a block of GamePieces when zoomed out that far, are ignored.
+  public void onMouseClicked(Posn pos) {
+    if (this.view.contains(pos.x, pos.y) && !this.view.showsBlocks()) {
+      int idx = this.layout.tileAt(pos);
+      if (idx != -1) {
+        this.queueRotation(idx);
+      }
+    }
+  }
+  /////////////////////////////////////////////////////
+
+  ////////////////BREADTH-FIRST SEARCH////////////////
+  // Each breadth-first search below keeps its workList as a TileQueue of flat indices
+  // (row * width + col), and marks a GamePiece as seen with a stamp (see nextStamp) as soon as
+  // it is added to the workList, rather than once it is removed. That way every GamePiece is
+  // added to the workList at most once, and each search takes time linear in the size of the
+  // board. Both the workList (searchList) and the marks are kept from one search to the next,
+  // so a search allocates nothing once the board has been searched once.
+
+  // Returns the workList for a breadth-first search over the whole board, emptied
+  // EFFECT: creates it the first time it is asked for
+  TileQueue searchList() {
+    if (this.searchList == null) {
+      this.searchList = new TileQueue(this.width * this.height);
+    }
+    this.searchList.clear();
+    return this.searchList;
+  }
+
+  // Returns the GamePiece at the given flat index on the board
+  T pieceAt(int idx) {
+    return this.board.get(idx / this.width).get(idx % this.width);
+  }
+
+  // Returns the flat index of the neighbor on the given side of the GamePiece at the given flat
+  // index, or -1 if that side is on the edge of the board.
+  // Neighbors are found by the offsets of the board's Topology rather than kept in a list on
+  // each GamePiece.
+  int neighborOf(int idx, int side) {
+    return this.topology.neighbor(idx, side, this.width, this.height);
+  }
+
+  // Returns the side of a GamePiece's neighbor that faces the given side of the GamePiece
+  int opposite(int side) {
+    return this.topology.opposite(side);
+  }
+
+  // Returns the side of the GamePiece at flat index from that faces its neighbor at flat
+  // index to
+  int sideToward(int from, int to) {
+    int side = this.topology.sideToward(from, to, this.width, this.height);
+    if (side == -1) {
+      throw new IllegalArgumentException("These GamePieces are not neighbors.");
+    }
+    return side;
+  }
+
+  // Returns whether the GamePiece at the given flat index is connected by wire to its neighbor
+  // on the given side: both must have a wire on the sides that face each other
+  boolean wiredOn(int idx, int side) {
+    int neighborIdx = this.neighborOf(idx, side);
+    return neighborIdx != -1 && this.pieceAt(idx).hasWire(side)
+        && this.pieceAt(neighborIdx).hasWire(this.opposite(side));
+  }
+
+  // EFFECT: Uses breadth-first technique to modify the lit fields of the GamePieces
+  // This method starts at the power station and then spans out across the game board passing
+  // light across wire-connected pieces.
+  // A convenient side effect of this is visiting specific GamePieces in order of distance
+  // from the power station itself, so this method also has the effect of modifying GamePiece's
+  // powerVal fields, which is a number representing its distance from the power station.
+  // The GamePiece is only lit if it's powerVal is within the radius of light extension.
+  // The same distances are recorded in powerDist, for the incremental lighting below, and the
+  // lit GamePieces are counted from zero (on the board and in each block of it), since this is
+  // called in a new lighting epoch. The distances of the last epoch are not cleared: they are
+  // stale in the new one (see distOf), so a GamePiece that is not reached costs nothing.
+  void lightEmUp() {
+    int sides = this.topology.sides();
+    int seen = this.nextStamp();
+    TileQueue workList = this.searchList();
+    int powerIdx = this.powerRow * this.width + this.powerCol;
+    if (this.powerDist == null || this.powerDist.length != this.width * this.height) {
+      this.powerDist = new int[this.width * this.height];
+      this.distEpoch = new int[this.width * this.height];
+      Arrays.fill(this.distEpoch, this.lightEpoch - 1);
+    }
+    this.pieceAt(powerIdx).lightUp(this.lightEpoch, 0, this.radius);
+    this.litCount = 0;
+    if (this.density == null || this.density.width != this.width
+        || this.density.height != this.height) {
+      this.density = new LitDensity(this.width, this.height);
+    }
+    else {
+      this.density.clear();
+    }
+    this.countLight(powerIdx, false, this.isLit(this.pieceAt(powerIdx)));
+    this.setDist(powerIdx, 0);
+    this.stamps[powerIdx] = seen;
+    workList.enqueue(powerIdx);
+    while (!workList.isEmpty()) {
+      int curIdx = workList.dequeue();
+      for (int side = 0; side < sides; side++) {
+        int neighborIdx = this.neighborOf(curIdx, side);
+        if (neighborIdx != -1 && this.stamps[neighborIdx] != seen
+            && this.wiredOn(curIdx, side)) {
+          this.stamps[neighborIdx] = seen;
+          // Each GamePiece's powerVal is one more than that of its neighbor that is
+          // closest to the power station, and it is only lit if it falls within the radius
+          // of the power station
+          this.setDist(neighborIdx, this.distOf(curIdx) + 1);
+          this.pieceAt(neighborIdx).lightUp(this.lightEpoch, this.distOf(neighborIdx),
+              this.radius);
+          this.countLight(neighborIdx, false, this.isLit(this.pieceAt(neighborIdx)));
+          workList.enqueue(neighborIdx);
+        }
+      }
+    }
+  }
+  ////////////////End Breadth-First Search////////////////
+
+  ////////////////INCREMENTAL LIGHTING////////////////
+  // Rotating one GamePiece only changes the wires between that GamePiece and its neighbors,
+  // and moving the power station only moves it one wire over, so rather than re-lighting the
+  // whole board with refresh(), the methods below only update the GamePieces whose distance
+  // from the power station could have changed. Both are made of the same two steps:
+  // - Losing distances: every GamePiece whose shortest path to the power station went through
+  //   a disconnected wire (or through the old power station), and that has no other neighbor
+  //   just as close to the power station, loses its distance. Only those GamePieces are given
+  //   new distances, from their neighbors that kept theirs.
+  // - Shortening distances: distances are shortened outward from a newly connected wire (or
+  //   from the new power station), only for as long as they keep getting shorter.
+  // The distance of each GamePiece from the power station is kept in powerDist, by flat index,
+  // where Integer.MAX_VALUE means that the GamePiece is not connected to the power station
+  // (see distOf). Every full refresh() sets the distances it reaches again, in a new epoch.
+
+  // EFFECT: rotates the GamePiece at the given flat index clockwise, and re-lights only the
+  // part of the board affected by the rotation.
+  // If verifyLighting is true, the result is checked against a full refresh.
+  void rotateTile(int idx) {
+    int[] before = this.wiredNeighbors(idx);
+    int[] after = this.turnTile(idx, before);
+    if (!this.hasPowerDist()) {
+      // The board has never been fully lit, so there is nothing to update incrementally:
+      this.refresh();
+      return;
+    }
+    this.relightAfterRotation(idx, before, after);
+    this.checkLighting();
+  }
+
+  // Returns the flat indices of the neighbors that the GamePiece at the given flat index is
+  // connected to by wire once it has turned, given those it was connected to before.
+  // EFFECT: rotates the GamePiece clockwise without re-lighting the board, and counts the
+  // wires it connected and disconnected in wireCount
+  int[] turnTile(int idx, int[] before) {
+    this.markDirty(idx);
+    this.pieceAt(idx).rotateClockwise();
+    int[] after = this.wiredNeighbors(idx);
+    this.wireCount = this.wireCount + after.length - before.length;
+    return after;
+  }
+
+  // EFFECT: re-lights only the part of the board affected by the power station having moved
+  // from the GamePiece at flat index oldIdx to its wire neighbor at flat index newIdx.
+  // The power station must already have been given to the new GamePiece (powerRow and
+  // powerCol are those of newIdx).
+  // If verifyLighting is true, the result is checked against a full refresh.
+  void relightAfterStationMove(int oldIdx, int newIdx) {
+    if (!this.hasPowerDist() || this.distOf(oldIdx) != 0 || this.distOf(newIdx) != 1) {
+      // The last lighting is not of this move, so there is nothing to update incrementally:
+      this.refresh();
+      return;
+    }
+    TileQueue changed = new TileQueue(8);
+    // STEP 1: the new power station, and every GamePiece that is closer to it than to the old
+    // one, becomes one step closer to the power station:
+    this.setDist(newIdx, 0);
+    changed.enqueue(newIdx);
+    TileQueue workList = new TileQueue(8);
+    workList.enqueue(newIdx);
+    this.shortenOutward(workList, changed);
+    // STEP 2: the old power station is no longer a source of power, so it loses its distance,
+    // along with every GamePiece that was only this close to the power station through it:
+    TileQueue seeds = new TileQueue(1);
+    seeds.enqueue(oldIdx);
+    this.loseDistances(seeds, -1, new int[0], changed);
+    this.relightChanged(changed);
+    this.checkLighting();
+  }
+
+  // Returns whether powerDist holds a distance for every GamePiece on the board
+  boolean hasPowerDist() {
+    return this.powerDist != null && this.powerDist.length == this.width * this.height;
+  }
+
+  // Returns the distance of the GamePiece at the given flat index from the power station, or
+  // Integer.MAX_VALUE if it is not connected to the power station: a distance set in an earlier
+  // lighting epoch was not reached by the last full refresh, so it counts as not connected
+  int distOf(int idx) {
+    if (this.distEpoch[idx] != this.lightEpoch) {
+      return Integer.MAX_VALUE;
+    }
+    return this.powerDist[idx];
+  }
+
+  // EFFECT: sets the distance of the GamePiece at the given flat index from the power station,
+  // in the current lighting epoch
+  void setDist(int idx, int dist) {
+    this.powerDist[idx] = dist;
+    this.distEpoch[idx] = this.lightEpoch;
+  }
+
+  // Returns the flat indices of the neighbors of the GamePiece at the given flat index that it
+  // is connected to by wire
+  int[] wiredNeighbors(int idx) {
+    int[] wired = new int[this.topology.sides()];
+    int count = 0;
+    for (int side = 0; side < wired.length; side++) {
+      if (this.wiredOn(idx, side)) {
+        wired[count] = this.neighborOf(idx, side);
+        count = count + 1;
+      }
+    }
+    return Arrays.copyOf(wired, count);
+  }
+
+  // Returns whether the given array contains the given flat index
+  boolean containsIdx(int[] arr, int idx) {
+    for (int i = 0; i < arr.length; i++) {
+      if (arr[i] == idx) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Returns a new stamp for marking GamePieces during one update or search: a GamePiece is
+  // marked with the stamp when its entry in stamps equals the stamp, so a new update never has
+  // to clear the marks of the last one. Each update is given two consecutive stamps (see
+  // loseDistances).
+  // EFFECT: advances stampEpoch, and allocates the stamps if the board has changed size
+  int nextStamp() {
+    if (this.stamps == null || this.stamps.length != this.width * this.height
+        || this.stampEpoch > Integer.MAX_VALUE - 2) {
+      this.stamps = new int[this.width * this.height];
+      this.stampEpoch = 0;
+    }
+    this.stampEpoch = this.stampEpoch + 2;
+    return this.stampEpoch;
+  }
+
+  // EFFECT: modifies powerDist, and the powerVal and lit fields of the affected GamePieces,
+  // to reflect the GamePiece at the given flat index having been rotated from being wired to
+  // the neighbors in before, to being wired to the neighbors in after.
+  // While losing distances, the board is treated as if only the disconnected wires had
+  // changed, which is why the wires in after that are not in before are ignored until the
+  // distances are shortened.
+  void relightAfterRotation(int idx, int[] before, int[] after) {
+    int unreached = Integer.MAX_VALUE;
+    int[] added = new int[after.length];
+    int addedCount = 0;
+    for (int i = 0; i < after.length; i++) {
+      if (!this.containsIdx(before, after[i])) {
+        added[addedCount] = after[i];
+        addedCount = addedCount + 1;
+      }
+    }
+    added = Arrays.copyOf(added, addedCount);
+    TileQueue changed = new TileQueue(8);
+    // STEP 1: The GamePieces whose closest path to the power station was across a disconnected
+    // wire. The rotated GamePiece is one step closer than its neighbors that depend on it, so
+    // it is added first, which keeps the seeds in order of distance:
+    TileQueue seeds = new TileQueue(8);
+    boolean idxLost = false;
+    for (int i = 0; i < before.length; i++) {
+      int y = before[i];
+      if (!this.containsIdx(after, y) && this.distOf(y) != unreached
+          && this.distOf(idx) == this.distOf(y) + 1) {
+        idxLost = true;
+      }
+    }
+    if (idxLost) {
+      seeds.enqueue(idx);
+    }
+    for (int i = 0; i < before.length; i++) {
+      int y = before[i];
+      if (!this.containsIdx(after, y) && this.distOf(idx) != unreached
+          && this.distOf(y) == this.distOf(idx) + 1) {
+        seeds.enqueue(y);
+      }
+    }
+    this.loseDistances(seeds, idx, added, changed);
+    // STEP 2: Shortens distances outward from each newly connected wire:
+    TileQueue workList = new TileQueue(8);
+    for (int i = 0; i < added.length; i++) {
+      int side = this.sideToward(idx, added[i]);
+      this.shortenAcross(idx, side, workList, changed);
+      this.shortenAcross(added[i], this.opposite(side), workList, changed);
+    }
+    this.shortenOutward(workList, changed);
+    this.relightChanged(changed);
+  }
+
+  // EFFECT: removes the distance of each of the given seeds that is no longer supported by a
+  // neighbor one step closer to the power station, and of every GamePiece that is only
+  // supported through those, then gives each of them its new distance (if it still has one),
+  // and adds them to the given list of changed GamePieces.
+  // The seeds must be in order of distance. The wires from the GamePiece at flat index idx to
+  // the neighbors in added are ignored (see relightAfterRotation).
+  // A GamePiece is marked with stamp queued once it is added to the workList, and with stamp
+  // lost once it is known to have lost its distance.
+  void loseDistances(TileQueue seeds, int idx, int[] added, TileQueue changed) {
+    int unreached = Integer.MAX_VALUE;
+    int sides = this.topology.sides();
+    int queued = this.nextStamp();
+    int lost = queued + 1;
+    TileQueue workList = new TileQueue(8);
+    while (!seeds.isEmpty()) {
+      int v = seeds.dequeue();
+      this.stamps[v] = queued;
+      workList.enqueue(v);
+    }
+    // The workList stays in order of distance, so every neighbor one step closer than a
+    // GamePiece is known to be lost or not by the time that GamePiece is removed from it:
+    TileQueue lostList = new TileQueue(8);
+    while (!workList.isEmpty()) {
+      int v = workList.dequeue();
+      if (!this.stillSupported(v, idx, added, lost)) {
+        this.stamps[v] = lost;
+        lostList.enqueue(v);
+        for (int side = 0; side < sides; side++) {
+          int w = this.neighborOf(v, side);
+          if (w != -1 && this.stamps[w] != queued && this.stamps[w] != lost
+              && this.distOf(w) == this.distOf(v) + 1
+              && this.wiredBeforeAdding(v, side, idx, added)) {
+            this.stamps[w] = queued;
+            workList.enqueue(w);
+          }
+        }
+      }
+    }
+    // Every lost GamePiece is given the distance through its closest neighbor that kept its
+    // distance, if it has one:
+    int[] lostTiles = lostList.unwrap();
+    for (int i = 0; i < lostTiles.length; i++) {
+      this.setDist(lostTiles[i], unreached);
+    }
+    int[] candidates = new int[lostTiles.length];
+    for (int i = 0; i < lostTiles.length; i++) {
+      int v = lostTiles[i];
+      changed.enqueue(v);
+      candidates[i] = unreached;
+      for (int side = 0; side < sides; side++) {
+        int u = this.neighborOf(v, side);
+        if (u != -1 && this.distOf(u) != unreached
+            && this.wiredBeforeAdding(v, side, idx, added)) {
+          candidates[i] = Math.min(candidates[i], this.distOf(u) + 1);
+        }
+      }
+    }
+    // then the lost GamePieces pass their new distances on to each other, in order of distance,
+    // by merging the candidates (in sorted order) with a breadth-first workList:
+    int[] order = new ArrayUtils().radixSortByWeight(candidates, candidates.length);
+    int next = 0;
+    while ((next < order.length && candidates[order[next]] != unreached)
+        || !workList.isEmpty()) {
+      int v;
+      if (workList.isEmpty() || (next < order.length && candidates[order[next]] != unreached
+          && candidates[order[next]] <= this.distOf(workList.peek()))) {
+        v = lostTiles[order[next]];
+        int candidate = candidates[order[next]];
+        next = next + 1;
+        if (candidate >= this.distOf(v)) {
+          continue;
+        }
+        this.setDist(v, candidate);
+      }
+      else {
+        v = workList.dequeue();
+      }
+      for (int side = 0; side < sides; side++) {
+        int w = this.neighborOf(v, side);
+        if (w != -1 && this.stamps[w] == lost && this.distOf(v) + 1 < this.distOf(w)
+            && this.wiredBeforeAdding(v, side, idx, added)) {
+          this.setDist(w, this.distOf(v) + 1);
+          workList.enqueue(w);
+        }
+      }
+    }
+  }
+
+  // Returns whether the GamePiece at flat index v is the power station, or still has a
+  // neighbor that is one step closer to the power station than it, that has not lost its
+  // distance (is not marked with the given stamp), and that it is still connected to by wire
+  boolean stillSupported(int v, int idx, int[] added, int lost) {
+    if (v == this.powerRow * this.width + this.powerCol) {
+      return true;
+    }
+    for (int side = 0; side < this.topology.sides(); side++) {
+      int u = this.neighborOf(v, side);
+      if (u != -1 && this.stamps[u] != lost && this.distOf(u) == this.distOf(v) - 1
+          && this.wiredBeforeAdding(v, side, idx, added)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Returns whether the GamePiece at flat index a is connected by wire to its neighbor on the
+  // given side, ignoring the wires newly connected by rotating the GamePiece at flat index idx
+  // (the wires from idx to the neighbors in added)
+  boolean wiredBeforeAdding(int a, int side, int idx, int[] added) {
+    int b = this.neighborOf(a, side);
+    if ((a == idx && this.containsIdx(added, b)) || (b == idx && this.containsIdx(added, a))) {
+      return false;
+    }
+    return this.wiredOn(a, side);
+  }
+
+  // EFFECT: shortens distances outward from every GamePiece in the given workList, until
+  // they stop getting shorter, adding each GamePiece whose distance is shortened to the given
+  // list of changed GamePieces
+  void shortenOutward(TileQueue workList, TileQueue changed) {
+    int sides = this.topology.sides();
+    while (!workList.isEmpty()) {
+      int v = workList.dequeue();
+      for (int side = 0; side < sides; side++) {
+        this.shortenAcross(v, side, workList, changed);
+      }
+    }
+  }
+
+  // EFFECT: if the neighbor on the given side of the GamePiece at flat index from is connected
+  // to it by wire, and is more than one step farther from the power station than it, makes it
+  // one step farther, and adds it to the given workList and list of changed GamePieces
+  void shortenAcross(int from, int side, TileQueue workList, TileQueue changed) {
+    int to = this.neighborOf(from, side);
+    if (to != -1 && this.distOf(from) != Integer.MAX_VALUE
+        && this.distOf(from) + 1 < this.distOf(to)
+        && this.wiredOn(from, side)) {
+      this.setDist(to, this.distOf(from) + 1);
+      workList.enqueue(to);
+      changed.enqueue(to);
+    }
+  }
+
+  // EFFECT: lights or un-lights each of the given changed GamePieces to match its distance in
+  // powerDist, marks it to be drawn again, and counts the change in lit GamePieces. A
+  // GamePiece's lit field only changes if its distance crossed the radius.
+  void relightChanged(TileQueue changed) {
+    while (!changed.isEmpty()) {
+      int v = changed.dequeue();
+      T curGP = this.pieceAt(v);
+      boolean wasLit = this.isLit(curGP);
+      this.markDirty(v);
+      if (this.distOf(v) == Integer.MAX_VALUE) {
+        curGP.loseLight();
+      }
+      else {
+        curGP.lightUp(this.lightEpoch, this.distOf(v), this.radius);
+      }
+      this.countLight(v, wasLit, this.isLit(curGP));
+    }
+    this.checkWin();
+  }
+
+  // EFFECT: if verifyLighting is true, fully refreshes the board, and throws an exception if
+  // the incremental lighting did not match
+  void checkLighting() {
+    if (this.verifyLighting && !this.lightingMatchesRefresh()) {
+      throw new IllegalStateException("Incremental lighting did not match a full refresh.");
+    }
+  }
+
+  // Returns whether the current lighting of the board, and the count of lit GamePieces, match
+  // those that a full refresh produces. This is the verification mode of the incremental
+  // lighting above.
+  // EFFECT: fully refreshes the board
+  boolean lightingMatchesRefresh() {
+    int size = this.width * this.height;
+    int[] powerVals = new int[size];
+    boolean[] lits = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      powerVals[i] = this.pieceAt(i).powerValIn(this.lightEpoch);
+      lits[i] = this.isLit(this.pieceAt(i));
+    }
+    int litCount = this.litCount;
+    this.refresh();
+    if (litCount != this.litCount) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (powerVals[i] != this.pieceAt(i).powerValIn(this.lightEpoch)
+          || lits[i] != this.isLit(this.pieceAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+  ////////////////End Incremental Lighting////////////////
+
+  // EFFECT: Refreshes the lighting of the board by causing all GamePieces to momentarily
+  // lose power, then calls lightEmUp from the power station once again to refresh any newly
+  // connected power lines.
+  // Rather than visiting every GamePiece to un-light it, a new lighting epoch is started, in
+  // which only the GamePieces that lightEmUp reaches count as lit.
+  // This method is called any time a change is made to the world by the user that is not
+  // re-lit incrementally. Since any GamePiece may look different in the new epoch, the whole
+  // board is marked to be drawn again.
+  public void refresh() {
+    this.lightEpoch = this.lightEpoch + 1;
+    this.lightEmUp();
+    this.markAllDirty();
+    this.checkWin();
+  }
+
+  // Returns whether the given GamePiece is lit in the current lighting epoch
+  boolean isLit(T gp) {
+    return gp.isLitIn(this.lightEpoch);
+  }
+
+  // Returns a compact copy of this board as a PackedBoard, with the same wires, power station
+  // and radius, lit from the power station
+  PackedBoard pack() {
+    int sides = this.topology.sides();
+    PackedBoard packed = new PackedBoard(this.width, this.height, sides);
+    for (int i = 0; i < this.width * this.height; i++) {
+      T curGP = this.pieceAt(i);
+      for (int side = 0; side < sides; side++) {
+        packed.setWire(i, side, curGP.hasWire(side));
+      }
+    }
+    packed.powerIdx = this.powerRow * this.width + this.powerCol;
+    packed.radius = this.radius;
+    packed.light();
+    return packed;
+  }
+}
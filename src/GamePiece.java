@@ -0,0 +1,271 @@
+import javalib.worldimages.*;
+import java.awt.Color;
+
+////////// GAME PIECE //////////
+// Represents a square tile of the board of LightEmAll
+class GamePiece implements ITile<GamePiece> {
+  // In logical coordinates, with origin at the top-left
+  int col;
+  int row;
+  // whether this GamePiece is connected to the adjacent left, right, top, or bottom pieces
+  boolean left;
+  boolean right;
+  boolean top;
+  boolean bottom;
+  // whether the power station is on this piece
+  boolean powerStation;
+  // Whether the GamePiece is connected to power
+  boolean lit;
+  // The lighting epoch in which lit and powerVal were last set. They only count while this is
+  // the board's current lighting epoch, so a board is un-lit all at once by starting a new
+  // epoch (see refresh in the GameEngine class)
+  int litEpoch;
+  // The distance of the GamePiece from the power station.
+  // Two GamePieces may have the same powerVals if they both span
+  // out from the power station in different directions but are the same
+  // distance from it
+  int powerVal;
+  // A random number that represents the number of times a GamePiece is rotated when a
+  // game is initialized, which is drawn from the board's GenerationContext in makeBoard
+  int orientation;
+  
+  // Constructor for a general, non-power station GamePiece.
+  // To begin, all fields are set to false, and given wires
+  // in the connectTheWires() method in the GameEngine class by delegating the
+  // wire assignment to this class
+  GamePiece(int col, int row) {
+    this.col = col;
+    this.row = row;
+    this.left = false;
+    this.right = false;
+    this.top = false;
+    this.bottom = false;
+    this.powerStation = false;
+    this.lit = false;
+    this.powerVal = 0;
+    this.orientation = 0;
+  }
+ 
+  // Constructor for the power station GamePiece, used to initialize the power
+  // station in the makeBoard method in the GameEngine class
+  GamePiece(int col, int row, boolean powerStation) {
+    this.col = col;
+    this.row = row;
+    this.left = false;
+    this.right = false;
+    this.top = false;
+    this.bottom = false;
+    this.powerStation = powerStation;
+    this.lit = true;
+    // The power station starts the count of distance at 0, its neighbors have a powerVal of 1
+    this.powerVal = 0;
+    this.orientation = 0;
+  }
+
+  // Constructor for testing different variations of orientation in examples class:
+  GamePiece(int col, int row, boolean left, boolean right, boolean top, boolean bottom) {
+    this.col = col;
+    this.row = row;
+    this.left = left;
+    this.right = right;
+    this.top = top;
+    this.bottom = bottom;
+    this.powerStation = false;
+    this.lit = false;
+    this.powerVal = 0;
+    this.orientation = 0;
+  }
+  
+  // Returns whether this GamePiece has a wire on the given side, where the sides are numbered
+  // clockwise from the top (see SquareTopology)
+  public boolean hasWire(int side) {
+    if (side == 0) {
+      return this.top;
+    }
+    if (side == 1) {
+      return this.right;
+    }
+    if (side == 2) {
+      return this.bottom;
+    }
+    if (side == 3) {
+      return this.left;
+    }
+    return false;
+  }
+  
+  // EFFECT: adds or removes the wire on the given side of this GamePiece
+  public void setWire(int side, boolean wired) {
+    if (side == 0) {
+      this.top = wired;
+    }
+    if (side == 1) {
+      this.right = wired;
+    }
+    if (side == 2) {
+      this.bottom = wired;
+    }
+    if (side == 3) {
+      this.left = wired;
+    }
+  }
+    
+  // EFFECT: rotates the GamePiece a random number of times,
+  // which is determined in the GamePiece constructor 
+  // This method is used in the initiation of the game to randomize the rotation
+  // of the board's GamePieces to start off
+  public void rotateRandom() {
+    for (int i = this.orientation; i >= 0; i = i - 1) {
+      this.rotateClockwise();
+    }
+  }
+  
+  // EFFECT: Causes a GamePiece to lose it's light, which also 
+  // resets its powerVal to zero by nature. 
+  // This method is used when the incremental lighting of the GameEngine class disconnects
+  // a GP from the power station
+  public void loseLight() {
+    this.powerVal = 0;
+    this.lit = false;
+  }
+  
+  // EFFECT: Lights this GamePiece in the given lighting epoch, at the given distance from the
+  // power station. It is only lit if that distance is within the given radius.
+  public void lightUp(int epoch, int powerVal, int radius) {
+    this.litEpoch = epoch;
+    this.powerVal = powerVal;
+    this.lit = powerVal <= radius;
+  }
+  
+  // Returns whether this GamePiece is lit in the given lighting epoch
+  public boolean isLitIn(int epoch) {
+    return this.lit && this.litEpoch == epoch;
+  }
+  
+  // Returns the distance of this GamePiece from the power station in the given lighting epoch,
+  // which is zero if it was not reached in that epoch
+  public int powerValIn(int epoch) {
+    if (this.litEpoch == epoch) {
+      return this.powerVal;
+    }
+    return 0;
+  }
+  
+  // Returns the wires of this GamePiece as a bit mask of its sides (bit k for side k)
+  public int wireMask() {
+    int mask = 0;
+    for (int side = 0; side < 4; side++) {
+      if (this.hasWire(side)) {
+        mask = mask | (1 << side);
+      }
+    }
+    return mask;
+  }
+  
+  // Returns which color the wires of this GamePiece are drawn in, in the given lighting epoch:
+  // 0 (grey) if it is not lit; once lit, 1 (yellow) close to the power station, then
+  // 2 (orange), then 3 (pink) for the GamePieces farthest away
+  public int colorBucket(int radius, int epoch) {
+    int bucket = 0;
+    if (this.isLitIn(epoch)) {
+      if (this.powerVal <= radius) {
+        bucket = 1;
+      }
+      if (this.powerVal >= radius - 3) {
+        bucket = 2;
+      }
+      if (this.powerVal >= radius - 1) {
+        bucket = 3;
+      }
+    }
+    return bucket;
+  }
+  
+  // Returns whether this GamePiece is the power station
+  public boolean isPowerStation() {
+    return this.powerStation;
+  }
+  
+  // Draws an individual GamePiece, depending on its properties:
+  // if the GP is not lit, it is grey;
+  // if it is and it is close to the power station, it is yellow;
+  // the further away it gets from the power station, it turns orange;
+  // the GamePieces the farthest away are pink;
+  // GamePieces that fall outside the radius are not lit.
+  // The length of an individual piece will depend on the properties of the full canvas,
+  // therefore, the length of each piece will be calculated in the LightEmAll
+  // class and given here, along with the board's current lighting epoch
+  WorldImage draw(int gpWidth, int gpHeight, int radius, int epoch) {
+    WorldImage gPiece = new OverlayImage(
+        new RectangleImage(gpWidth - 2, gpHeight - 2, OutlineMode.SOLID, Color.DARK_GRAY), 
+        new RectangleImage(gpWidth, gpHeight, OutlineMode.SOLID, Color.BLACK));
+    // Each line's end point will always be a position on the outer border of the
+    // gPiece image, and will land in the center of the length of the side of the gPiece image.
+    int midLengthTopBot = gpWidth / 2;
+    int midLengthSide = gpHeight / 2;
+    double offsetX = gpWidth / 4;
+    double offsetY = gpHeight / 4;
+    // EFFECT: The variable clr contains the color for which the lines on the GamePiece should be
+    // based on whether or not the GamePiece is connected to power 
+    Color clr = Color.LIGHT_GRAY;
+    int bucket = this.colorBucket(radius, epoch);
+    if (bucket == 1) {
+      clr = Color.YELLOW;
+    }
+    if (bucket == 2) {
+      clr = Color.ORANGE;
+    }
+    if (bucket == 3) {
+      clr = Color.PINK;
+    }
+    // One horizontal and one vertical line to overlay at different positions 
+    // over the plank gPiece image above
+    WorldImage horizontal = new LineImage(new Posn(midLengthTopBot, 0), clr);
+    WorldImage vertical = new LineImage(new Posn(0, midLengthSide), clr);
+    if (this.left) {
+      gPiece = new OverlayOffsetImage(horizontal, offsetX, 0, gPiece);
+    }
+    if (this.right) {
+      gPiece = new OverlayOffsetImage(horizontal, -offsetX, 0, gPiece);
+    }
+    if (this.top) {
+      gPiece = new OverlayOffsetImage(vertical, 0, offsetY, gPiece);
+    }
+    if (this.bottom) {
+      gPiece = new OverlayOffsetImage(vertical, 0, -offsetY, gPiece);
+    }
+    if (this.powerStation) {
+      WorldImage pwr = new OverlayImage(
+          new CircleImage(midLengthSide / 4, OutlineMode.SOLID, Color.YELLOW),
+          new StarImage(midLengthSide - 5, 7, OutlineMode.SOLID, Color.RED));
+      gPiece = new OverlayImage(pwr, gPiece);
+    }
+    return gPiece;
+  }
+  
+  // EFFECT: adjusts this GamePiece's properties to reflect a rotation in the clockwise direction.
+  // When a GamePiece is clicked, the LightEmAll class delegates the rotation action to here
+  public void rotateClockwise() {
+    boolean storeleft = this.left;
+    boolean storetop = this.top;
+    boolean storeright = this.right;
+    boolean storebottom = this.bottom;
+    this.left = storebottom;
+    this.top = storeleft;
+    this.right = storetop;
+    this.bottom = storeright;
+  }
+  
+  // EFFECT: modifies the power station field of two GamePieces,
+  // causing one to lose its power station status and the other to
+  // gain it, and also becoming lit by nature. This one method to
+  // transfer the power station ensures that there can only ever
+  // be one designated power station on the game grid, and it can
+  // only ever pass it off the one other GamePiece
+  public void givePowerStationTo(GamePiece newPS) {
+    this.powerStation = false;
+    newPS.powerStation = true;
+    newPS.lit = true;
+    newPS.powerVal = 0;
+  }
+}
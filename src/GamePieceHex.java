@@ -0,0 +1,246 @@
+import javalib.worldimages.*;
+import java.awt.Color;
+
+////////// GAME PIECE HEX //////////
+// Represents a hexagonal tile of the board of LightEmAllHex
+class GamePieceHex implements ITile<GamePieceHex> {
+  // location in the LightEmAllHex game-board 2D ArrayList: row -> i; col -> j;
+  int col;
+  int row;
+  // which of the adjacent topLeft, topRight, right, bottomRight, bottomLeft and left pieces
+  // this GamePiece is connected to, as a bit mask of its sides numbered clockwise from the
+  // top-left (see HexTopology): bit k is set when there is a wire on side k.
+  // A mask rather than six booleans makes each wire test a single mask test, and a rotation
+  // a single shift.
+  int wires;
+  // whether the power station is on this piece
+  boolean powerStation;
+  // Whether the GamePiece is connected to power
+  boolean lit;
+  // The lighting epoch in which lit and powerVal were last set. They only count while this is
+  // the board's current lighting epoch, so a board is un-lit all at once by starting a new
+  // epoch (see refresh in the GameEngine class)
+  int litEpoch;
+  // The distance of the GamePiece from the power station.
+  // Two GamePieces may have the same powerVals if they both span
+  // out from the power station in different directions but are the same
+  // distance from it
+  int powerVal;
+  // A random number that represents the number of times a GamePiece is rotated when a
+  // game is initialized, which is drawn from the board's GenerationContext in makeBoard
+  int orientation;
+  
+  // Constructor for a general, non-power station GamePiece.
+  // To begin, all fields are set to false, and given wires
+  // in the connectTheWires() method in the GameEngine class by delegating the
+  // wire assignment to this class
+  GamePieceHex(int col, int row) {
+    this.col = col;
+    this.row = row;
+    this.wires = 0;
+    this.powerStation = false;
+    this.lit = false;
+    this.powerVal = 0;
+    this.orientation = 0;
+  }
+ 
+  // Constructor for the power station GamePiece, used to initialize the power
+  // station in the makeBoard method in the GameEngine class
+  GamePieceHex(int col, int row, boolean powerStation) {
+    this.col = col;
+    this.row = row;
+    this.wires = 0;
+    this.powerStation = powerStation;
+    this.lit = true;
+    // The power station starts the count of distance at 0, its neighbors have a powerVal of 1
+    this.powerVal = 0;
+    this.orientation = 0;
+  }
+
+  // Constructor for testing different variations of orientation in examples class:
+  GamePieceHex(int col, int row, boolean tl, boolean tr, boolean left, boolean right,
+      boolean bl, boolean br) {
+    this.col = col;
+    this.row = row;
+    this.wires = 0;
+    this.setWire(0, tl);
+    this.setWire(1, tr);
+    this.setWire(2, right);
+    this.setWire(3, br);
+    this.setWire(4, bl);
+    this.setWire(5, left);
+    this.powerStation = false;
+    this.lit = false;
+    this.powerVal = 0;
+    this.orientation = 0;
+  }
+  
+  // Returns whether this GamePiece has a wire on the given side, where the sides are numbered
+  // clockwise from the top-left (see HexTopology)
+  public boolean hasWire(int side) {
+    return (this.wires & (1 << side)) != 0;
+  }
+  
+  // EFFECT: adds or removes the wire on the given side of this GamePiece
+  public void setWire(int side, boolean wired) {
+    if (wired) {
+      this.wires = this.wires | (1 << side);
+    }
+    else {
+      this.wires = this.wires & ~(1 << side);
+    }
+  }
+    
+  // EFFECT: rotates the GamePiece a random number of times,
+  // which is determined in the GamePiece constructor 
+  // This method is used in the initiation of the game to randomize the rotation
+  // of the board's GamePieces to start off
+  public void rotateRandom() {
+    for (int i = this.orientation; i >= 0; i = i - 1) {
+      this.rotateClockwise();
+    }
+  }
+  
+  // EFFECT: Causes a GamePiece to lose it's light, which also 
+  // resets its powerVal to zero by nature. 
+  // This method is used when the incremental lighting of the GameEngine class disconnects
+  // a GP from the power station
+  public void loseLight() {
+    this.powerVal = 0;
+    this.lit = false;
+  }
+  
+  // EFFECT: Lights this GamePiece in the given lighting epoch, at the given distance from the
+  // power station. It is only lit if that distance is within the given radius.
+  public void lightUp(int epoch, int powerVal, int radius) {
+    this.litEpoch = epoch;
+    this.powerVal = powerVal;
+    this.lit = powerVal <= radius;
+  }
+  
+  // Returns whether this GamePiece is lit in the given lighting epoch
+  public boolean isLitIn(int epoch) {
+    return this.lit && this.litEpoch == epoch;
+  }
+  
+  // Returns the distance of this GamePiece from the power station in the given lighting epoch,
+  // which is zero if it was not reached in that epoch
+  public int powerValIn(int epoch) {
+    if (this.litEpoch == epoch) {
+      return this.powerVal;
+    }
+    return 0;
+  }
+  
+  // Returns the wires of this GamePiece as a bit mask of its sides, which is how they are kept
+  public int wireMask() {
+    return this.wires;
+  }
+  
+  // Returns which color the wires of this GamePiece are drawn in, in the given lighting epoch:
+  // 0 (grey) if it is not lit; once lit, 1 (yellow) close to the power station, then
+  // 2 (orange), then 3 (pink) for the GamePieces farthest away
+  public int colorBucket(int radius, int epoch) {
+    int bucket = 0;
+    if (this.isLitIn(epoch)) {
+      if (this.powerVal <= radius) {
+        bucket = 1;
+      }
+      if (this.powerVal >= radius - 3) {
+        bucket = 2;
+      }
+      if (this.powerVal >= radius - 1) {
+        bucket = 3;
+      }
+    }
+    return bucket;
+  }
+  
+  // Returns whether this GamePiece is the power station
+  public boolean isPowerStation() {
+    return this.powerStation;
+  }
+  
+  // Draws an individual GamePiece, depending on its properties:
+  // if the GP is not lit, it is grey;
+  // if it is and it is close to the power station, it is yellow;
+  // the further away it gets from the power station, it turns orange;
+  // the GamePieces the farthest away are pink;
+  // GamePieces that fall outside the radius are not lit.
+  // The length of an individual piece will depend on the properties of the full canvas,
+  // therefore, the length of each piece will be calculated in the LightEmAll
+  // class and given here, along with the board's current lighting epoch
+  WorldImage draw(int sideLen, int radius, int epoch) {
+    WorldImage gPiece = new OverlayImage(
+        new RotateImage(new HexagonImage(sideLen - 2, OutlineMode.SOLID, Color.DARK_GRAY), 90),
+        new RotateImage(new HexagonImage(sideLen, OutlineMode.SOLID, Color.BLACK), 90));
+    // Each line's end point will always be a position on the outer border of the
+    // gPiece image, and will land in the center of the length of the side of the gPiece image.
+    // EFFECT: The variable clr contains the color for which the lines on the GamePiece should be
+    // based on whether or not the GamePiece is connected to power 
+    Color clr = Color.LIGHT_GRAY;
+    int bucket = this.colorBucket(radius, epoch);
+    if (bucket == 1) {
+      clr = Color.YELLOW;
+    }
+    if (bucket == 2) {
+      clr = Color.ORANGE;
+    }
+    if (bucket == 3) {
+      clr = Color.PINK;
+    }
+    // One horizontal and two diagonal lines to overlay at different positions 
+    // over the plank gPiece image above
+    int sideLenA = sideLen * 3 / 4;
+    int sideLenA2 = sideLen / 3;
+    WorldImage horizontal = new LineImage(new Posn(sideLen - 10, 0), clr);
+    WorldImage diagFromL = new RotateImage(new LineImage(new Posn(0, sideLenA + 10), clr), -45);
+    WorldImage diagFromR = new RotateImage(new LineImage(new Posn(0, sideLenA), clr), 45);
+    if (this.hasWire(0)) {
+      gPiece = new OverlayOffsetImage(diagFromL, sideLenA2 - 5, sideLenA2 - 5, gPiece);
+    }
+    if (this.hasWire(1)) {
+      gPiece = new OverlayOffsetImage(diagFromR, sideLenA2 / 3 - 20, sideLenA2, gPiece);
+    }
+    if (this.hasWire(5)) {
+      gPiece = new OverlayOffsetImage(horizontal, sideLenA2 + 5, 0, gPiece);
+    }
+    if (this.hasWire(2)) {
+      gPiece = new OverlayOffsetImage(horizontal, -(sideLenA2 + 5), 0, gPiece);
+    }
+    if (this.hasWire(4)) {
+      gPiece = new OverlayOffsetImage(diagFromR, sideLenA2, -sideLenA2, gPiece);
+    }
+    if (this.hasWire(3)) {
+      gPiece = new OverlayOffsetImage(diagFromL, -sideLenA2, -sideLenA2, gPiece);
+    }
+    if (this.powerStation) {
+      WorldImage pwr = new OverlayImage(
+          new CircleImage(sideLen / 4, OutlineMode.SOLID, Color.YELLOW),
+          new StarImage(sideLen - 8, 7, OutlineMode.SOLID, Color.RED));
+      gPiece = new OverlayImage(pwr, gPiece);
+    }
+    return gPiece;
+  }
+  
+  // EFFECT: adjusts this GamePiece's properties to reflect a rotation in the clockwise direction.
+  // When a GamePiece is clicked, the LightEmAll class delegates the rotation action to here
+  public void rotateClockwise() {
+    // each wire moves from side k to side k + 1, and the wire on the left (side 5) moves to the
+    // top-left (side 0):
+    this.wires = ((this.wires << 1) | (this.wires >> 5)) & 63;
+  }
+  
+  // EFFECT: modifies the power station field of two GamePieces,
+  // causing one to lose its power station status and the other to
+  // gain it, and also becoming lit by nature. This one method to
+  // transfer the power station ensures that there can only ever
+  // be one designated power station on the game grid, and it can
+  // only ever pass it off the one other GamePiece
+  public void givePowerStationTo(GamePieceHex newPS) {
+    this.powerStation = false;
+    newPS.powerStation = true;
+    newPS.lit = true;
+    newPS.powerVal = 0;
+  }
+}
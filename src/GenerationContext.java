@@ -0,0 +1,44 @@
+import java.util.SplittableRandom;
+
+////////// GENERATION CONTEXT //////////
+// Represents all of the randomness used to generate one game board:
+// the random orientation of every GamePiece and the random weight of every edge.
+// Everything is drawn from a single SplittableRandom that is seeded with a 64-bit seed, so the
+// same seed always generates the same board (which is why the seed is shown in the game stats).
+// Each step of generation, and each row within a step, draws from its own split stream rather
+// than from a shared one. That way a row's randomness does not depend on how many numbers the
+// rows before it used, and the rows could be generated in any order (or in parallel) and still
+// produce the same board.
+class GenerationContext {
+  // The seed that determines the board
+  long seed;
+  // The stream that every split stream is taken from
+  SplittableRandom random;
+
+  // Constructor for a board generated from the given seed
+  GenerationContext(long seed) {
+    this.seed = seed;
+    this.random = new SplittableRandom(seed);
+  }
+
+  // Constructor for a new board with a seed that is itself randomly chosen
+  GenerationContext() {
+    this(new SplittableRandom().nextLong());
+  }
+
+  // Returns a new stream that is independent of this context's later streams.
+  // EFFECT: advances this context's stream, so that each call returns a different stream
+  SplittableRandom split() {
+    return this.random.split();
+  }
+
+  // Returns the given number of independent streams, such as one per row of the board.
+  // EFFECT: advances this context's stream, as above
+  SplittableRandom[] split(int count) {
+    SplittableRandom[] streams = new SplittableRandom[count];
+    for (int i = 0; i < count; i++) {
+      streams[i] = this.random.split();
+    }
+    return streams;
+  }
+}
@@ -0,0 +1,123 @@
+import javalib.worldimages.*;
+
+////////// HEX LAYOUT //////////
+// Represents a board of hexagonal GamePieces, with a point at the top and bottom of each
+// hexagon, and rows of even indices offset to the right of odd rows by half a hexagon (as in
+// HexTopology).
+// Each hexagon has sides of length sideLen, so it is sqrt(3) * sideLen wide, and the rows
+// overlap so that they are 1.5 * sideLen apart. The hexagons of the odd rows begin at the left
+// edge of the board, and the first row begins at the top edge.
+// To find the hexagon under a point, the point is converted to axial coordinates (q along a
+// row, r down the rows, with q + r / 2 hexagons to the right), which are rounded to the
+// nearest hexagon as the cube coordinates (q, r, -q - r), and then converted back to a row and
+// column.
+class HexLayout implements BoardLayout {
+  int width;
+  int height;
+  // the length of each side of a hexagon, in pixels
+  int sideLen;
+  // the distance between the centers of neighbors on the same row
+  double colSpacing;
+  // the distance between the centers of neighboring rows
+  double rowSpacing;
+  // where the top-left corner of the board is drawn on the canvas
+  int originX;
+  int originY;
+
+  // Constructor takes the number of columns and rows, and the length of each side of a
+  // hexagon in pixels, for a board drawn from the top-left corner of the canvas
+  HexLayout(int width, int height, int sideLen) {
+    this(width, height, sideLen, 0, 0);
+  }
+
+  // Constructor takes the number of columns and rows, the length of each side of a hexagon in
+  // pixels, and where the top-left corner of the board is drawn on the canvas
+  HexLayout(int width, int height, int sideLen, int originX, int originY) {
+    if (sideLen < 0) {
+      throw new IllegalArgumentException("Cannot have GamePieces of a negative size.");
+    }
+    this.width = width;
+    this.height = height;
+    this.sideLen = sideLen;
+    this.colSpacing = Math.sqrt(3.0) * sideLen;
+    this.rowSpacing = 1.5 * sideLen;
+    this.originX = originX;
+    this.originY = originY;
+  }
+
+  // Returns the x-coordinate of the center of the GamePiece at the given row and column:
+  // the hexagons of even rows are half a hexagon further right
+  public int centerX(int row, int col) {
+    return this.originX
+        + (int) Math.round(this.colSpacing * (col + 1) - (row % 2) * this.colSpacing / 2);
+  }
+
+  // Returns the y-coordinate of the center of the GamePiece at the given row and column
+  public int centerY(int row, int col) {
+    return this.originY + (int) Math.round(this.sideLen + this.rowSpacing * row);
+  }
+
+  // Returns the flat index of the GamePiece under the given point, or -1 if the point is not
+  // on the board
+  public int tileAt(Posn pos) {
+    if (this.sideLen == 0) {
+      return -1;
+    }
+    // The axial origin (q = 0, r = 0) is the center of the first GamePiece:
+    double x = pos.x - this.originX - this.colSpacing;
+    double y = pos.y - this.originY - this.sideLen;
+    double r = y / this.rowSpacing;
+    double q = x / this.colSpacing - r / 2;
+    // Round to the nearest hexagon: the rounded coordinate that moved the most is the one that
+    // is wrong, and is found again from the other two, since q + r + s = 0:
+    double s = -q - r;
+    long roundQ = Math.round(q);
+    long roundR = Math.round(r);
+    long roundS = Math.round(s);
+    double diffQ = Math.abs(roundQ - q);
+    double diffR = Math.abs(roundR - r);
+    double diffS = Math.abs(roundS - s);
+    if (diffQ > diffR && diffQ > diffS) {
+      roundQ = -roundR - roundS;
+    }
+    else if (diffR > diffS) {
+      roundR = -roundQ - roundS;
+    }
+    // Back to rows and columns: each pair of rows starts one step further left in q
+    long row = roundR;
+    long col = roundQ + Math.floorDiv(roundR + 1, 2);
+    if (row < 0 || row >= this.height || col < 0 || col >= this.width) {
+      return -1;
+    }
+    return (int) (row * this.width + col);
+  }
+
+  // Returns the row whose band of rows (rowSpacing high) is drawn at the given y-coordinate
+  public int rowNear(int y) {
+    if (this.sideLen == 0) {
+      return 0;
+    }
+    return (int) Math.floor((y - this.originY) / this.rowSpacing);
+  }
+
+  // Returns the column whose band of columns (colSpacing wide) is drawn at the given
+  // x-coordinate
+  public int colNear(int x) {
+    if (this.sideLen == 0) {
+      return 0;
+    }
+    return (int) Math.floor((x - this.originX) / this.colSpacing);
+  }
+
+  // Returns the width of the whole board in pixels: every row is half a hexagon wider than its
+  // hexagons, because of the offset of the rows
+  public int pixelWidth() {
+    return (int) Math.ceil(this.colSpacing * (this.width + 0.5));
+  }
+
+  // Returns the height of the whole board in pixels: the rows overlap, except for half a
+  // hexagon at the bottom of the last row
+  public int pixelHeight() {
+    return (int) Math.ceil(this.rowSpacing * this.height + this.sideLen / 2.0);
+  }
+}
@@ -0,0 +1,50 @@
+import java.awt.Color;
+
+////////// HEX PAINTER //////////
+// Represents painting hexagonal GamePieces with sides of the given length in pixels: the
+// raster version of draw in the GamePieceHex class, with a line from the center to the middle
+// of each wired side.
+// Each stamp leaves the corners around its hexagon transparent, so the hexagons of neighboring
+// rows show through.
+class HexPainter extends TilePainter {
+  int sideLen;
+
+  // Constructor takes the length of each side of a hexagon in pixels
+  HexPainter(int sideLen) {
+    if (sideLen <= 0) {
+      throw new IllegalArgumentException("Cannot paint GamePieces without pixels.");
+    }
+    this.sideLen = sideLen;
+  }
+
+  // Returns a new stamp of a hexagonal GamePiece
+  RasterFrame paint(int wires, int colorBucket, boolean powerStation) {
+    RasterFrame stamp = new RasterFrame((int) Math.ceil(Math.sqrt(3.0) * this.sideLen),
+        2 * this.sideLen);
+    int midX = stamp.width / 2;
+    int midY = stamp.height / 2;
+    stamp.fillHexagon(midX, midY, this.sideLen, Color.BLACK.getRGB());
+    stamp.fillHexagon(midX, midY, this.sideLen - 2, Color.DARK_GRAY.getRGB());
+    // the direction of the middle of each side, clockwise from the top left, at the distance
+    // of the middle of a side from the center
+    double apothem = Math.sqrt(3.0) / 2 * this.sideLen;
+    double[] dirX = new double[] {-0.5, 0.5, 1, 0.5, -0.5, -1};
+    double[] dirY = new double[] {-0.866, -0.866, 0, 0.866, 0.866, 0};
+    for (int side = 0; side < 6; side++) {
+      if ((wires & (1 << side)) != 0) {
+        stamp.drawLine(midX, midY, midX + (int) Math.round(dirX[side] * (apothem - 1)),
+            midY + (int) Math.round(dirY[side] * (apothem - 1)),
+            this.wirePalette[colorBucket]);
+      }
+    }
+    if (powerStation) {
+      this.paintPowerStation(stamp, midX, midY, this.sideLen / 2);
+    }
+    return stamp;
+  }
+
+  // Returns the layout of rows of these hexagons
+  BoardLayout layout(int width, int height, int originX, int originY) {
+    return new HexLayout(width, height, this.sideLen, originX, originY);
+  }
+}
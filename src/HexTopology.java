@@ -0,0 +1,45 @@
+////////// HEX TOPOLOGY //////////
+// Represents hexagonal tiles, with sides numbered 0 top-left, 1 top-right, 2 right,
+// 3 bottom-right, 4 bottom-left, 5 left.
+// Rows of even indices are offset to the right of odd rows, so the columns of the neighbors
+// above and below a tile depend on whether its row is even or odd.
+class HexTopology extends Topology {
+  int[] rowOffsets = new int[] {-1, -1, 0, 1, 1, 0};
+  // the change in column on each side, for even rows then for odd rows
+  int[][] colOffsets = new int[][] {{0, 1, 1, 1, 0, -1}, {-1, 0, 1, 0, -1, -1}};
+  int[] opposites = new int[] {3, 4, 5, 0, 1, 2};
+  int[] rotations = new int[] {1, 2, 3, 4, 5, 0};
+  // the right, bottom-left and bottom-right neighbors, in that order
+  int[] forward = new int[] {2, 4, 3};
+
+  // Returns the number of sides of each tile
+  int sides() {
+    return 6;
+  }
+
+  // Returns the change in row from a tile to its neighbor on the given side
+  int rowOffset(int side) {
+    return this.rowOffsets[side];
+  }
+
+  // Returns the change in column from a tile in the given row to its neighbor on the given
+  // side, which depends on whether the row is even or odd
+  int colOffset(int row, int side) {
+    return this.colOffsets[row % 2][side];
+  }
+
+  // Returns the side of a tile's neighbor that faces the given side of the tile
+  int opposite(int side) {
+    return this.opposites[side];
+  }
+
+  // Returns the side that a wire on the given side of a tile is on after one clockwise rotation
+  int rotated(int side) {
+    return this.rotations[side];
+  }
+
+  // Returns the sides whose neighbors come later in row-major order than the tile
+  int[] forwardSides() {
+    return this.forward;
+  }
+}
@@ -0,0 +1,5 @@
+////////// COMPARATOR //////////
+// Represents a general IComparator to be used in the ArrayUtils class heap sort
+interface IComparator<T> {
+  int compare(T t1, T t2);
+}
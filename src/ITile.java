@@ -0,0 +1,44 @@
+////////// TILE //////////
+// Represents what the GameEngine needs of a GamePiece of either shape (GamePiece or
+// GamePieceHex), where T is the class of the GamePiece itself. Sides are numbered clockwise,
+// as in the Topology of its board.
+interface ITile<T> {
+  // Returns whether this GamePiece has a wire on the given side
+  boolean hasWire(int side);
+
+  // EFFECT: adds or removes the wire on the given side of this GamePiece
+  void setWire(int side, boolean wired);
+
+  // EFFECT: rotates this GamePiece clockwise once
+  void rotateClockwise();
+
+  // EFFECT: rotates this GamePiece clockwise by its random orientation
+  void rotateRandom();
+
+  // EFFECT: lights this GamePiece in the given lighting epoch, at the given distance from the
+  // power station, if that distance is within the given radius
+  void lightUp(int epoch, int powerVal, int radius);
+
+  // EFFECT: un-lights this GamePiece
+  void loseLight();
+
+  // Returns whether this GamePiece is lit in the given lighting epoch
+  boolean isLitIn(int epoch);
+
+  // Returns the distance of this GamePiece from the power station in the given lighting epoch
+  int powerValIn(int epoch);
+
+  // EFFECT: passes the power station from this GamePiece to the given GamePiece
+  void givePowerStationTo(T newPS);
+
+  // Returns the wires of this GamePiece as a bit mask of its sides (bit k for side k)
+  int wireMask();
+
+  // Returns which color the wires of this GamePiece are drawn in, in the given lighting epoch
+  // and for the given radius: 0 (grey) when it is not lit, otherwise 1 (yellow), 2 (orange) or
+  // 3 (pink) the farther it is from the power station
+  int colorBucket(int radius, int epoch);
+
+  // Returns whether this GamePiece is the power station
+  boolean isPowerStation();
+}
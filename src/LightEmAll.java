@@ -1,21 +1,55 @@
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.ArrayList;
 import tester.*;
 import javalib.impworld.*;
 import java.awt.Color;
 import javalib.worldimages.*;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.awt.image.BufferedImage;
+import javax.imageio.ImageIO;
 
 
 
 // CODE FLOW:
-// - GamePiece class: Contains all information about the GamePiece representation
-// - LightEmAll class: Contains all game logic, layout, controls, etc
-// - Edge class
-// - ArrayUtils
-// - GamePieceHex class: Contains all information about a hexagonal representation of a GamePiece
-// - LightEmAllHex class: Contains all information about a hexagonal game logic, layout, etc
+// - GamePiece (GamePiece.java): Contains all information about the GamePiece representation
+// - LightEmAll class: Contains the layout and controls of the square game
+// - GameEngine (GameEngine.java): the game logic that the square and hexagon games share:
+//   generating, lighting and scoring the board, for GamePieces of any shape (ITile.java)
+// - Topology (Topology.java): the number of sides of a GamePiece and its neighbor on each side,
+//   for square GamePieces (SquareTopology.java) and hexagonal GamePieces (HexTopology.java)
+// - Edge (Edge.java)
+// - ArrayUtils (ArrayUtils.java), with the IComparator (IComparator.java) of its heapsort
+// - UnionFind (UnionFind.java): the disjoint-set used by Kruskal's algorithm
+// - EdgeList (EdgeList.java): the primitive list of edges used to generate the board
+// - GenerationContext (GenerationContext.java): the seeded randomness used to generate the board
+// - TileQueue (TileQueue.java): the ring-buffer workList used by every breadth-first search
+// - TreeMetrics (TreeMetrics.java): the diameter and center of the min spanning tree
+// - PackedBoard (PackedBoard.java): a compact board of wire bit masks, generated straight from
+//   a seed, for very large boards
+// - SpriteCache (SpriteCache.java): the image of each kind of GamePiece, drawn once per size
+// - RetainedScene (RetainedScene.java): the frame last painted, and the GamePieces changed since
+// - BoardLayout (BoardLayout.java): where each GamePiece is drawn, and which one is clicked,
+//   for square GamePieces (SquareLayout.java) and hexagonal GamePieces (HexLayout.java)
+// - Viewport (Viewport.java): the part of a large board that is shown: press "i", "j", "k" and
+//   "l" to scroll, and "+" and "-" to zoom
+// - LitDensity (LitDensity.java): the lit GamePieces in each block of the board, for drawing the
+//   board zoomed out
+// - RasterFrame (RasterFrame.java): the board painted as pixels into one image, which is how
+//   every board is drawn: press "b" to switch to drawing each GamePiece as an image
+// - TilePainter (TilePainter.java): how GamePieces are painted as pixels, for square GamePieces
+//   (SquarePainter.java) and hexagonal GamePieces (HexPainter.java)
+// - BandPainter (BandPainter.java): paints the bands of rows of a RasterFrame on many threads
+// - BoardExporter (BoardExporter.java): writes boards to PNG images without a canvas, one strip
+//   at a time, with PngWriter (PngWriter.java)
+// - FrameScheduler (FrameScheduler.java): when the clock ticks and when the scene is drawn
+//   again on the canvas, at most framesPerSecond times a second and only after a change
+// - GamePieceHex (GamePieceHex.java): Contains all information about a hexagonal
+//   representation of a GamePiece
+// - LightEmAllHex class: Contains the layout and controls of the hexagon game
 // - Example class: Contains tests for square game first, then hexagon game
 
 // EXTRA CREDIT ATTEMPTS:
@@ -35,399 +69,78 @@ import java.util.Random;
 // press "g" at any time to give up (will connect the wires but the user
 // should still move the power station to 'win')
 // -Press 'x' to open a new canvas with our attempt for the hexagon grid,
-// which is entirely functional, except for onClick functionality...
+// which is entirely functional
 ///////////////////////////////////////////////////////////////////////
 
 // When dealing with different sides of a GamePiece, for the sake of uniformity,
-// all methods in this program process sides in the following order: 
-// left; right; top; bottom;
+// all methods in this program number the sides clockwise from the top, as the Topology of the
+// board does: 0 top; 1 right; 2 bottom; 3 left; (and on a hexagonal board: 0 top-left;
+// 1 top-right; 2 right; 3 bottom-right; 4 bottom-left; 5 left;)
 // Also: We decided from the start to change the orientation of the grid from column-major order 
 // to row-major order to make our code more readable and understandable. We believe that row-major
 // order is a better reflection of the actual visualized grid, where columns mimic x-coordinates
 // and rows mimic y-coordinates, with the origin at the top-left corner. Our coded representation
 // of the grid is read from left to right, top to bottom, as is the English language.
 
-class GamePiece {
-  // In logical coordinates, with origin at the top-left
-  int col;
-  int row;
-  // whether this GamePiece is connected to the adjacent left, right, top, or bottom pieces
-  boolean left;
-  boolean right;
-  boolean top;
-  boolean bottom;
-  // A list of GamePieces of this GamePiece's neighbors
-  ArrayList<GamePiece> neighbors;
-  // whether the power station is on this piece
-  boolean powerStation;
-  // Whether the GamePiece is connected to power
-  boolean lit;
-  // The distance of the GamePiece from the power station.
-  // Two GamePieces may have the same powerVals if they both span
-  // out from the power station in different directions but are the same
-  // distance from it
-  int powerVal;
-  // The distance field is used only once in the process of finding the diameter,
-  // and can represent a more general sense of 'distance' between two arbitrary
-  // GamePieces rather than specifically the distance from the power station.
-  int distance;
-  // A random number that represents the number of times a GamePiece is rotated when a
-  // game is initialized
-  int orientation;
-  
-  // Constructor for a general, non-power station GamePiece.
-  // To begin, all fields are set to false, and given wires
-  // in the connectTheWires() method in the LightEmAll class by delegating the
-  // wire assignment to this class
-  GamePiece(int col, int row) {
-    this.col = col;
-    this.row = row;
-    this.left = false;
-    this.right = false;
-    this.top = false;
-    this.bottom = false;
-    this.neighbors = new ArrayList<GamePiece>();
-    this.powerStation = false;
-    this.lit = false;
-    this.powerVal = 0;
-    this.distance = 0;
-    Random r = new Random();
-    this.orientation = r.nextInt(4);
-  }
- 
-  // Constructor for the power station GamePiece, used to initialize the power
-  // station in the makeBoard method in the LightEmAll class
-  GamePiece(int col, int row, boolean powerStation) {
-    this.col = col;
-    this.row = row;
-    this.left = false;
-    this.right = false;
-    this.top = false;
-    this.bottom = false;
-    this.neighbors = new ArrayList<GamePiece>();
-    this.powerStation = powerStation;
-    this.lit = true;
-    // The power station starts the count of distance at 0, its neighbors have a powerVal of 1
-    this.powerVal = 0;
-    Random r = new Random();
-    this.orientation = r.nextInt(4);
-  }
-
-  // Constructor for testing different variations of orientation in examples class:
-  GamePiece(int col, int row, boolean left, boolean right, boolean top, boolean bottom) {
-    this.col = col;
-    this.row = row;
-    this.left = left;
-    this.right = right;
-    this.top = top;
-    this.bottom = bottom;
-    this.neighbors = new ArrayList<GamePiece>();
-    this.powerStation = false;
-    this.lit = false;
-    this.powerVal = 0;
-    Random r = new Random();
-    this.orientation = r.nextInt(4);
-  }
-  
-  // EFFECT: Modifies this neighbors field to add a new neighbor, 
-  // and adds this GamePiece to the neighbor's neighbors list,
-  // only if the two GamePiece's are not already deemed neighbors
-  void addNeighbor(GamePiece gp) {
-    if (!this.neighbors.contains(gp)) {
-      this.neighbors.add(gp);
-      gp.neighbors.add(this);
-    }
-  }
-  
-  // After the min spanning tree has been generated, this method determines which neighbors 
-  // each GamePiece should be wire-connected to.
-  // EFFECT: Modifies the left/right/top/bottom boolean fields of this GamePiece and of its
-  // neighbor GamePiece if they ought to be connected by wire
-  void connectIfNeighborOf(GamePiece to) {
-    // If this is the left neighbor of to
-    if (this.row == to.row && this.col == to.col - 1) {
-      this.right = true;
-      to.left = true;
-    }
-    // If this is the right neighbor of to
-    if (this.row == to.row && this.col == to.col + 1) {
-      this.left = true;
-      to.right = true;
-    }
-    // If this is the top neighbor of to
-    if (this.col == to.col && this.row == to.row - 1) {
-      this.bottom = true;
-      to.top = true;
-    }
-    // If this is the bottom neighbor of to
-    if (this.col == to.col && this.row == to.row + 1) {
-      this.top = true;
-      to.bottom = true;
-    }
-  }
-    
-  // EFFECT: rotates the GamePiece a random number of times,
-  // which is determined in the GamePiece constructor 
-  // This method is used in the initiation of the game to randomize the rotation
-  // of the board's GamePieces to start off
-  void rotateRandom() {
-    for (int i = this.orientation; i >= 0; i = i - 1) {
-      this.rotateClockwise();
-    }
-  }
- 
-  // Determines if two GamePieces are connected by wires (not only by location)
-  // First, checks which of the side neighbors the given piece is, in relation to this one
-  // Then, returns whether the given GamePiece is also connected back to this one by wire
-  boolean wireNeighborsWith(GamePiece that) {
-    // If that is the LEFT neighbor:
-    if (that.col == this.col - 1 && that.row == this.row) {
-      return this.left && that.right;
-    }
-    // If that is the RIGHT neighbor:
-    if (that.col == this.col + 1 && that.row == this.row) {
-      return this.right && that.left;
-    }
-    // If that is the TOP neighbor:
-    if (that.col == this.col && that.row == this.row - 1) {
-      return this.top && that.bottom;
-    }
-    // If that is the BOTTOM neighbor:
-    if (that.col == this.col && that.row == this.row + 1) {
-      return this.bottom && that.top;
-    }
-    else {
-      return false;
-    }
-  }
+///////REPRESENTS THE LIGHTEMALL CLASS WITH GAME LOGIC//////
+class LightEmAll extends GameEngine<GamePiece> {
   
-  // EFFECT: Uses breadth-first technique to modify the lit fields of the GamePieces
-  // This method is only ever called on the PowerStation in the refresh method
-  // in the LightEmAll class, and then spans out across the game board passing light across 
-  // wire-connected pieces.
-  // A convenient side effect of this is visiting specific GamePieces in order of distance
-  // from the power station itself, so this method also has the effect of modifying GamePiece's
-  // powerVal fields, which is a number representing its distance from the power station.
-  // The GamePiece is only lit if it's powerVal is within the radius of light extension.
-  void lightEmUp(int radius) {
-    ArrayList<GamePiece> seen = new ArrayList<GamePiece>();
-    ArrayList<GamePiece> workList = new ArrayList<GamePiece>();
-    workList.add(this);
-    this.powerVal = 0;
-    while (workList.size() > 0) {
-      GamePiece curGP = workList.remove(0); // removes and returns
-      // only lights the GamePiece if it falls within the radius of the power station,
-      // which is a parameter given by the LightEmAll class to this method
-      if (curGP.powerVal <= radius) {
-        curGP.lit = true;
-      }
-      for (int i = 0; i < curGP.neighbors.size(); i++) {
-        GamePiece eachNeighbor = curGP.neighbors.get(i);
-        if (curGP.wireNeighborsWith(eachNeighbor) && !seen.contains(eachNeighbor)) {
-          workList.add(eachNeighbor);
-          // Each GamePiece's powerVal is one more than that of its neighbor that is
-          // closest
-          // to the power station
-          eachNeighbor.powerVal = curGP.powerVal + 1;
-        }
-      }
-      seen.add(curGP);
-    }
+  // Constructor takes the number of columns and rows respectively, and generates a playable game
+  // from a randomly chosen seed
+  LightEmAll(int width, int height) {
+    this(width, height, new SplittableRandom().nextLong());
   }
   
-  // EFFECT: Causes a GamePiece to lose it's light, which also 
-  // resets its powerVal to zero by nature. 
-  // This method is used in the refresh method in the LightEmAll class and applied to every
-  // GP on the board (except the power station) in order to then re-light only the appropriate 
-  // GPs in the lightEmUp method above
-  void loseLight() {
-    this.powerVal = 0;
-    this.lit = false;
-  }
-  
-  // Returns the GamePiece that is farthest from the given GamePiece,
-  // using breadth-first search to process all GamePieces in breadth-first
-  // order, then returns the last item on the seen list.
-  // This method is a helper method to the following method: getDiameter();
-  GamePiece farthestFrom() {
-    ArrayList<GamePiece> seen = new ArrayList<GamePiece>();
-    ArrayList<GamePiece> workList = new ArrayList<GamePiece>();
-    workList.add(this);
-    this.distance = 0;
-    while (workList.size() > 0) {
-      GamePiece curGP = workList.remove(0); // removes and returns
-      for (int i = 0; i < curGP.neighbors.size(); i++) {
-        GamePiece eachNeighbor = curGP.neighbors.get(i);
-        if (curGP.wireNeighborsWith(eachNeighbor) && !seen.contains(eachNeighbor)) {
-          workList.add(eachNeighbor);
-          eachNeighbor.distance = curGP.distance + 1;
-        }
-      }
-      seen.add(curGP);
-    }
-    GamePiece farthestFromThis = seen.remove(seen.size() - 1);
-    return farthestFromThis;
-  }
-  
-  // Returns an integer that represents the diameter of the extension of power
-  // that the power station can give off. This is calculated by locating the farthest
-  // GamePiece from the power station, then locating the farthest GamePiece from that 
-  // GamePiece. All the while, the distance of movement across the board is kept track of
-  // in the distance field of each GamePiece. Then, the diameter is the distance apart from
-  // the two farthest GamePieces.
-  // This method is called on the power station in the LightEmAll class.
-  int getDiameter() {
-    GamePiece farthestFromPS = this.farthestFrom();
-    GamePiece farthestFromThat = farthestFromPS.farthestFrom();
-    int diameter = farthestFromThat.distance;
-    return diameter;
-  }
- 
-  // Draws an individual GamePiece, depending on its properties:
-  // if the GP is not lit, it is grey;
-  // if it is and it is close to the power station, it is yellow;
-  // the further away it gets from the power station, it turns orange;
-  // the GamePieces the farthest away are pink;
-  // GamePieces that fall outside the radius are not lit.
-  // The length of an individual piece will depend on the properties of the full canvas,
-  // therefore, the length of each piece will be calculated in the LightEmAll
-  // class and given here
-  WorldImage draw(int gpWidth, int gpHeight, int radius) {
-    WorldImage gPiece = new OverlayImage(
-        new RectangleImage(gpWidth - 2, gpHeight - 2, OutlineMode.SOLID, Color.DARK_GRAY), 
-        new RectangleImage(gpWidth, gpHeight, OutlineMode.SOLID, Color.BLACK));
-    // Each line's end point will always be a position on the outer border of the
-    // gPiece image, and will land in the center of the length of the side of the gPiece image.
-    int midLengthTopBot = gpWidth / 2;
-    int midLengthSide = gpHeight / 2;
-    double offsetX = gpWidth / 4;
-    double offsetY = gpHeight / 4;
-    // EFFECT: The variable clr contains the color for which the lines on the GamePiece should be
-    // based on whether or not the GamePiece is connected to power 
-    Color clr = Color.LIGHT_GRAY;
-    if (this.lit) {
-      if (this.powerVal <= radius) {
-        clr = Color.YELLOW;
-      }
-      if (this.powerVal >= radius - 3) {
-        clr = Color.ORANGE;
-      }
-      if (this.powerVal >= radius - 1) {
-        clr = Color.PINK;
-      }
-    }
-    // One horizontal and one vertical line to overlay at different positions 
-    // over the plank gPiece image above
-    WorldImage horizontal = new LineImage(new Posn(midLengthTopBot, 0), clr);
-    WorldImage vertical = new LineImage(new Posn(0, midLengthSide), clr);
-    if (this.left) {
-      gPiece = new OverlayOffsetImage(horizontal, offsetX, 0, gPiece);
-    }
-    if (this.right) {
-      gPiece = new OverlayOffsetImage(horizontal, -offsetX, 0, gPiece);
-    }
-    if (this.top) {
-      gPiece = new OverlayOffsetImage(vertical, 0, offsetY, gPiece);
-    }
-    if (this.bottom) {
-      gPiece = new OverlayOffsetImage(vertical, 0, -offsetY, gPiece);
-    }
-    if (this.powerStation) {
-      WorldImage pwr = new OverlayImage(
-          new CircleImage(midLengthSide / 4, OutlineMode.SOLID, Color.YELLOW),
-          new StarImage(midLengthSide - 5, 7, OutlineMode.SOLID, Color.RED));
-      gPiece = new OverlayImage(pwr, gPiece);
-    }
-    return gPiece;
-  }
-  
-  // EFFECT: adjusts this GamePiece's properties to reflect a rotation in the clockwise direction.
-  // When a GamePiece is clicked, the LightEmAll class delegates the rotation action to here
-  void rotateClockwise() {
-    boolean storeleft = this.left;
-    boolean storetop = this.top;
-    boolean storeright = this.right;
-    boolean storebottom = this.bottom;
-    this.left = storebottom;
-    this.top = storeleft;
-    this.right = storetop;
-    this.bottom = storeright;
-  }
-  
-  // EFFECT: modifies the power station field of two GamePieces,
-  // causing one to lose its power station status and the other to
-  // gain it, and also becoming lit by nature. This one method to
-  // transfer the power station ensures that there can only ever
-  // be one designated power station on the game grid, and it can
-  // only ever pass it off the one other GamePiece
-  void givePowerStationTo(GamePiece newPS) {
-    this.powerStation = false;
-    newPS.powerStation = true;
-    newPS.lit = true;
-    newPS.powerVal = 0;
+  // Constructor takes the number of columns and rows respectively, and generates a playable game
+  // that is entirely determined by the given seed
+  LightEmAll(int width, int height, long seed) {
+    this(width, height, seed, true);
   }
-}
-
-///////REPRESENTS THE LIGHTEMALL CLASS WITH GAME LOGIC//////
-class LightEmAll extends World {
-  // the width and height of the board
-  // in terms of the number of GamePieces that go across and down the game board
-  int width;
-  int height;
-  int powerCol;
-  int powerRow;
-  // a list of rows of GamePieces
-  ArrayList<ArrayList<GamePiece>> board;
-  // a list of all nodes in game
-  ArrayList<GamePiece> nodes;
-  // a list of edges of the minimum spanning tree 
-  ArrayList<Edge<GamePiece>> mst;
-  // the current location of the power station,
-  // as well as its effective radius
-  int radius;
-  int time;
-  boolean gameWon;
-  int whitespace = 300;
-  int bbWidth = 700;
-  int bbHeight = 700;
   
   // Constructor takes the number of columns and rows respectively, and generates a playable game
-  LightEmAll(int width, int height) {
+  // that is entirely determined by the given seed, which is only shown on a canvas if
+  // openCanvas is true (otherwise it can still be exported, see BoardExporter)
+  LightEmAll(int width, int height, long seed, boolean openCanvas) {
+    super(new SquareTopology(), new String[] {"up", "right", "down", "left"});
     this.width = width;
     this.height = height;
+    this.fitView();
     this.powerCol = 0;
     this.powerRow = 0;
+    this.gen = new GenerationContext(seed);
     this.board = makeBoard();
-    //After constructing the board, populates the neighbors of each GamePiece:
-    populateNeighbors();
     this.nodes = getNodes();
-    //The int parameters given to getEdges(int int) represent the option to define a 
+    //The int parameters given to getEdgeList(int int) represent the option to define a 
     //bias in either horizontal or vertical direction. Here, they are equal, representing
     //no bias.
-    //The createMST takes in an ArrayList<Edge> as a parameter in order to be abstract
-    //enough to create a min spanning tree given any un ordered list of Edge.
-    this.mst = this.createMST(this.getEdges(this.nodes.size(), this.nodes.size()));
-    //Connects the edges in the min spanning tree by wires:
-    this.connectTheWires();
-    //Populates the GamePieces with power values to be used in calculateRadius:
+    //The createMST takes in an EdgeList as a parameter in order to be abstract
+    //enough to create a min spanning tree given any un ordered list of edges.
+    this.mst = this.createMST(this.getEdgeList(this.nodes.size(), this.nodes.size()));
+    //Connects the edges in the min spanning tree by wires, measures the radius of the solved
+    //puzzle, then randomly rotates all GamePieces:
+    this.dealGame();
+    //Lights the board for game play:
     this.refresh();
-    this.radius = calculateRadius();
-    //Randomly rotates all GamePieces:
-    randomRotateAll();
-    //Prepares the board for game play:
-    this.refresh();
-    this.time = 0;
-    this.gameWon = false;
     //The width of the canvas has 200 pixels of whitespace on the right side, where game stats
     //will be written to fulfill extra credit portions of the game:
-    bigBang(bbWidth + whitespace, bbHeight, 1);
+    if (openCanvas) {
+      this.frames = new FrameScheduler(this.framesPerSecond);
+      bigBang(bbWidth + whitespace, bbHeight, this.frames.tickSeconds());
+    }
   }
   
   // Constructor for testing that does not open a canvas when called, and allows you to test
   // more properties than the previous constructor:
   LightEmAll(int width, int height, int powerCol, int powerRow) {
+    this(width, height, powerCol, powerRow, new SplittableRandom().nextLong());
+  }
+  
+  // Constructor for testing, as above, that generates the board from the given seed:
+  LightEmAll(int width, int height, int powerCol, int powerRow, long seed) {
+    super(new SquareTopology(), new String[] {"up", "right", "down", "left"});
     this.width = width;
     this.height = height;
+    this.fitView();
     if (powerCol >= width || powerCol < 0) {
       throw new IllegalArgumentException("Column does not exist on this board.");
     }
@@ -440,93 +153,49 @@ class LightEmAll extends World {
     else {
       this.powerRow = powerRow;
     }
+    this.gen = new GenerationContext(seed);
     this.board = makeBoard();
     this.nodes = getNodes();
-    this.mst = this.createMST(this.getEdges(this.nodes.size(), this.nodes.size()));
+    this.mst = this.createMST(this.getEdgeList(this.nodes.size(), this.nodes.size()));
+    this.metrics = new TreeMetrics(this.mst, this.nodes.size());
     this.radius = calculateRadius();
     this.time = 0;
     this.gameWon = false;
   }
   
   ///////Constructs the game board and other initial properties://///////
-  // Creates a 2D representation of the LightEmAll game board in row-major orientation
-  // Allows coder to access a specific GamePiece, call this.board.get(i).get(j)
-  ArrayList<ArrayList<GamePiece>> makeBoard() {
-    ArrayList<ArrayList<GamePiece>> allRows = new ArrayList<ArrayList<GamePiece>>();
-    for (int i = 0; i < height; i++) {
-      ArrayList<GamePiece> aRow = new ArrayList<GamePiece>();
-      for (int j = 0; j < width; j++) {
-        //Add the power station:
-        if (j == this.powerCol && i == this.powerRow) {
-          aRow.add(new GamePiece(j, i, true));
-        }
-        //Add normal GamePieces, with all wire booleans set to false:
-        else {
-          aRow.add(new GamePiece(j, i));
-        }
-      }
-      allRows.add(aRow);
-    }
-    return allRows;
-  }
-  
-  // EFFECT: After constructing the board, this method populates the neighbors of each GamePiece
-  // by modifying the curGP's neighbor list 
-  // If the curGP is along the side of the grid, it will have three neighbors
-  // If the curGP is a corner piece, it will have two neighbors
-  public void populateNeighbors() {
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePiece curGP = this.board.get(i).get(j);
-        int jOfLeftn = j - 1; // the j index of the left neighbor
-        if (jOfLeftn >= 0) { // so long as curGP's left neighbor exists...
-          GamePiece leftN = this.board.get(i).get(jOfLeftn);
-          curGP.addNeighbor(leftN); // add the neighbor
-        }
-        int jOfRightn = j + 1; // j of right...
-        if (jOfRightn <= width - 1) {
-          GamePiece rightN = this.board.get(i).get(jOfRightn);
-          curGP.addNeighbor(rightN);
-        }
-        int iOfTopn = i - 1; // i of top...
-        if (iOfTopn >= 0) {
-          GamePiece topN = this.board.get(iOfTopn).get(j);
-          curGP.addNeighbor(topN);
-        }
-        int iOfBotn = i + 1; // i of bottom...
-        if (iOfBotn <= height - 1) {
-          GamePiece botN = this.board.get(iOfBotn).get(j);
-          curGP.addNeighbor(botN);
-        }
-      }
+  // Returns a new square GamePiece at the given column and row, with no wires
+  GamePiece newPiece(int col, int row, boolean powerStation, int orientation) {
+    GamePiece curGP;
+    //Add the power station:
+    if (powerStation) {
+      curGP = new GamePiece(col, row, true);
+    }
+    //Add normal GamePieces, with all wire booleans set to false:
+    else {
+      curGP = new GamePiece(col, row);
     }
+    curGP.orientation = orientation;
+    return curGP;
   }
   
-  // Generates an ArrayList of all nodes in the game
-  // by iterating through the board, taking one GamePiece at a time, and 
-  // adding it to a new flattened list
-  ArrayList<GamePiece> getNodes() {
-    ArrayList<GamePiece> nodeList = new ArrayList<GamePiece>();
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePiece curGP = this.board.get(i).get(j);
-        nodeList.add(curGP);
-      }
-    }
-    return nodeList;
+  // Returns the view of the board that fits it to the width and height of big bang (minus the
+  // whitespace where game stats are kept), as long as the GamePieces are not too small to see
+  Viewport makeViewport() {
+    return new Viewport(bbWidth, bbHeight, bbWidth / this.width, bbHeight / this.height);
+  }
+  
+  // Returns the painter of square GamePieces of the size they are viewed at, which also lays
+  // them out in a grid
+  TilePainter painter() {
+    return new SquarePainter(this.view.tileWidth, this.view.tileHeight);
   }
   
   ///////////////KRUSKALS ALGORITHM//////////////////
-  // A series of helper methods followed by a method called createMST
-  // that brings together all of the helper methods:
-  
-  // Generates an ArrayList of all weighted edges possible to connect the board
-  // by locating the curGP's bottom and right neighbors only (because if we generated edges with 
-  // all neighbors, there would be repeat edges) then for each neighbor, if it exists, add a new 
-  // Edge to the list of Edges with a randomized weight, which is randomized in the constructor of 
-  // the Edge class. 
+  // Generates an EdgeList of all weighted edges possible to connect the board, between each
+  // GamePiece and its right and bottom neighbors (see makeEdgeList in the GameEngine class).
   // --When the game board has no bias, he maxWeight variables are equal, arbitrarily calculated, 
-  // and is just a simple way to generate a max for the random.nextInt() used in the Edge class.
+  // and is just a simple way to generate a max for the random.nextInt() used for each weight.
   // --When the game board has a vertical bias, the maximum weight used in the generation of 
   // horizontal is much, much higher than that of the max weight a vertical edge may have. 
   // Therefore, the vertical edges will inevitably come first in the ordering of edges from 
@@ -535,148 +204,72 @@ class LightEmAll extends World {
   // (Press "v" at any time to start a vertically bias game)
   // --The same but opposite logic applies to a horizontally bias game.
   // (Press "h" at any time to start a horizontally bias game)
+  EdgeList getEdgeList(int verticalBias, int horizontalBias) {
+    // the maximum weight of the edges on each side: top, right, bottom, left
+    int[] maxWeights = new int[] {verticalBias, horizontalBias, verticalBias, horizontalBias};
+    return this.makeEdgeList(maxWeights);
+  }
+  
+  // Returns the edges generated by getEdgeList as Edge objects between GamePieces.
+  // This view is only used to test the generated edges:
   ArrayList<Edge<GamePiece>> getEdges(int verticalBias, int horizontalBias) {
-    ArrayList<Edge<GamePiece>> edgeList = new ArrayList<Edge<GamePiece>>();
-    int maxWeightHorizontal = horizontalBias;
-    int maxWeightVertival = verticalBias;
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePiece curGP = this.board.get(i).get(j);
-        int jOfRightn = j + 1; // the j index of the right neighbor
-        if (jOfRightn <= width - 1) { // so long as curGP's right neighbor exists...
-          GamePiece rightN = this.board.get(i).get(jOfRightn);
-          edgeList.add(new Edge<GamePiece>(curGP, rightN, maxWeightHorizontal));
-        }
-        int iOfBotn = i + 1; // i of bottom...
-        if (iOfBotn <= height - 1) {
-          GamePiece botN = this.board.get(iOfBotn).get(j);
-          edgeList.add(new Edge<GamePiece>(curGP, botN, maxWeightVertival));
-        }
-      }
-    }
-    return edgeList;
+    return this.getEdgeList(verticalBias, horizontalBias).toEdges(this.nodes);
   }
  
-  // Creates a hashmap of representatives to be used in Krushkal's algorithm
-  // Uses unique integers pulled from the GamePiece's unique index in the ArrayList
-  // of total game board nodes to be represented in the hashmap. This way, when we are
-  // comparing representatives in the createMST method, it is better to compare equality 
-  // of integers, rather than compare equality of GamePieces, etc.
-  HashMap<Integer, Integer> makeHashMapOfReps() {
-    HashMap<Integer, Integer> reps = new HashMap<Integer, Integer>();
-    for (int i = 0; i < this.nodes.size(); i++) {
-      reps.put(i, i);
-    }
-    return reps;
-  }
-
-  // Searches through the reps HashMap and finds the Key that has the given GamePiece
-  // representative Integer as a Value. Returns the Key:
-  int find(HashMap<Integer, Integer> reps, GamePiece gp) {
-    int find = 0;
-    for (int i = 0; i < this.nodes.size(); i++) {
-      GamePiece node = this.nodes.get(i);
-      if (node.row == gp.row && node.col == gp.col) {
-        find = i;
-      }
-    }
-    while (find != reps.get(find)) {
-      find = reps.get(find);
-    }
-    return find;
-  }
-  
-  // Performs Kruskal's algorithm to determine the minimum spanning tree of the solved game:
-  // The edges parameter is useful in case you want to generate a board with a vertical or 
-  // horizontal bias, you can call getEdges(int verticalBias, int horizontalBias) with varying 
-  // values.
+  // Returns the unique index of the given GamePiece in the ArrayList of total game board
+  // nodes, which is computed directly from its row and column in row-major order.
+  // This index is how a GamePiece is represented in the UnionFind used in Kruskal's algorithm,
+  // so that when we are comparing representatives in the createMST method, we compare
+  // integers rather than GamePieces, and never have to search through the list of nodes.
+  int indexOf(GamePiece gp) {
+    return gp.row * this.width + gp.col;
+  }
+  
+  // Performs Kruskal's algorithm (see createMST in the GameEngine class) on a list of Edge
+  // objects.
+  // This view is only used to test Kruskal's algorithm on hand-made Edges, which may have any
+  // weight, so the Edges are sorted by sortByWeight (which falls back on heapsort).
   ArrayList<Edge<GamePiece>> createMST(ArrayList<Edge<GamePiece>> edges) {
-    //Initialize the hashmap:
-    HashMap<Integer, Integer> reps = this.makeHashMapOfReps();
+    //Initialize the representatives:
+    UnionFind reps = new UnionFind(this.width * this.height);
     //Initialize the workList, which is edges sorted from smallest weight to largest weight:
     ArrayUtils au = new ArrayUtils();
-    ArrayList<Edge<GamePiece>> edgeListSmToLg = au.heapsort(edges, new CompareWeight());
+    ArrayList<Edge<GamePiece>> edgeListSmToLg = au.sortByWeight(edges, new CompareWeight());
     //Initialize the min spanning tree:
     ArrayList<Edge<GamePiece>> mst = new ArrayList<Edge<GamePiece>>();
-    while (edgeListSmToLg.size() > 0) {
-      Edge<GamePiece> curEdge = edgeListSmToLg.remove(0); //removes and returns
-      int x = this.find(reps, curEdge.fromNode);
-      int y = this.find(reps, curEdge.toNode);
+    //Walks through the workList with a cursor rather than removing from its front, and stops
+    //as soon as the tree spans every GamePiece:
+    int treeSize = this.width * this.height - 1;
+    for (int i = 0; i < edgeListSmToLg.size() && mst.size() < treeSize; i++) {
+      Edge<GamePiece> curEdge = edgeListSmToLg.get(i);
       //If this edge does not create a cycle in the mst:
-      if (x != y) {
-        //add it to the tree:
+      if (reps.union(this.indexOf(curEdge.fromNode), this.indexOf(curEdge.toNode))) {
+        //add it to the tree (the trees have been unioned):
         mst.add(curEdge);
-        //and union the trees:
-        reps.put(x, y); //union
       }
     }
     return mst;
   }
   ////////////End Kruskal's Algorithm////////////////////
   
-  // Methods that finish up the initiation of the game board:
-  
-  // Calculates the finite radius of effectiveness that is given off by 
-  // the power station by locating the power station, using breadth-first search
-  // to calculate the longest distance from the power station to an end node when
-  // the puzzle is solved, then calculating the distance between that GamePiece and its
-  // furthest GamePiece (diameter).
-  // then calculates the radius using that diameter.
-  // This method is called once at the initiation of the game, but before the pieces
-  // are randomly rotated (so, as a solved puzzle)
-  int calculateRadius() {
-    GamePiece powerstation = this.board.get(this.powerRow).get(this.powerCol);
-    int diameter = powerstation.getDiameter();
-    int rad = (diameter / 2) + 1;
-    return rad;
-  }
-  
-  // Traverses through the min spanning tree list of edges that represent the solved
-  // game and 'gives wires' to each GamePiece according to their connected neighbors.
-  // EFFECT: delegates to the GamePiece class to modify the left/right/top/bottom
-  // boolean fields of the GamePieces that need to be connected
-  void connectTheWires() {
-    for (int i = 0; i < this.mst.size(); i++) {
-      Edge<GamePiece> e = this.mst.get(i);
-      GamePiece from = e.fromNode;
-      GamePiece to = e.toNode;
-      to.connectIfNeighborOf(from);
-    }
-  }
-  
-  // EFFECT: traverses through the total list of nodes of GamePieces and rotates
-  // them a random number of times to finally prepare the board for game play:
-  void randomRotateAll() {
-    for (int i = 0; i < this.nodes.size(); i++) {
-      GamePiece curGP = this.nodes.get(i);
-      curGP.rotateRandom();
-    }
+  //////////////////Draw controls/////////////////////
+  // Returns a new image of the given GamePiece, filling its place in the grid at the size
+  // it is viewed at (see makeScene in the GameEngine class)
+  WorldImage drawPiece(GamePiece gp) {
+    return gp.draw(this.view.tileWidth, this.view.tileHeight, this.radius, this.lightEpoch);
   }
-  //////////////////////////////////////////////////
   
-  //////////////////Draw controls/////////////////////
-  // Draws the LightEmAll game as a grid of GamePieces 
-  // the gpWidth is the width of big bang (minus the whitespace where game stats are kept; 
-  // this is done in bigbang above) divided by the number of columns
-  // the gpHeight is the height of big bang divided by the number of rows
-  public WorldScene makeScene() {
-    int gpWidth = bbWidth / width;
-    int gpHeight = bbHeight / height;
-    WorldScene w = new WorldScene(bbWidth, bbHeight);
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePiece curGP = this.board.get(i).get(j);
-        w.placeImageXY(curGP.draw(gpWidth, gpHeight, this.radius), 
-            (j * gpWidth) + (gpWidth / 2), (i * gpHeight) + (gpHeight / 2));
-      }
-    }
-    w.placeImageXY(this.writeGameStats(), bbWidth + (whitespace / 2), bbHeight / 2);
-    return w;
+  // Returns a new cell of the given color, filling a GamePiece's place in the grid at the size
+  // it is viewed at, for GamePieces too small to show their wires
+  WorldImage drawCell(Color color) {
+    return new RectangleImage(this.view.tileWidth, this.view.tileHeight, OutlineMode.SOLID,
+        color);
   }
   
-  // Produces a rectangular world image to be placed on the right side of the canvas and 
-  // will contain text that keeps track of the game status throughout the game
-  WorldImage writeGameStats() {
+  // Produces the parts of the game stats that never change during the game: a rectangular
+  // world image to be placed on the right side of the canvas, with the title and instructions
+  // (see writeGameStats in the GameEngine class)
+  WorldImage drawStatsBackground() {
     //Initialize the rectangle where the info will be placed:
     WorldImage bckgr = new RectangleImage(whitespace, bbHeight, OutlineMode.OUTLINE,
         Color.BLACK);
@@ -689,19 +282,6 @@ class LightEmAll extends World {
         new BesideImage(pwr, title, pwr),
         new TextImage("To Win: Connect all the wires and move", 14, FontStyle.ITALIC, Color.BLACK),
         new TextImage("the power station to light the board", 14, FontStyle.ITALIC, Color.BLACK));
-    //Keeps track of time:
-    WorldImage time = new TextImage("TIME: " + Integer.toString(this.time), 14, FontStyle.REGULAR,
-        Color.BLACK);
-    //Keeps track of score:
-    WorldImage score = new AboveImage(
-        new TextImage("You have connected ", 16, FontStyle.BOLD, Color.BLACK),
-        new TextImage(Integer.toString(this.keepScore()) + " / "
-        + Integer.toString(this.width * this.height) + " squares", 16, FontStyle.BOLD, 
-        Color.BLACK),
-        new TextImage("Connect " 
-            + Integer.toString(this.width * this.height - this.keepScore())
-            + " more to win!", 16, FontStyle.REGULAR, 
-            Color.BLACK));
     WorldImage instructions = new AboveImage(
         new TextImage("(or press 'g' to give up on this game,", 12, FontStyle.REGULAR, Color.GRAY),
         new TextImage("and 'r' to restart with a new game)", 12, FontStyle.REGULAR, Color.GRAY));
@@ -721,78 +301,51 @@ class LightEmAll extends World {
             Color.BLACK));
     //Align all the info into the background image:
     WorldImage placeTitle = new OverlayImage(titleImage.movePinholeTo(new Posn(0, 250)), bckgr);
-    WorldImage placeTime = new OverlayImage(time.movePinholeTo(new Posn(0, 110)), placeTitle);
-    WorldImage placeScore = new OverlayImage(score.movePinholeTo(new Posn(0, 50)), placeTime);
     WorldImage placeExtraCreditInfo = new OverlayImage(extraInfo.movePinholeTo(new Posn(0, -240)), 
-        placeScore);
-    WorldImage placeInstructions = new OverlayImage(instructions.movePinholeTo(new Posn(0, -300)), 
+        placeTitle);
+    return new OverlayImage(instructions.movePinholeTo(new Posn(0, -300)), 
         placeExtraCreditInfo);
+  }
+  
+  // Produces the parts of the game stats that change during the game (the time, the given
+  // score and the winning notification), placed over the given background
+  WorldImage drawStats(WorldImage background, int score) {
+    //Keeps track of time, and shows the seed that generated this board:
+    WorldImage time = new AboveImage(
+        new TextImage("TIME: " + Integer.toString(this.time), 14, FontStyle.REGULAR,
+            Color.BLACK),
+        new TextImage("SEED: " + Long.toString(this.gen.seed), 12, FontStyle.REGULAR,
+            Color.GRAY));
+    //Keeps track of score:
+    WorldImage scoreImage = new AboveImage(
+        new TextImage("You have connected ", 16, FontStyle.BOLD, Color.BLACK),
+        new TextImage(Integer.toString(score) + " / "
+        + Integer.toString(this.width * this.height) + " squares", 16, FontStyle.BOLD, 
+        Color.BLACK),
+        new TextImage("Connect " 
+            + Integer.toString(this.width * this.height - score)
+            + " more to win!", 16, FontStyle.REGULAR, 
+            Color.BLACK));
+    WorldImage placeTime = new OverlayImage(time.movePinholeTo(new Posn(0, 110)), background);
+    WorldImage placeScore = new OverlayImage(scoreImage.movePinholeTo(new Posn(0, 50)),
+        placeTime);
     //Handles the winning notification:
-    int aTime = this.time;
-    WorldImage winnerMsg = new AboveImage(
-        new TextImage("YOU'RE A WINNER!", 20, FontStyle.BOLD, Color.GREEN),
-        new TextImage("You beat the game in "
-        + Integer.toString(aTime)
-        + " seconds", 16, FontStyle.BOLD, Color.GREEN),
-        new TextImage("Press the r key for a new challenege!", 
-        15, FontStyle.REGULAR, Color.BLUE));
     if (this.gameWon) {
+      WorldImage winnerMsg = new AboveImage(
+          new TextImage("YOU'RE A WINNER!", 20, FontStyle.BOLD, Color.GREEN),
+          new TextImage("You beat the game in "
+          + Integer.toString(this.time)
+          + " seconds", 16, FontStyle.BOLD, Color.GREEN),
+          new TextImage("Press the r key for a new challenege!", 
+          15, FontStyle.REGULAR, Color.BLUE));
       return new OverlayImage(
-          winnerMsg.movePinhole(0, -55), placeInstructions);
+          winnerMsg.movePinhole(0, -55), placeScore);
     }
-    return placeInstructions;
+    return placeScore;
   }
   
   ////////////////End Draw Controls///////////////
   
-  // Keeps track of the user's "score" in terms of now many square on the
-  // game grid are lit. This integer is also subtracted from the total number of
-  // nodes in order to keep track of how many are remaining (the smaller the better).
-  // EFFECT: If the score reflects a winning game, this method turns the gameWon boolean true.
-  int keepScore() {
-    int score = 0;
-    for (int i = 0; i < this.nodes.size(); i++) {
-      if (this.nodes.get(i).lit) {
-        score = score + 1;
-      }
-    }
-    if (score == this.width * this.height) {
-      this.gameWon = true;
-    }
-    return score;
-  }
-  
-  // Counts the number of seconds a user has been playing a game,
-  // to be displayed in the game stats secion of the canvas.
-  // When the game has been won, the timer pauses until the user restarts the game.
-  // at which time the timer is reset:
-  public void onTick() {
-    if (!this.gameWon) {
-      this.time = this.time + 1;
-    }
-  }
-  
-  ////////////////////MOUSE CONTROLS////////////////
-  // Controls the clicking functionality of the game
-  // when a GamePiece is clicked, the action of rotating the piece is delegated
-  // to the GamePiece class, and the board is refreshed to reflect any new connections
-  // or any disconnected pieces being un-lit:
-  public void onMouseClicked(Posn pos) {
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        if (pos.x > bbWidth / width * j 
-            && pos.x < bbWidth / width * (j + 1) 
-            && pos.y > bbHeight / height * i 
-            && pos.y < bbHeight / height * (i + 1)) {
-          GamePiece curGP = this.board.get(i).get(j);
-          curGP.rotateClockwise();
-          this.refresh();
-        }
-      }
-    }
-  }
-  /////////////////////////////////////////////////////
-  
   ////////////////// OnKey Events/////////////////
   // Controls the key functionality of the game
   // When an arrow key is pressed, iterates through the entire board and finds the
@@ -802,105 +355,58 @@ class LightEmAll extends World {
   // by connecting all the wires. However, the power station is not moved, so the user
   // may move it into place to "win" the game.
   public void onKeyEvent(String key) {
-    GamePiece powerStation = this.board.get(powerRow).get(powerCol);
-    if (!this.gameWon) {
-      if (key.equals("left")) {
-        int jOfLeftn = powerCol - 1;
-        // These conditionals prevent out of bounds errors:
-        // So long as the j coordinate of the left neighbor is not out of bounds...
-        // (if it is, ignore the user key press, and do nothing)
-        if (jOfLeftn >= 0) {
-          // finds the left neighbor of the power station:
-          GamePiece leftn = this.board.get(powerRow).get(jOfLeftn);
-          // makes that left neighbor the new designated power station,
-          // only if they are also wire neighbors, in order to keep the
-          // power station along the power lines:
-          if (powerStation.wireNeighborsWith(leftn)) {
-            powerStation.givePowerStationTo(leftn);
-            // reset the power station
-            this.powerCol = jOfLeftn;
-          }
-        }
-      }
-      // repeat for the rest:
-      if (key.equals("right")) {
-        int jOfRightn = powerCol + 1;
-        if (jOfRightn < width) {
-          GamePiece rightn = this.board.get(powerRow).get(jOfRightn);
-          if (powerStation.wireNeighborsWith(rightn)) {
-            powerStation.givePowerStationTo(rightn);
-            this.powerCol = jOfRightn;
-          }
-        }
-      }
-      if (key.equals("up")) {
-        int iOfTopn = powerRow - 1;
-        if (iOfTopn >= 0) {
-          GamePiece upn = this.board.get(iOfTopn).get(powerCol);
-          if (powerStation.wireNeighborsWith(upn)) {
-            powerStation.givePowerStationTo(upn);
-            this.powerRow = iOfTopn;
-          }
-        }
-      }
-      if (key.equals("down")) {
-        int iOfBotn = powerRow + 1;
-        if (iOfBotn < height) {
-          GamePiece downn = this.board.get(iOfBotn).get(powerCol);
-          if (powerStation.wireNeighborsWith(downn)) {
-            powerStation.givePowerStationTo(downn);
-            this.powerRow = iOfBotn;
-          }
-        }
-      }
-    }
-    // The "give-up" funcionality:
-    if (key.equals("g")) {
-      this.createMST(this.getEdges(this.nodes.size(), this.nodes.size()));
+    this.frames.markChanged();
+    // Keys that only scroll or zoom the view do not change the board, so nothing is re-lit:
+    if (this.moveView(key)) {
+      return;
+    }
+    // The side of the power station that the key moves it toward (-1 for any other key).
+    // Moves are applied with the rest of the input of this frame (see applyInput):
+    int side = this.sideOfKey(key);
+    if (side != -1) {
+      this.queueStationMove(side);
+      return;
+    }
+    // Every other key is applied after the input queued before it:
+    this.applyInput();
+    // The "give-up" funcionality, which re-connects the wires of the solved game:
+    if (!this.gameWon && key.equals("g")) {
       connectTheWires();
     }
     // Press "r" to reset the game:
     if (key.equals("r")) {
-      this.gameWon = false;
       this.powerCol = 0;
       this.powerRow = 0;
+      this.gen = new GenerationContext();
       this.board = makeBoard();
-      populateNeighbors();
       this.nodes = getNodes();
-      this.mst = this.createMST(this.getEdges(this.nodes.size(), this.nodes.size()));
-      this.connectTheWires();
-      this.refresh();
-      this.radius = calculateRadius();
-      this.time = 0;
-      this.randomRotateAll();
+      this.mst = this.createMST(this.getEdgeList(this.nodes.size(), this.nodes.size()));
+      // The new game is dealt, and lit once by the refresh below:
+      this.dealGame();
     }
     // Press "v" for a vertical bias game, distinguished by the
     // vertical bias parameter being a much greater integer than the
-    // horizontal bias parameter in the getEdges() method.
+    // horizontal bias parameter in the getEdgeList() method.
     // Or press "h" for a horizontal bias game, distinguished by the
     // horizontal bias parameter being a much greater integer than the
-    // vertical bias parameter in the getEdges() method.
+    // vertical bias parameter in the getEdgeList() method.
     if (key.equals("v") || key.equals("h")) {
-      this.gameWon = false;
       this.powerCol = 0;
       this.powerRow = 0;
+      this.gen = new GenerationContext();
       this.board = makeBoard();
-      populateNeighbors();
       this.nodes = getNodes();
       // The actual integers in the parameters (this.width, this.nodes.size(), etc)
       // are arbitrary; the most important factor is that one is significantly larger
       // than the other.
       if (key.equals("v")) {
-        this.mst = this.createMST(this.getEdges(this.width, this.nodes.size() * 10));
+        this.mst = this.createMST(this.getEdgeList(this.width, this.nodes.size() * 10));
       }
       if (key.equals("h")) {
-        this.mst = this.createMST(this.getEdges(this.nodes.size() * 10, this.height));
+        this.mst = this.createMST(this.getEdgeList(this.nodes.size() * 10, this.height));
       }
-      this.connectTheWires();
-      this.refresh();
-      this.radius = calculateRadius();
-      this.time = 0;
-      this.randomRotateAll();
+      // The new game is dealt, and lit once by the refresh below:
+      this.dealGame();
     }
     //Press "x" to open a new canvas, with our attempt at the hexagon game:
     if (key.equals("x")) {
@@ -910,137 +416,6 @@ class LightEmAll extends World {
     this.refresh();
   }
   //////////////////////////////////////////////////
- 
-  // EFFECT: Refreshes the lighting of the board by causing all GamePieces 
-  // (except the power station) to momentarily lose power, then calls lightEmUp on 
-  // the power station once again to refresh any newly connected power lines.
-  // This method is called any time a change is made to the world by the user.
-  public void refresh() {
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePiece curGP = this.board.get(i).get(j);
-        if (i != powerRow || j != powerCol) {
-          curGP.loseLight();
-        }
-      }
-    }
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePiece curGP = this.board.get(i).get(j);
-        if (i == powerRow && j == powerCol) {
-          curGP.lightEmUp(this.radius);
-        }
-      }
-    }
-  }
-}
-
-////////// REPRESENTS EDGE CLASS//////////
-// Represents an Edge on a graph of GamePieces
-class Edge<T> {
-  T fromNode;
-  T toNode;
-  // Takes an integer representing the maximum weight that an Edge can be assigned
-  int weight;
-
-  // General constructor for random-weight Edges
-  Edge(T from, T to, int maxWeight) {
-    this.fromNode = from;
-    this.toNode = to;
-    Random r = new Random();
-    this.weight = r.nextInt(maxWeight);
-  }
-
-  // Constructor to test Edges in the createMST() method:
-  // If every edge has a weight of one, the sum of all the weights
-  // of the min spanning tree.
-  Edge(T from, T to) {
-    this.fromNode = from;
-    this.toNode = to;
-    this.weight = 1;
-  }
-}
-
-////////// ARRAY UTILS///////////
-// An arrayUtils class that is used to help sort ArrayLists used throughout this program
-class ArrayUtils {
-  // Effect: Exchanges the values at the given two indices in the given array
-  <T> void swap(ArrayList<T> arr, int index1, int index2) {
-    T oldValueAtI1 = arr.get(index1);
-    T oldValueAtI2 = arr.get(index2);
-
-    arr.set(index1, oldValueAtI2);
-    arr.set(index2, oldValueAtI1);
-  }
-
-  // EFFEECT: sorts the ArrayList in ascending order using the heapsort technique
-  // by downheaping each item on the arrayList starting at the center of the
-  // ArrayList
-  // and ending at index 0 to create a valid heap.
-  // Then, swap elements at index 0 of the valid heap with elements at index
-  // heap.size() - 1,
-  // and add the element previously at index 0 to a new ArrayList that is the
-  // resulting sorted ArrayList, while downheaping the new element at index 0 with 
-  // the rest of the heap:
-  <T> ArrayList<T> heapsort(ArrayList<T> arr, IComparator<T> comp) {
-    // Reorder arr into a heap:
-    for (int i = (arr.size() - 1) / 2; i >= 0; i = i - 1) {
-      downheap(arr, i, comp);
-    }
-    // put into non-decreasing order:
-    ArrayList<T> sortedOrder = new ArrayList<T>();
-    for (int i = arr.size() - 1; i >= 0; i = i - 1) {
-      this.swap(arr, i, 0);
-      T addThis = arr.remove(arr.size() - 1);
-      this.downheap(arr, 0, comp);
-      sortedOrder.add(0, addThis);
-    }
-    return sortedOrder;
-  }
-
-  // EFFECT: helps heap sort the given array by comparing the element at index i
-  // to the elements at both child indices, determining if the element at index i is in place by
-  // checking if it is less of a priority than either of its children elements. If so, it is
-  // swapped with the child with the greatest priority,
-  // and recurs until the element at the starting index is in place.
-  <T> void downheap(ArrayList<T> arr, int startingIdx, IComparator<T> comp) {
-    int leftChildIdx = 2 * startingIdx + 1;
-    int rightChildIdx = 2 * startingIdx + 2;
-    int biggerChildIdx = leftChildIdx;
-    // IF BOTH CHILDREN EXIST:
-    if (arr.size() - 1 >= leftChildIdx && arr.size() - 1 >= rightChildIdx) {
-      // To determine which child has greater priority, we create a variable called
-      // biggerChildIdx that is the left child by default, but once the two children's
-      // elements are compared is reset to the right child if necessary.
-      if (comp.compare(arr.get(rightChildIdx), arr.get(leftChildIdx)) > 0) {
-        biggerChildIdx = rightChildIdx;
-      }
-      if (comp.compare(arr.get(startingIdx), arr.get(leftChildIdx)) < 0 || comp.compare(arr.get(
-          startingIdx), arr.get(rightChildIdx)) < 0) {
-        this.swap(arr, startingIdx, biggerChildIdx);
-        this.downheap(arr, biggerChildIdx, comp);
-      }
-    }
-    // IF ONLY THE RIGHT CHILD EXISTS
-    if (arr.size() - 1 < leftChildIdx && arr.size() - 1 >= rightChildIdx) {
-      if (comp.compare(arr.get(startingIdx), arr.get(rightChildIdx)) < 0) {
-        this.swap(arr, startingIdx, rightChildIdx);
-        this.downheap(arr, rightChildIdx, comp);
-      }
-    }
-    // IF ONLY THE LEFT CHILD EXISTS
-    if (arr.size() - 1 < rightChildIdx && arr.size() - 1 >= leftChildIdx) {
-      if (comp.compare(arr.get(startingIdx), arr.get(leftChildIdx)) < 0) {
-        this.swap(arr, startingIdx, leftChildIdx);
-        this.downheap(arr, leftChildIdx, comp);
-      }
-    }
-  }
-}
-
-// Represents a general IComparator to be used in the ArrayUtils class heap sort
-interface IComparator<T> {
-  int compare(T t1, T t2);
 }
 
 // Represents an IComparator<Edge> that can be used to determine which Edge is
@@ -1071,467 +446,63 @@ class CompareIntegers implements IComparator<Integer> {
   }
 }
 
-class GamePieceHex {
-  // location in the LightEmAllHex game-board 2D ArrayList: row -> i; col -> j;
-  int col;
-  int row;
-  // whether this GamePiece is connected to the adjacent topLeft, topRight, 
-  // left, right, bottomLeft, or bottomRight pieces
-  boolean tl;
-  boolean tr;
-  boolean left;
-  boolean right;
-  boolean bl;
-  boolean br;
-  // A list of GamePieces of this GamePiece's neighbors
-  ArrayList<GamePieceHex> neighbors;
-  // whether the power station is on this piece
-  boolean powerStation;
-  // Whether the GamePiece is connected to power
-  boolean lit;
-  // The distance of the GamePiece from the power station.
-  // Two GamePieces may have the same powerVals if they both span
-  // out from the power station in different directions but are the same
-  // distance from it
-  int powerVal;
-  // The distance field is used only once in the process of finding the diameter,
-  // and can represent a more general sense of 'distance' between two arbitrary
-  // GamePieces rather than specifically the distance from the power station.
-  int distance;
-  // A random number that represents the number of times a GamePiece is rotated when a
-  // game is initialized
-  int orientation;
-  
-  // Constructor for a general, non-power station GamePiece.
-  // To begin, all fields are set to false, and given wires
-  // in the connectTheWires() method in the LightEmAll class by delegating the
-  // wire assignment to this class
-  GamePieceHex(int col, int row) {
-    this.col = col;
-    this.row = row;
-    this.tl = false;
-    this.tr = false;
-    this.left = false;
-    this.right = false;
-    this.bl = false;
-    this.br = false;
-    this.neighbors = new ArrayList<GamePieceHex>();
-    this.powerStation = false;
-    this.lit = false;
-    this.powerVal = 0;
-    this.distance = 0;
-    Random r = new Random();
-    this.orientation = r.nextInt(4);
-  }
- 
-  // Constructor for the power station GamePiece, used to initialize the power
-  // station in the makeBoard method in the LightEmAllHex class
-  GamePieceHex(int col, int row, boolean powerStation) {
-    this.col = col;
-    this.row = row;
-    this.tl = false;
-    this.tr = false;
-    this.left = false;
-    this.right = false;
-    this.bl = false;
-    this.br = false;
-    this.neighbors = new ArrayList<GamePieceHex>();
-    this.powerStation = powerStation;
-    this.lit = true;
-    // The power station starts the count of distance at 0, its neighbors have a powerVal of 1
-    this.powerVal = 0;
-    Random r = new Random();
-    this.orientation = r.nextInt(4);
-  }
-
-  // Constructor for testing different variations of orientation in examples class:
-  GamePieceHex(int col, int row, boolean tl, boolean tr, boolean left, boolean right,
-      boolean bl, boolean br) {
-    this.col = col;
-    this.row = row;
-    this.tl = tl;
-    this.tr = tr;
-    this.left = left;
-    this.right = right;
-    this.bl = bl;
-    this.br = br;
-    this.neighbors = new ArrayList<GamePieceHex>();
-    this.powerStation = false;
-    this.lit = false;
-    this.powerVal = 0;
-    Random r = new Random();
-    this.orientation = r.nextInt(4);
-  }
-  
-  // EFFECT: Modifies this neighbors field to add a new neighbor, 
-  // and adds this GamePiece to the neighbor's neighbors list,
-  // only if the two GamePiece's are not already deemed neighbors
-  void addNeighbor(GamePieceHex gp) {
-    if (!this.neighbors.contains(gp)) {
-      this.neighbors.add(gp);
-      gp.neighbors.add(this);
-    }
-  }
+// Represents the hexagonal game of LightEmAll, which is generated, lit and scored by the
+// GameEngine on a HexTopology
+class LightEmAllHex extends GameEngine<GamePieceHex> {
   
-  // After the min spanning tree has been generated, this method determines which neighbors 
-  // each GamePiece should be wire-connected to.
-  // EFFECT: Modifies the left/right/top/bottom boolean fields of this GamePiece and of its
-  // neighbor GamePiece if they ought to be connected by wire
-  void connectIfNeighborOf(GamePieceHex to) {
-    //If the hex is on an even indexed row:
-    if (this.row % 2 == 0) {
-      // If this is the topLeft neighbor of to:
-      if (this.row == to.row - 1 && this.col == to.col - 1) {
-        this.br = true;
-        to.tl = true;
-      }
-      // If this is the topRight neighbor of to:
-      if (this.row == to.row - 1 && this.col == to.col) {
-        this.bl = true;
-        to.tr = true;
-      }
-      // If this is the bottomLeft neighbor of to:
-      if (this.row == to.row + 1 && this.col == to.col - 1) {
-        this.tr = true;
-        to.bl = true;
-      }
-      // If this is the bottomRight neighbor of to:
-      if (this.row == to.row + 1 && this.col == to.col) {
-        this.tl = true;
-        to.br = true;
-      }
-    }
-    // If this is the LEFT neighbor of to:
-    if (this.row == to.row && this.col == to.col - 1) {
-      this.right = true;
-      to.left = true;
-    }
-    // If this is the RIGHT neighbor to:
-    if (this.row == to.row && this.col == to.col + 1) {
-      this.left = true;
-      to.right = true;
-    }
-    //If the hex is on an odd indexed row:
-    if (this.row % 2 != 0) {
-      // If this is the topLeft neighbor of to:
-      if (this.row == to.row - 1 && this.col == to.col) {
-        this.br = true;
-        to.tl = true;
-      }
-      // If this is the topRight neighbor of to:
-      if (this.row == to.row - 1 && this.col == to.col + 1) {
-        this.bl = true;
-        to.tr = true;
-      }
-      // If this is the bottomLeft neighbor of to:
-      if (this.row == to.row + 1 && this.col == to.col) {
-        this.tr = true;
-        to.bl = true;
-      }
-      // If this is the bottomRight neighbor of to:
-      if (this.row == to.row + 1 && this.col == to.col + 1) {
-        this.tl = true;
-        to.br = true;
-      }
-    }
-  }
-    
-  // EFFECT: rotates the GamePiece a random number of times,
-  // which is determined in the GamePiece constructor 
-  // This method is used in the initiation of the game to randomize the rotation
-  // of the board's GamePieces to start off
-  void rotateRandom() {
-    for (int i = this.orientation; i >= 0; i = i - 1) {
-      this.rotateClockwise();
-    }
-  }
- 
-  // Determines if two GamePieces are connected by wires (not only by location)
-  // First, checks which of the side neighbors the given piece is, in relation to this one
-  // Then, returns whether the given GamePiece is also connected back to this one by wire
-  boolean wireNeighborsWith(GamePieceHex that) {
-    // If that is the LEFT neighbor:
-    if (that.col == this.col - 1 && that.row == this.row) {
-      return this.left && that.right;
-    }
-    // If that is the RIGHT neighbor:
-    if (that.col == this.col + 1 && that.row == this.row) {
-      return this.right && that.left;
-    }
-    // IF this hexagon is on an even indexed row:
-    // If that is the TOPLEFT neighbor:
-    if ((this.row % 2 == 0) && that.col == this.col && that.row == this.row - 1) {
-      return this.tl && that.br;
-    }
-    // If that is the TOPRIGHT neighbor:
-    if ((this.row % 2 == 0) && that.col == this.col + 1 && that.row == this.row - 1) {
-      return this.tr && that.bl;
-    }
-    // If that is the BOTTOMLEFT neighbor:
-    if ((this.row % 2 == 0) && that.col == this.col && that.row == this.row + 1) {
-      return this.bl && that.tr;
-    }
-    // If that is the BOTTOMRIGHT neighbor:
-    if ((this.row % 2 == 0) && that.col == this.col + 1 && that.row == this.row + 1) {
-      return this.br && that.tl;
-    }
-    // IF this hexagon is on an odd indexed row:
-    // If that is the TOPLEFT neighbor:
-    if ((this.row % 2 != 0) && that.col == this.col - 1 && that.row == this.row - 1) {
-      return this.tl && that.br;
-    }
-    // If that is the TOPRIGHT neighbor:
-    if ((this.row % 2 != 0) && that.col == this.col && that.row == this.row - 1) {
-      return this.tr && that.bl;
-    }
-    // If that is the BOTTOMLEFT neighbor:
-    if ((this.row % 2 != 0) && that.col == this.col - 1 && that.row == this.row + 1) {
-      return this.bl && that.tr;
-    }
-    // If that is the BOTTOMRIGHT neighbor:
-    if ((this.row % 2 != 0) && that.col == this.col && that.row == this.row + 1) {
-      return this.br && that.tl;
-    }
-    else {
-      return false;
-    }
-  }
-  
-  // EFFECT: Uses breadth-first technique to modify the lit fields of the GamePieces
-  // This method is only ever called on the PowerStation in the refresh method
-  // in the LightEmAll class, and then spans out across the game board passing light across 
-  // wire-connected pieces.
-  // A convenient side effect of this is visiting specific GamePieces in order of distance
-  // from the power station itself, so this method also has the effect of modifying GamePiece's
-  // powerVal fields, which is a number representing its distance from the power station.
-  // The GamePiece is only lit if it's powerVal is within the radius of light extension.
-  void lightEmUp(int radius) {
-    ArrayList<GamePieceHex> seen = new ArrayList<GamePieceHex>();
-    ArrayList<GamePieceHex> workList = new ArrayList<GamePieceHex>();
-    workList.add(this);
-    this.powerVal = 0;
-    while (workList.size() > 0) {
-      GamePieceHex curGP = workList.remove(0); // removes and returns
-      // only lights the GamePiece if it falls within the radius of the power station,
-      // which is a parameter given by the LightEmAll class to this method
-      if (curGP.powerVal <= radius) {
-        curGP.lit = true;
-      }
-      for (int i = 0; i < curGP.neighbors.size(); i++) {
-        GamePieceHex eachNeighbor = curGP.neighbors.get(i);
-        if (curGP.wireNeighborsWith(eachNeighbor) && !seen.contains(eachNeighbor)) {
-          workList.add(eachNeighbor);
-          // Each GamePiece's powerVal is one more than that of its neighbor that is
-          // closest
-          // to the power station
-          eachNeighbor.powerVal = curGP.powerVal + 1;
-        }
-      }
-      seen.add(curGP);
-    }
+  // Constructor takes the number of columns and rows respectively, and generates a playable game
+  // from a randomly chosen seed
+  LightEmAllHex(int width, int height) {
+    this(width, height, new SplittableRandom().nextLong());
   }
   
-  // EFFECT: Causes a GamePiece to lose it's light, which also 
-  // resets its powerVal to zero by nature. 
-  // This method is used in the refresh method in the LightEmAll class and applied to every
-  // GP on the board (except the power station) in order to then re-light only the appropriate 
-  // GPs in the lightEmUp method above
-  void loseLight() {
-    this.powerVal = 0;
-    this.lit = false;
-  }
-  
-  // Returns the GamePiece that is farthest from the given GamePiece,
-  // using breadth-first search to process all GamePieces in breadth-first
-  // order, then returns the last item on the seen list.
-  // This method is a helper method to the following method: getDiameter();
-  GamePieceHex farthestFrom() {
-    ArrayList<GamePieceHex> seen = new ArrayList<GamePieceHex>();
-    ArrayList<GamePieceHex> workList = new ArrayList<GamePieceHex>();
-    workList.add(this);
-    this.distance = 0;
-    while (workList.size() > 0) {
-      GamePieceHex curGP = workList.remove(0); // removes and returns
-      for (int i = 0; i < curGP.neighbors.size(); i++) {
-        GamePieceHex eachNeighbor = curGP.neighbors.get(i);
-        if (curGP.wireNeighborsWith(eachNeighbor) && !seen.contains(eachNeighbor)) {
-          workList.add(eachNeighbor);
-          eachNeighbor.distance = curGP.distance + 1;
-        }
-      }
-      seen.add(curGP);
-    }
-    GamePieceHex farthestFromThis = seen.remove(seen.size() - 1);
-    return farthestFromThis;
-  }
-  
-  // Returns an integer that represents the diameter of the extension of power
-  // that the power station can give off. This is calculated by locating the farthest
-  // GamePiece from the power station, then locating the farthest GamePiece from that 
-  // GamePiece. All the while, the distance of movement across the board is kept track of
-  // in the distance field of each GamePiece. Then, the diameter is the distance apart from
-  // the two farthest GamePieces.
-  // This method is called on the power station in the LightEmAll class.
-  int getDiameter() {
-    GamePieceHex farthestFromPS = this.farthestFrom();
-    GamePieceHex farthestFromThat = farthestFromPS.farthestFrom();
-    int diameter = farthestFromThat.distance;
-    return diameter;
-  }
- 
-  // Draws an individual GamePiece, depending on its properties:
-  // if the GP is not lit, it is grey;
-  // if it is and it is close to the power station, it is yellow;
-  // the further away it gets from the power station, it turns orange;
-  // the GamePieces the farthest away are pink;
-  // GamePieces that fall outside the radius are not lit.
-  // The length of an individual piece will depend on the properties of the full canvas,
-  // therefore, the length of each piece will be calculated in the LightEmAll
-  // class and given here
-  WorldImage draw(int sideLen, int radius) {
-    WorldImage gPiece = new OverlayImage(
-        new RotateImage(new HexagonImage(sideLen - 2, OutlineMode.SOLID, Color.DARK_GRAY), 90),
-        new RotateImage(new HexagonImage(sideLen, OutlineMode.SOLID, Color.BLACK), 90));
-    // Each line's end point will always be a position on the outer border of the
-    // gPiece image, and will land in the center of the length of the side of the gPiece image.
-    // EFFECT: The variable clr contains the color for which the lines on the GamePiece should be
-    // based on whether or not the GamePiece is connected to power 
-    Color clr = Color.LIGHT_GRAY;
-    if (this.lit) {
-      if (this.powerVal <= radius) {
-        clr = Color.YELLOW;
-      }
-      if (this.powerVal >= radius - 3) {
-        clr = Color.ORANGE;
-      }
-      if (this.powerVal >= radius - 1) {
-        clr = Color.PINK;
-      }
-    }
-    // One horizontal and two diagonal lines to overlay at different positions 
-    // over the plank gPiece image above
-    int sideLenA = sideLen * 3 / 4;
-    int sideLenA2 = sideLen / 3;
-    WorldImage horizontal = new LineImage(new Posn(sideLen - 10, 0), clr);
-    WorldImage diagFromL = new RotateImage(new LineImage(new Posn(0, sideLenA + 10), clr), -45);
-    WorldImage diagFromR = new RotateImage(new LineImage(new Posn(0, sideLenA), clr), 45);
-    if (this.tl) {
-      gPiece = new OverlayOffsetImage(diagFromL, sideLenA2 - 5, sideLenA2 - 5, gPiece);
-    }
-    if (this.tr) {
-      gPiece = new OverlayOffsetImage(diagFromR, sideLenA2 / 3 - 20, sideLenA2, gPiece);
-    }
-    if (this.left) {
-      gPiece = new OverlayOffsetImage(horizontal, sideLenA2 + 5, 0, gPiece);
-    }
-    if (this.right) {
-      gPiece = new OverlayOffsetImage(horizontal, -(sideLenA2 + 5), 0, gPiece);
-    }
-    if (this.bl) {
-      gPiece = new OverlayOffsetImage(diagFromR, sideLenA2, -sideLenA2, gPiece);
-    }
-    if (this.br) {
-      gPiece = new OverlayOffsetImage(diagFromL, -sideLenA2, -sideLenA2, gPiece);
-    }
-    if (this.powerStation) {
-      WorldImage pwr = new OverlayImage(
-          new CircleImage(sideLen / 4, OutlineMode.SOLID, Color.YELLOW),
-          new StarImage(sideLen - 8, 7, OutlineMode.SOLID, Color.RED));
-      gPiece = new OverlayImage(pwr, gPiece);
-    }
-    return gPiece;
-  }
-  
-  // EFFECT: adjusts this GamePiece's properties to reflect a rotation in the clockwise direction.
-  // When a GamePiece is clicked, the LightEmAll class delegates the rotation action to here
-  void rotateClockwise() {
-    boolean storetl = this.tl;
-    boolean storetr = this.tr;
-    boolean storeleft = this.left;
-    boolean storeright = this.right;
-    boolean storebl = this.bl;
-    boolean storebr = this.br;
-    this.tl = storeleft;
-    this.tr = storetl;
-    this.right = storetr;
-    this.br = storeright;
-    this.bl = storebr;
-    this.left = storebl;
-  }
-  
-  // EFFECT: modifies the power station field of two GamePieces,
-  // causing one to lose its power station status and the other to
-  // gain it, and also becoming lit by nature. This one method to
-  // transfer the power station ensures that there can only ever
-  // be one designated power station on the game grid, and it can
-  // only ever pass it off the one other GamePiece
-  void givePowerStationTo(GamePieceHex newPS) {
-    this.powerStation = false;
-    newPS.powerStation = true;
-    newPS.lit = true;
-    newPS.powerVal = 0;
+  // Constructor takes the number of columns and rows respectively, and generates a playable game
+  // that is entirely determined by the given seed
+  LightEmAllHex(int width, int height, long seed) {
+    this(width, height, seed, true);
   }
-}
-
-class LightEmAllHex extends World {
-  // the width and height of the board
-  // in terms of the number of GamePieces that go across and down the game board
-  int width;
-  int height;
-  int powerCol;
-  int powerRow;
-  // a list of rows of GamePieces
-  ArrayList<ArrayList<GamePieceHex>> board;
-  // a list of all nodes in game
-  ArrayList<GamePieceHex> nodes;
-  // a list of edges of the minimum spanning tree 
-  ArrayList<Edge<GamePieceHex>> mst;
-  // the current location of the power station,
-  // as well as its effective radius
-  int radius;
-  int time;
-  boolean gameWon;
-  int whitespace = 300;
-  int bbWidth = 700;
-  int bbHeight = 700;
   
   // Constructor takes the number of columns and rows respectively, and generates a playable game
-  LightEmAllHex(int width, int height) {
+  // that is entirely determined by the given seed, which is only shown on a canvas if
+  // openCanvas is true (otherwise it can still be exported, see BoardExporter)
+  LightEmAllHex(int width, int height, long seed, boolean openCanvas) {
+    super(new HexTopology(), new String[] {"w", "e", "d", "x", "z", "a"});
     this.width = width;
     this.height = height;
+    this.fitView();
     this.powerCol = 0;
     this.powerRow = 0;
+    this.gen = new GenerationContext(seed);
     this.board = makeBoard();
-    //After constructing the board, populates the neighbors of each GamePiece:
-    populateNeighbors();
     this.nodes = getNodes();
-    //The int parameters given to getEdges(int int) represent the option to define a 
-    //bias in either horizontal or vertical direction. Here, they are equal, representing
-    //no bias.
-    //The createMST takes in an ArrayList<Edge> as a parameter in order to be abstract
-    //enough to create a min spanning tree given any un ordered list of Edge.
-    this.mst = this.createMST(this.getEdges());
-    //Connects the edges in the min spanning tree by wires:
-    this.connectTheWires();
-    //Populates the GamePieces with power values to be used in calculateRadius:
+    //The createMST takes in an EdgeList as a parameter in order to be abstract
+    //enough to create a min spanning tree given any un ordered list of edges.
+    this.mst = this.createMST(this.getEdgeList());
+    //Connects the edges in the min spanning tree by wires, measures the radius of the solved
+    //puzzle, then randomly rotates all GamePieces:
+    this.dealGame();
+    //Lights the board for game play:
     this.refresh();
-    this.radius = calculateRadius();
-    //Randomly rotates all GamePieces:
-    randomRotateAll();
-    //Prepares the board for game play:
-    this.refresh();
-    this.time = 0;
-    this.gameWon = false;
     //The width of the canvas has 200 pixels of whitespace on the right side, where game stats
     //will be written to fulfill extra credit portions of the game:
-    bigBang(bbWidth + whitespace, bbHeight, 1);
+    if (openCanvas) {
+      this.frames = new FrameScheduler(this.framesPerSecond);
+      bigBang(bbWidth + whitespace, bbHeight, this.frames.tickSeconds());
+    }
   }
   
   // Constructor for testing that does not open a canvas when called, and allows you to test
   // more properties than the previous constructor:
   LightEmAllHex(int width, int height, int powerCol, int powerRow) {
+    this(width, height, powerCol, powerRow, new SplittableRandom().nextLong());
+  }
+  
+  // Constructor for testing, as above, that generates the board from the given seed:
+  LightEmAllHex(int width, int height, int powerCol, int powerRow, long seed) {
+    super(new HexTopology(), new String[] {"w", "e", "d", "x", "z", "a"});
     this.width = width;
     this.height = height;
+    this.fitView();
     if (powerCol >= width || powerCol < 0) {
       throw new IllegalArgumentException("Column does not exist on this board.");
     }
@@ -1544,296 +515,124 @@ class LightEmAllHex extends World {
     else {
       this.powerRow = powerRow;
     }
+    this.gen = new GenerationContext(seed);
     this.board = makeBoard();
     this.nodes = getNodes();
-    this.mst = this.createMST(this.getEdges());
+    this.mst = this.createMST(this.getEdgeList());
+    this.metrics = new TreeMetrics(this.mst, this.nodes.size());
     this.radius = calculateRadius();
     this.time = 0;
     this.gameWon = false;
   }
   
   ///////Constructs the game board and other initial properties://///////
-  // Creates a 2D representation of the LightEmAll game board in row-major orientation
-  // Allows coder to access a specific GamePiece, call this.board.get(i).get(j)
-  ArrayList<ArrayList<GamePieceHex>> makeBoard() {
-    ArrayList<ArrayList<GamePieceHex>> allRows = new ArrayList<ArrayList<GamePieceHex>>();
-    for (int i = 0; i < height; i++) {
-      ArrayList<GamePieceHex> aRow = new ArrayList<GamePieceHex>();
-      for (int j = 0; j < width; j++) {
-        //Add the power station:
-        if (j == this.powerCol && i == this.powerRow) {
-          aRow.add(new GamePieceHex(j, i, true));
-        }
-        //Add normal GamePieces, with all wire booleans set to false:
-        else {
-          aRow.add(new GamePieceHex(j, i));
-        }
-      }
-      allRows.add(aRow);
-    }
-    return allRows;
-  }
-  
-  // EFFECT: After constructing the board, this method populates the neighbors of each GamePiece
-  // by modifying the curGP's neighbor list 
-  // If the curGP is along the side of the grid, it will have three neighbors
-  // If the curGP is a corner piece, it will have two neighbors
-  public void populateNeighbors() {
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePieceHex curGP = this.board.get(i).get(j);
-        // LEFT
-        int jOfLeftn = j - 1; // the j index of the left neighbor
-        if (jOfLeftn >= 0) { // so long as curGP's left neighbor exists...
-          GamePieceHex leftN = this.board.get(i).get(jOfLeftn);
-          curGP.addNeighbor(leftN); // add the neighbor
-        }
-        // RIGHT
-        int jOfRightn = j + 1; // j of right...
-        if (jOfRightn <= width - 1) {
-          GamePieceHex rightN = this.board.get(i).get(jOfRightn);
-          curGP.addNeighbor(rightN);
-        }
-        // Even indexed rows
-        if (i % 2 == 0) {
-          // TOP NEIGHBORS
-          if (i - 1 >= 0 && j + 1 <= width - 1) {
-            GamePieceHex trn = this.board.get(i - 1).get(j + 1);
-            curGP.addNeighbor(trn);
-          }
-          if (i - 1 >= 0 && j >= 0) {
-            GamePieceHex tln = this.board.get(i - 1).get(j);
-            curGP.addNeighbor(tln);
-          }
-          // BOTTOM NEIGHBORS
-          if (i + 1 < this.height && j + 1 < this.width) {
-            GamePieceHex brn = this.board.get(i + 1).get(j + 1);
-            curGP.addNeighbor(brn);
-          }
-          if (i + 1 < this.height && j >= 0) {
-            GamePieceHex bln = this.board.get(i + 1).get(j);
-            curGP.addNeighbor(bln);
-          }
-        }
-        if (i % 2 != 0) {
-          // TOP NEIGHBORS
-          if (i - 1 >= 0 && j <= width - 1) {
-            GamePieceHex trn = this.board.get(i - 1).get(j);
-            curGP.addNeighbor(trn);
-          }
-          if (i - 1 >= 0 && j - 1 >= 0) {
-            GamePieceHex tln = this.board.get(i - 1).get(j - 1);
-            curGP.addNeighbor(tln);
-          }
-          // BOTTOM NEIGHBORS
-          if (i + 1 <= this.height - 1 && j <= this.width - 1) {
-            GamePieceHex brn = this.board.get(i + 1).get(j);
-            curGP.addNeighbor(brn);
-          }
-          if (i + 1 <= this.height - 1 && j - 1 >= 0) {
-            GamePieceHex bln = this.board.get(i + 1).get(j - 1);
-            curGP.addNeighbor(bln);
-          }
-        }
-      }
+  // Returns a new hexagonal GamePiece at the given column and row, with no wires
+  GamePieceHex newPiece(int col, int row, boolean powerStation, int orientation) {
+    GamePieceHex curGP;
+    //Add the power station:
+    if (powerStation) {
+      curGP = new GamePieceHex(col, row, true);
+    }
+    //Add normal GamePieces, with all wire booleans set to false:
+    else {
+      curGP = new GamePieceHex(col, row);
     }
+    curGP.orientation = orientation;
+    return curGP;
   }
   
-  // Generates an ArrayList of all nodes in the game
-  // by iterating through the board, taking one GamePiece at a time, and 
-  // adding it to a new flattened list
-  ArrayList<GamePieceHex> getNodes() {
-    ArrayList<GamePieceHex> nodeList = new ArrayList<GamePieceHex>();
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePieceHex curGP = this.board.get(i).get(j);
-        nodeList.add(curGP);
-      }
-    }
-    return nodeList;
+  // Returns the length of each side of a hexagon, so that a row of them fills about the width
+  // of big bang (minus the whitespace where game stats are kept)
+  int sideLen() {
+    return (bbWidth / this.width) / 2;
+  }
+  
+  // Returns the view of the board with hexagons of the length given by sideLen, as long as
+  // they are not too small to see
+  Viewport makeViewport() {
+    return new Viewport(bbWidth, bbHeight, this.sideLen(), this.sideLen());
+  }
+  
+  // Returns the painter of hexagons with sides of the length they are viewed at, which also
+  // lays them out in rows
+  TilePainter painter() {
+    return new HexPainter(this.view.tileWidth);
   }
   
   ///////////////KRUSKALS ALGORITHM//////////////////
-  // A series of helper methods followed by a method called createMST
-  // that brings together all of the helper methods:
-  
-  // Generates an ArrayList of all weighted edges possible to connect the board
-  // by locating the curGP's bottom and right neighbors only (because if we generated edges with
-  // all neighbors, there would be repeat edges) then for each neighbor, if it exists, add a new 
-  // Edge to the list of Edges with a randomized weight, which is randomized in the constructor of 
-  // the Edge class. 
-  // --When the game board has no bias, he maxWeight variables are equal, arbitrarily calculated,
-  // and is just a simple way to generate a max for the random.nextInt() used in the Edge class.
-  // --When the game board has a vertical bias, the maximum weight used in the generation of 
-  // horizontal is much, much higher than that of the max weight a vertical edge may have. 
-  // Therefore, the vertical edges will inevitably come first in the ordering of edges from 
-  // smallest to largest, and therefore appear more frequently on the final game, because they 
-  // are processed first and have less likelihood to create a cycle then.
-  // (Press "v" at any time to start a vertically bias game)
-  // --The same but opposite logic applies to a horizontally bias game.
-  // (Press "h" at any time to start a horizontally bias game)
+  // Generates an EdgeList of all weighted edges possible to connect the board, between each
+  // GamePiece and its right, bottom-left and bottom-right neighbors (see makeEdgeList in the
+  // GameEngine class). The hexagonal game has no bias, so every edge has the same maximum
+  // weight, which is arbitrarily calculated.
+  EdgeList getEdgeList() {
+    int maxWeight = this.nodes.size() * 4;
+    int[] maxWeights = new int[6];
+    Arrays.fill(maxWeights, maxWeight);
+    return this.makeEdgeList(maxWeights);
+  }
+  
+  // Returns the edges generated by getEdgeList as Edge objects between GamePieces.
+  // This view is only used to test the generated edges:
   ArrayList<Edge<GamePieceHex>> getEdges() {
-    ArrayList<Edge<GamePieceHex>> edgeList = new ArrayList<Edge<GamePieceHex>>();
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePieceHex curGP = this.board.get(i).get(j);
-        //GET RIGHT NEIGHBOR EDGE
-        int jOfRightn = j + 1; // the j index of the right neighbor
-        if (jOfRightn <= width - 1) { // so long as curGP's right neighbor exists...
-          GamePieceHex rightN = this.board.get(i).get(jOfRightn);
-          edgeList.add(new Edge<GamePieceHex>(curGP, rightN, this.nodes.size() * 4));
-        }
-        int jOfBotLeftn = j; // i of bottom left...
-        int jOfBotRightn = j + 1; // i of bottom right...
-        if (i % 2 != 0) {
-          jOfBotLeftn = j - 1; // i of bottom...
-          jOfBotRightn = j; // i of bottom...
-        }
-        //GET BOTTOM LEFT NEIGHBOR EDGE
-        if (i + 1 <= height - 1 && jOfBotLeftn >= 0) {
-          GamePieceHex botLeftN = this.board.get(i + 1).get(jOfBotLeftn);
-          edgeList.add(new Edge<GamePieceHex>(curGP, botLeftN, this.nodes.size() * 4));
-        }
-        //GET BOTTOM RIGHT NEIGHBOR EDGE
-        if (i + 1 <= height - 1 && jOfBotRightn >= 0) {
-          GamePieceHex botRightN = this.board.get(i + 1).get(j);
-          edgeList.add(new Edge<GamePieceHex>(curGP, botRightN, this.nodes.size() * 4));
-        }
-      }
-    }
-    return edgeList;
+    return this.getEdgeList().toEdges(this.nodes);
   }
  
-  // Creates a hashmap of representatives to be used in Krushkal's algorithm
-  // Uses unique integers pulled from the GamePiece's unique index in the ArrayList
-  // of total game board nodes to be represented in the hashmap. This way, when we are
-  // comparing representatives in the createMST method, it is better to compare equality 
-  // of integers, rather than compare equality of GamePieces, etc.
-  HashMap<Integer, Integer> makeHashMapOfReps() {
-    HashMap<Integer, Integer> reps = new HashMap<Integer, Integer>();
-    for (int i = 0; i < this.nodes.size(); i++) {
-      reps.put(i, i);
-    }
-    return reps;
-  }
-
-  // Searches through the reps HashMap and finds the Key that has the given GamePiece
-  // representative Integer as a Value. Returns the Key:
-  int find(HashMap<Integer, Integer> reps, GamePieceHex gp) {
-    int find = 0;
-    for (int i = 0; i < this.nodes.size(); i++) {
-      GamePieceHex node = this.nodes.get(i);
-      if (node.row == gp.row && node.col == gp.col) {
-        find = i;
-      }
-    }
-    while (find != reps.get(find)) {
-      find = reps.get(find);
-    }
-    return find;
-  }
-  
-  // Performs Kruskal's algorithm to determine the minimum spanning tree of the solved game:
-  // The edges parameter is useful in case you want to generate a board with a vertical or 
-  // horizontal bias, you can call getEdges(int verticalBias, int horizontalBias) with varying 
-  // values.
+  // Returns the unique index of the given GamePiece in the ArrayList of total game board
+  // nodes, which is computed directly from its row and column in row-major order.
+  // This index is how a GamePiece is represented in the UnionFind used in Kruskal's algorithm,
+  // so that when we are comparing representatives in the createMST method, we compare
+  // integers rather than GamePieces, and never have to search through the list of nodes.
+  int indexOf(GamePieceHex gp) {
+    return gp.row * this.width + gp.col;
+  }
+  
+  // Performs Kruskal's algorithm (see createMST in the GameEngine class) on a list of Edge
+  // objects.
+  // This view is only used to test Kruskal's algorithm on hand-made Edges, which may have any
+  // weight, so the Edges are sorted by sortByWeight (which falls back on heapsort).
   ArrayList<Edge<GamePieceHex>> createMST(ArrayList<Edge<GamePieceHex>> edges) {
-    //Initialize the hashmap:
-    HashMap<Integer, Integer> reps = this.makeHashMapOfReps();
+    //Initialize the representatives:
+    UnionFind reps = new UnionFind(this.width * this.height);
     //Initialize the workList, which is edges sorted from smallest weight to largest weight:
     ArrayUtils au = new ArrayUtils();
-    ArrayList<Edge<GamePieceHex>> edgeListSmToLg = au.heapsort(edges, new CompareWeightHex());
+    ArrayList<Edge<GamePieceHex>> edgeListSmToLg = au.sortByWeight(edges, new CompareWeightHex());
     //Initialize the min spanning tree:
     ArrayList<Edge<GamePieceHex>> mst = new ArrayList<Edge<GamePieceHex>>();
-    while (edgeListSmToLg.size() > 0) {
-      Edge<GamePieceHex> curEdge = edgeListSmToLg.remove(0); //removes and returns
-      int x = this.find(reps, curEdge.fromNode);
-      int y = this.find(reps, curEdge.toNode);
+    //Walks through the workList with a cursor rather than removing from its front, and stops
+    //as soon as the tree spans every GamePiece:
+    int treeSize = this.width * this.height - 1;
+    for (int i = 0; i < edgeListSmToLg.size() && mst.size() < treeSize; i++) {
+      Edge<GamePieceHex> curEdge = edgeListSmToLg.get(i);
       //If this edge does not create a cycle in the mst:
-      if (x != y) {
-        //add it to the tree:
+      if (reps.union(this.indexOf(curEdge.fromNode), this.indexOf(curEdge.toNode))) {
+        //add it to the tree (the trees have been unioned):
         mst.add(curEdge);
-        //and union the trees:
-        reps.put(x, y); //union
       }
     }
     return mst;
   }
   ////////////End Kruskal's Algorithm////////////////////
   
-  // Methods that finish up the initiation of the game board:
-  
-  // Calculates the finite radius of effectiveness that is given off by 
-  // the power station by locating the power station, using breadth-first search
-  // to calculate the longest distance from the power station to an end node when
-  // the puzzle is solved, then calculating the distance between that GamePiece and its
-  // furthest GamePiece (diameter).
-  // then calculates the radius using that diameter.
-  // This method is called once at the initiation of the game, but before the pieces
-  // are randomly rotated (so, as a solved puzzle)
-  int calculateRadius() {
-    GamePieceHex powerstation = this.board.get(this.powerRow).get(this.powerCol);
-    int diameter = powerstation.getDiameter();
-    int rad = (diameter / 2) + 1;
-    return rad;
-  }
-  
-  // Traverses through the min spanning tree list of edges that represent the solved
-  // game and 'gives wires' to each GamePiece according to their connected neighbors.
-  // EFFECT: delegates to the GamePiece class to modify the left/right/top/bottom
-  // boolean fields of the GamePieces that need to be connected
-  void connectTheWires() {
-    for (int i = 0; i < this.mst.size(); i++) {
-      Edge<GamePieceHex> e = this.mst.get(i);
-      GamePieceHex from = e.fromNode;
-      GamePieceHex to = e.toNode;
-      to.connectIfNeighborOf(from);
-    }
-  }
-  
-  // EFFECT: traverses through the total list of nodes of GamePieces and rotates
-  // them a random number of times to finally prepare the board for game play:
-  void randomRotateAll() {
-    for (int i = 0; i < this.nodes.size(); i++) {
-      GamePieceHex curGP = this.nodes.get(i);
-      curGP.rotateRandom();
-    }
+  //////////////////Draw controls/////////////////////
+  // Returns a new image of the given GamePiece, with sides of the length it is viewed at (see
+  // makeScene in the GameEngine class)
+  WorldImage drawPiece(GamePieceHex gp) {
+    return gp.draw(this.view.tileWidth, this.radius, this.lightEpoch);
   }
-  //////////////////////////////////////////////////
   
-  //////////////////Draw controls/////////////////////
-  // Draws the LightEmAll game as a grid of GamePieces 
-  // the gpWidth is the width of big bang (minus the whitespace where game stats are kept; 
-  // this is done in bigbang above) divided by the number of columns
-  // the gpHeight is the height of big bang divided by the number of rows
-  public WorldScene makeScene() {
-    int sideLen = (bbWidth / this.width) / 2;
-    int sideLenx2 = sideLen * 2;
-    int sideLenh = sideLen / 6 - 2;
-    int distanceBtwTwo = (int) (Math.sqrt(3.0) * sideLen);
-    WorldScene w = new WorldScene(bbWidth, bbHeight);
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int height = (i * (sideLen + 4 * sideLenh)) + sideLenx2;
-        GamePieceHex curGP = this.board.get(i).get(j);
-        if (i % 2 == 0) {
-
-          w.placeImageXY(curGP.draw(sideLen, this.radius), (j * distanceBtwTwo) + sideLenx2 - 8,
-              height - 40);
-        }
-        if (i % 2 != 0) {
-          w.placeImageXY(curGP.draw(sideLen, this.radius), (j * distanceBtwTwo) + sideLen
-              + sideLenh - 8, height - 40);
-        }
-      }
-    }
-    w.placeImageXY(this.writeGameStats(), bbWidth + (whitespace / 2), bbHeight / 2);
-    return w;
+  // Returns a new cell of the given color, for hexagons too small to show their wires: a
+  // rectangle as wide as a hexagon and as high as a row, which is the space each hexagon has
+  // of its row (see HexLayout)
+  WorldImage drawCell(Color color) {
+    int sideLen = this.view.tileWidth;
+    return new RectangleImage((int) Math.ceil(Math.sqrt(3.0) * sideLen),
+        (int) Math.ceil(1.5 * sideLen), OutlineMode.SOLID, color);
   }
   
-  // Produces a rectangular world image to be placed on the right side of the canvas and 
-  // will contain text that keeps track of the game status throughout the game
-  WorldImage writeGameStats() {
+  // Produces the parts of the game stats that never change during the game: a rectangular
+  // world image to be placed on the right side of the canvas, with the title and instructions
+  // (see writeGameStats in the GameEngine class)
+  WorldImage drawStatsBackground() {
     //Initialize the rectangle where the info will be placed:
     WorldImage bckgr = new RectangleImage(whitespace, bbHeight, OutlineMode.OUTLINE,
         Color.BLACK);
@@ -1848,19 +647,6 @@ class LightEmAllHex extends World {
         new TextImage("the power station to light the board.", 14, FontStyle.ITALIC, Color.BLACK),
         new TextImage("(Use the a, w, e, d, x, & z keys", 14, FontStyle.ITALIC, Color.BLACK),
         new TextImage("to move the power station)", 14, FontStyle.ITALIC, Color.BLACK));
-    //Keeps track of time:
-    WorldImage time = new TextImage("TIME: " + Integer.toString(this.time), 14, FontStyle.REGULAR,
-        Color.BLACK);
-    //Keeps track of score:
-    WorldImage score = new AboveImage(
-        new TextImage("You have connected ", 16, FontStyle.BOLD, Color.BLACK),
-        new TextImage(Integer.toString(this.keepScore()) + " / "
-        + Integer.toString(this.width * this.height) + " hexagons", 16, FontStyle.BOLD, 
-        Color.BLACK),
-        new TextImage("Connect " 
-            + Integer.toString(this.width * this.height - this.keepScore())
-            + " more to win!", 16, FontStyle.REGULAR, 
-            Color.MAGENTA));
     WorldImage instructions = new AboveImage(
         new TextImage("(press 'g' to give up on this game,", 12, FontStyle.REGULAR, Color.GRAY),
         new TextImage("and 'r' to restart with a new game)", 12, FontStyle.REGULAR, Color.GRAY));
@@ -1869,280 +655,97 @@ class LightEmAllHex extends World {
         new TextImage("Close this canvas to return to", 12, FontStyle.REGULAR, 
             Color.BLACK),
         new TextImage("a square game.", 12, FontStyle.REGULAR, 
-            Color.BLACK));
-    //Align all the info into the background image:
-    WorldImage placeTitle = new OverlayImage(titleImage.movePinholeTo(new Posn(0, 250)), bckgr);
-    WorldImage placeTime = new OverlayImage(time.movePinholeTo(new Posn(0, 110)), placeTitle);
-    WorldImage placeScore = new OverlayImage(score.movePinholeTo(new Posn(0, 50)), placeTime);
-    WorldImage placeExtraCreditInfo = new OverlayImage(extraInfo.movePinholeTo(new Posn(0, -300)), 
-        placeScore);
-    WorldImage placeInstructions = new OverlayImage(instructions.movePinholeTo(new Posn(0, -250)), 
-        placeExtraCreditInfo);
-    //Handles the winning notification:
-    int aTime = this.time;
-    WorldImage winnerMsg = new AboveImage(
-        new TextImage(":D!!!YOU'RE A WINNER!!!:D", 20, FontStyle.BOLD, Color.GREEN),
-        new TextImage("You beat the game in "
-        + Integer.toString(aTime)
-        + " seconds", 16, FontStyle.BOLD, Color.GREEN),
-        new TextImage("Press the r key for a new challenege!", 
-        15, FontStyle.REGULAR, Color.BLUE));
-    if (this.gameWon) {
-      return new OverlayImage(
-          winnerMsg.movePinhole(0, -55), placeInstructions);
-    }
-    return placeInstructions;
-  }
-  
-  ////////////////End Draw Controls///////////////
-  
-  // Keeps track of the user's "score" in terms of now many square on the
-  // game grid are lit. This integer is also subtracted from the total number of
-  // nodes in order to keep track of how many are remaining (the smaller the better).
-  // EFFECT: If the score reflects a winning game, this method turns the gameWon boolean true.
-  int keepScore() {
-    int score = 0;
-    for (int i = 0; i < this.nodes.size(); i++) {
-      if (this.nodes.get(i).lit) {
-        score = score + 1;
-      }
-    }
-    if (score == this.width * this.height) {
-      this.gameWon = true;
-    }
-    return score;
-  }
-  
-  // Counts the number of seconds a user has been playing a game,
-  // to be displayed in the game stats secion of the canvas.
-  // When the game has been won, the timer pauses until the user restarts the game.
-  // at which time the timer is reset:
-  public void onTick() {
-    if (!this.gameWon) {
-      this.time = this.time + 1;
-    }
-  }
-  
-  ////////////////////MOUSE CONTROLS////////////////
-  // Controls the clicking functionality of the game
-  // when a GamePiece is clicked, the action of rotating the piece is delegated
-  // to the GamePiece class, and the board is refreshed to reflect any new connections
-  // or any disconnected pieces being un-lit:
-  public void onMouseClicked(Posn pos) {
-    System.out.println("MOUSE POSX: " + Integer.toString(pos.x));
-    System.out.println("MOUSE POSY: " + Integer.toString(pos.y));
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePieceHex curGP = this.board.get(i).get(j);
-        if (pos.y >= i * 79 && pos.y <= (i * 85) + 79) {
-          if (i % 2 == 0) {
-            if (pos.x >= j * 79 + 40
-                && pos.x <= (j * 79) + 119) {
-              curGP.rotateClockwise();
-            }
-          }
-          else {
-            if (pos.x >= j * 79
-                && pos.x <= (j * 79) + 79) {
-              curGP.rotateClockwise();
-            }
-          }
-        }
-      }
-    }
-    this.refresh();
-  }
-  /////////////////////////////////////////////////////
-  
-  ////////////////// OnKey Events/////////////////
-  // Controls the key functionality of the game
-  // When an arrow key is pressed, iterates through the entire board and finds the
-  // power station. If the curGP is the power station, it loses the power station,
-  // and passes it on to it's neighbor, depending on which key is pressed.
-  // When the letter "g", which stands for "give up" is pressed, the game solves itself
-  // by connecting all the wires. However, the power station is not moved, so the user
-  // may move it into place to "win" the game.
-  public void onKeyEvent(String key) {
-    GamePieceHex powerStation = this.board.get(powerRow).get(powerCol);
-    if (!this.gameWon) {
-      // LEFT
-      if (key.equals("a")) {
-        int jOfLeftn = powerCol - 1;
-        // These conditionals prevent out of bounds errors:
-        // So long as the j coordinate of the left neighbor is not out of bounds...
-        // (if it is, ignore the user key press, and do nothing)
-        if (jOfLeftn >= 0) {
-          // finds the left neighbor of the power station:
-          GamePieceHex leftn = this.board.get(powerRow).get(jOfLeftn);
-          // makes that left neighbor the new designated power station,
-          // only if they are also wire neighbors, in order to keep the
-          // power station along the power lines:
-          if (powerStation.wireNeighborsWith(leftn)) {
-            powerStation.givePowerStationTo(leftn);
-            // reset the power station
-            this.powerCol = jOfLeftn;
-          }
-        }
-      }
-      // repeat for the rest:
-      // RIGHT
-      if (key.equals("d")) {
-        int jOfRightn = powerCol + 1;
-        if (jOfRightn < this.width) {
-          GamePieceHex rightn = this.board.get(powerRow).get(jOfRightn);
-          if (powerStation.wireNeighborsWith(rightn)) {
-            powerStation.givePowerStationTo(rightn);
-            this.powerCol = jOfRightn;
-          }
-        }
-      }
-      int jOftn = powerCol;
-      int iOftn = powerRow - 1;
-      // TOP LEFT
-      if (key.equals("w")) {
-        // Rows of even indices line up differently than off index rows.
-        // Therefore, we need to check if it is an odd or even indexed row
-        // in order to compute neighbors to pass the power station off to.
-        if (powerRow % 2 != 0) {
-          if (powerCol - 1 >= 0 && iOftn >= 0) {
-            GamePieceHex topleftn = this.board.get(iOftn).get(powerCol - 1);
-            if (powerStation.wireNeighborsWith(topleftn)) {
-              powerStation.givePowerStationTo(topleftn);
-              this.powerCol = powerCol - 1;
-              this.powerRow = iOftn;
-            }
-          }
-        }
-        else {
-          if (jOftn >= 0 && iOftn >= 0) {
-            GamePieceHex topleftn = this.board.get(iOftn).get(jOftn);
-            if (powerStation.wireNeighborsWith(topleftn)) {
-              powerStation.givePowerStationTo(topleftn);
-              this.powerCol = jOftn;
-              this.powerRow = iOftn;
-            }
-          }
-        }
-      }
-      // TOP RIGHT
-      if (key.equals("e")) {
-        if (powerRow % 2 == 0) {
-          if (powerCol + 1 < this.width && iOftn >= 0) {
-            GamePieceHex toprightn = this.board.get(iOftn).get(powerCol + 1);
-            if (powerStation.wireNeighborsWith(toprightn)) {
-              powerStation.givePowerStationTo(toprightn);
-              this.powerCol = powerCol + 1;
-              this.powerRow = iOftn;
-            }
-          }
-        }
-        else {
-          if (jOftn < this.width && iOftn >= 0) {
-            GamePieceHex toprightn = this.board.get(iOftn).get(jOftn);
-            if (powerStation.wireNeighborsWith(toprightn)) {
-              powerStation.givePowerStationTo(toprightn);
-              this.powerCol = jOftn;
-              this.powerRow = iOftn;
-            }
-          }
-        }
-      }
-      int jOfbn = powerCol;
-      int iOfbn = powerRow + 1;
-      // BOTTOM LEFT
-      if (key.equals("z")) {
-        if (powerRow % 2 != 0) {
-          if (powerCol - 1 >= 0 && iOfbn < this.height) {
-            GamePieceHex bottomleftn = this.board.get(iOfbn).get(powerCol - 1);
-            if (powerStation.wireNeighborsWith(bottomleftn)) {
-              powerStation.givePowerStationTo(bottomleftn);
-              this.powerCol = powerCol - 1;
-              this.powerRow = iOfbn;
-            }
-          }
-        }
-        else {
-          if (jOfbn >= 0 && iOfbn < this.height) {
-            GamePieceHex bottomleftn = this.board.get(iOfbn).get(jOfbn);
-            if (powerStation.wireNeighborsWith(bottomleftn)) {
-              powerStation.givePowerStationTo(bottomleftn);
-              this.powerCol = jOfbn;
-              this.powerRow = iOfbn;
-            }
-          }
-        }
-      }
-      // BOTTOM RIGHT
-      if (key.equals("x")) {
-        if (powerRow % 2 == 0) {
-          if (powerCol + 1 < this.width && iOfbn < this.height) {
-            GamePieceHex bottomrightn = this.board.get(iOfbn).get(powerCol + 1);
-            if (powerStation.wireNeighborsWith(bottomrightn)) {
-              powerStation.givePowerStationTo(bottomrightn);
-              this.powerCol = powerCol + 1;
-              this.powerRow = iOfbn;
-            }
-          }
-        }
-        else {
-          if (jOfbn < this.width && iOfbn < this.height) {
-            GamePieceHex bottomrightn = this.board.get(iOfbn).get(jOfbn);
-            if (powerStation.wireNeighborsWith(bottomrightn)) {
-              powerStation.givePowerStationTo(bottomrightn);
-              this.powerCol = jOfbn;
-              this.powerRow = iOfbn;
-            }
-          }
-        }
-      }
-      // The "give-up" funcionality:
-      if (key.equals("g")) {
-        this.createMST(this.getEdges());
-        connectTheWires();
-      }
+            Color.BLACK));
+    //Align all the info into the background image:
+    WorldImage placeTitle = new OverlayImage(titleImage.movePinholeTo(new Posn(0, 250)), bckgr);
+    WorldImage placeExtraCreditInfo = new OverlayImage(extraInfo.movePinholeTo(new Posn(0, -300)), 
+        placeTitle);
+    return new OverlayImage(instructions.movePinholeTo(new Posn(0, -250)), 
+        placeExtraCreditInfo);
+  }
+  
+  // Produces the parts of the game stats that change during the game (the time, the given
+  // score and the winning notification), placed over the given background
+  WorldImage drawStats(WorldImage background, int score) {
+    //Keeps track of time, and shows the seed that generated this board:
+    WorldImage time = new AboveImage(
+        new TextImage("TIME: " + Integer.toString(this.time), 14, FontStyle.REGULAR,
+            Color.BLACK),
+        new TextImage("SEED: " + Long.toString(this.gen.seed), 12, FontStyle.REGULAR,
+            Color.GRAY));
+    //Keeps track of score:
+    WorldImage scoreImage = new AboveImage(
+        new TextImage("You have connected ", 16, FontStyle.BOLD, Color.BLACK),
+        new TextImage(Integer.toString(score) + " / "
+        + Integer.toString(this.width * this.height) + " hexagons", 16, FontStyle.BOLD, 
+        Color.BLACK),
+        new TextImage("Connect " 
+            + Integer.toString(this.width * this.height - score)
+            + " more to win!", 16, FontStyle.REGULAR, 
+            Color.MAGENTA));
+    WorldImage placeTime = new OverlayImage(time.movePinholeTo(new Posn(0, 110)), background);
+    WorldImage placeScore = new OverlayImage(scoreImage.movePinholeTo(new Posn(0, 50)),
+        placeTime);
+    //Handles the winning notification:
+    if (this.gameWon) {
+      WorldImage winnerMsg = new AboveImage(
+          new TextImage(":D!!!YOU'RE A WINNER!!!:D", 20, FontStyle.BOLD, Color.GREEN),
+          new TextImage("You beat the game in "
+          + Integer.toString(this.time)
+          + " seconds", 16, FontStyle.BOLD, Color.GREEN),
+          new TextImage("Press the r key for a new challenege!", 
+          15, FontStyle.REGULAR, Color.BLUE));
+      return new OverlayImage(
+          winnerMsg.movePinhole(0, -55), placeScore);
+    }
+    return placeScore;
+  }
+  
+  ////////////////End Draw Controls///////////////
+  
+  ////////////////// OnKey Events/////////////////
+  // Controls the key functionality of the game
+  // When an arrow key is pressed, iterates through the entire board and finds the
+  // power station. If the curGP is the power station, it loses the power station,
+  // and passes it on to it's neighbor, depending on which key is pressed.
+  // When the letter "g", which stands for "give up" is pressed, the game solves itself
+  // by connecting all the wires. However, the power station is not moved, so the user
+  // may move it into place to "win" the game.
+  public void onKeyEvent(String key) {
+    this.frames.markChanged();
+    // Keys that only scroll or zoom the view do not change the board, so nothing is re-lit:
+    if (this.moveView(key)) {
+      return;
+    }
+    // The side of the power station that the key moves it toward (-1 for any other key):
+    // a (left), d (right), w (top left), e (top right), z (bottom left), x (bottom right).
+    // Moves are applied with the rest of the input of this frame (see applyInput):
+    int side = this.sideOfKey(key);
+    if (side != -1) {
+      this.queueStationMove(side);
+      return;
+    }
+    // Every other key is applied after the input queued before it:
+    this.applyInput();
+    // The "give-up" funcionality, which re-connects the wires of the solved game:
+    if (!this.gameWon && key.equals("g")) {
+      connectTheWires();
     }
     // Press "r" to reset the game:
     if (key.equals("r")) {
-      this.gameWon = false;
       this.powerCol = 0;
       this.powerRow = 0;
+      this.gen = new GenerationContext();
       this.board = makeBoard();
-      populateNeighbors();
       this.nodes = getNodes();
-      this.mst = this.createMST(this.getEdges());
-      this.connectTheWires();
-      this.refresh();
-      this.radius = calculateRadius();
-      this.time = 0;
-      this.randomRotateAll();
+      this.mst = this.createMST(this.getEdgeList());
+      // The new game is dealt, and lit once by the refresh below:
+      this.dealGame();
     }
     // and re-light the board:
     this.refresh();
   }
   //////////////////////////////////////////////////
- 
-  // EFFECT: Refreshes the lighting of the board by causing all GamePieces 
-  // (except the power station) to momentarily lose power, then calls lightEmUp on 
-  // the power station once again to refresh any newly connected power lines.
-  // This method is called any time a change is made to the world by the user.
-  public void refresh() {
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePieceHex curGP = this.board.get(i).get(j);
-        if (i != powerRow || (j != powerCol)) {
-          curGP.loseLight();
-        }
-      }
-    }
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        GamePieceHex curGP = this.board.get(i).get(j);
-        if (i == powerRow && j == powerCol) {
-          curGP.lightEmUp(this.radius);
-        }
-      }
-    }
-  }
 }
 
 ///////////////EXAMPLES CLASS//////////////
@@ -2188,18 +791,6 @@ class ExamplesLightEmAll {
     this.gp8 = new GamePiece(1, 2, true, true, false, false);
     this.gp9 = new GamePiece(2, 2, true, false, false, false);
     
-    this.gp1.addNeighbor(this.gp2);
-    this.gp1.addNeighbor(this.gp4);
-    this.gp2.addNeighbor(this.gp5);
-    this.gp2.addNeighbor(this.gp3);
-    this.gp3.addNeighbor(this.gp6);
-    this.gp4.addNeighbor(this.gp5);
-    this.gp4.addNeighbor(this.gp7);
-    this.gp5.addNeighbor(this.gp6);
-    this.gp5.addNeighbor(this.gp8);
-    this.gp6.addNeighbor(this.gp9);
-    this.gp7.addNeighbor(this.gp8);
-    this.gp8.addNeighbor(this.gp9);
     
     this.manualBoard = new ArrayList<ArrayList<GamePiece>>();
     this.row1 = new ArrayList<GamePiece>();
@@ -2221,28 +812,24 @@ class ExamplesLightEmAll {
     leaTest = new LightEmAll(3, 3, 0, 0);
   }
   
-  //Tests for addNeighbor in GamePiece class:
-  void testAddNeighbor(Tester t) {
-    this.initConditions();
-    GamePiece gpExample = new GamePiece(3, 3);
-    t.checkExpect(gpExample.neighbors, new ArrayList<GamePiece>());
-    gpExample.addNeighbor(this.gp1);
-    t.checkExpect(gpExample.neighbors, new ArrayList<GamePiece>(
-        Arrays.asList(this.gp1)));
-    t.checkExpect(this.gp1.neighbors, new ArrayList<GamePiece>(
-        Arrays.asList(this.gp2, this.gp4, gpExample)));
+  // Returns whether the GamePieces at the given flat indices of the given game's board are
+  // neighbors that are connected by wire, as found by the game's Topology
+  boolean wiredTo(GameEngine<?> game, int from, int to) {
+    int side = game.topology.sideToward(from, to, game.width, game.height);
+    return side != -1 && game.wiredOn(from, side);
   }
   
-  //Tests for connectIfNEighbor in GamePiece class:
+  //Tests for connecting neighbors by wire, through the Topology of the board:
   void testConnectIfNeighbor(Tester t) {
     this.initConditions();
+    this.leaTest.board = this.manualBoard;
+    this.leaTest.mst = new EdgeList(1);
+    this.leaTest.mst.add(5, 8, 0);
+    this.leaTest.connectTheWires();
     //Test if not neighbors at all:
-    this.gp6.connectIfNeighborOf(this.gp7);
-    t.checkExpect(this.gp6.wireNeighborsWith(this.gp7), false);
+    t.checkExpect(this.wiredTo(this.leaTest, 5, 6), false);
     //Test functionality if they are neighbors:
-    this.gp6.connectIfNeighborOf(this.gp9);
-    t.checkExpect(this.gp6.wireNeighborsWith(this.gp9), true);
-    
+    t.checkExpect(this.wiredTo(this.leaTest, 5, 8), true);
   }
   
   //Tests for rotateRandom (the orientation field is random, here it is given)
@@ -2259,74 +846,27 @@ class ExamplesLightEmAll {
     t.checkExpect(this.gp1.left, true);
   }
   
-  //Tests for wireNeighborsWith in GamePiece class
+  //Tests for wiredOn, found through the Topology, in the LightEmAll class
   void testWireNeighborsWith(Tester t) {
     this.initConditions();
+    this.leaTest.board = this.manualBoard;
     //If called on itself:
-    t.checkExpect(this.gp1.wireNeighborsWith(this.gp1), false);
+    t.checkExpect(this.wiredTo(this.leaTest, 0, 0), false);
     //If not neighbors at all:
-    t.checkExpect(this.gp1.wireNeighborsWith(this.gp6), false);
+    t.checkExpect(this.wiredTo(this.leaTest, 0, 5), false);
     //And testing that the game works as expected:
-    t.checkExpect(this.gp1.wireNeighborsWith(this.gp2), true);
-    t.checkExpect(this.gp1.wireNeighborsWith(this.gp3), false);
-    t.checkExpect(this.gp1.wireNeighborsWith(this.gp4), true);
-    t.checkExpect(this.gp2.wireNeighborsWith(this.gp1), true);
-    t.checkExpect(this.gp2.wireNeighborsWith(this.gp3), false);
-    t.checkExpect(this.gp3.wireNeighborsWith(this.gp2), false);
-    t.checkExpect(this.gp4.wireNeighborsWith(this.gp1), true);
-    t.checkExpect(this.gp4.wireNeighborsWith(this.gp7), true);
-    t.checkExpect(this.gp7.wireNeighborsWith(this.gp8), true);
+    t.checkExpect(this.wiredTo(this.leaTest, 0, 1), true);
+    t.checkExpect(this.wiredTo(this.leaTest, 0, 2), false);
+    t.checkExpect(this.wiredTo(this.leaTest, 0, 3), true);
+    t.checkExpect(this.wiredTo(this.leaTest, 1, 0), true);
+    t.checkExpect(this.wiredTo(this.leaTest, 1, 2), false);
+    t.checkExpect(this.wiredTo(this.leaTest, 2, 1), false);
+    t.checkExpect(this.wiredTo(this.leaTest, 3, 0), true);
+    t.checkExpect(this.wiredTo(this.leaTest, 3, 6), true);
+    t.checkExpect(this.wiredTo(this.leaTest, 6, 7), true);
 
   }
   
-  //Test for lightEmUp and loseLight in GamePiece class
-  void testLightEmUp(Tester t) {
-    this.initConditions();
-    this.gp1.powerStation = true;
-    this.gp1.lit = true;
-    this.gp1.lightEmUp(4);
-    t.checkExpect(this.gp1.lit, true);
-    t.checkExpect(this.gp2.lit, true);
-    t.checkExpect(this.gp3.lit, false);
-    t.checkExpect(this.gp4.lit, true);
-    this.gp1.rotateClockwise();
-    //Mimick the "refresh" method:
-    this.gp2.loseLight();
-    this.gp3.loseLight();
-    this.gp4.loseLight();
-    //and recall the lightOrNot method:
-    this.gp1.lightEmUp(4);
-    t.checkExpect(this.gp1.lit, true);
-    t.checkExpect(this.gp2.lit, false);
-    t.checkExpect(this.gp3.lit, false);
-    t.checkExpect(this.gp4.lit, true);
-  }
-  
-  //Tests for getDiameter in GamePiece class
-  void testGetDiameter(Tester t) {
-    this.initConditions();
-    //get diameter from a piece that is not connected to anything:
-    t.checkExpect(this.gp3.getDiameter(), 0);
-    //get diameter from a piece that is connected to some pieces:
-    this.gp1.powerStation = true;
-    t.checkExpect(this.gp1.getDiameter(), 5);
-  }
-  
-  //Tests for farthestFrom in GamePiece class
-  void testFarthestFrom(Tester t) {
-    this.initConditions();
-    //Create a link of connections that span around the gameboard in a U shape:
-    this.gp3.left = true;
-    this.gp7.top = true;
-    this.gp7.right = true;
-    this.gp8.left = true;
-    this.gp8.right = true;
-    this.gp9.left = true;
-    t.checkExpect(this.gp9.farthestFrom(), this.gp3);
-    //gp6 is not connected to anything on the manual board:
-    t.checkExpect(this.gp6.farthestFrom(), this.gp6);
-  }
-  
   //Tests for draw in GamePiece class
   //***Tests extra credit for changing colors as distance from power station increases
   void testDraw(Tester t) {
@@ -2345,53 +885,762 @@ class ExamplesLightEmAll {
     WorldImage horizontalP = new LineImage(new Posn(10, 0), Color.PINK);
     WorldImage verticalP = new LineImage(new Posn(0, 10), Color.PINK);
     //GRAY LINES
-    t.checkExpect(exampleLeft.draw(20, 20, 5),
+    t.checkExpect(exampleLeft.draw(20, 20, 5, 0),
         new OverlayOffsetImage(horizontalG, 5.0, 0.0, backgroundPiece));
     WorldImage bckgTop = new OverlayOffsetImage(horizontalG, -5.0, 0.0, backgroundPiece);
-    t.checkExpect(exampleTopAndRight.draw(20, 20, 5),
+    t.checkExpect(exampleTopAndRight.draw(20, 20, 5, 0),
         new OverlayOffsetImage(verticalG, 0.0, 5.0, bckgTop));
     //YELLOW LINES
     exampleLeft.lit = true;
     exampleLeft.powerVal = 1;
     exampleTopAndRight.lit = true;
     exampleTopAndRight.powerVal = 1;
-    t.checkExpect(exampleLeft.draw(20, 20, 15),
+    t.checkExpect(exampleLeft.draw(20, 20, 15, 0),
         new OverlayOffsetImage(horizontalY, 5.0, 0.0, backgroundPiece));
     WorldImage bckgTopY = new OverlayOffsetImage(horizontalY, -5.0, 0.0, backgroundPiece);
-    t.checkExpect(exampleTopAndRight.draw(20, 20, 15),
+    t.checkExpect(exampleTopAndRight.draw(20, 20, 15, 0),
         new OverlayOffsetImage(verticalY, 0.0, 5.0, bckgTopY));
     //ORANGE LINES - powerVal is greater than radius - 4 (here: 15 - 4)
     exampleLeft.powerVal = 13;
     exampleTopAndRight.powerVal = 13;
-    t.checkExpect(exampleLeft.draw(20, 20, 15),
+    t.checkExpect(exampleLeft.draw(20, 20, 15, 0),
         new OverlayOffsetImage(horizontalO, 5.0, 0.0, backgroundPiece));
     WorldImage bckgTopO = new OverlayOffsetImage(horizontalO, -5.0, 0.0, backgroundPiece);
-    t.checkExpect(exampleTopAndRight.draw(20, 20, 15),
+    t.checkExpect(exampleTopAndRight.draw(20, 20, 15, 0),
         new OverlayOffsetImage(verticalO, 0.0, 5.0, bckgTopO));
     //PINK LINES - powerVal is greater than radius - 1 (here: 15 - 1)
     exampleLeft.powerVal = 14;
     exampleTopAndRight.powerVal = 14;
-    t.checkExpect(exampleLeft.draw(20, 20, 15),
+    t.checkExpect(exampleLeft.draw(20, 20, 15, 0),
         new OverlayOffsetImage(horizontalP, 5.0, 0.0, backgroundPiece));
     WorldImage bckgTopP = new OverlayOffsetImage(horizontalP, -5.0, 0.0, backgroundPiece);
-    t.checkExpect(exampleTopAndRight.draw(20, 20, 15),
+    t.checkExpect(exampleTopAndRight.draw(20, 20, 15, 0),
         new OverlayOffsetImage(verticalP, 0.0, 5.0, bckgTopP));
   }
   
+  //Tests for wireMask, colorBucket and isPowerStation in GamePiece class
+  void testColorBucket(Tester t) {
+    GamePiece exampleLeft = new GamePiece(0, 0, true, false, false, false);
+    GamePiece exampleTopAndRight = new GamePiece(0, 0, false, true, true, false);
+    t.checkExpect(exampleLeft.wireMask(), 8);
+    t.checkExpect(exampleTopAndRight.wireMask(), 3);
+    t.checkExpect(exampleLeft.isPowerStation(), false);
+    t.checkExpect(new GamePiece(0, 0, true).isPowerStation(), true);
+    //Not lit, or lit in an earlier epoch:
+    t.checkExpect(exampleLeft.colorBucket(15, 0), 0);
+    exampleLeft.lightUp(0, 1, 15);
+    t.checkExpect(exampleLeft.colorBucket(15, 0), 1);
+    t.checkExpect(exampleLeft.colorBucket(15, 1), 0);
+    exampleLeft.lightUp(0, 13, 15);
+    t.checkExpect(exampleLeft.colorBucket(15, 0), 2);
+    exampleLeft.lightUp(0, 14, 15);
+    t.checkExpect(exampleLeft.colorBucket(15, 0), 3);
+  }
+  
+  //Tests for spriteOf in the GameEngine class and the SpriteCache class
+  void testSpriteCache(Tester t) {
+    this.initConditions();
+    SpriteCache cache = new SpriteCache(4);
+    t.checkExpect(cache.sprites.length, 128);
+    t.checkExpect(cache.keyOf(0, 0, false), 0);
+    t.checkExpect(cache.keyOf(0, 0, true), 1);
+    t.checkExpect(cache.keyOf(0, 3, false), 6);
+    t.checkExpect(cache.keyOf(15, 3, true), 127);
+    t.checkExpect(new SpriteCache(6).sprites.length, 512);
+    //A 3 by 3 board in big bang draws GamePieces 233 pixels wide and high:
+    this.leaTest.sprites.resize(233, 233);
+    GamePiece left1 = new GamePiece(0, 0, true, false, false, false);
+    GamePiece left2 = new GamePiece(2, 1, true, false, false, false);
+    GamePiece topAndRight = new GamePiece(0, 0, false, true, true, false);
+    WorldImage sprite = this.leaTest.spriteOf(left1);
+    t.checkExpect(sprite, left1.draw(233, 233, this.leaTest.radius, this.leaTest.lightEpoch));
+    //The same kind of GamePiece reuses the image that is already drawn:
+    t.checkExpect(this.leaTest.spriteOf(left2) == sprite, true);
+    t.checkExpect(this.leaTest.spriteOf(topAndRight) == sprite, false);
+    t.checkExpect(this.leaTest.spriteOf(topAndRight),
+        topAndRight.draw(233, 233, this.leaTest.radius, this.leaTest.lightEpoch));
+    //A different color is a different image:
+    left2.lightUp(this.leaTest.lightEpoch, 0, this.leaTest.radius);
+    t.checkExpect(this.leaTest.spriteOf(left2) == sprite, false);
+    //Drawing at the same size keeps the images, but a new size forgets them:
+    this.leaTest.sprites.resize(233, 233);
+    t.checkExpect(this.leaTest.spriteOf(left1) == sprite, true);
+    this.leaTest.sprites.resize(100, 100);
+    t.checkExpect(this.leaTest.sprites.get(cache.keyOf(8, 0, false)), null);
+    t.checkExpect(this.leaTest.spriteOf(left1) == sprite, false);
+  }
+  
+  //Tests for the Viewport class
+  void testViewport(Tester t) {
+    Viewport view = new Viewport(700, 700, 233, 1);
+    //GamePieces are never smaller than the smallest size that can be seen:
+    t.checkExpect(view.tileWidth, 233);
+    t.checkExpect(view.tileHeight, 4);
+    view.pan(100, -50);
+    t.checkExpect(view.left, 100);
+    t.checkExpect(view.top, -50);
+    //The view stays on the board:
+    view.clamp(1000, 900);
+    t.checkExpect(view.left, 100);
+    t.checkExpect(view.top, 0);
+    view.pan(1000, 1000);
+    view.clamp(1000, 900);
+    t.checkExpect(view.left, 300);
+    t.checkExpect(view.top, 200);
+    view.clamp(500, 500);
+    t.checkExpect(view.left, 0);
+    t.checkExpect(view.top, 0);
+    //Zooming keeps the same pixel of the board at the center of the canvas:
+    Viewport zoomed = new Viewport(700, 700, 8, 8);
+    zoomed.zoom(true);
+    t.checkExpect(zoomed.tileWidth, 16);
+    t.checkExpect(zoomed.left, 350);
+    t.checkExpect(zoomed.top, 350);
+    zoomed.zoom(false);
+    t.checkExpect(zoomed.tileWidth, 8);
+    t.checkExpect(zoomed.left, 0);
+    zoomed.zoom(false);
+    zoomed.zoom(false);
+    t.checkExpect(zoomed.tileWidth, 2);
+    t.checkExpect(zoomed.blockSize, 1);
+    t.checkExpect(zoomed.showsDetail(), false);
+    //Zooming out past the smallest cell draws blocks of GamePieces, as far as the board allows:
+    zoomed.limitBlocks(1000, 5);
+    zoomed.zoom(false);
+    t.checkExpect(zoomed.tileWidth, 2);
+    t.checkExpect(zoomed.blockSize, 2);
+    t.checkExpect(zoomed.showsBlocks(), true);
+    for (int i = 0; i < 12; i++) {
+      zoomed.zoom(false);
+    }
+    t.checkExpect(zoomed.blockSize, 1024);
+    zoomed.zoom(true);
+    t.checkExpect(zoomed.blockSize, 512);
+    t.checkExpect(zoomed.tileWidth, 2);
+    t.checkExpect(zoomed.contains(699, 0), true);
+    t.checkExpect(zoomed.contains(700, 10), false);
+    t.checkExpect(zoomed.contains(10, -1), false);
+  }
+  
+  //Tests for scrolling and zooming a board much larger than the canvas
+  void testMoveView(Tester t) {
+    LightEmAll board = new LightEmAll(1000, 2, 0, 0, 7L);
+    board.refresh();
+    //The GamePieces of a board that does not fit are as small as can be seen:
+    t.checkExpect(board.view.tileWidth, 4);
+    t.checkExpect(board.layout.pixelWidth(), 4000);
+    //Clicks find the GamePiece in view:
+    t.checkExpect(board.layout.tileAt(new Posn(6, 1)), 1);
+    t.checkExpect(board.moveView("l"), true);
+    t.checkExpect(board.view.left, 175);
+    t.checkExpect(board.layout.tileAt(new Posn(6, 1)), 45);
+    //Scrolling stops at the edges of the board:
+    board.moveView("i");
+    t.checkExpect(board.view.top, 0);
+    for (int i = 0; i < 30; i++) {
+      board.moveView("l");
+    }
+    t.checkExpect(board.view.left, 3300);
+    t.checkExpect(board.layout.tileAt(new Posn(699, 1)), 999);
+    board.moveView("+");
+    t.checkExpect(board.view.tileWidth, 8);
+    t.checkExpect(board.layout.pixelWidth(), 8000);
+    t.checkExpect(board.moveView("q"), false);
+    //Clicking on the game stats does not rotate a GamePiece under them:
+    int wires = board.pieceAt(999).wireMask();
+    board.onMouseClicked(new Posn(750, 5));
+    t.checkExpect(board.pieceAt(999).wireMask(), wires);
+    //Scrolling keys do not re-light the board:
+    int epoch = board.lightEpoch;
+    board.onKeyEvent("j");
+    t.checkExpect(board.lightEpoch, epoch);
+  }
+  
+  //Tests for the LitDensity class
+  void testLitDensity(Tester t) {
+    LitDensity density = new LitDensity(5, 3);
+    //Blocks of 2, 4 and 8 GamePieces across, the last of which covers the whole board:
+    t.checkExpect(density.levels(), 3);
+    t.checkExpect(density.levelWidth[0], 3);
+    t.checkExpect(density.counts[0].length, 6);
+    t.checkExpect(density.counts[2].length, 1);
+    t.checkExpect(density.sizeOf(1, 0, 0), 4);
+    t.checkExpect(density.sizeOf(1, 0, 2), 2);
+    t.checkExpect(density.sizeOf(1, 1, 2), 1);
+    t.checkExpect(density.sizeOf(3, 0, 0), 15);
+    //Each change counts in its block of level 1, and the coarser levels are summed once read:
+    density.change(14, 1);
+    density.change(6, 1);
+    t.checkExpect(density.built, 1);
+    t.checkExpect(density.counts[2][0], 0);
+    t.checkExpect(density.litIn(1, 1, 2), 1);
+    t.checkExpect(density.built, 1);
+    t.checkExpect(density.litIn(1, 0, 0), 1);
+    t.checkExpect(density.litIn(2, 0, 0), 1);
+    t.checkExpect(density.litIn(2, 0, 1), 1);
+    t.checkExpect(density.built, 2);
+    t.checkExpect(density.counts[2][0], 0);
+    t.checkExpect(density.litIn(3, 0, 0), 2);
+    t.checkExpect(density.built, 3);
+    density.change(6, -1);
+    t.checkExpect(density.litIn(1, 0, 0), 0);
+    t.checkExpect(density.litIn(3, 0, 0), 1);
+    density.clear();
+    t.checkExpect(density.litIn(3, 0, 0), 0);
+    t.checkConstructorException(
+        new IllegalArgumentException("Cannot have a negative number of rows or columns."),
+        "LitDensity", -1, 3);
+  }
+  
+  //Tests for drawing the board zoomed out: GamePieces as cells, and blocks of GamePieces
+  void testLevelOfDetail(Tester t) {
+    LightEmAll board = new LightEmAll(200, 200, 0, 0, 7L);
+    board.refresh();
+    //The lit GamePieces in each block are counted as the board is lit:
+    int lit = 0;
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 4; j++) {
+        if (board.isLit(board.pieceAt(i * 200 + j))) {
+          lit = lit + 1;
+        }
+      }
+    }
+    t.checkExpect(board.density.litIn(2, 0, 0), lit);
+    t.checkExpect(board.density.litIn(8, 0, 0), board.score());
+    //Small GamePieces are drawn as cells of the color of their wires:
+    board.moveView("-");
+    t.checkExpect(board.view.tileWidth, 2);
+    board.makeScene();
+    GamePiece station = board.pieceAt(board.powerRow * 200 + board.powerCol);
+    t.checkExpect(board.spriteOf(station),
+        new RectangleImage(2, 2, OutlineMode.SOLID, Color.RED));
+    t.checkExpect(board.cellColor(0, false), Color.DARK_GRAY);
+    t.checkExpect(board.cellColor(2, false), Color.ORANGE);
+    //Past the smallest cells, blocks of GamePieces are drawn by how many of them are lit:
+    board.moveView("-");
+    t.checkExpect(board.view.blockSize, 2);
+    t.checkExpect(board.layout.pixelWidth(), 200);
+    t.checkExpect(board.layout.pixelHeight(), 200);
+    board.makeScene();
+    t.checkExpect(board.blockImage(1, 2, 99),
+        board.blockSprites[(board.density.litIn(1, 2, 99) * 8 + 2) / 4 * 2]);
+    t.checkExpect(board.blockImage(1, board.powerRow / 2, board.powerCol / 2),
+        new RectangleImage(2, 2, OutlineMode.SOLID, Color.RED));
+    //Clicks on a block are ignored:
+    int wires = board.pieceAt(0).wireMask();
+    board.onMouseClicked(new Posn(0, 0));
+    t.checkExpect(board.pieceAt(0).wireMask(), wires);
+    //The blocks follow the incremental lighting:
+    board.rotateTile(board.powerRow * 200 + board.powerCol);
+    t.checkExpect(board.density.litIn(8, 0, 0), board.score());
+    t.checkExpect(board.lightingMatchesRefresh(), true);
+    //The hexagonal game is drawn in blocks the same way:
+    LightEmAllHex hex = new LightEmAllHex(40, 40, 7L, false);
+    for (int i = 0; i < 4; i++) {
+      hex.moveView("-");
+    }
+    t.checkExpect(hex.view.blockSize, 4);
+    t.checkExpect(hex.layout.pixelWidth(), 20);
+    t.checkExpect(hex.density.litIn(6, 0, 0), hex.score());
+    hex.makeScene();
+  }
+  
+  //Tests for the RasterFrame class
+  void testRasterFrame(Tester t) {
+    int red = Color.RED.getRGB();
+    int blue = Color.BLUE.getRGB();
+    RasterFrame frame = new RasterFrame(10, 8);
+    //A new frame is transparent:
+    t.checkExpect(frame.pixelAt(3, 3), 0);
+    t.checkExpect(frame.image.getWidth(), 10);
+    //Painting is clipped to the frame:
+    frame.fillRect(-5, 6, 20, 5, red);
+    t.checkExpect(frame.pixelAt(0, 6), red);
+    t.checkExpect(frame.pixelAt(9, 7), red);
+    t.checkExpect(frame.pixelAt(9, 5), 0);
+    //and a band of the frame paints the same pixels, only in its rows:
+    RasterFrame band = new RasterFrame(frame, 0, 2, 10, 4);
+    band.fillRect(0, 0, 10, 8, blue);
+    t.checkExpect(frame.pixelAt(0, 1), 0);
+    t.checkExpect(frame.pixelAt(5, 2), blue);
+    t.checkExpect(frame.pixelAt(5, 3), blue);
+    t.checkExpect(frame.pixelAt(5, 4), 0);
+    t.checkExpect(new RasterFrame(band, 0, 0, 10, 3).clipBottom, 3);
+    t.checkExpect(new RasterFrame(band, 0, 0, 10, 3).clipTop, 2);
+    //as does a rectangle of it, only in its columns and rows:
+    RasterFrame part = new RasterFrame(frame, 6, 2, 8, 3);
+    part.fillRect(0, 0, 10, 8, red);
+    t.checkExpect(frame.pixelAt(5, 2), blue);
+    t.checkExpect(frame.pixelAt(6, 2), red);
+    t.checkExpect(frame.pixelAt(7, 2), red);
+    t.checkExpect(frame.pixelAt(8, 2), blue);
+    t.checkExpect(frame.pixelAt(7, 3), blue);
+    frame.fillRect(0, 2, 10, 2, blue);
+    //Lines are painted from end to end:
+    frame.drawLine(0, 0, 9, 3, red);
+    t.checkExpect(frame.pixelAt(0, 0), red);
+    t.checkExpect(frame.pixelAt(9, 3), red);
+    t.checkExpect(frame.pixelAt(4, 1), red);
+    RasterFrame disc = new RasterFrame(9, 9);
+    disc.fillDisc(4, 4, 3, red);
+    t.checkExpect(disc.pixelAt(4, 1), red);
+    t.checkExpect(disc.pixelAt(1, 1), 0);
+    RasterFrame hex = new RasterFrame(18, 20);
+    hex.fillHexagon(9, 10, 10, red);
+    t.checkExpect(hex.pixelAt(9, 1), red);
+    t.checkExpect(hex.pixelAt(0, 10), red);
+    t.checkExpect(hex.pixelAt(0, 0), 0);
+    //A stamp is centered on its point, and its transparent pixels are skipped:
+    RasterFrame target = new RasterFrame(20, 20);
+    target.fillRect(0, 0, 20, 20, blue);
+    target.stamp(disc, 0, 0);
+    t.checkExpect(target.pixelAt(0, 0), red);
+    t.checkExpect(target.pixelAt(3, 0), red);
+    t.checkExpect(target.pixelAt(3, 3), blue);
+    t.checkExpect(target.pixelAt(5, 5), blue);
+    //The frame is placed on a scene as one image, which is the same image every time:
+    t.checkException(
+        new IllegalStateException("Cannot show the pixels of a frame without an image."),
+        frame, "show", 0, 0, 10, 8);
+    WorldImage image = frame.toImage();
+    t.checkExpect(image.getWidth(), 10.0);
+    t.checkExpect(image.getHeight(), 8.0);
+    t.checkExpect(frame.toImage() == image, true);
+    t.checkExpect(frame.shown.getPixel(9, 7), Color.RED);
+    //and only shows the pixels painted since in the rectangles that are shown again:
+    frame.fillRect(0, 0, 10, 8, blue);
+    frame.show(0, 6, 5, 8);
+    t.checkExpect(frame.shown.getPixel(4, 7), Color.BLUE);
+    t.checkExpect(frame.shown.getPixel(5, 7), Color.RED);
+    t.checkExpect(frame.shown.getPixel(4, 5), new Color(0, true));
+    //Pixels that the image already shows are not passed to it again:
+    frame.shown.setPixel(0, 7, Color.GREEN);
+    frame.show(0, 0, 10, 8);
+    t.checkExpect(frame.shown.getPixel(0, 7), Color.GREEN);
+    t.checkExpect(frame.shown.getPixel(5, 7), Color.BLUE);
+    frame.fillRect(5, 6, 5, 2, red);
+    //a part of the frame shows only its own rectangle, in the same image, with the same Colors:
+    RasterFrame corner = new RasterFrame(frame, 5, 7, 10, 8);
+    t.checkExpect(corner.cachedColors == frame.cachedColors, true);
+    corner.show(0, 0, 10, 8);
+    t.checkExpect(frame.shown.getPixel(9, 7), Color.RED);
+    t.checkExpect(frame.shown.getPixel(9, 6), Color.BLUE);
+    //Each color is only made once, however many pixels show it:
+    t.checkExpect(frame.colorOf(blue) == frame.colorOf(blue), true);
+    t.checkExpect(frame.colorOf(red), Color.RED);
+    t.checkExpect(frame.colorOf(0x80FF0000).getAlpha(), 128);
+    t.checkConstructorException(new IllegalArgumentException("Cannot have a frame without pixels."),
+        "RasterFrame", 0, 5);
+  }
+  
+  //Tests for painting the board as pixels (the raster backend of makeScene)
+  void testRasterScene(Tester t) {
+    LightEmAll board = new LightEmAll(3, 3, 0, 0, 7L);
+    board.connectTheWires();
+    board.refresh();
+    //Every board is painted as pixels, and "b" switches to the reference renderer and back,
+    //without re-lighting the board:
+    int epoch = board.lightEpoch;
+    t.checkExpect(board.rasterize, true);
+    board.onKeyEvent("b");
+    t.checkExpect(board.rasterize, false);
+    board.onKeyEvent("b");
+    t.checkExpect(board.rasterize, true);
+    t.checkExpect(board.lightEpoch, epoch);
+    board.makeScene();
+    //The frame is the board's part of the canvas:
+    t.checkExpect(board.retained.frame.width, 700);
+    t.checkExpect(board.retained.frame.pixelAt(0, 0), Color.BLACK.getRGB());
+    t.checkExpect(board.retained.frame.pixelAt(5, 20), Color.DARK_GRAY.getRGB());
+    t.checkExpect(board.retained.frame.pixelAt(699, 699), Color.WHITE.getRGB());
+    //The power station, and the wires that meet at the center of every GamePiece:
+    t.checkExpect(board.retained.frame.pixelAt(116, 116), Color.YELLOW.getRGB());
+    GamePiece middle = board.pieceAt(4);
+    t.checkExpect(board.retained.frame.pixelAt(349, 349),
+        board.painter().wirePalette[middle.colorBucket(board.radius, board.lightEpoch)]);
+    //Each kind of GamePiece is painted once:
+    RasterFrame stamp = board.stampOf(middle);
+    t.checkExpect(board.stampOf(middle) == stamp, true);
+    t.checkExpect(stamp.width, 233);
+    //The reference renderer is used again after switching back:
+    board.onKeyEvent("b");
+    t.checkExpect(board.rasterize, false);
+    //Blocks of GamePieces are painted in the color of their block image:
+    LightEmAll large = new LightEmAll(200, 200, 0, 0, 7L);
+    large.refresh();
+    large.moveView("-");
+    large.moveView("-");
+    t.checkExpect(large.view.blockSize, 2);
+    large.makeScene();
+    t.checkExpect(large.retained.frame.pixelAt(1, 1), Color.RED.getRGB());
+    t.checkExpect(large.retained.frame.pixelAt(7, 1),
+        large.blockColor(large.blockKey(1, 0, 3)).getRGB());
+    t.checkExpect(large.retained.frame.pixelAt(300, 1), Color.WHITE.getRGB());
+    //and GamePieces too small to show their wires as cells:
+    large.moveView("+");
+    large.makeScene();
+    t.checkExpect(large.retained.frame.pixelAt(1, 1), Color.RED.getRGB());
+    //Hexagons leave their corners transparent for their neighbors:
+    LightEmAllHex hex = new LightEmAllHex(3, 3, 7L, false);
+    RasterFrame hexStamp = hex.paintPiece(1, 1, false);
+    t.checkExpect(hexStamp.pixelAt(0, 0), 0);
+    t.checkExpect(hexStamp.pixelAt(hexStamp.width / 2, hexStamp.height / 2),
+        hex.painter().wirePalette[1]);
+    hex.rasterize = true;
+    hex.makeScene();
+    t.checkExpect(hex.retained.frame.pixelAt(hex.layout.centerX(1, 1), hex.layout.centerY(1, 1))
+        != Color.WHITE.getRGB(), true);
+  }
+  
+  //Tests for painting the bands of a frame at the same time (the BandPainter class)
+  void testBandPainter(Tester t) {
+    LightEmAll board = new LightEmAll(20, 20, 0, 0, 7L);
+    board.connectTheWires();
+    board.refresh();
+    board.rasterize = true;
+    //The frame painted in bands is the same as the frame painted on one thread:
+    board.bandRows = 0;
+    board.makeScene();
+    int[] whole = Arrays.copyOf(board.retained.frame.pixels, board.retained.frame.pixels.length);
+    board.bandRows = 50;
+    Arrays.fill(board.retained.frame.pixels, 0);
+    board.markAllDirty();
+    board.makeScene();
+    t.checkExpect(Arrays.equals(board.retained.frame.pixels, whole), true);
+    //for hexagons, whose stamps overlap between rows:
+    LightEmAllHex hex = new LightEmAllHex(12, 12, 7L, false);
+    hex.rasterize = true;
+    hex.bandRows = 0;
+    hex.makeScene();
+    int[] hexWhole = Arrays.copyOf(hex.retained.frame.pixels, hex.retained.frame.pixels.length);
+    hex.bandRows = 7;
+    Arrays.fill(hex.retained.frame.pixels, 0);
+    hex.markAllDirty();
+    hex.makeScene();
+    t.checkExpect(Arrays.equals(hex.retained.frame.pixels, hexWhole), true);
+    //and for blocks of GamePieces:
+    for (int i = 0; i < 5; i++) {
+      board.moveView("-");
+    }
+    t.checkExpect(board.view.blockSize, 2);
+    board.bandRows = 0;
+    board.makeScene();
+    int[] blocks = Arrays.copyOf(board.retained.frame.pixels, board.retained.frame.pixels.length);
+    board.bandRows = 3;
+    Arrays.fill(board.retained.frame.pixels, 0);
+    board.markAllDirty();
+    board.makeScene();
+    t.checkExpect(Arrays.equals(board.retained.frame.pixels, blocks), true);
+    //Each band paints only its own rows:
+    RasterFrame frame = new RasterFrame(700, 700);
+    frame.toImage();
+    new BandPainter(board, frame, 100, 200, 30).invoke();
+    t.checkExpect(frame.pixelAt(0, 99), 0);
+    t.checkExpect(frame.pixelAt(650, 100), Color.WHITE.getRGB());
+    t.checkExpect(frame.pixelAt(650, 199), Color.WHITE.getRGB());
+    t.checkExpect(frame.pixelAt(0, 200), 0);
+    //but leaves showing them in the image of the frame to the thread that waits for the bands:
+    t.checkExpect(frame.shown.getPixel(650, 100), new Color(0, true));
+    frame.show(0, 0, 700, 700);
+    t.checkExpect(frame.shown.getPixel(650, 99), new Color(0, true));
+    t.checkExpect(frame.shown.getPixel(650, 100), Color.WHITE);
+    t.checkExpect(frame.shown.getPixel(650, 199), Color.WHITE);
+    t.checkExpect(frame.shown.getPixel(650, 200), new Color(0, true));
+    t.checkConstructorException(new IllegalArgumentException("Cannot paint bands without rows."),
+        "BandPainter", board, frame, 0, 10, 0);
+  }
+  
+  //Tests for the PngWriter class
+  void testPngWriter(Tester t) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      PngWriter png = new PngWriter(out, 3, 2);
+      png.writeRow(new int[] {Color.RED.getRGB(), Color.GREEN.getRGB(), Color.BLUE.getRGB()}, 0);
+      t.checkException(new IllegalStateException("Not every row of the image has been written."),
+          png, "finish");
+      png.writeRow(new int[] {0, 0, 0, Color.WHITE.getRGB(), 0x123456, 0}, 3);
+      t.checkException(
+          new IllegalStateException("Every row of the image has already been written."),
+          png, "writeRow", new int[3], 0);
+      png.finish();
+      BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+      t.checkExpect(image.getWidth(), 3);
+      t.checkExpect(image.getHeight(), 2);
+      t.checkExpect(image.getRGB(0, 0), Color.RED.getRGB());
+      t.checkExpect(image.getRGB(2, 0), Color.BLUE.getRGB());
+      t.checkExpect(image.getRGB(0, 1), Color.WHITE.getRGB());
+      t.checkExpect(image.getRGB(1, 1), 0xFF123456);
+    }
+    catch (IOException e) {
+      t.checkExpect(false, true, e.getMessage());
+    }
+    t.checkConstructorException(
+        new IllegalArgumentException("Cannot write an image without pixels."),
+        "PngWriter", out, 0, 4);
+  }
+  
+  //Tests for exporting boards to PNG images without a canvas (the BoardExporter class)
+  void testBoardExporter(Tester t) {
+    LightEmAll board = new LightEmAll(5, 4, 7L, false);
+    //A game's current state is packed with its lighting:
+    t.checkExpect(board.pack().colorBucket(0),
+        board.pieceAt(0).colorBucket(board.radius, board.lightEpoch));
+    PackedBoard solved = new PackedBoard(5, 4, 4);
+    solved.generate(new GenerationContext(7L), false);
+    BoardExporter exporter = new BoardExporter(10);
+    try {
+      //The image painted in strips is the same as the image painted at once:
+      ByteArrayOutputStream whole = new ByteArrayOutputStream();
+      exporter.writePng(solved, whole);
+      exporter.stripRows = 7;
+      ByteArrayOutputStream strips = new ByteArrayOutputStream();
+      exporter.writePng(solved, strips);
+      BufferedImage wholeImage = ImageIO.read(new ByteArrayInputStream(whole.toByteArray()));
+      BufferedImage stripImage = ImageIO.read(new ByteArrayInputStream(strips.toByteArray()));
+      t.checkExpect(stripImage.getWidth(), 50);
+      t.checkExpect(stripImage.getHeight(), 40);
+      t.checkExpect(Arrays.equals(stripImage.getRGB(0, 0, 50, 40, null, 0, 50),
+          wholeImage.getRGB(0, 0, 50, 40, null, 0, 50)), true);
+      //and it is painted the same way as the board in a game:
+      RasterFrame stamp = new SquarePainter(10, 10).paint(solved.maskOf(7),
+          solved.colorBucket(7), false);
+      t.checkExpect(stripImage.getRGB(25, 15), stamp.pixelAt(5, 5));
+      //Hexagons are exported in rows of hexagons:
+      LightEmAllHex hex = new LightEmAllHex(4, 4, 7L, false);
+      ByteArrayOutputStream hexOut = new ByteArrayOutputStream();
+      exporter.writePng(hex.pack(), hexOut);
+      BufferedImage hexImage = ImageIO.read(new ByteArrayInputStream(hexOut.toByteArray()));
+      t.checkExpect(hexImage.getWidth(), new HexLayout(4, 4, 10).pixelWidth());
+      t.checkExpect(hexImage.getRGB(0, 0), Color.WHITE.getRGB());
+      //A batch of boards is exported on a pool of threads:
+      ArrayList<SeededBoard> boards = new ArrayList<SeededBoard>();
+      ArrayList<File> files = new ArrayList<File>();
+      for (int i = 0; i < 3; i++) {
+        boards.add(new SeededBoard(3 + i, 3, 4, i, true));
+        File file = File.createTempFile("board", ".png");
+        file.deleteOnExit();
+        files.add(file);
+      }
+      exporter.exportAll(boards, files, 2);
+      for (int i = 0; i < 3; i++) {
+        t.checkExpect(ImageIO.read(files.get(i)).getWidth(), 30 + 10 * i);
+      }
+      //Each board is the one generated from its seed:
+      ByteArrayOutputStream second = new ByteArrayOutputStream();
+      exporter.writePng(boards.get(1).generate(), second);
+      BufferedImage secondImage = ImageIO.read(new ByteArrayInputStream(second.toByteArray()));
+      t.checkExpect(Arrays.equals(ImageIO.read(files.get(1)).getRGB(0, 0, 40, 30, null, 0, 40),
+          secondImage.getRGB(0, 0, 40, 30, null, 0, 40)), true);
+      //A board that cannot be generated fails the batch, naming its file:
+      boards.set(2, new SeededBoard(3, 3, 5, 2, true));
+      t.checkException(new IllegalStateException("Could not export " + files.get(2).getName()
+          + ".", new IllegalArgumentException("A board's tiles must have 4 or 6 sides.")),
+          exporter, "exportAll", boards, files, 2);
+      t.checkException(new IllegalArgumentException("Every board must be given one file."),
+          exporter, "exportAll", boards, new ArrayList<File>(), 2);
+    }
+    catch (IOException e) {
+      t.checkExpect(false, true, e.getMessage());
+    }
+    t.checkConstructorException(new IllegalArgumentException("Cannot export tiles without pixels."),
+        "BoardExporter", 0);
+  }
+
+  //Tests for the FrameScheduler class
+  void testFrameScheduler(Tester t) {
+    long second = 1000000000L;
+    //Unpaced, the clock ticks once per call and every scene is drawn:
+    FrameScheduler unpaced = new FrameScheduler(0);
+    t.checkExpect(unpaced.tickSeconds(), 1.0);
+    t.checkExpect(unpaced.clockTicks(5), 1);
+    unpaced.frameDrawn(5);
+    t.checkExpect(unpaced.shouldRedraw(5), true);
+    //Paced, the clock ticks once per second that has passed, however often it is asked:
+    FrameScheduler frames = new FrameScheduler(20);
+    t.checkExpect(frames.tickSeconds(), 0.05);
+    t.checkExpect(frames.framePeriod, second / 20);
+    t.checkExpect(frames.clockTicks(100), 0);
+    t.checkExpect(frames.clockTicks(100 + second - 1), 0);
+    t.checkExpect(frames.clockTicks(100 + second), 1);
+    t.checkExpect(frames.clockTicks(100 + 3 * second + 7), 2);
+    //and the scene is drawn first, then only after a change, at most once per frame:
+    t.checkExpect(frames.shouldRedraw(0), true);
+    frames.frameDrawn(0);
+    t.checkExpect(frames.shouldRedraw(second), false);
+    frames.markChanged();
+    t.checkExpect(frames.shouldRedraw(second / 40), false);
+    t.checkExpect(frames.shouldRedraw(second / 20), true);
+    t.checkConstructorException(
+        new IllegalArgumentException("Cannot draw a negative number of frames per second."),
+        "FrameScheduler", -1);
+    //A paced game reuses its scene until something has changed and a frame has passed:
+    LightEmAll board = new LightEmAll(4, 4, 3L, false);
+    board.frames = new FrameScheduler(10);
+    WorldScene first = board.sceneAt(0);
+    t.checkExpect(board.sceneAt(second) == first, true);
+    board.onKeyEvent("g");
+    WorldScene redrawn = board.sceneAt(second);
+    t.checkExpect(redrawn == first, false);
+    board.onKeyEvent("+");
+    t.checkExpect(board.sceneAt(second + 1) == redrawn, true);
+    t.checkExpect(board.sceneAt(second + second / 10) == redrawn, false);
+    //and its clock ticks once per second, however many frames pass:
+    board.time = 0;
+    board.tickAt(0);
+    for (int i = 1; i <= 25; i++) {
+      board.tickAt(i * (second / 10));
+    }
+    t.checkExpect(board.time, 2);
+    board.gameWon = true;
+    board.tickAt(5 * second);
+    t.checkExpect(board.time, 2);
+    //A new game starts the clock over, a whole second before its first tick:
+    board.onKeyEvent("r");
+    t.checkExpect(board.time, 0);
+    board.tickAt(5 * second + second / 2);
+    board.tickAt(6 * second);
+    t.checkExpect(board.time, 0);
+    board.tickAt(6 * second + second / 2);
+    t.checkExpect(board.time, 1);
+    FrameScheduler clock = new FrameScheduler(10);
+    clock.clockTicks(0);
+    clock.restartClock();
+    t.checkExpect(clock.clockTicks(second), 0);
+    t.checkExpect(clock.clockTicks(2 * second), 1);
+    //An unpaced game draws every scene:
+    LightEmAll unpacedBoard = new LightEmAll(4, 4, 3L, false);
+    t.checkExpect(unpacedBoard.makeScene() == unpacedBoard.makeScene(), false);
+  }
+
+  //Tests for the RetainedScene class
+  void testRetainedScene(Tester t) {
+    t.checkConstructorException(
+        new IllegalArgumentException("Cannot list a negative number of changes."),
+        "RetainedScene", -1);
+    RetainedScene scene = new RetainedScene(3);
+    //Nothing has been painted yet:
+    t.checkExpect(scene.allChanged, true);
+    t.checkExpect(scene.isClean(), false);
+    scene.markDirty(4);
+    t.checkExpect(scene.changed.isEmpty(), true);
+    scene.markPainted();
+    t.checkExpect(scene.isClean(), true);
+    //Changes are listed in order, even twice:
+    scene.markDirty(4);
+    scene.markDirty(1);
+    scene.markDirty(4);
+    t.checkExpect(scene.isClean(), false);
+    t.checkExpect(scene.changed.size, 3);
+    t.checkExpect(scene.changed.dequeue(), 4);
+    t.checkExpect(scene.changed.dequeue(), 1);
+    //Too many changes paint the whole frame again instead:
+    scene.markDirty(5);
+    scene.markDirty(6);
+    t.checkExpect(scene.allChanged, false);
+    scene.markDirty(7);
+    t.checkExpect(scene.allChanged, true);
+    t.checkExpect(scene.changed.isEmpty(), true);
+    scene.markPainted();
+    scene.markDirty(2);
+    scene.markAllDirty();
+    t.checkExpect(scene.allChanged, true);
+    t.checkExpect(scene.changed.isEmpty(), true);
+  }
+  
+  //Tests for makeScene, repaintTile and markDirty in the GameEngine class
+  void testRepaintTile(Tester t) {
+    LightEmAll board = new LightEmAll(3, 3, 0, 0, 7L);
+    board.connectTheWires();
+    board.refresh();
+    board.rasterize = true;
+    //Marks before the board is first drawn are not needed:
+    board.markDirty(4);
+    t.checkExpect(board.retained, null);
+    board.makeScene();
+    t.checkExpect(board.retained.isClean(), true);
+    //Rotating a GamePiece lists it, and the GamePieces whose lighting changed:
+    board.rotateTile(4);
+    t.checkExpect(board.retained.allChanged, false);
+    t.checkExpect(board.retained.changed.peek(), 4);
+    //and only those are painted again, the same as painting the whole frame:
+    board.makeScene();
+    t.checkExpect(board.retained.isClean(), true);
+    t.checkExpect(this.paintsWhole(board), true);
+    //Every other pixel keeps what it was painted with:
+    RasterFrame frame = board.retained.frame;
+    frame.pixels[650 * 700 + 650] = 0;
+    frame.pixels[50 * 700 + 50] = 0;
+    board.markDirty(0);
+    board.makeScene();
+    t.checkExpect(frame.pixelAt(650, 650), 0);
+    t.checkExpect(frame.pixelAt(50, 50) != 0, true);
+    t.checkExpect(frame.shown.getPixel(50, 50), new Color(frame.pixelAt(50, 50), true));
+    //A full refresh paints the whole frame again:
+    board.refresh();
+    t.checkExpect(board.retained.allChanged, true);
+    board.makeScene();
+    t.checkExpect(frame.pixelAt(650, 650) != 0, true);
+    t.checkExpect(board.retained.frame == frame, true);
+    //Hexagons overlap their neighbors, which are painted again with them:
+    LightEmAllHex hex = new LightEmAllHex(6, 6, 7L, false);
+    hex.rasterize = true;
+    hex.makeScene();
+    int same = 0;
+    for (int i = 0; i < 36; i = i + 5) {
+      hex.rotateTile(i);
+      hex.makeScene();
+      if (this.paintsWhole(hex)) {
+        same = same + 1;
+      }
+    }
+    t.checkExpect(same, 8);
+    //and so are whole blocks of GamePieces:
+    LightEmAll large = new LightEmAll(200, 200, 0, 0, 7L);
+    large.refresh();
+    large.moveView("-");
+    large.moveView("-");
+    large.makeScene();
+    large.rotateTile(3 * 200 + 5);
+    large.rotateTile(0);
+    t.checkExpect(large.retained.allChanged, false);
+    large.makeScene();
+    t.checkExpect(this.paintsWhole(large), true);
+    //A GamePiece out of view is not painted:
+    frame = large.retained.frame;
+    frame.pixels[0] = 0;
+    large.markDirty(199 * 200 + 199);
+    large.makeScene();
+    t.checkExpect(frame.pixelAt(0, 0), 0);
+  }
+  
+  // Returns whether the retained frame of the given game, and its image, are the same as a
+  // frame painted whole
+  boolean paintsWhole(GameEngine<?> game) {
+    RasterFrame frame = game.retained.frame;
+    RasterFrame whole = new RasterFrame(frame.width, frame.height);
+    whole.toImage();
+    game.paintRect(whole, 0, 0, whole.width, whole.height);
+    whole.show(0, 0, whole.width, whole.height);
+    return Arrays.equals(frame.pixels, whole.pixels)
+        && frame.shown.getPixel(frame.width / 2, frame.height / 3)
+            .equals(whole.shown.getPixel(frame.width / 2, frame.height / 3));
+  }
+  
   //Tests for rotateClockwise in GamePiece class
   void testRotateClockwise(Tester t) {
     this.initConditions();
+    this.leaTest.board = this.manualBoard;
     t.checkExpect(this.gp1.left, false);
     t.checkExpect(this.gp1.right, true);
     t.checkExpect(this.gp1.top, false);
     t.checkExpect(this.gp1.bottom, true);
-    t.checkExpect(this.gp1.wireNeighborsWith(this.gp2), true);
+    t.checkExpect(this.wiredTo(this.leaTest, 0, 1), true);
     this.gp1.rotateClockwise();
     t.checkExpect(this.gp1.left, true);
     t.checkExpect(this.gp1.right, false);
     t.checkExpect(this.gp1.top, false);
     t.checkExpect(this.gp1.bottom, true);
-    t.checkExpect(this.gp1.wireNeighborsWith(this.gp2), false);
+    t.checkExpect(this.wiredTo(this.leaTest, 0, 1), false);
   }
   
   //Tests for givePowerTo in GamePiece class
@@ -2425,9 +1674,9 @@ class ExamplesLightEmAll {
   }
   
   //The tester constructor in the LightEmAll class does NOT call
-  // - populateNeighbors(), connectTheWires(), or randomRotateAll()
+  // - connectTheWires(), or randomRotateAll()
   // so that we can test the properties BEFORE AND after the calling
-  // of these methods. This explains why in some tests populateNeighbors()
+  // of these methods. This explains why in some tests connectTheWires()
   // is called, even though it is not relevant to that particular test.
   // It is just setting up the board as needed to test further properties.
   
@@ -2440,19 +1689,116 @@ class ExamplesLightEmAll {
     t.checkExpect(this.leaTest.board.get(2).get(2).lit, false);
   }
   
-  //Test for populate neighbors in LightEmAll class
-  void testPopulateNeighbors(Tester t) {
+  //Test for neighborOf, opposite and sideToward in LightEmAll class
+  void testNeighborOf(Tester t) {
     this.initConditions();
-    ArrayList<ArrayList<GamePiece>> board = this.leaTest.board;
-    t.checkExpect(board.get(0).get(0).neighbors.contains(board.get(0).get(1)),
-        false);
-    this.leaTest.populateNeighbors();
-    t.checkExpect(board.get(0).get(0).neighbors.contains(board.get(0).get(1)),
-        true);
-    t.checkExpect(board.get(2).get(1).neighbors.contains(board.get(0).get(1)),
-        false);
+    //The center GamePiece of a 3x3 board has four neighbors:
+    t.checkExpect(this.leaTest.neighborOf(4, 0), 1);
+    t.checkExpect(this.leaTest.neighborOf(4, 1), 5);
+    t.checkExpect(this.leaTest.neighborOf(4, 2), 7);
+    t.checkExpect(this.leaTest.neighborOf(4, 3), 3);
+    //and a corner GamePiece has two:
+    t.checkExpect(this.leaTest.neighborOf(0, 0), -1);
+    t.checkExpect(this.leaTest.neighborOf(0, 3), -1);
+    t.checkExpect(this.leaTest.neighborOf(2, 1), -1);
+    t.checkExpect(this.leaTest.neighborOf(8, 2), -1);
+    t.checkExpect(this.leaTest.opposite(0), 2);
+    t.checkExpect(this.leaTest.opposite(3), 1);
+    t.checkExpect(this.leaTest.sideToward(4, 5), 1);
+    t.checkException(new IllegalArgumentException("These GamePieces are not neighbors."),
+        this.leaTest, "sideToward", 0, 8);
+  }
+  
+  //Test for wiredOn in LightEmAll class and hasWire in GamePiece class
+  void testWiredOn(Tester t) {
+    this.initConditions();
+    this.leaTest.board = this.manualBoard;
+    t.checkExpect(this.gp1.hasWire(1), true);
+    t.checkExpect(this.gp1.hasWire(3), false);
+    t.checkExpect(this.gp1.hasWire(4), false);
+    //gp1 is wired to gp2 on its right and gp4 below it:
+    t.checkExpect(this.leaTest.wiredOn(0, 1), true);
+    t.checkExpect(this.leaTest.wiredOn(0, 2), true);
+    //but no wire leaves the board:
+    t.checkExpect(this.leaTest.wiredOn(0, 0), false);
+    //and gp2 has a wire toward gp3, but gp3 has none back:
+    t.checkExpect(this.gp2.hasWire(1), true);
+    t.checkExpect(this.leaTest.wiredOn(1, 1), false);
+    t.checkExpect(this.leaTest.wiredOn(2, 3), false);
   }
-  
+
+  //Test for setWire in GamePiece class
+  void testSetWire(Tester t) {
+    this.initConditions();
+    this.gp5.setWire(0, true);
+    this.gp5.setWire(3, true);
+    t.checkExpect(this.gp5.top, true);
+    t.checkExpect(this.gp5.left, true);
+    t.checkExpect(this.gp5.right, false);
+    this.gp5.setWire(0, false);
+    t.checkExpect(this.gp5.top, false);
+    t.checkExpect(this.gp5.hasWire(3), true);
+  }
+
+  //Tests for the SquareTopology and HexTopology classes
+  void testTopology(Tester t) {
+    Topology square = new SquareTopology();
+    Topology hex = new HexTopology();
+    t.checkExpect(square.sides(), 4);
+    t.checkExpect(hex.sides(), 6);
+    //The bottom neighbor of a square is one row down, in the same column in every row:
+    t.checkExpect(square.rowOffset(2), 1);
+    t.checkExpect(square.colOffset(0, 2), 0);
+    t.checkExpect(square.colOffset(1, 3), -1);
+    //but the top-left neighbor of a hexagon is in a column that depends on its row:
+    t.checkExpect(hex.rowOffset(0), -1);
+    t.checkExpect(hex.colOffset(0, 0), 0);
+    t.checkExpect(hex.colOffset(1, 0), -1);
+    t.checkExpect(hex.colOffset(2, 3), 1);
+    t.checkExpect(hex.colOffset(3, 3), 0);
+    //Opposite sides face each other, and rotating moves each wire one side clockwise:
+    t.checkExpect(square.opposite(1), 3);
+    t.checkExpect(hex.opposite(1), 4);
+    t.checkExpect(square.rotated(3), 0);
+    t.checkExpect(hex.rotated(2), 3);
+    t.checkExpect(hex.rotated(5), 0);
+    //Edges are generated toward the neighbors later in row-major order:
+    t.checkExpect(square.forwardSides(), new int[] {1, 2});
+    t.checkExpect(hex.forwardSides(), new int[] {2, 4, 3});
+    //The neighbor on each side is found from the offsets, on a board of 3 columns and 2 rows:
+    t.checkExpect(square.neighbor(4, 0, 3, 2), 1);
+    t.checkExpect(square.neighbor(4, 2, 3, 2), -1);
+    t.checkExpect(square.neighbor(3, 3, 3, 2), -1);
+    t.checkExpect(hex.neighbor(4, 0, 3, 2), 0);
+    t.checkExpect(hex.neighbor(1, 3, 3, 2), 5);
+    t.checkExpect(square.sideToward(1, 4, 3, 2), 2);
+    t.checkExpect(hex.sideToward(5, 1, 3, 2), 0);
+    t.checkExpect(square.sideToward(0, 4, 3, 2), -1);
+  }
+
+  //Tests for sideOfKey and movePowerStation in the GameEngine class
+  void testMovePowerStation(Tester t) {
+    this.initConditions();
+    this.leaTest.board = this.manualBoard;
+    this.gp1.powerStation = true;
+    t.checkExpect(this.leaTest.sideOfKey("up"), 0);
+    t.checkExpect(this.leaTest.sideOfKey("down"), 2);
+    t.checkExpect(this.leaTest.sideOfKey("x"), -1);
+    //The power station cannot move off the board:
+    this.leaTest.movePowerStation(0);
+    t.checkExpect(this.leaTest.powerRow, 0);
+    //It moves down to gp4 along their wire:
+    this.leaTest.movePowerStation(2);
+    t.checkExpect(this.leaTest.powerCol, 0);
+    t.checkExpect(this.leaTest.powerRow, 1);
+    t.checkExpect(this.gp1.powerStation, false);
+    t.checkExpect(this.gp4.powerStation, true);
+    //but not right to gp5, since there is no wire between them:
+    this.leaTest.movePowerStation(1);
+    t.checkExpect(this.leaTest.powerCol, 0);
+    t.checkExpect(this.gp5.powerStation, false);
+  }
+
   //Test for getNodes in LightEmAll class
   void testGetNodes(Tester t) {
     this.initConditions();
@@ -2465,7 +1811,6 @@ class ExamplesLightEmAll {
   //Test for getEdges in LightEmAll class
   void testGetEdges(Tester t) {
     this.initConditions();
-    this.leaTest.populateNeighbors();
     ArrayList<GamePiece> board = this.leaTest.nodes;
     ArrayList<Edge<GamePiece>> testEdges = this.leaTest.getEdges(
         this.leaTest.nodes.size(), this.leaTest.nodes.size());
@@ -2475,27 +1820,16 @@ class ExamplesLightEmAll {
     t.checkExpect(testEdges.get(1).toNode, board.get(3));
   }
   
-  //Test for makeHashMapOfReps in LightEmAll class
-  void testMakeHMofReps(Tester t) {
-    this.initConditions();
-    this.leaTest.populateNeighbors();
-    HashMap<Integer, Integer> reps = this.leaTest.makeHashMapOfReps();
-    //When the hashmap is made, all of its keys refer to their own values:
-    t.checkExpect(reps.get(0), 0);
-    t.checkExpect(reps.get(1), 1);
-    //does not exist on this HashMap:
-    t.checkExpect(reps.get(10), null);
-  }
-  
-  //Test for find in LightEmAll class
-  void testFind(Tester t) {
+  //Test for indexOf in LightEmAll class
+  void testIndexOf(Tester t) {
     this.initConditions();
-    this.leaTest.populateNeighbors();
-    HashMap<Integer, Integer> reps = this.leaTest.makeHashMapOfReps();
-    t.checkExpect(this.leaTest.find(reps, this.gp1), 0);
-    t.checkExpect(this.leaTest.find(reps, this.gp3), 2);
-    reps.put(2, 0);
-    t.checkExpect(this.leaTest.find(reps, this.gp3), 0);
+    //The index of a GamePiece matches its position in the list of nodes:
+    t.checkExpect(this.leaTest.indexOf(this.gp1), 0);
+    t.checkExpect(this.leaTest.indexOf(this.gp3), 2);
+    t.checkExpect(this.leaTest.indexOf(this.gp4), 3);
+    t.checkExpect(this.leaTest.indexOf(this.gp9), 8);
+    t.checkExpect(this.leaTest.nodes.get(this.leaTest.indexOf(this.gp6)),
+        this.leaTest.board.get(1).get(2));
   }
   
   //Test for createMST in LightEmAllclass
@@ -2527,15 +1861,33 @@ class ExamplesLightEmAll {
     nonRandomEdges.add(e10);
     nonRandomEdges.add(e11);
     nonRandomEdges.add(e12);
-    this.leaTest.mst = this.leaTest.createMST(nonRandomEdges);
+    ArrayList<Edge<GamePiece>> mst = this.leaTest.createMST(nonRandomEdges);
     int sum = 0;
-    for (int i = 0; i < this.leaTest.mst.size(); i++) {
-      sum = sum + this.leaTest.mst.get(i).weight;
+    for (int i = 0; i < mst.size(); i++) {
+      sum = sum + mst.get(i).weight;
     }
     //In the tester constructor of Edges, each weight is assigned 1,
     //therefore, the sum of all weight will always equal the minimum
     //number of edges needed to connect all pieces: total number of nodes - 1
     t.checkExpect(sum, 8);
+    //The same board, as an EdgeList of flat indices:
+    EdgeList edges = new EdgeList(12);
+    for (int i = 0; i < nonRandomEdges.size(); i++) {
+      edges.add(this.leaTest.indexOf(nonRandomEdges.get(i).fromNode),
+          this.leaTest.indexOf(nonRandomEdges.get(i).toNode), 1);
+    }
+    EdgeList tree = this.leaTest.createMST(edges);
+    t.checkExpect(tree.size, 8);
+    t.checkExpect(tree.totalWeight(), 8);
+    //Lighter edges are always chosen over heavier ones:
+    edges.weight[0] = 5;
+    edges.weight[2] = 5;
+    tree = this.leaTest.createMST(edges);
+    t.checkExpect(tree.totalWeight(), 8);
+    //Unless the heavier edge is the only way to reach a GamePiece (gp1):
+    edges.weight[1] = 5;
+    tree = this.leaTest.createMST(edges);
+    t.checkExpect(tree.totalWeight(), 12);
   }
   
   //Test for calculateRadius in LightEmAll class
@@ -2543,14 +1895,32 @@ class ExamplesLightEmAll {
     this.initConditions();
     this.gp1.powerStation = true;
     this.leaTest.board = this.manualBoard;
+    //Measures the wires of the manual board as the tree, which has a diameter of 5:
+    EdgeList wires = new EdgeList(8);
+    for (int i = 0; i < 9; i++) {
+      int[] wired = this.leaTest.wiredNeighbors(i);
+      for (int j = 0; j < wired.length; j++) {
+        if (i < wired[j]) {
+          wires.add(i, wired[j], 1);
+        }
+      }
+    }
+    this.leaTest.metrics = new TreeMetrics(wires, 9);
     t.checkExpect(this.leaTest.calculateRadius(), 3);
+    //A generated board's radius comes from the diameter of its min spanning tree:
+    LightEmAll board = new LightEmAll(6, 5, 0, 0, 3L);
+    t.checkExpect(board.metrics.diameter, new TreeMetrics(board.mst, 30).diameter);
+    t.checkExpect(board.radius, board.metrics.diameter / 2 + 1);
   }
   
   //Test for connectTheWires in LightEmAll class
   void testConnectTheWires(Tester t) {
     this.initConditions();
-    this.leaTest.mst = new ArrayList<Edge<GamePiece>>();
-    this.leaTest.mst.add(new Edge<GamePiece>(this.gp5, this.gp6, 10));
+    this.leaTest.board = this.manualBoard;
+    this.leaTest.nodes = this.leaTest.getNodes();
+    this.leaTest.mst = new EdgeList(1);
+    //The edge between gp5 and gp6:
+    this.leaTest.mst.add(4, 5, 10);
     t.checkExpect(this.gp5.right, false);
     this.leaTest.connectTheWires();
     t.checkExpect(this.gp5.right, true);
@@ -2577,6 +1947,8 @@ class ExamplesLightEmAll {
     this.leaTest.nodes = this.leaTest.getNodes();
     this.gp1.powerStation = true;
     this.gp1.lit = true;
+    //A radius of 1 lights the power station and its two wire neighbors:
+    this.leaTest.radius = 1;
     this.leaTest.refresh();
     //Initialize the rectangle where the info will be placed:
     WorldImage bckgr = new RectangleImage(300, 700, OutlineMode.OUTLINE,
@@ -2590,9 +1962,12 @@ class ExamplesLightEmAll {
         new BesideImage(pwr, title, pwr),
         new TextImage("To Win: Connect all the wires and move", 14, FontStyle.ITALIC, Color.BLACK),
         new TextImage("the power station to light the board", 14, FontStyle.ITALIC, Color.BLACK));
-    //Keeps track of time:
-    WorldImage time = new TextImage("TIME: " + Integer.toString(5), 14, FontStyle.REGULAR,
-        Color.BLACK);
+    //Keeps track of time, and shows the seed that generated this board:
+    WorldImage time = new AboveImage(
+        new TextImage("TIME: " + Integer.toString(5), 14, FontStyle.REGULAR,
+            Color.BLACK),
+        new TextImage("SEED: " + Long.toString(this.leaTest.gen.seed), 12, FontStyle.REGULAR,
+            Color.GRAY));
     //Keeps track of score:
     WorldImage score = new AboveImage(
         new TextImage("You have connected ", 16, FontStyle.BOLD, Color.BLACK),
@@ -2620,15 +1995,35 @@ class ExamplesLightEmAll {
             Color.BLACK),
         new TextImage("our attemp at a hexagonal game.", 12, FontStyle.REGULAR, 
             Color.BLACK));
-    //Align all the info into the background image:
+    //Align all the info into the background image, where the title and instructions are
+    //drawn once, and the time and score are placed over them:
     WorldImage placeTitle = new OverlayImage(titleImage.movePinholeTo(new Posn(0, 250)), bckgr);
-    WorldImage placeTime = new OverlayImage(time.movePinholeTo(new Posn(0, 110)), placeTitle);
-    WorldImage placeScore = new OverlayImage(score.movePinholeTo(new Posn(0, 50)), placeTime);
     WorldImage placeExtraCreditInfo = new OverlayImage(extraInfo.movePinholeTo(new Posn(0, -240)), 
-        placeScore);
+        placeTitle);
     WorldImage placeInstructions = new OverlayImage(instructions.movePinholeTo(new Posn(0, -300)), 
         placeExtraCreditInfo);
-    t.checkExpect(this.leaTest.writeGameStats(), placeInstructions);
+    t.checkExpect(this.leaTest.drawStatsBackground(), placeInstructions);
+    //which is drawn over white, to hide the GamePieces that are partly in view:
+    WorldImage cover = new OverlayImage(placeInstructions,
+        new RectangleImage(300, 700, OutlineMode.SOLID, Color.WHITE));
+    WorldImage placeTime = new OverlayImage(time.movePinholeTo(new Posn(0, 110)), cover);
+    WorldImage placeScore = new OverlayImage(score.movePinholeTo(new Posn(0, 50)), placeTime);
+    WorldImage stats = this.leaTest.writeGameStats();
+    t.checkExpect(stats, placeScore);
+    //Nothing has changed, so the game stats are not drawn again:
+    t.checkExpect(this.leaTest.writeGameStats() == stats, true);
+    WorldImage background = this.leaTest.statsBackground;
+    //A new time draws the time and score again, over the same background:
+    this.leaTest.time = 6;
+    WorldImage later = this.leaTest.writeGameStats();
+    t.checkExpect(later == stats, false);
+    t.checkExpect(this.leaTest.statsBackground == background, true);
+    t.checkExpect(this.leaTest.statsTime, 6);
+    t.checkExpect(this.leaTest.statsScore, 3);
+    //As does winning the game:
+    this.leaTest.gameWon = true;
+    t.checkExpect(this.leaTest.writeGameStats() == later, false);
+    t.checkExpect(this.leaTest.statsWon, true);
   }
   
   //Test for keepScore in LightEmAll class
@@ -2643,6 +2038,47 @@ class ExamplesLightEmAll {
     t.checkExpect(this.leaTest.keepScore(), 3);
   }
   
+  //Tests for score, countLight and the win event (onWin) in the GameEngine class
+  void testScore(Tester t) {
+    LightEmAll board = new LightEmAll(3, 3, 0, 0, 7L);
+    board.connectTheWires();
+    board.radius = 100;
+    //The solved board is entirely lit, which wins the game as soon as it is lit:
+    board.refresh();
+    t.checkExpect(board.score(), 9);
+    t.checkExpect(board.gameWon, true);
+    board.gameWon = false;
+    //The count is kept up to date by incremental lighting, without looking at every GamePiece:
+    board.rotateTile(4);
+    t.checkExpect(board.score(), board.keepScore());
+    t.checkExpect(board.score() < 9, true);
+    t.checkExpect(board.gameWon, false);
+    board.rotateTile(4);
+    board.rotateTile(4);
+    t.checkExpect(board.score(), board.keepScore());
+    t.checkExpect(board.gameWon, false);
+    //Turning the GamePiece back lights the whole board, which wins the game:
+    board.rotateTile(4);
+    t.checkExpect(board.score(), 9);
+    t.checkExpect(board.gameWon, true);
+    //Drawing the game stats does not score the board:
+    t.checkExpect(board.writeGameStats() == board.stats, true);
+    //The count of lit GamePieces is part of the verification of incremental lighting:
+    board.litCount = 3;
+    t.checkExpect(board.lightingMatchesRefresh(), false);
+    t.checkExpect(board.score(), 9);
+    //countLight only counts GamePieces that changed:
+    board.countLight(0, true, true);
+    board.countLight(0, false, false);
+    t.checkExpect(board.score(), 9);
+    board.countLight(0, true, false);
+    t.checkExpect(board.score(), 8);
+    t.checkExpect(board.density.litIn(1, 0, 0), 3);
+    board.countLight(0, false, true);
+    t.checkExpect(board.score(), 9);
+    t.checkExpect(board.density.litIn(1, 0, 0), 4);
+  }
+  
   //Test for time keeper:
   void testOnTick(Tester t) {
     //test the time ticking:
@@ -2665,9 +2101,49 @@ class ExamplesLightEmAll {
     this.initConditions();
     this.leaTest.board = this.manualBoard;
     this.leaTest.refresh();
-    t.checkExpect(this.gp3.wireNeighborsWith(this.gp2), false);
+    t.checkExpect(this.wiredTo(this.leaTest, 2, 1), false);
     this.leaTest.onMouseClicked(new Posn(550, 100));
-    t.checkExpect(this.gp3.wireNeighborsWith(this.gp2), true);
+    t.checkExpect(this.wiredTo(this.leaTest, 2, 1), true);
+  }
+  
+  //Tests for SquareLayout, which finds the clicked GamePiece of the square game
+  void testSquareLayout(Tester t) {
+    this.initConditions();
+    //A 3 by 3 board in big bang has GamePieces 233 pixels wide and high:
+    BoardLayout layout = this.leaTest.layout;
+    t.checkExpect(layout.centerX(0, 2), 582);
+    t.checkExpect(layout.centerY(1, 0), 349);
+    t.checkExpect(layout.tileAt(new Posn(550, 100)), 2);
+    t.checkExpect(layout.tileAt(new Posn(0, 0)), 0);
+    t.checkExpect(layout.tileAt(new Posn(233, 232)), 1);
+    t.checkExpect(layout.tileAt(new Posn(698, 698)), 8);
+    //Points off the board, including the pixels left over by the division of big bang:
+    t.checkExpect(layout.tileAt(new Posn(699, 10)), -1);
+    t.checkExpect(layout.tileAt(new Posn(10, -1)), -1);
+    t.checkExpect(layout.tileAt(new Posn(800, 300)), -1);
+    //Every GamePiece is found at its own center:
+    SquareLayout big = new SquareLayout(100, 80, 7, 8);
+    int missed = 0;
+    for (int i = 0; i < 80; i++) {
+      for (int j = 0; j < 100; j++) {
+        if (big.tileAt(new Posn(big.centerX(i, j), big.centerY(i, j))) != i * 100 + j) {
+          missed = missed + 1;
+        }
+      }
+    }
+    t.checkExpect(missed, 0);
+    t.checkConstructorException(
+        new IllegalArgumentException("Cannot have GamePieces of a negative size."),
+        "SquareLayout", 3, 3, -1, 10);
+    //A board scrolled so that its top-left corner is drawn off the canvas:
+    SquareLayout scrolled = new SquareLayout(100, 80, 10, 10, -255, -40);
+    t.checkExpect(scrolled.centerX(0, 30), 50);
+    t.checkExpect(scrolled.tileAt(new Posn(0, 0)), 4 * 100 + 25);
+    t.checkExpect(scrolled.rowNear(0), 4);
+    t.checkExpect(scrolled.colNear(700), 95);
+    t.checkExpect(scrolled.colNear(-300), -5);
+    t.checkExpect(scrolled.pixelWidth(), 1000);
+    t.checkExpect(scrolled.pixelHeight(), 800);
   }
   
   //Tests for On-Key Events
@@ -2683,14 +2159,26 @@ class ExamplesLightEmAll {
     t.checkExpect(this.leaTest.powerRow, 1);
     //Test the "give-up" functionality
     this.gp2.rotateClockwise();
-    t.checkExpect(this.gp2.wireNeighborsWith(this.gp2), false);
+    t.checkExpect(this.wiredTo(this.leaTest, 1, 1), false);
+    this.leaTest.onKeyEvent("g");
+    t.checkExpect(this.wiredTo(this.leaTest, 0, 1), true);
+    //but not once the game is won:
+    this.leaTest.gameWon = true;
+    this.gp2.rotateClockwise();
+    boolean[] wires = new boolean[] {this.gp2.top, this.gp2.right, this.gp2.bottom,
+        this.gp2.left};
     this.leaTest.onKeyEvent("g");
-    t.checkExpect(this.gp1.wireNeighborsWith(this.gp2), true);
+    t.checkExpect(new boolean[] {this.gp2.top, this.gp2.right, this.gp2.bottom,
+        this.gp2.left}, wires);
     //Test the press r to reset functionality
     t.checkExpect(this.gp4.powerStation, true);
+    this.leaTest.time = 12;
     this.leaTest.onKeyEvent("r");
     t.checkExpect(this.leaTest.powerCol, 0);
     t.checkExpect(this.leaTest.powerRow, 0);
+    t.checkExpect(this.leaTest.time, 0);
+    t.checkExpect(this.leaTest.pieceAt(0).powerStation, true);
+    t.checkExpect(this.leaTest.pieceAt(0).isLitIn(this.leaTest.lightEpoch), true);
     //Test the press h to get a horizontally bias board
     this.leaTest.onKeyEvent("h");
     //Because this feature is a visual addition to the board,
@@ -2707,6 +2195,53 @@ class ExamplesLightEmAll {
     t.checkExpect(this.leaTest.powerRow, 0);
   }
   
+  //Test for lightEmUp in LightEmAll class and loseLight in GamePiece class
+  void testLightEmUp(Tester t) {
+    this.initConditions();
+    this.leaTest.board = this.manualBoard;
+    this.leaTest.radius = 4;
+    this.gp1.powerStation = true;
+    this.gp1.lit = true;
+    this.leaTest.lightEmUp();
+    t.checkExpect(this.gp1.lit, true);
+    t.checkExpect(this.gp2.lit, true);
+    t.checkExpect(this.gp3.lit, false);
+    t.checkExpect(this.gp4.lit, true);
+    //Each GamePiece's powerVal is its distance from the power station:
+    t.checkExpect(this.gp1.powerVal, 0);
+    t.checkExpect(this.gp8.powerVal, 3);
+    t.checkExpect(this.gp9.powerVal, 4);
+    this.gp1.rotateClockwise();
+    //Mimick the "refresh" method:
+    this.gp2.loseLight();
+    this.gp3.loseLight();
+    this.gp4.loseLight();
+    //and recall the lightOrNot method:
+    this.leaTest.lightEmUp();
+    t.checkExpect(this.gp1.lit, true);
+    t.checkExpect(this.gp2.lit, false);
+    t.checkExpect(this.gp3.lit, false);
+    t.checkExpect(this.gp4.lit, true);
+    //GamePieces past the radius are not lit:
+    this.gp1.rotateClockwise();
+    this.gp1.rotateClockwise();
+    this.gp1.rotateClockwise();
+    this.leaTest.radius = 2;
+    this.leaTest.refresh();
+    t.checkExpect(this.gp7.lit, true);
+    t.checkExpect(this.gp8.lit, false);
+    t.checkExpect(this.gp8.powerVal, 3);
+  }
+  
+  //Tests for pieceAt in LightEmAll class
+  void testPieceAt(Tester t) {
+    this.initConditions();
+    t.checkExpect(this.leaTest.pieceAt(0), this.leaTest.board.get(0).get(0));
+    t.checkExpect(this.leaTest.pieceAt(5), this.leaTest.board.get(1).get(2));
+    this.leaTest.board = this.manualBoard;
+    t.checkExpect(this.leaTest.pieceAt(7), this.gp8);
+  }
+  
   //Tests for refresh
   void testRefresh(Tester t) {
     this.initConditions();
@@ -2716,6 +2251,464 @@ class ExamplesLightEmAll {
     t.checkExpect(this.gp2.lit, false);
     this.leaTest.refresh();
     t.checkExpect(this.gp2.lit, true);
+    t.checkExpect(this.leaTest.isLit(this.gp2), true);
+    //Disconnecting gp2 and refreshing starts a new lighting epoch, which gp2 is not lit in,
+    //without visiting gp2 to un-light it:
+    int epoch = this.leaTest.lightEpoch;
+    this.gp1.rotateClockwise();
+    this.leaTest.refresh();
+    t.checkExpect(this.leaTest.lightEpoch, epoch + 1);
+    t.checkExpect(this.gp2.litEpoch, epoch);
+    t.checkExpect(this.leaTest.isLit(this.gp2), false);
+    t.checkExpect(this.gp2.powerValIn(this.leaTest.lightEpoch), 0);
+    t.checkExpect(this.leaTest.isLit(this.gp1), true);
+    t.checkExpect(this.gp1.litEpoch, epoch + 1);
+  }
+  
+  //Tests for rotateTile and relightAfterRotation
+  void testRotateTile(Tester t) {
+    this.initConditions();
+    this.leaTest.board = this.manualBoard;
+    this.leaTest.radius = 4;
+    this.gp1.powerStation = true;
+    this.leaTest.refresh();
+    t.checkExpect(this.leaTest.distOf(1), 1);
+    t.checkExpect(this.leaTest.distOf(8), 4);
+    //A full refresh leaves the distances it does not reach stale, rather than clearing them:
+    this.gp1.rotateClockwise();
+    this.leaTest.refresh();
+    t.checkExpect(this.leaTest.powerDist[1], 1);
+    t.checkExpect(this.leaTest.distOf(1), Integer.MAX_VALUE);
+    for (int i = 0; i < 3; i++) {
+      this.gp1.rotateClockwise();
+    }
+    this.leaTest.refresh();
+    t.checkExpect(this.leaTest.distOf(1), 1);
+    //Rotating the power station disconnects gp2, but not gp4 and the GamePieces after it:
+    this.leaTest.rotateTile(0);
+    t.checkExpect(this.gp2.lit, false);
+    t.checkExpect(this.leaTest.distOf(1), Integer.MAX_VALUE);
+    t.checkExpect(this.gp4.lit, true);
+    t.checkExpect(this.gp9.powerVal, 4);
+    t.checkExpect(this.leaTest.lightingMatchesRefresh(), true);
+    //Rotating it back reconnects gp2:
+    this.leaTest.rotateTile(0);
+    this.leaTest.rotateTile(0);
+    this.leaTest.rotateTile(0);
+    t.checkExpect(this.gp2.lit, true);
+    t.checkExpect(this.gp2.powerVal, 1);
+    t.checkExpect(this.leaTest.lightingMatchesRefresh(), true);
+    //Rotating gp3 connects it to gp2:
+    t.checkExpect(this.gp3.lit, false);
+    this.leaTest.rotateTile(2);
+    t.checkExpect(this.gp3.lit, true);
+    t.checkExpect(this.gp3.powerVal, 2);
+    t.checkExpect(this.leaTest.lightingMatchesRefresh(), true);
+    //In verification mode, lighting that does not match a full refresh is an error:
+    this.leaTest.verifyLighting = true;
+    this.gp6.lightUp(this.leaTest.lightEpoch, 1, 4);
+    t.checkException(new IllegalStateException(
+        "Incremental lighting did not match a full refresh."), this.leaTest, "rotateTile", 2);
+  }
+  
+  //Tests that incremental lighting matches a full refresh over many rotations
+  void testRelightAfterRotation(Tester t) {
+    SplittableRandom clicks = new SplittableRandom(11);
+    for (long seed = 0; seed < 4; seed++) {
+      LightEmAll board = new LightEmAll(6, 5, 0, 0, seed);
+      board.connectTheWires();
+      board.refresh();
+      board.verifyLighting = true;
+      LightEmAllHex hexBoard = new LightEmAllHex(5, 6, 0, 0, seed);
+      hexBoard.connectTheWires();
+      hexBoard.refresh();
+      hexBoard.verifyLighting = true;
+      //verifyLighting throws an exception on the first rotation that does not match:
+      for (int i = 0; i < 200; i++) {
+        board.rotateTile(clicks.nextInt(30));
+        hexBoard.rotateTile(clicks.nextInt(30));
+      }
+      t.checkExpect(board.lightingMatchesRefresh(), true);
+      t.checkExpect(hexBoard.lightingMatchesRefresh(), true);
+    }
+  }
+  
+  //Tests for relightAfterStationMove
+  void testRelightAfterStationMove(Tester t) {
+    this.initConditions();
+    this.leaTest.board = this.manualBoard;
+    this.leaTest.radius = 3;
+    this.gp1.powerStation = true;
+    this.leaTest.refresh();
+    t.checkExpect(this.gp2.powerVal, 1);
+    t.checkExpect(this.gp8.powerVal, 3);
+    t.checkExpect(this.gp9.lit, false);
+    //Moving the power station down to gp4 brings gp8 and gp9 one step closer,
+    //and takes gp2 one step farther:
+    this.leaTest.verifyLighting = true;
+    this.leaTest.onKeyEvent("down");
+    t.checkExpect(this.leaTest.distOf(3), 0);
+    t.checkExpect(this.gp4.powerVal, 0);
+    t.checkExpect(this.gp1.powerVal, 1);
+    t.checkExpect(this.gp2.powerVal, 2);
+    t.checkExpect(this.gp8.powerVal, 2);
+    t.checkExpect(this.gp9.powerVal, 3);
+    t.checkExpect(this.gp9.lit, true);
+    //Lighting that is not of this move falls back to a full refresh:
+    this.leaTest.relightAfterStationMove(0, 3);
+    t.checkExpect(this.gp9.powerVal, 3);
+    //Moving the power station along the wires of seeded boards, with rotations in between:
+    SplittableRandom moves = new SplittableRandom(5);
+    for (long seed = 0; seed < 4; seed++) {
+      LightEmAll board = new LightEmAll(6, 5, 0, 0, seed);
+      board.connectTheWires();
+      board.refresh();
+      board.verifyLighting = true;
+      for (int i = 0; i < 100; i++) {
+        int oldIdx = board.powerRow * board.width + board.powerCol;
+        int[] wired = board.wiredNeighbors(oldIdx);
+        if (wired.length > 0) {
+          int newIdx = wired[moves.nextInt(wired.length)];
+          board.pieceAt(oldIdx).givePowerStationTo(board.pieceAt(newIdx));
+          board.powerRow = newIdx / board.width;
+          board.powerCol = newIdx % board.width;
+          board.relightAfterStationMove(oldIdx, newIdx);
+        }
+        board.rotateTile(moves.nextInt(30));
+      }
+      LightEmAllHex hexBoard = new LightEmAllHex(5, 6, 0, 0, seed);
+      hexBoard.connectTheWires();
+      hexBoard.refresh();
+      hexBoard.verifyLighting = true;
+      for (int i = 0; i < 100; i++) {
+        int oldIdx = hexBoard.powerRow * hexBoard.width + hexBoard.powerCol;
+        int[] wired = hexBoard.wiredNeighbors(oldIdx);
+        if (wired.length > 0) {
+          int newIdx = wired[moves.nextInt(wired.length)];
+          hexBoard.pieceAt(oldIdx).givePowerStationTo(hexBoard.pieceAt(newIdx));
+          hexBoard.powerRow = newIdx / hexBoard.width;
+          hexBoard.powerCol = newIdx % hexBoard.width;
+          hexBoard.relightAfterStationMove(oldIdx, newIdx);
+        }
+        hexBoard.rotateTile(moves.nextInt(30));
+      }
+      t.checkExpect(board.lightingMatchesRefresh(), true);
+      t.checkExpect(hexBoard.lightingMatchesRefresh(), true);
+    }
+  }
+
+  //Tests for the input queue: applyInput, queueRotation and queueStationMove
+  void testApplyInput(Tester t) {
+    //Paced input waits for the next frame, and is then applied in order:
+    LightEmAll board = new LightEmAll(4, 4, 0, 0, 2L);
+    board.connectTheWires();
+    board.refresh();
+    board.frames = new FrameScheduler(30);
+    int wires = board.pieceAt(5).wireMask();
+    for (int i = 0; i < 3; i++) {
+      board.onMouseClicked(new Posn(board.layout.centerX(1, 1), board.layout.centerY(1, 1)));
+    }
+    board.onKeyEvent(board.moveKeys[1]);
+    t.checkExpect(board.input.size, 4);
+    board.tickAt(0);
+    t.checkExpect(board.input.isEmpty(), true);
+    t.checkExpect(board.lightingMatchesRefresh(), true);
+    board.queueRotation(5);
+    board.applyInput();
+    t.checkExpect(board.pieceAt(5).wireMask(), wires);
+    t.checkExpect(board.connectedWires(), 15);
+    t.checkExpect(board.wireCount, 15);
+    //The count is kept as the wires change, rather than by a refresh:
+    board.wireCount = 14;
+    board.refresh();
+    t.checkExpect(board.wireCount, 14);
+    board.connectTheWires();
+    t.checkExpect(board.wireCount, 15);
+    //A frame of input that is a large part of the board is re-lit by one refresh:
+    board.randomRotateAll();
+    board.refresh();
+    t.checkExpect(board.wireCount < 9, true);
+    int epoch = board.lightEpoch;
+    for (int i = 0; i < 4; i++) {
+      board.queueRotation(0);
+    }
+    board.applyInput();
+    t.checkExpect(board.lightEpoch, epoch + 1);
+    t.checkExpect(board.wireCount, board.connectedWires());
+    t.checkExpect(board.lightingMatchesRefresh(), true);
+    //and a small one change by change:
+    epoch = board.lightEpoch;
+    board.queueRotation(0);
+    board.applyInput();
+    t.checkExpect(board.lightEpoch, epoch);
+    t.checkExpect(board.wireCount, board.connectedWires());
+    //Input applied a frame at a time comes out the same as input applied one by one, even as
+    //the game is won in between:
+    SplittableRandom events = new SplittableRandom(9);
+    int wins = 0;
+    for (long seed = 0; seed < 6; seed++) {
+      ArrayList<GameEngine<?>> games = new ArrayList<GameEngine<?>>();
+      games.add(new LightEmAll(3, 3, 0, 0, seed));
+      games.add(new LightEmAll(3, 3, 0, 0, seed));
+      games.add(new LightEmAllHex(3, 3, 0, 0, seed));
+      games.add(new LightEmAllHex(3, 3, 0, 0, seed));
+      for (int g = 0; g < 4; g++) {
+        games.get(g).connectTheWires();
+        games.get(g).refresh();
+      }
+      games.get(0).frames = new FrameScheduler(30);
+      games.get(2).frames = new FrameScheduler(30);
+      for (int i = 0; i < 300; i++) {
+        int event = events.nextInt(13);
+        for (int g = 0; g < 4; g++) {
+          if (event < 9) {
+            games.get(g).queueRotation(event);
+          }
+          else {
+            games.get(g).onKeyEvent(games.get(g).moveKeys[event - 9]);
+          }
+        }
+        if (events.nextInt(6) == 0) {
+          for (int g = 0; g < 4; g = g + 2) {
+            GameEngine<?> paced = games.get(g);
+            GameEngine<?> unpaced = games.get(g + 1);
+            paced.applyInput();
+            t.checkExpect(Arrays.equals(paced.pack().wires, unpaced.pack().wires), true);
+            t.checkExpect(paced.powerRow * 3 + paced.powerCol,
+                unpaced.powerRow * 3 + unpaced.powerCol);
+            t.checkExpect(paced.litCount, unpaced.litCount);
+            t.checkExpect(paced.gameWon, unpaced.gameWon);
+            t.checkExpect(paced.wireCount, paced.connectedWires());
+            if (unpaced.gameWon) {
+              wins = wins + 1;
+            }
+          }
+        }
+      }
+      t.checkExpect(games.get(0).lightingMatchesRefresh(), true);
+      t.checkExpect(games.get(2).lightingMatchesRefresh(), true);
+    }
+    t.checkExpect(wins > 0, true);
+  }
+  
+  //TESTS FOR TREEMETRICS CLASS//////////
+  //Tests for the TreeMetrics constructor
+  void testTreeMetrics(Tester t) {
+    //A path 0 - 1 - 2 - 3 - 4, with 5 hanging off of 1, and 6 in a tree of its own:
+    EdgeList tree = new EdgeList(5);
+    tree.add(0, 1, 1);
+    tree.add(1, 2, 1);
+    tree.add(2, 3, 1);
+    tree.add(3, 4, 1);
+    tree.add(5, 1, 1);
+    TreeMetrics metrics = new TreeMetrics(tree, 7);
+    t.checkExpect(metrics.diameter, 4);
+    t.checkExpect(metrics.center, 2);
+    t.checkExpect(metrics.eccentricity, new int[] {4, 3, 2, 3, 4, 4, 0});
+    t.checkExpect(metrics.adjacent.length, 10);
+    t.checkExpect(new TreeMetrics(new EdgeList(0), 1).diameter, 0);
+    t.checkConstructorException(new IllegalArgumentException(
+        "Cannot measure a negative number of elements."), "TreeMetrics", new EdgeList(0), -1);
+  }
+  
+  //Tests that TreeMetrics matches breadth-first searches on the wires of solved boards
+  void testTreeMetricsMatchesSearch(Tester t) {
+    for (long seed = 0; seed < 3; seed++) {
+      LightEmAll board = new LightEmAll(5, 4, 0, 0, seed);
+      board.connectTheWires();
+      board.radius = 20;
+      int diameter = 0;
+      for (int i = 0; i < 20; i++) {
+        //Lighting the board from each GamePiece measures how far the others are from it:
+        board.powerRow = i / 5;
+        board.powerCol = i % 5;
+        board.refresh();
+        int farthest = 0;
+        for (int j = 0; j < 20; j++) {
+          farthest = Math.max(farthest, board.distOf(j));
+        }
+        t.checkExpect(board.metrics.eccentricity[i], farthest);
+        diameter = Math.max(diameter, farthest);
+      }
+      t.checkExpect(board.metrics.diameter, diameter);
+      LightEmAllHex hexBoard = new LightEmAllHex(4, 5, 0, 0, seed);
+      hexBoard.connectTheWires();
+      hexBoard.radius = 20;
+      int hexDiameter = 0;
+      for (int i = 0; i < 20; i++) {
+        hexBoard.powerRow = i / 4;
+        hexBoard.powerCol = i % 4;
+        hexBoard.refresh();
+        for (int j = 0; j < 20; j++) {
+          hexDiameter = Math.max(hexDiameter, hexBoard.distOf(j));
+        }
+      }
+      t.checkExpect(hexBoard.metrics.diameter, hexDiameter);
+    }
+  }
+  
+  //TESTS FOR PACKEDBOARD CLASS//////////
+  //Tests for the PackedBoard constructor, neighbor and opposite
+  void testPackedBoardNeighbor(Tester t) {
+    PackedBoard square = new PackedBoard(3, 2, 4);
+    t.checkExpect(square.neighbor(4, 0), 1);
+    t.checkExpect(square.neighbor(4, 1), 5);
+    t.checkExpect(square.neighbor(4, 2), -1);
+    t.checkExpect(square.neighbor(3, 3), -1);
+    t.checkExpect(square.opposite(1), 3);
+    PackedBoard hex = new PackedBoard(3, 3, 6);
+    //Even rows are offset to the right of odd rows:
+    t.checkExpect(hex.neighbor(1, 3), 5);
+    t.checkExpect(hex.neighbor(1, 4), 4);
+    t.checkExpect(hex.neighbor(4, 0), 0);
+    t.checkExpect(hex.neighbor(4, 1), 1);
+    t.checkExpect(hex.neighbor(3, 5), -1);
+    t.checkExpect(hex.opposite(4), 1);
+    t.checkConstructorException(new IllegalArgumentException(
+        "A board's tiles must have 4 or 6 sides."), "PackedBoard", 3, 3, 5);
+    t.checkConstructorException(new IllegalArgumentException(
+        "Cannot have a negative number of rows or columns."), "PackedBoard", -1, 3, 4);
+    t.checkConstructorException(new IllegalArgumentException(
+        "Cannot index a board of this many tiles."), "PackedBoard", 65536, 65536, 4);
+  }
+  
+  //Tests for rotateClockwise, setWire and hasWire in PackedBoard, against GamePiece rotations
+  void testPackedBoardRotate(Tester t) {
+    PackedBoard square = new PackedBoard(1, 1, 4);
+    for (int mask = 0; mask < 16; mask++) {
+      square.setMask(0, mask);
+      GamePiece gp = square.squareView(0);
+      square.rotateClockwise(0);
+      gp.rotateClockwise();
+      t.checkExpect(square.squareView(0).left, gp.left);
+      t.checkExpect(square.squareView(0).top, gp.top);
+      t.checkExpect(square.squareView(0).right, gp.right);
+      t.checkExpect(square.squareView(0).bottom, gp.bottom);
+    }
+    PackedBoard hex = new PackedBoard(1, 1, 6);
+    for (int mask = 0; mask < 64; mask++) {
+      hex.setMask(0, mask);
+      GamePieceHex gp = hex.hexView(0);
+      hex.rotateClockwise(0);
+      gp.rotateClockwise();
+      t.checkExpect(hex.hexView(0).hasWire(0), gp.hasWire(0));
+      t.checkExpect(hex.hexView(0).hasWire(1), gp.hasWire(1));
+      t.checkExpect(hex.hexView(0).hasWire(2), gp.hasWire(2));
+      t.checkExpect(hex.hexView(0).hasWire(3), gp.hasWire(3));
+      t.checkExpect(hex.hexView(0).hasWire(4), gp.hasWire(4));
+      t.checkExpect(hex.hexView(0).hasWire(5), gp.hasWire(5));
+    }
+    square.setMask(0, 0);
+    square.setWire(0, 2, true);
+    t.checkExpect(square.hasWire(0, 2), true);
+    t.checkExpect(square.maskOf(0), 4);
+    square.setWire(0, 2, false);
+    t.checkExpect(square.hasWire(0, 2), false);
+    //Square tiles are packed two to a byte, and each only changes its own nibble:
+    PackedBoard row = new PackedBoard(3, 1, 4);
+    t.checkExpect(row.wires.length, 2);
+    t.checkExpect(new PackedBoard(3, 1, 6).wires.length, 3);
+    row.setMask(0, 6);
+    row.setMask(1, 9);
+    row.setMask(2, 15);
+    row.rotateClockwise(1);
+    t.checkExpect(row.maskOf(0), 6);
+    t.checkExpect(row.maskOf(1), 3);
+    t.checkExpect(row.maskOf(2), 15);
+    t.checkExpect(row.wires[0], (byte) 0x36);
+  }
+  
+  //Tests for connect, wiredOn and light in PackedBoard
+  void testPackedBoardLight(Tester t) {
+    PackedBoard square = new PackedBoard(3, 1, 4);
+    EdgeList tree = new EdgeList(2);
+    tree.add(0, 1, 1);
+    tree.add(2, 1, 1);
+    square.connect(tree);
+    t.checkExpect(square.wiredOn(1, 1), true);
+    t.checkExpect(square.wiredOn(1, 3), true);
+    t.checkExpect(square.wiredOn(1, 0), false);
+    square.radius = 1;
+    square.light();
+    t.checkExpect(square.dist, new int[] {0, 1, 2});
+    t.checkExpect(square.litCount(), 2);
+    t.checkExpect(square.squareView(0).powerStation, true);
+    t.checkExpect(square.squareView(1).lit, true);
+    t.checkExpect(square.squareView(2).lit, false);
+    square.rotateClockwise(1);
+    square.light();
+    t.checkExpect(square.dist[1], Integer.MAX_VALUE);
+    t.checkExpect(square.isLit(1), false);
+    EdgeList notNeighbors = new EdgeList(1);
+    notNeighbors.add(0, 2, 1);
+    t.checkException(new IllegalArgumentException("Tiles 0 and 2 are not neighbors."),
+        square, "connect", notNeighbors);
+  }
+  
+  //Tests that a PackedBoard generated from a seed is the board a game generates from that seed
+  void testPackedBoardGenerate(Tester t) {
+    for (long seed = 0; seed < 4; seed++) {
+      //As it is dealt to the player:
+      LightEmAll game = new LightEmAll(6, 5, seed, false);
+      PackedBoard dealt = new PackedBoard(6, 5, 4);
+      dealt.generate(new GenerationContext(seed), true);
+      t.checkExpect(dealt.wires, game.pack().wires);
+      t.checkExpect(dealt.dist, game.pack().dist);
+      t.checkExpect(dealt.radius, game.radius);
+      t.checkExpect(dealt.powerIdx, 0);
+      //and solved, with every tile connected to the power station:
+      LightEmAll solvedGame = new LightEmAll(6, 5, 0, 0, seed);
+      solvedGame.connectTheWires();
+      PackedBoard solved = new PackedBoard(6, 5, 4);
+      solved.generate(new GenerationContext(seed), false);
+      t.checkExpect(solved.wires, solvedGame.pack().wires);
+      t.checkExpect(solved.radius, solvedGame.metrics.diameter / 2 + 1);
+      for (int i = 0; i < 30; i++) {
+        t.checkExpect(solved.dist[i] != Integer.MAX_VALUE, true);
+      }
+      LightEmAllHex hexGame = new LightEmAllHex(5, 6, seed, false);
+      PackedBoard hexDealt = new PackedBoard(5, 6, 6);
+      hexDealt.generate(new GenerationContext(seed), true);
+      t.checkExpect(hexDealt.wires, hexGame.pack().wires);
+      t.checkExpect(hexDealt.radius, hexGame.radius);
+      t.checkExpect(hexDealt.litCount(), hexGame.score());
+    }
+    //Boards of one tile or none have nothing to connect:
+    PackedBoard one = new PackedBoard(1, 1, 4);
+    one.generate(new GenerationContext(3L), true);
+    t.checkExpect(one.wires, new byte[] {0});
+    t.checkExpect(one.radius, 1);
+    PackedBoard none = new PackedBoard(0, 4, 6);
+    none.generate(new GenerationContext(3L), true);
+    t.checkExpect(none.radius, 1);
+  }
+
+  //Tests that a packed copy of a game board has the same wires and lighting
+  void testPack(Tester t) {
+    for (long seed = 0; seed < 3; seed++) {
+      LightEmAll board = new LightEmAll(6, 5, 2, 1, seed);
+      board.connectTheWires();
+      board.refresh();
+      PackedBoard packed = board.pack();
+      PackedBoard fromTree = new PackedBoard(6, 5, 4);
+      fromTree.connect(board.mst);
+      LightEmAllHex hexBoard = new LightEmAllHex(5, 6, 2, 1, seed);
+      hexBoard.connectTheWires();
+      hexBoard.refresh();
+      PackedBoard hexPacked = hexBoard.pack();
+      PackedBoard hexFromTree = new PackedBoard(5, 6, 6);
+      hexFromTree.connect(hexBoard.mst);
+      for (int i = 0; i < 30; i++) {
+        t.checkExpect(packed.dist[i], board.distOf(i));
+        t.checkExpect(packed.isLit(i), board.isLit(board.pieceAt(i)));
+        t.checkExpect(packed.squareView(i).left, board.pieceAt(i).left);
+        t.checkExpect(packed.squareView(i).bottom, board.pieceAt(i).bottom);
+        t.checkExpect(fromTree.maskOf(i), packed.maskOf(i));
+        t.checkExpect(hexPacked.dist[i], hexBoard.distOf(i));
+        t.checkExpect(hexPacked.hexView(i).hasWire(3), hexBoard.pieceAt(i).hasWire(3));
+        t.checkExpect(hexFromTree.maskOf(i), hexPacked.maskOf(i));
+      }
+    }
   }
   
   //TESTS FOR ARRAYUTILS CLASS//////////
@@ -2750,6 +2743,198 @@ class ExamplesLightEmAll {
     t.checkExpect(this.au.heapsort(unsorted, new CompareIntegers()), sorted);
   }
   
+  //Tests for radixSortByWeight in ArrayUtils
+  void testRadixSortByWeight(Tester t) {
+    this.initConditions();
+    Edge<GamePiece> e1 = new Edge<GamePiece>(this.gp1, this.gp2);
+    Edge<GamePiece> e2 = new Edge<GamePiece>(this.gp1, this.gp4);
+    Edge<GamePiece> e3 = new Edge<GamePiece>(this.gp2, this.gp3);
+    Edge<GamePiece> e4 = new Edge<GamePiece>(this.gp2, this.gp5);
+    e1.weight = 70000;
+    e2.weight = 3;
+    e3.weight = 300;
+    e4.weight = 3;
+    ArrayList<Edge<GamePiece>> unsorted = new ArrayList<Edge<GamePiece>>(
+        Arrays.asList(e1, e2, e3, e4));
+    //Edges of equal weight keep the order they were given in:
+    t.checkExpect(this.au.radixSortByWeight(unsorted), new ArrayList<Edge<GamePiece>>(
+        Arrays.asList(e2, e4, e3, e1)));
+    //The given list is left as it was:
+    t.checkExpect(unsorted, new ArrayList<Edge<GamePiece>>(Arrays.asList(e1, e2, e3, e4)));
+    t.checkExpect(this.au.radixSortByWeight(new ArrayList<Edge<GamePiece>>()),
+        new ArrayList<Edge<GamePiece>>());
+  }
+  
+  //Tests for sortByWeight in ArrayUtils
+  void testSortByWeight(Tester t) {
+    this.initConditions();
+    Edge<GamePiece> e1 = new Edge<GamePiece>(this.gp1, this.gp2);
+    Edge<GamePiece> e2 = new Edge<GamePiece>(this.gp1, this.gp4);
+    Edge<GamePiece> e3 = new Edge<GamePiece>(this.gp2, this.gp3);
+    e1.weight = 12;
+    e2.weight = 0;
+    e3.weight = 5;
+    t.checkExpect(this.au.sortByWeight(new ArrayList<Edge<GamePiece>>(
+        Arrays.asList(e1, e2, e3)), new CompareWeight()),
+        new ArrayList<Edge<GamePiece>>(Arrays.asList(e2, e3, e1)));
+    //Falls back on heapsort when a weight is negative:
+    e3.weight = -5;
+    t.checkExpect(this.au.sortByWeight(new ArrayList<Edge<GamePiece>>(
+        Arrays.asList(e1, e2, e3)), new CompareWeight()),
+        new ArrayList<Edge<GamePiece>>(Arrays.asList(e3, e2, e1)));
+  }
+  
+  //TESTS FOR GENERATIONCONTEXT CLASS//////////
+  //Tests for split in GenerationContext
+  void testGenerationContextSplit(Tester t) {
+    GenerationContext gen1 = new GenerationContext(2510);
+    GenerationContext gen2 = new GenerationContext(2510);
+    t.checkExpect(gen1.seed, 2510L);
+    //Two contexts with the same seed split into the same streams:
+    t.checkExpect(gen1.split().nextLong(), gen2.split().nextLong());
+    SplittableRandom[] streams1 = gen1.split(3);
+    SplittableRandom[] streams2 = gen2.split(3);
+    t.checkExpect(streams1.length, 3);
+    //The streams can be drawn from in any order:
+    int last1 = streams1[2].nextInt(1000);
+    int first1 = streams1[0].nextInt(1000);
+    t.checkExpect(streams2[0].nextInt(1000), first1);
+    t.checkExpect(streams2[2].nextInt(1000), last1);
+  }
+  
+  //Tests that a seed fully determines a generated board
+  void testSeededBoards(Tester t) {
+    LightEmAll board1 = new LightEmAll(5, 4, 0, 0, 42L);
+    LightEmAll board2 = new LightEmAll(5, 4, 0, 0, 42L);
+    t.checkExpect(board1.gen.seed, 42L);
+    for (int i = 0; i < board1.nodes.size(); i++) {
+      t.checkExpect(board1.nodes.get(i).orientation, board2.nodes.get(i).orientation);
+    }
+    t.checkExpect(board1.mst, board2.mst);
+    t.checkExpect(board1.getEdgeList(20, 20), board2.getEdgeList(20, 20));
+    LightEmAllHex hexBoard1 = new LightEmAllHex(4, 5, 0, 0, 7L);
+    LightEmAllHex hexBoard2 = new LightEmAllHex(4, 5, 0, 0, 7L);
+    t.checkExpect(hexBoard1.mst, hexBoard2.mst);
+    //A random edge draws its weight from the given stream:
+    Edge<Integer> e1 = new Edge<Integer>(0, 1, 100, new SplittableRandom(3));
+    Edge<Integer> e2 = new Edge<Integer>(0, 1, 100, new SplittableRandom(3));
+    t.checkExpect(e1.weight, e2.weight);
+  }
+  
+  //TESTS FOR EDGELIST CLASS//////////
+  //Tests for add in EdgeList
+  void testEdgeListAdd(Tester t) {
+    EdgeList edges = new EdgeList(1);
+    t.checkExpect(edges.size, 0);
+    edges.add(0, 1, 7);
+    //Adding past the capacity grows the arrays:
+    edges.add(1, 4, 2);
+    edges.add(4, 5, 0);
+    t.checkExpect(edges.size, 3);
+    t.checkExpect(edges.from[1], 1);
+    t.checkExpect(edges.to[1], 4);
+    t.checkExpect(edges.weight[2], 0);
+    t.checkExpect(edges.totalWeight(), 9);
+    t.checkException(new IllegalArgumentException("Edge weights must not be negative."),
+        edges, "add", 0, 1, -1);
+    t.checkConstructorException(new IllegalArgumentException(
+        "Cannot hold a negative number of edges."), "EdgeList", -1);
+  }
+  
+  //Tests for orderByWeight in EdgeList, and radixSortByWeight on primitives in ArrayUtils
+  void testEdgeListOrderByWeight(Tester t) {
+    EdgeList edges = new EdgeList(4);
+    edges.add(0, 1, 70000);
+    edges.add(0, 3, 3);
+    edges.add(1, 2, 300);
+    edges.add(1, 4, 3);
+    t.checkExpect(edges.orderByWeight(), new int[] {1, 3, 2, 0});
+    t.checkExpect(this.au.radixSortByWeight(new int[] {5, 1, 0, 9}, 3), new int[] {2, 1, 0});
+    t.checkExpect(new EdgeList(0).orderByWeight(), new int[] {});
+  }
+  
+  //Tests for toEdges in EdgeList
+  void testEdgeListToEdges(Tester t) {
+    this.initConditions();
+    ArrayList<GamePiece> nodes = new ArrayList<GamePiece>(
+        Arrays.asList(this.gp1, this.gp2, this.gp3));
+    EdgeList edges = new EdgeList(2);
+    edges.add(0, 1, 1);
+    edges.add(1, 2, 1);
+    t.checkExpect(edges.toEdges(nodes), new ArrayList<Edge<GamePiece>>(Arrays.asList(
+        new Edge<GamePiece>(this.gp1, this.gp2), new Edge<GamePiece>(this.gp2, this.gp3))));
+  }
+  
+  //TESTS FOR TILEQUEUE CLASS//////////
+  //Tests for enqueue, dequeue, isEmpty and clear in TileQueue
+  void testTileQueue(Tester t) {
+    TileQueue queue = new TileQueue(2);
+    t.checkExpect(queue.isEmpty(), true);
+    queue.enqueue(4);
+    queue.enqueue(7);
+    t.checkExpect(queue.dequeue(), 4);
+    //Wraps around the end of the buffer:
+    queue.enqueue(9);
+    t.checkExpect(queue.items, new int[] {9, 7});
+    t.checkExpect(queue.unwrap(), new int[] {7, 9});
+    //Grows once the buffer is full, keeping the order:
+    queue.enqueue(1);
+    t.checkExpect(queue.items.length, 4);
+    t.checkExpect(queue.dequeue(), 7);
+    t.checkExpect(queue.dequeue(), 9);
+    t.checkExpect(queue.dequeue(), 1);
+    t.checkExpect(queue.isEmpty(), true);
+    t.checkException(new IllegalStateException("Cannot dequeue from an empty queue."),
+        queue, "dequeue");
+    queue.enqueue(3);
+    queue.clear();
+    t.checkExpect(queue.isEmpty(), true);
+  }
+  
+  //TESTS FOR UNIONFIND CLASS//////////
+  //Tests for the UnionFind constructor
+  void testUnionFindConstructor(Tester t) {
+    UnionFind reps = new UnionFind(4);
+    //When the UnionFind is made, every element is its own representative:
+    t.checkExpect(reps.parent, new int[] {0, 1, 2, 3});
+    t.checkExpect(reps.rank, new int[] {0, 0, 0, 0});
+    t.checkConstructorException(new IllegalArgumentException(
+        "Cannot represent a negative number of elements."),
+        "UnionFind", -1);
+  }
+  
+  //Tests for find and sameTree in UnionFind
+  void testUnionFindFind(Tester t) {
+    UnionFind reps = new UnionFind(5);
+    t.checkExpect(reps.find(3), 3);
+    t.checkExpect(reps.sameTree(1, 3), false);
+    //Manually build the chain 4 -> 3 -> 2 -> 1 -> 0:
+    reps.parent[4] = 3;
+    reps.parent[3] = 2;
+    reps.parent[2] = 1;
+    reps.parent[1] = 0;
+    t.checkExpect(reps.find(4), 0);
+    //The path that was followed has been compressed by halving:
+    t.checkExpect(reps.parent, new int[] {0, 0, 0, 2, 2});
+    t.checkExpect(reps.sameTree(1, 4), true);
+  }
+  
+  //Tests for union in UnionFind
+  void testUnionFindUnion(Tester t) {
+    UnionFind reps = new UnionFind(4);
+    //Unioning two trees of the same rank increases the rank of the new root:
+    t.checkExpect(reps.union(0, 1), true);
+    t.checkExpect(reps.find(1), 0);
+    t.checkExpect(reps.rank[0], 1);
+    //The shorter tree is hung under the taller one:
+    t.checkExpect(reps.union(2, 1), true);
+    t.checkExpect(reps.find(2), 0);
+    t.checkExpect(reps.rank[0], 1);
+    //Unioning two elements already in the same tree would create a cycle:
+    t.checkExpect(reps.union(2, 0), false);
+    t.checkExpect(reps.sameTree(3, 0), false);
+  }
+  
   /////////////// EXAMPLES CLASS ONLY FOR HEXAGONS//////////////
   // Contains only tests for method that have been changed in order to
   // implement the hexagon game grid
@@ -2795,23 +2980,6 @@ class ExamplesLightEmAll {
     this.hex8 = new GamePieceHex(1, 2, true, true, false, false, false, false);
     this.hex9 = new GamePieceHex(2, 2, true, false, false, false, false, false);
 
-    // Add more neighbors with the hexagon grid:
-    this.hex1.addNeighbor(this.hex2);
-    this.hex1.addNeighbor(this.hex4);
-    this.hex1.addNeighbor(this.hex5);
-    this.hex2.addNeighbor(this.hex5);
-    this.hex2.addNeighbor(this.hex6);
-    this.hex2.addNeighbor(this.hex3);
-    this.hex3.addNeighbor(this.hex6);
-    this.hex4.addNeighbor(this.hex5);
-    this.hex4.addNeighbor(this.hex7);
-    this.hex5.addNeighbor(this.hex6);
-    this.hex5.addNeighbor(this.hex7);
-    this.hex5.addNeighbor(this.hex8);
-    this.hex6.addNeighbor(this.hex8);
-    this.hex6.addNeighbor(this.hex9);
-    this.hex7.addNeighbor(this.hex8);
-    this.hex8.addNeighbor(this.hex9);
 
     this.manualHexBoard = new ArrayList<ArrayList<GamePieceHex>>();
     this.hexrow1 = new ArrayList<GamePieceHex>();
@@ -2836,63 +3004,91 @@ class ExamplesLightEmAll {
   //Tests for connectIfNEighbor in GamePiece class:
   void testConnectIfNeighborHEX(Tester t) {
     this.initConditionsHEX();
+    this.leaTestHex.board = this.manualHexBoard;
+    this.leaTestHex.mst = new EdgeList(2);
+    this.leaTestHex.mst.add(5, 8, 0);
+    this.leaTestHex.mst.add(4, 6, 0);
+    this.leaTestHex.connectTheWires();
     //Test if not neighbors at all:
-    this.hex6.connectIfNeighborOf(this.hex7);
-    t.checkExpect(this.hex6.wireNeighborsWith(this.hex7), false);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 5, 6), false);
     //Test functionality if they are neighbors:
-    this.hex6.connectIfNeighborOf(this.hex9);
-    t.checkExpect(this.hex6.wireNeighborsWith(this.hex9), true);
-    //Test a bottom-right neighbor to test new hexagon abilities
-    this.hex5.connectIfNeighborOf(this.hex7);
-    t.checkExpect(this.hex5.wireNeighborsWith(this.hex7), true);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 5, 8), true);
+    //Test a bottom-left neighbor to test new hexagon abilities
+    t.checkExpect(this.wiredTo(this.leaTestHex, 4, 6), true);
   }
   
   //Tests for rotateRandom (the orientation field is random, here it is given)
   void testRotateRandomHEX(Tester t) {
     this.initConditionsHEX();
     this.hex1.orientation = 1;
-    t.checkExpect(this.hex1.tr, true);
+    t.checkExpect(this.hex1.hasWire(1), true);
     this.hex1.rotateRandom();
-    t.checkExpect(this.hex1.right, false);
+    t.checkExpect(this.hex1.hasWire(2), false);
     //Before, 4 rotations brough it back to the same place. Now, it does not:
     this.hex9.orientation = 4;
-    t.checkExpect(this.hex9.tl, true);
+    t.checkExpect(this.hex9.hasWire(0), true);
     this.hex2.rotateRandom();
-    t.checkExpect(this.hex1.tl, false);
+    t.checkExpect(this.hex1.hasWire(0), false);
   }
   
-  //Tests for wireNeighborsWith in GamePiece class
+  //Tests for wiredOn, found through the Topology, in the LightEmAll class
   void testWireNeighborsWithHEX(Tester t) {
     this.initConditionsHEX();
+    this.leaTestHex.board = this.manualHexBoard;
     //If called on itself:
-    t.checkExpect(this.hex1.wireNeighborsWith(this.hex1), false);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 0, 0), false);
     //If not neighbors at all:
-    t.checkExpect(this.hex1.wireNeighborsWith(this.hex6), false);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 0, 5), false);
     //And testing that the game works as expected:
-    t.checkExpect(this.hex1.wireNeighborsWith(this.hex2), true);
-    t.checkExpect(this.hex1.wireNeighborsWith(this.hex3), false);
-    t.checkExpect(this.hex2.wireNeighborsWith(this.hex1), true);
-    t.checkExpect(this.hex2.wireNeighborsWith(this.hex3), false);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 0, 1), true);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 0, 2), false);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 1, 0), true);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 1, 2), false);
   }
-  
+
+  //Tests for sideToward in HexTopology and the wires mask in GamePieceHex class
+  void testSideTowardHEX(Tester t) {
+    this.initConditionsHEX();
+    //hex1 has wires on its top-right, right and bottom-right sides (1, 2 and 3):
+    t.checkExpect(this.hex1.wires, 14);
+    //hex1 is on an even row, so its neighbors below are in its column and the next:
+    t.checkExpect(this.leaTestHex.topology.sideToward(0, 1, 3, 3), 2);
+    t.checkExpect(this.leaTestHex.topology.sideToward(0, 3, 3, 3), 4);
+    t.checkExpect(this.leaTestHex.topology.sideToward(0, 4, 3, 3), 3);
+    //hex5 is on an odd row, so its neighbors are in the column to its left and its column:
+    t.checkExpect(this.leaTestHex.topology.sideToward(4, 0, 3, 3), 0);
+    t.checkExpect(this.leaTestHex.topology.sideToward(4, 1, 3, 3), 1);
+    t.checkExpect(this.leaTestHex.topology.sideToward(4, 6, 3, 3), 4);
+    t.checkExpect(this.leaTestHex.topology.sideToward(4, 7, 3, 3), 3);
+    t.checkExpect(this.leaTestHex.topology.sideToward(3, 0, 3, 3), 1);
+    t.checkExpect(this.leaTestHex.topology.sideToward(0, 8, 3, 3), -1);
+    t.checkExpect(this.leaTestHex.topology.sideToward(0, 0, 3, 3), -1);
+    t.checkExpect(this.leaTestHex.opposite(1), 4);
+    //Rotating moves the wire on the left around to the top-left:
+    this.hex5.setWire(5, true);
+    this.hex5.rotateClockwise();
+    t.checkExpect(this.hex5.wires, 1);
+  }
+
   //Tests for rotateClockwise in GamePiece class
   void testRotateClockwiseHEX(Tester t) {
     this.initConditionsHEX();
-    t.checkExpect(this.hex1.left, false);
-    t.checkExpect(this.hex1.right, true);
-    t.checkExpect(this.hex1.tl, false);
-    t.checkExpect(this.hex1.tr, true);
-    t.checkExpect(this.hex1.bl, false);
-    t.checkExpect(this.hex1.br, true);
-    t.checkExpect(this.hex1.wireNeighborsWith(this.hex4), false);
+    this.leaTestHex.board = this.manualHexBoard;
+    t.checkExpect(this.hex1.hasWire(5), false);
+    t.checkExpect(this.hex1.hasWire(2), true);
+    t.checkExpect(this.hex1.hasWire(0), false);
+    t.checkExpect(this.hex1.hasWire(1), true);
+    t.checkExpect(this.hex1.hasWire(4), false);
+    t.checkExpect(this.hex1.hasWire(3), true);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 0, 3), false);
     this.hex1.rotateClockwise();
-    t.checkExpect(this.hex1.left, false);
-    t.checkExpect(this.hex1.right, true);
-    t.checkExpect(this.hex1.tl, false);
-    t.checkExpect(this.hex1.tr, false);
-    t.checkExpect(this.hex1.bl, true);
-    t.checkExpect(this.hex1.br, true);
-    t.checkExpect(this.hex1.wireNeighborsWith(this.hex2), true);
+    t.checkExpect(this.hex1.hasWire(5), false);
+    t.checkExpect(this.hex1.hasWire(2), true);
+    t.checkExpect(this.hex1.hasWire(0), false);
+    t.checkExpect(this.hex1.hasWire(1), false);
+    t.checkExpect(this.hex1.hasWire(4), true);
+    t.checkExpect(this.hex1.hasWire(3), true);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 0, 1), true);
   }
   
   //TESTS FOR LIGHTEMALLHEX CLASS//////////
@@ -2906,23 +3102,36 @@ class ExamplesLightEmAll {
     t.checkExpect(this.leaTestHex.board.get(2).get(2).lit, false);
   }
   
-  //Test for populate neighbors in LightEmAll class
-  void testPopulateNeighborsHEX(Tester t) {
+  //Test for neighborOf, opposite and wiredOn in LightEmAllHex class
+  void testNeighborOfHEX(Tester t) {
     this.initConditionsHEX();
-    this.leaTestHex.populateNeighbors();
-    ArrayList<ArrayList<GamePieceHex>> board = this.leaTestHex.board;
-    t.checkExpect(board.get(0).get(0).neighbors.contains(board.get(0).get(1)),
-        true);
-    t.checkExpect(board.get(0).get(0).neighbors.contains(board.get(2).get(1)),
-        false);
-    //The center piece on a 3x3 board hassix neighbors
-    t.checkExpect(board.get(1).get(1).neighbors.size(), 6);
+    //The center piece on a 3x3 board has six neighbors, and its row is odd:
+    t.checkExpect(this.leaTestHex.neighborOf(4, 0), 0);
+    t.checkExpect(this.leaTestHex.neighborOf(4, 1), 1);
+    t.checkExpect(this.leaTestHex.neighborOf(4, 2), 5);
+    t.checkExpect(this.leaTestHex.neighborOf(4, 3), 7);
+    t.checkExpect(this.leaTestHex.neighborOf(4, 4), 6);
+    t.checkExpect(this.leaTestHex.neighborOf(4, 5), 3);
+    //Even rows are offset to the right:
+    t.checkExpect(this.leaTestHex.neighborOf(1, 3), 5);
+    t.checkExpect(this.leaTestHex.neighborOf(1, 4), 4);
+    t.checkExpect(this.leaTestHex.neighborOf(2, 3), -1);
+    t.checkExpect(this.leaTestHex.neighborOf(0, 0), -1);
+    t.checkExpect(this.leaTestHex.opposite(1), 4);
+    t.checkExpect(this.leaTestHex.sideToward(4, 7), 3);
+    //hex1 is wired to hex2 on its right:
+    this.leaTestHex.board = this.manualHexBoard;
+    t.checkExpect(this.hex1.hasWire(2), true);
+    t.checkExpect(this.leaTestHex.wiredOn(0, 2), this.wiredTo(this.leaTestHex, 0, 1));
+    //setWire adds a wire to the side with that number:
+    this.hex5.setWire(5, true);
+    t.checkExpect(this.hex5.hasWire(5), true);
+    t.checkExpect(this.hex5.hasWire(5), true);
   }
   
   //Test for getEdges in LightEmAll class
   void testGetEdgesHEX(Tester t) {
     this.initConditionsHEX();
-    this.leaTestHex.populateNeighbors();
     ArrayList<GamePieceHex> nodes = this.leaTestHex.getNodes();
     ArrayList<Edge<GamePieceHex>> testEdges = this.leaTestHex.getEdges();
     t.checkExpect(testEdges.get(0).fromNode, nodes.get(0));
@@ -2960,10 +3169,10 @@ class ExamplesLightEmAll {
     nonRandomEdges.add(e10);
     nonRandomEdges.add(e11);
     nonRandomEdges.add(e12);
-    this.leaTestHex.mst = this.leaTestHex.createMST(nonRandomEdges);
+    ArrayList<Edge<GamePieceHex>> mst = this.leaTestHex.createMST(nonRandomEdges);
     int sum = 0;
-    for (int i = 0; i < this.leaTestHex.mst.size(); i++) {
-      sum = sum + this.leaTestHex.mst.get(i).weight;
+    for (int i = 0; i < mst.size(); i++) {
+      sum = sum + mst.get(i).weight;
     }
     //In the tester constructor of Edges, each weight is assigned 1,
     //therefore, the sum of all weight will always equal the minimum
@@ -2977,10 +3186,10 @@ class ExamplesLightEmAll {
     this.leaTestHex.nodes = new ArrayList<GamePieceHex>();
     this.hex1.orientation = 1;
     this.leaTestHex.nodes.add(this.hex1);
-    t.checkExpect(this.hex1.tr, true);
-    t.checkExpect(this.hex1.tl, false);
+    t.checkExpect(this.hex1.hasWire(1), true);
+    t.checkExpect(this.hex1.hasWire(0), false);
     this.leaTestHex.randomRotateAll();
-    t.checkExpect(this.hex1.tr, false);
+    t.checkExpect(this.hex1.hasWire(1), false);
   }
   
   //Tests for On-Key Events
@@ -2998,13 +3207,87 @@ class ExamplesLightEmAll {
     t.checkExpect(this.leaTestHex.powerCol, 1);
     //Test the "give-up" functionality
     //this.gp2.rotateClockwise();
-    //t.checkExpect(this.gp2.wireNeighborsWith(this.gp1), false);
+    //t.checkExpect(this.wiredTo(this.leaTest, 1, 0), false);
     //this.leaTestHex.onKeyEvent("g");
-    t.checkExpect(this.hex1.wireNeighborsWith(this.hex2), true);
+    t.checkExpect(this.wiredTo(this.leaTestHex, 0, 1), true);
     //Test the press r to reset functionality
     this.leaTestHex.onKeyEvent("r");
     t.checkExpect(this.leaTestHex.powerCol, 0);
     t.checkExpect(this.leaTestHex.powerRow, 0);
   }
+  
+  //Tests for HexLayout, which finds the clicked GamePiece of the hexagon game
+  void testHexLayout(Tester t) {
+    //A 3 by 3 board in big bang has hexagons with sides 116 pixels long, which are about 201
+    //pixels wide and whose rows are 174 pixels apart:
+    HexLayout layout = new HexLayout(3, 3, 116);
+    t.checkExpect(layout.centerX(0, 0), 201);
+    t.checkExpect(layout.centerY(0, 0), 116);
+    //The odd rows are half a hexagon to the left:
+    t.checkExpect(layout.centerX(1, 0), 100);
+    t.checkExpect(layout.centerY(1, 0), 290);
+    t.checkExpect(layout.tileAt(new Posn(201, 116)), 0);
+    //Straight down from the center of a hexagon, to just above its bottom point:
+    t.checkExpect(layout.tileAt(new Posn(201, 216)), 0);
+    //Just below and to the left of that point is the hexagon on the bottom-left:
+    t.checkExpect(layout.tileAt(new Posn(190, 236)), 3);
+    t.checkExpect(layout.tileAt(new Posn(690, 116)), 2);
+    //Points off the board:
+    t.checkExpect(layout.tileAt(new Posn(710, 116)), -1);
+    t.checkExpect(layout.tileAt(new Posn(0, 0)), -1);
+    t.checkExpect(layout.tileAt(new Posn(300, 900)), -1);
+    //Every GamePiece is found at its own center, and a little way toward each of its corners:
+    HexLayout big = new HexLayout(40, 30, 20);
+    int missed = 0;
+    for (int i = 0; i < 30; i++) {
+      for (int j = 0; j < 40; j++) {
+        int x = big.centerX(i, j);
+        int y = big.centerY(i, j);
+        if (big.tileAt(new Posn(x, y)) != i * 40 + j
+            || big.tileAt(new Posn(x, y - 17)) != i * 40 + j
+            || big.tileAt(new Posn(x + 15, y + 7)) != i * 40 + j
+            || big.tileAt(new Posn(x - 15, y + 7)) != i * 40 + j) {
+          missed = missed + 1;
+        }
+      }
+    }
+    t.checkExpect(missed, 0);
+    //No hexagons to click when they are too small to be drawn:
+    t.checkExpect(new HexLayout(3, 3, 0).tileAt(new Posn(0, 0)), -1);
+    //A board scrolled so that its top-left corner is drawn off the canvas:
+    HexLayout scrolled = new HexLayout(40, 30, 20, -100, -60);
+    t.checkExpect(scrolled.tileAt(new Posn(scrolled.centerX(3, 5), scrolled.centerY(3, 5))),
+        3 * 40 + 5);
+    t.checkExpect(scrolled.rowNear(0), 2);
+    t.checkExpect(scrolled.colNear(0), 2);
+    t.checkExpect(scrolled.pixelWidth(), 1403);
+    t.checkExpect(scrolled.pixelHeight(), 910);
+  }
+  
+  //Tests for On-Mouse Events in the hexagon game
+  void testOnMouseHEX(Tester t) {
+    LightEmAllHex hexBoard = new LightEmAllHex(3, 3, 0, 0, 7L);
+    hexBoard.refresh();
+    int[] before = new int[9];
+    for (int i = 0; i < 9; i++) {
+      before[i] = hexBoard.nodes.get(i).wires;
+    }
+    //Clicking the center of the middle hexagon rotates it, and only it:
+    hexBoard.onMouseClicked(new Posn(hexBoard.layout.centerX(1, 1),
+        hexBoard.layout.centerY(1, 1)));
+    GamePieceHex middle = new GamePieceHex(1, 1);
+    middle.wires = before[4];
+    middle.rotateClockwise();
+    t.checkExpect(hexBoard.nodes.get(4).wires, middle.wires);
+    int changed = 0;
+    for (int i = 0; i < 9; i++) {
+      if (i != 4 && hexBoard.nodes.get(i).wires != before[i]) {
+        changed = changed + 1;
+      }
+    }
+    t.checkExpect(changed, 0);
+    //Clicking off the board changes nothing:
+    hexBoard.onMouseClicked(new Posn(690, 690));
+    t.checkExpect(hexBoard.nodes.get(4).wires, middle.wires);
+  }
 }
-
@@ -0,0 +1,113 @@
+import java.util.Arrays;
+
+////////// LIT DENSITY //////////
+// Represents how many GamePieces are lit in each square block of the board, for drawing the
+// board zoomed so far out that each block of GamePieces is drawn as a single cell (see
+// Viewport).
+// The blocks are kept at every level k from 1 up: a block of level k is 2^k by 2^k GamePieces,
+// and the blocks of each level are numbered in row-major order. Each change of lighting only
+// updates its block of level 1 (see countLight in the GameEngine class), so re-lighting the
+// board costs one step per GamePiece that changes. The coarser levels are only summed again,
+// each from the four blocks below it, once one of them is read after a change (see build),
+// so drawing a block never looks at its GamePieces.
+class LitDensity {
+  int width;
+  int height;
+  // counts[k - 1] holds the number of lit GamePieces in each block of level k
+  int[][] counts;
+  // the number of blocks across each level
+  int[] levelWidth;
+  // the levels from 1 up to this one hold the counts of the current lighting; the levels above
+  // it are summed again before they are read
+  int built;
+
+  // Constructor takes the number of columns and rows of the board, with no GamePiece lit.
+  // The last level is the first one whose single block covers the whole board.
+  LitDensity(int width, int height) {
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Cannot have a negative number of rows or columns.");
+    }
+    this.width = width;
+    this.height = height;
+    int levels = 1;
+    while ((1 << levels) < Math.max(width, height)) {
+      levels = levels + 1;
+    }
+    this.counts = new int[levels][];
+    this.levelWidth = new int[levels];
+    for (int k = 1; k <= levels; k++) {
+      this.levelWidth[k - 1] = this.blocksAcross(width, k);
+      this.counts[k - 1] = new int[this.levelWidth[k - 1] * this.blocksAcross(height, k)];
+    }
+    this.built = levels;
+  }
+
+  // Returns the number of blocks of the given level that it takes to cover the given number
+  // of GamePieces in a row or column
+  int blocksAcross(int length, int level) {
+    return (length + (1 << level) - 1) >> level;
+  }
+
+  // Returns the number of levels
+  int levels() {
+    return this.counts.length;
+  }
+
+  // EFFECT: forgets every lit GamePiece
+  void clear() {
+    Arrays.fill(this.counts[0], 0);
+    this.built = 1;
+  }
+
+  // EFFECT: adds the given change (1 when lit, -1 when un-lit) to the count of the block of
+  // level 1 that contains the GamePiece at the given flat index, which leaves the coarser
+  // levels to be summed again
+  void change(int idx, int delta) {
+    int row = idx / this.width;
+    int col = idx % this.width;
+    this.counts[0][(row >> 1) * this.levelWidth[0] + (col >> 1)] += delta;
+    this.built = 1;
+  }
+
+  // Returns the number of lit GamePieces in the block of the given level at the given block
+  // row and column
+  // EFFECT: sums the levels up to the given one again, if they have changed (see build)
+  int litIn(int level, int blockRow, int blockCol) {
+    this.build(level);
+    return this.counts[level - 1][blockRow * this.levelWidth[level - 1] + blockCol];
+  }
+
+  // EFFECT: sums the count of every block of each level above those that are up to date, up
+  // to the given level, from the (up to) four blocks of the level below that it covers.
+  // Each level has a quarter of the blocks of the one below, so summing every level takes
+  // time in a third of the blocks of level 1. Levels are not summed by more than one thread at
+  // once: the GameEngine builds the level it draws before the bands of a frame read it.
+  void build(int level) {
+    for (int k = this.built + 1; k <= level; k++) {
+      int[] below = this.counts[k - 2];
+      int belowWidth = this.levelWidth[k - 2];
+      int[] sums = this.counts[k - 1];
+      int across = this.levelWidth[k - 1];
+      for (int i = 0; i < sums.length; i++) {
+        int row = (i / across) * 2;
+        int col = (i % across) * 2;
+        int sum = 0;
+        for (int r = row; r < row + 2 && r * belowWidth < below.length; r++) {
+          for (int c = col; c < col + 2 && c < belowWidth; c++) {
+            sum = sum + below[r * belowWidth + c];
+          }
+        }
+        sums[i] = sum;
+      }
+    }
+    this.built = Math.max(this.built, level);
+  }
+
+  // Returns the number of GamePieces in the block of the given level at the given block row
+  // and column, which is fewer for the blocks at the right and bottom edges of the board
+  int sizeOf(int level, int blockRow, int blockCol) {
+    int across = Math.min(1 << level, this.width - (blockCol << level));
+    int down = Math.min(1 << level, this.height - (blockRow << level));
+    return across * down;
+  }
+}
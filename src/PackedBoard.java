@@ -0,0 +1,378 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+////////// PACKED BOARD //////////
+// Represents a whole game board compactly, for boards far too large to hold as GamePieces:
+// every tile is a few bits of wires and one int of distance from the power station, by flat
+// index (row * width + col), with no object per tile and no neighbor lists.
+// This is a model of its own, for generating, exporting and checking boards: the games that
+// are played on a canvas (LightEmAll and LightEmAllHex) still keep their boards as GamePieces.
+// A board is either generated straight from a seed (see generate), the same board that a game
+// of its shape generates from that seed, or copied from the current state of a game (see pack
+// in the GameEngine class).
+// A tile's wires are a bit mask of its sides, numbered clockwise:
+// - square tiles (4 sides): 0 top, 1 right, 2 bottom, 3 left
+// - hexagonal tiles (6 sides): 0 top-left, 1 top-right, 2 right, 3 bottom-right,
+//   4 bottom-left, 5 left
+// so bit k is set when the tile has a wire on side k. The masks of square tiles are 4 bits, so
+// they are packed two to a byte (a nibble each, the even tile in the low nibble), and the masks
+// of hexagonal tiles take a byte each (see maskOf). Rotating a tile clockwise moves the wire
+// on each side k to side k + 1, which is one lookup in a table of every mask, and the side
+// facing side k of a tile is side k + sides / 2 of its neighbor.
+// Neighbors are found by index arithmetic, by the same Topology as the game of that shape
+// (SquareTopology or HexTopology).
+// GamePieces only exist as views of single tiles (see squareView and hexView), which are made
+// to draw or test a tile.
+class PackedBoard {
+  int width;
+  int height;
+  // the number of sides of every tile: 4 for square tiles, 6 for hexagonal tiles
+  int sides;
+  // the number of tiles
+  int size;
+  // the wires of the tiles, as bit masks of their sides: a nibble per square tile, or a byte
+  // per hexagonal tile (see maskOf)
+  byte[] wires;
+  // the distance of each tile from the power station, as of the last call to light
+  // (Integer.MAX_VALUE if it is not connected to the power station)
+  int[] dist;
+  int powerIdx;
+  int radius;
+  // the shape of the tiles: the neighbor on each side, and how the sides move on rotation
+  Topology topology;
+  // rotation[mask] is the mask rotated clockwise by one side
+  byte[] rotation;
+
+  // Constructor takes the number of columns and rows, and the number of sides of each tile,
+  // and begins with no wires, the power station at the top-left tile and a radius of zero
+  PackedBoard(int width, int height, int sides) {
+    if (sides != 4 && sides != 6) {
+      throw new IllegalArgumentException("A board's tiles must have 4 or 6 sides.");
+    }
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Cannot have a negative number of rows or columns.");
+    }
+    if ((long) width * height > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Cannot index a board of this many tiles.");
+    }
+    this.width = width;
+    this.height = height;
+    this.sides = sides;
+    this.size = width * height;
+    if (sides == 4) {
+      this.wires = new byte[(this.size + 1) / 2];
+    }
+    else {
+      this.wires = new byte[this.size];
+    }
+    this.dist = new int[width * height];
+    this.powerIdx = 0;
+    this.radius = 0;
+    if (sides == 4) {
+      this.topology = new SquareTopology();
+    }
+    else {
+      this.topology = new HexTopology();
+    }
+    // Each wire of a mask moves to the side it is rotated to:
+    this.rotation = new byte[1 << sides];
+    for (int mask = 0; mask < (1 << sides); mask++) {
+      int turned = 0;
+      for (int side = 0; side < sides; side++) {
+        if ((mask & (1 << side)) != 0) {
+          turned = turned | (1 << this.topology.rotated(side));
+        }
+      }
+      this.rotation[mask] = (byte) turned;
+    }
+  }
+
+  // Returns the flat index of the neighbor on the given side of the tile at the given flat
+  // index, or -1 if that side is on the edge of the board
+  int neighbor(int idx, int side) {
+    return this.topology.neighbor(idx, side, this.width, this.height);
+  }
+
+  // Returns the side of a tile's neighbor that faces the given side of the tile
+  int opposite(int side) {
+    return this.topology.opposite(side);
+  }
+
+  // Returns the wires of the tile at the given flat index, as a bit mask of its sides: the
+  // tile's nibble of its byte for a square tile, or its whole byte for a hexagonal tile
+  int maskOf(int idx) {
+    if (this.sides == 4) {
+      return (this.wires[idx >> 1] >> ((idx & 1) * 4)) & 15;
+    }
+    return this.wires[idx] & 63;
+  }
+
+  // EFFECT: sets the wires of the tile at the given flat index to the given bit mask of its
+  // sides, leaving the other tile of its byte alone
+  void setMask(int idx, int mask) {
+    if (this.sides == 4) {
+      int shift = (idx & 1) * 4;
+      this.wires[idx >> 1] = (byte) ((this.wires[idx >> 1] & ~(15 << shift)) | (mask << shift));
+    }
+    else {
+      this.wires[idx] = (byte) mask;
+    }
+  }
+
+  // Returns whether the tile at the given flat index has a wire on the given side
+  boolean hasWire(int idx, int side) {
+    return (this.maskOf(idx) & (1 << side)) != 0;
+  }
+
+  // EFFECT: adds or removes the wire on the given side of the tile at the given flat index
+  void setWire(int idx, int side, boolean wired) {
+    if (wired) {
+      this.setMask(idx, this.maskOf(idx) | (1 << side));
+    }
+    else {
+      this.setMask(idx, this.maskOf(idx) & ~(1 << side));
+    }
+  }
+
+  // Returns whether the tile at the given flat index is connected by wire to its neighbor on
+  // the given side: both tiles must have a wire on the sides that face each other
+  boolean wiredOn(int idx, int side) {
+    if (!this.hasWire(idx, side)) {
+      return false;
+    }
+    int n = this.neighbor(idx, side);
+    return n != -1 && this.hasWire(n, this.opposite(side));
+  }
+
+  // EFFECT: adds a wire between the two tiles of each edge of the given tree (such as the min
+  // spanning tree), on the sides that face each other.
+  // Every edge must be between neighbors.
+  void connect(EdgeList tree) {
+    for (int i = 0; i < tree.size; i++) {
+      int side = this.sideToward(tree.from[i], tree.to[i]);
+      this.setWire(tree.from[i], side, true);
+      this.setWire(tree.to[i], this.opposite(side), true);
+    }
+  }
+
+  // Returns the side of the tile at flat index from that faces its neighbor at flat index to
+  int sideToward(int from, int to) {
+    int side = this.topology.sideToward(from, to, this.width, this.height);
+    if (side == -1) {
+      throw new IllegalArgumentException("Tiles " + Integer.toString(from) + " and "
+          + Integer.toString(to) + " are not neighbors.");
+    }
+    return side;
+  }
+
+  // EFFECT: rotates the tile at the given flat index clockwise by one side
+  void rotateClockwise(int idx) {
+    this.setMask(idx, this.rotation[this.maskOf(idx)]);
+  }
+
+  // EFFECT: sets the distance of every tile from the power station, by breadth-first search
+  // along the wires. A tile has been seen once its distance is set, so no separate array of
+  // seen tiles is needed.
+  void light() {
+    Arrays.fill(this.dist, Integer.MAX_VALUE);
+    if (this.size == 0) {
+      return;
+    }
+    TileQueue workList = new TileQueue(Math.min(this.size, 1024));
+    this.dist[this.powerIdx] = 0;
+    workList.enqueue(this.powerIdx);
+    while (!workList.isEmpty()) {
+      int v = workList.dequeue();
+      for (int side = 0; side < this.sides; side++) {
+        if (this.wiredOn(v, side)) {
+          int n = this.neighbor(v, side);
+          if (this.dist[n] == Integer.MAX_VALUE) {
+            this.dist[n] = this.dist[v] + 1;
+            workList.enqueue(n);
+          }
+        }
+      }
+    }
+  }
+
+  // Returns whether the tile at the given flat index is lit: it is connected to the power
+  // station, within the radius
+  boolean isLit(int idx) {
+    return this.dist[idx] <= this.radius;
+  }
+
+  // Returns which color the wires of the tile at the given flat index are drawn in, as of the
+  // last call to light, as colorBucket does for a GamePiece: 0 (grey) when it is not lit,
+  // otherwise 1 (yellow), 2 (orange) or 3 (pink) the farther it is from the power station
+  int colorBucket(int idx) {
+    int bucket = 0;
+    if (this.isLit(idx)) {
+      bucket = 1;
+      if (this.dist[idx] >= this.radius - 3) {
+        bucket = 2;
+      }
+      if (this.dist[idx] >= this.radius - 1) {
+        bucket = 3;
+      }
+    }
+    return bucket;
+  }
+
+  // Returns the number of lit tiles
+  int litCount() {
+    int count = 0;
+    for (int i = 0; i < this.dist.length; i++) {
+      if (this.isLit(i)) {
+        count = count + 1;
+      }
+    }
+    return count;
+  }
+
+  ////////// GENERATION //////////
+  // Generating a board takes the same steps as the constructors of LightEmAll and LightEmAllHex
+  // (makeBoard, makeEdgeList, createMST, connectTheWires and randomRotateAll in the GameEngine
+  // class), and draws the same numbers from the GenerationContext in the same order, so a seed
+  // generates the same board either way. Every step works on flat indices and wire masks: the
+  // edges are only an array of weights, numbered by tile and forward side, and the minimum
+  // spanning tree is wired into the masks as it is found, so no GamePiece, Edge or EdgeList is
+  // made at all.
+
+  // EFFECT: generates this board from the given context, as a new game of its shape is
+  // generated: wired along the minimum spanning tree of its random edges, with the radius of
+  // that solved board, the power station at the top-left tile, and lit. The tiles are then
+  // rotated by their random orientations, as they are dealt to the player, if scrambled is
+  // true. This board must not have any wires yet.
+  void generate(GenerationContext gen, boolean scrambled) {
+    if ((long) this.size * 4 > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Cannot generate a board of this many tiles.");
+    }
+    // The orientations are drawn before the weights, as makeBoard draws them:
+    SplittableRandom[] turnStreams = gen.split(this.height);
+    this.connectTree(this.edgeOrder(gen));
+    this.radius = this.diameter() / 2 + 1;
+    if (scrambled) {
+      for (int i = 0; i < this.height; i++) {
+        for (int j = 0; j < this.width; j++) {
+          for (int turn = turnStreams[i].nextInt(4); turn >= 0; turn = turn - 1) {
+            this.rotateClockwise(i * this.width + j);
+          }
+        }
+      }
+    }
+    this.powerIdx = 0;
+    this.light();
+  }
+
+  // Returns the maximum weight of the edges of a new game of this shape, which has no bias:
+  // the number of tiles for square tiles, and four times that for hexagonal tiles (see
+  // getEdgeList in LightEmAll and in LightEmAllHex)
+  int maxEdgeWeight() {
+    if (this.sides == 4) {
+      return this.size;
+    }
+    return this.size * 4;
+  }
+
+  // Returns the edges of this board by edge number, in the order that Kruskal's algorithm
+  // visits them: from smallest weight to largest, and in the order they were drawn between
+  // edges of the same weight. Edge number idx * f + k is the edge from the tile at flat index
+  // idx to its neighbor on the k-th of its f forward sides (see forwardSides in Topology).
+  // The weights are drawn from the given context as makeEdgeList draws them, one stream per
+  // row. An edge whose neighbor is off the board is given a weight greater than any drawn, so
+  // it comes after every real edge.
+  int[] edgeOrder(GenerationContext gen) {
+    int[] forward = this.topology.forwardSides();
+    int maxWeight = this.maxEdgeWeight();
+    int[] weights = new int[this.size * forward.length];
+    SplittableRandom[] rowStreams = gen.split(this.height);
+    for (int i = 0; i < this.height; i++) {
+      for (int j = 0; j < this.width; j++) {
+        int idx = i * this.width + j;
+        for (int k = 0; k < forward.length; k++) {
+          if (this.neighbor(idx, forward[k]) != -1) {
+            weights[idx * forward.length + k] = rowStreams[i].nextInt(maxWeight);
+          }
+          else {
+            weights[idx * forward.length + k] = maxWeight;
+          }
+        }
+      }
+    }
+    return new ArrayUtils().radixSortByWeight(weights, weights.length);
+  }
+
+  // EFFECT: wires this board along the minimum spanning tree of the edges in the given order
+  // (see edgeOrder), as createMST and connectTheWires do: each edge is wired, in order, unless
+  // its tiles are already connected, until every tile is
+  void connectTree(int[] order) {
+    int[] forward = this.topology.forwardSides();
+    UnionFind reps = new UnionFind(this.size);
+    int treeSize = Math.max(0, this.size - 1);
+    int wired = 0;
+    for (int i = 0; i < order.length && wired < treeSize; i++) {
+      int from = order[i] / forward.length;
+      int side = forward[order[i] % forward.length];
+      int to = this.neighbor(from, side);
+      if (to != -1 && reps.union(from, to)) {
+        this.setWire(from, side, true);
+        this.setWire(to, this.opposite(side), true);
+        wired = wired + 1;
+      }
+    }
+  }
+
+  // Returns the length of the longest path along the wires of this board, which must be a
+  // tree (such as the solved board): the farthest tile from any tile is an end of a longest
+  // path, so it is the distance from there to the tile farthest from it (as in TreeMetrics).
+  // EFFECT: lights this board from each end of that path, in turn
+  int diameter() {
+    if (this.size == 0) {
+      return 0;
+    }
+    this.powerIdx = 0;
+    this.light();
+    this.powerIdx = this.farthestTile();
+    this.light();
+    return this.dist[this.farthestTile()];
+  }
+
+  // Returns the flat index of a tile farthest from the power station along the wires, as of
+  // the last call to light
+  int farthestTile() {
+    int farthest = this.powerIdx;
+    for (int i = 0; i < this.dist.length; i++) {
+      if (this.dist[i] != Integer.MAX_VALUE && this.dist[i] > this.dist[farthest]) {
+        farthest = i;
+      }
+    }
+    return farthest;
+  }
+  //////////////////////////////////////////////////
+
+  // Returns a GamePiece that shows the square tile at the given flat index, as of the last
+  // call to light, in lighting epoch 0. Changing the GamePiece does not change this board.
+  GamePiece squareView(int idx) {
+    GamePiece view = new GamePiece(idx % this.width, idx / this.width,
+        this.hasWire(idx, 3), this.hasWire(idx, 1), this.hasWire(idx, 0), this.hasWire(idx, 2));
+    view.powerStation = idx == this.powerIdx;
+    if (this.dist[idx] != Integer.MAX_VALUE) {
+      view.lightUp(0, this.dist[idx], this.radius);
+    }
+    return view;
+  }
+
+  // Returns a GamePieceHex that shows the hexagonal tile at the given flat index, as of the
+  // last call to light, in lighting epoch 0. Changing the GamePieceHex does not change this
+  // board.
+  GamePieceHex hexView(int idx) {
+    GamePieceHex view = new GamePieceHex(idx % this.width, idx / this.width);
+    // A GamePieceHex numbers the sides of its wire mask the same way:
+    view.wires = this.maskOf(idx);
+    view.powerStation = idx == this.powerIdx;
+    if (this.dist[idx] != Integer.MAX_VALUE) {
+      view.lightUp(0, this.dist[idx], this.radius);
+    }
+    return view;
+  }
+}
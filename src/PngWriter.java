@@ -0,0 +1,112 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+////////// PNG WRITER //////////
+// Represents a PNG image being written to a stream one row of pixels at a time, from the top,
+// so that an image far too large to hold in memory can still be written (see BoardExporter).
+// The image is 8-bit RGB (alpha is dropped). Each row is compressed as soon as it is given,
+// and the compressed data is written out in IDAT chunks of about chunkSize bytes, so only one
+// row and one chunk are ever held.
+// A PNG file is its signature followed by chunks, each of which is the length of its data, its
+// type (4 letters), its data, and the CRC-32 of its type and data:
+// - IHDR: the width, height, bit depth (8), color type (2, RGB), compression, filter and
+//   interlace methods (all 0)
+// - IDAT: the zlib stream of every row, each row a filter type (0, none) followed by its pixels
+// - IEND: no data
+class PngWriter {
+  OutputStream out;
+  int width;
+  int height;
+  // the number of rows given so far
+  int rowsWritten;
+  // the compressed rows, as they are compressed into pending
+  DeflaterOutputStream deflated;
+  // the compressed data not yet written out as an IDAT chunk
+  ByteArrayOutputStream pending;
+  // the bytes of one row, to be compressed
+  byte[] row;
+  int chunkSize = 1 << 16;
+
+  // Constructor takes the stream to write to, and the width and height of the image in pixels.
+  // EFFECT: writes the signature and IHDR chunk of the image
+  PngWriter(OutputStream out, int width, int height) throws IOException {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Cannot write an image without pixels.");
+    }
+    this.out = out;
+    this.width = width;
+    this.height = height;
+    this.rowsWritten = 0;
+    this.pending = new ByteArrayOutputStream();
+    this.deflated = new DeflaterOutputStream(this.pending);
+    this.row = new byte[1 + 3 * width];
+    this.out.write(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    this.writeInt(header, width);
+    this.writeInt(header, height);
+    header.write(new byte[] {8, 2, 0, 0, 0});
+    this.writeChunk("IHDR", header.toByteArray());
+  }
+
+  // EFFECT: compresses the next row of the image, which is the width of the image in ARGB
+  // pixels from the given offset of the given array, and writes out an IDAT chunk once enough
+  // compressed data is pending
+  void writeRow(int[] argb, int offset) throws IOException {
+    if (this.rowsWritten == this.height) {
+      throw new IllegalStateException("Every row of the image has already been written.");
+    }
+    this.row[0] = 0;
+    for (int x = 0; x < this.width; x++) {
+      int pixel = argb[offset + x];
+      this.row[1 + 3 * x] = (byte) (pixel >> 16);
+      this.row[2 + 3 * x] = (byte) (pixel >> 8);
+      this.row[3 + 3 * x] = (byte) pixel;
+    }
+    this.deflated.write(this.row);
+    this.rowsWritten = this.rowsWritten + 1;
+    if (this.pending.size() >= this.chunkSize) {
+      this.writePending();
+    }
+  }
+
+  // EFFECT: finishes the compressed rows, and writes out the last IDAT chunk and the IEND
+  // chunk. The stream is flushed but not closed.
+  void finish() throws IOException {
+    if (this.rowsWritten != this.height) {
+      throw new IllegalStateException("Not every row of the image has been written.");
+    }
+    this.deflated.close();
+    this.writePending();
+    this.writeChunk("IEND", new byte[0]);
+    this.out.flush();
+  }
+
+  // EFFECT: writes out the pending compressed data as an IDAT chunk, if there is any
+  void writePending() throws IOException {
+    if (this.pending.size() > 0) {
+      this.writeChunk("IDAT", this.pending.toByteArray());
+      this.pending.reset();
+    }
+  }
+
+  // EFFECT: writes a chunk of the given type and data
+  void writeChunk(String type, byte[] data) throws IOException {
+    byte[] typeBytes = type.getBytes("US-ASCII");
+    CRC32 crc = new CRC32();
+    crc.update(typeBytes);
+    crc.update(data);
+    this.writeInt(this.out, data.length);
+    this.out.write(typeBytes);
+    this.out.write(data);
+    this.writeInt(this.out, (int) crc.getValue());
+  }
+
+  // EFFECT: writes the given int to the given stream, most significant byte first
+  void writeInt(OutputStream stream, int value) throws IOException {
+    stream.write(new byte[] {(byte) (value >> 24), (byte) (value >> 16), (byte) (value >> 8),
+      (byte) value});
+  }
+}
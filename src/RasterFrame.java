@@ -0,0 +1,253 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.awt.image.DataBufferInt;
+import javalib.worldimages.*;
+
+////////// RASTER FRAME //////////
+// Represents an image as its pixels, painted directly rather than composed of WorldImages: a
+// BufferedImage whose pixels are the int array it is backed by, one ARGB color per pixel in
+// row-major order (y * width + x). A pixel of color 0 is transparent.
+// This is the raster backend of makeScene (see rasterScene in the GameEngine class): the
+// GamePieces in view are painted into one frame the size of the board's part of the canvas,
+// each kind of GamePiece being painted once per size as a small frame of its own (a stamp)
+// that is then copied into place, and the frame is placed on the scene as one image.
+// That image is kept from one scene to the next (see toImage), and only the pixels of the
+// frame that differ from what it shows are copied to it (see show).
+// Every painting method is clipped to the frame, and to the columns from clipLeft to clipRight
+// and the rows from clipTop to clipBottom (each inclusive, then exclusive). A part of a frame
+// (see the second constructor) shares its pixels and its image but is clipped to its own
+// rectangle, so separate parts of one frame, such as bands of rows, can be painted apart, at
+// the same time, without touching each other's pixels (see BandPainter). Showing the pixels
+// in the image is left to one thread, once they are painted.
+class RasterFrame {
+  int width;
+  int height;
+  BufferedImage image;
+  // the pixels of the image, by y * width + x
+  int[] pixels;
+  // the columns and rows that painting is clipped to
+  int clipLeft;
+  int clipRight;
+  int clipTop;
+  int clipBottom;
+  // the image of this frame that is placed on scenes (null until it is first asked for, see
+  // toImage), which only changes where pixels are shown (see show)
+  ComputedPixelImage shown;
+  // the ARGB value of each pixel as the image shows it, by y * width + x (null until the image
+  // is made), which the parts of a frame share with it
+  int[] shownPixels;
+  // the Colors of the ARGB values most recently shown, in a table indexed by a hash of the
+  // value (see colorOf), which the parts of a frame share with it
+  int[] cachedArgb;
+  Color[] cachedColors;
+
+  // Constructor takes the width and height of the frame in pixels, which begins transparent
+  RasterFrame(int width, int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Cannot have a frame without pixels.");
+    }
+    this.width = width;
+    this.height = height;
+    this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    this.pixels = ((DataBufferInt) this.image.getRaster().getDataBuffer()).getData();
+    this.clipLeft = 0;
+    this.clipRight = width;
+    this.clipTop = 0;
+    this.clipBottom = height;
+  }
+
+  // Constructor takes a frame, and the columns from left (inclusive) to right (exclusive) and
+  // rows from top (inclusive) to bottom (exclusive) of the part of it that this paints: the
+  // same pixels, image and table of Colors, clipped to that rectangle
+  RasterFrame(RasterFrame whole, int left, int top, int right, int bottom) {
+    whole.makeColorTable();
+    this.width = whole.width;
+    this.height = whole.height;
+    this.image = whole.image;
+    this.pixels = whole.pixels;
+    this.shown = whole.shown;
+    this.shownPixels = whole.shownPixels;
+    this.cachedArgb = whole.cachedArgb;
+    this.cachedColors = whole.cachedColors;
+    this.clipLeft = Math.max(whole.clipLeft, left);
+    this.clipRight = Math.min(whole.clipRight, right);
+    this.clipTop = Math.max(whole.clipTop, top);
+    this.clipBottom = Math.min(whole.clipBottom, bottom);
+  }
+
+  // Returns the color of the pixel at the given point, as ARGB
+  int pixelAt(int x, int y) {
+    return this.pixels[y * this.width + x];
+  }
+
+  // EFFECT: paints the rectangle with the given top-left corner and size in the given color
+  void fillRect(int x, int y, int w, int h, int argb) {
+    int left = Math.max(this.clipLeft, x);
+    int right = Math.min(this.clipRight, x + w);
+    int top = Math.max(this.clipTop, y);
+    int bottom = Math.min(this.clipBottom, y + h);
+    for (int row = top; row < bottom; row++) {
+      int start = row * this.width;
+      for (int col = left; col < right; col++) {
+        this.pixels[start + col] = argb;
+      }
+    }
+  }
+
+  // EFFECT: paints the disc of the given radius around the given center in the given color
+  void fillDisc(int cx, int cy, int radius, int argb) {
+    int top = Math.max(this.clipTop, cy - radius);
+    int bottom = Math.min(this.clipBottom - 1, cy + radius);
+    for (int y = top; y <= bottom; y++) {
+      int dy = y - cy;
+      int left = Math.max(this.clipLeft, cx - radius);
+      int right = Math.min(this.clipRight - 1, cx + radius);
+      for (int x = left; x <= right; x++) {
+        int dx = x - cx;
+        if (dx * dx + dy * dy <= radius * radius) {
+          this.pixels[y * this.width + x] = argb;
+        }
+      }
+    }
+  }
+
+  // EFFECT: paints the hexagon with a point at the top and bottom, with sides of the given
+  // length, around the given center in the given color: the points whose distance across is
+  // within sqrt(3) / 2 * sideLen, and whose distance down plus their distance across over
+  // sqrt(3) is within sideLen
+  void fillHexagon(double cx, double cy, double sideLen, int argb) {
+    double halfWidth = Math.sqrt(3.0) / 2 * sideLen;
+    int top = Math.max(this.clipTop, (int) Math.floor(cy - sideLen));
+    int bottom = Math.min(this.clipBottom - 1, (int) Math.ceil(cy + sideLen));
+    int left = Math.max(this.clipLeft, (int) Math.floor(cx - halfWidth));
+    int right = Math.min(this.clipRight - 1, (int) Math.ceil(cx + halfWidth));
+    for (int y = top; y <= bottom; y++) {
+      double dy = Math.abs(y + 0.5 - cy);
+      for (int x = left; x <= right; x++) {
+        double dx = Math.abs(x + 0.5 - cx);
+        if (dx <= halfWidth && dy + dx / Math.sqrt(3.0) <= sideLen) {
+          this.pixels[y * this.width + x] = argb;
+        }
+      }
+    }
+  }
+
+  // EFFECT: paints a line one pixel wide between the two given points in the given color, one
+  // pixel for each step along its longer direction
+  void drawLine(int x0, int y0, int x1, int y1, int argb) {
+    int steps = Math.max(Math.abs(x1 - x0), Math.abs(y1 - y0));
+    for (int i = 0; i <= steps; i++) {
+      int x = x0;
+      int y = y0;
+      if (steps > 0) {
+        x = x0 + Math.round((float) (x1 - x0) * i / steps);
+        y = y0 + Math.round((float) (y1 - y0) * i / steps);
+      }
+      if (x >= this.clipLeft && x < this.clipRight && y >= this.clipTop && y < this.clipBottom) {
+        this.pixels[y * this.width + x] = argb;
+      }
+    }
+  }
+
+  // EFFECT: copies the given stamp into this frame, centered on the given point as placeImageXY
+  // centers an image, skipping the stamp's transparent pixels
+  void stamp(RasterFrame stamp, int cx, int cy) {
+    int x0 = cx - stamp.width / 2;
+    int y0 = cy - stamp.height / 2;
+    int top = Math.max(this.clipTop, y0);
+    int bottom = Math.min(this.clipBottom, y0 + stamp.height);
+    int left = Math.max(this.clipLeft, x0);
+    int right = Math.min(this.clipRight, x0 + stamp.width);
+    for (int y = top; y < bottom; y++) {
+      int from = (y - y0) * stamp.width - x0;
+      int to = y * this.width;
+      for (int x = left; x < right; x++) {
+        int argb = stamp.pixels[from + x];
+        if (argb != 0) {
+          this.pixels[to + x] = argb;
+        }
+      }
+    }
+  }
+
+  // Returns this frame as one WorldImage, to be placed on a scene: the same image every time,
+  // which shows the pixels as they were when they were last shown (see show).
+  // EFFECT: makes the image the first time it is asked for, showing every pixel
+  WorldImage toImage() {
+    if (this.shown == null) {
+      this.shown = new ComputedPixelImage(this.width, this.height);
+      this.shownPixels = Arrays.copyOf(this.pixels, this.pixels.length);
+      for (int y = 0; y < this.height; y++) {
+        for (int x = 0; x < this.width; x++) {
+          this.shown.setPixel(x, y, this.colorOf(this.shownPixels[y * this.width + x]));
+        }
+      }
+    }
+    return this.shown;
+  }
+
+  // EFFECT: copies the pixels from columns left to right and rows top to bottom (each
+  // inclusive, then exclusive), clipped to this frame, to its image, so that the image shows
+  // them as they are now. The image must have been made (see toImage).
+  // javalib only takes pixels one at a time, as Colors, so each row of the rectangle is first
+  // compared with the row the image shows (see shownPixels) in bulk, and only the pixels that
+  // differ are passed to the image, each Color coming from a small cache (see colorOf). Painting
+  // a board again mostly paints the pixels it had, so few pixels are passed to the image.
+  void show(int left, int top, int right, int bottom) {
+    if (this.shown == null) {
+      throw new IllegalStateException("Cannot show the pixels of a frame without an image.");
+    }
+    int fromX = Math.max(this.clipLeft, left);
+    int toX = Math.min(this.clipRight, right);
+    int fromY = Math.max(this.clipTop, top);
+    int toY = Math.min(this.clipBottom, bottom);
+    int lastArgb = 0;
+    Color last = this.colorOf(0);
+    for (int y = fromY; y < toY; y++) {
+      int rowStart = y * this.width;
+      int end = rowStart + toX;
+      int i = rowStart + fromX;
+      while (i < end) {
+        int same = Arrays.mismatch(this.pixels, i, end, this.shownPixels, i, end);
+        if (same == -1) {
+          i = end;
+        }
+        else {
+          i = i + same;
+          int argb = this.pixels[i];
+          if (argb != lastArgb) {
+            last = this.colorOf(argb);
+            lastArgb = argb;
+          }
+          this.shown.setPixel(i - rowStart, y, last);
+          this.shownPixels[i] = argb;
+          i = i + 1;
+        }
+      }
+    }
+  }
+
+  // Returns the Color of the given ARGB value, from a direct-mapped table of 64 Colors indexed
+  // by a hash of the value, where a new Color takes the place of whichever Color had its slot.
+  // A frame of the board only has a handful of colors, which all keep their slots, so the
+  // Colors are only made once.
+  // EFFECT: remembers the Color in the table, if it is new
+  Color colorOf(int argb) {
+    this.makeColorTable();
+    int slot = (argb ^ (argb >>> 6) ^ (argb >>> 12) ^ (argb >>> 18) ^ (argb >>> 24)) & 63;
+    if (this.cachedColors[slot] == null || this.cachedArgb[slot] != argb) {
+      this.cachedArgb[slot] = argb;
+      this.cachedColors[slot] = new Color(argb, true);
+    }
+    return this.cachedColors[slot];
+  }
+
+  // EFFECT: makes the table of Colors of this frame (see colorOf), if it has not been made
+  void makeColorTable() {
+    if (this.cachedColors == null) {
+      this.cachedArgb = new int[64];
+      this.cachedColors = new Color[64];
+    }
+  }
+}
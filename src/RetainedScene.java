@@ -0,0 +1,65 @@
+////////// RETAINED SCENE //////////
+// Represents the board as it was last painted into a frame (see rasterScene in the GameEngine
+// class), which is kept from one scene to the next, along with the GamePieces that have
+// changed since.
+// The game marks a GamePiece as changed (dirty) whenever it does something that can change
+// how it looks: rotating it, lighting or un-lighting it, changing its distance from the power
+// station, or giving it the power station. The next scene then only paints the frame again
+// under the dirty GamePieces that are in view (see repaintTile), and only shows those parts of
+// the frame in its image; every other pixel keeps what it was last painted and shown with.
+// The dirty GamePieces are kept as a list of flat indices (row * width + col), which may name
+// a GamePiece more than once, rather than as a mark per GamePiece, so a scene takes time in the
+// number of changes rather than in the size of the board. Once more than limit changes are
+// listed, or whenever everything may have changed at once (after a full refresh, when the view
+// moves, or when the GamePieces are drawn at a new size), the list is dropped and the whole
+// frame is painted again instead.
+class RetainedScene {
+  // the frame that the board was last painted into (null until it is first painted)
+  RasterFrame frame;
+  // the flat indices of the GamePieces changed since the frame was last painted
+  TileQueue changed;
+  // whether the whole frame must be painted again
+  boolean allChanged;
+  // the most changes listed before the whole frame is painted again instead
+  int limit;
+
+  // Constructor takes the most changes to list, and begins with nothing painted
+  RetainedScene(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("Cannot list a negative number of changes.");
+    }
+    this.changed = new TileQueue(Math.min(limit, 64));
+    this.allChanged = true;
+    this.limit = limit;
+  }
+
+  // Returns whether nothing has changed since the frame was last painted
+  boolean isClean() {
+    return !this.allChanged && this.changed.isEmpty();
+  }
+
+  // EFFECT: lists the GamePiece at the given flat index as changed since the frame was last
+  // painted, or marks the whole frame to be painted again if there are too many changes
+  void markDirty(int idx) {
+    if (!this.allChanged) {
+      if (this.changed.size >= this.limit) {
+        this.markAllDirty();
+      }
+      else {
+        this.changed.enqueue(idx);
+      }
+    }
+  }
+
+  // EFFECT: marks the whole frame to be painted again, which drops the list of changes
+  void markAllDirty() {
+    this.allChanged = true;
+    this.changed.clear();
+  }
+
+  // EFFECT: records that the frame now shows every change
+  void markPainted() {
+    this.allChanged = false;
+    this.changed.clear();
+  }
+}
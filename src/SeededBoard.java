@@ -0,0 +1,30 @@
+////////// SEEDED BOARD //////////
+// Represents a board to be generated from a seed (see generate in PackedBoard): its size, the
+// shape of its tiles, its seed, and whether it is scrambled as it is dealt or left solved.
+// It holds no tiles itself, so a batch of boards to export (see exportAll in BoardExporter)
+// costs nothing until each one is generated, and each is generated by the task that writes it.
+class SeededBoard {
+  int width;
+  int height;
+  // the number of sides of every tile: 4 for square tiles, 6 for hexagonal tiles
+  int sides;
+  long seed;
+  boolean scrambled;
+
+  // Constructor takes the number of columns and rows, the number of sides of each tile, the
+  // seed, and whether the board is scrambled as it is dealt to the player
+  SeededBoard(int width, int height, int sides, long seed, boolean scrambled) {
+    this.width = width;
+    this.height = height;
+    this.sides = sides;
+    this.seed = seed;
+    this.scrambled = scrambled;
+  }
+
+  // Returns a new PackedBoard generated from this seed
+  PackedBoard generate() {
+    PackedBoard board = new PackedBoard(this.width, this.height, this.sides);
+    board.generate(new GenerationContext(this.seed), this.scrambled);
+    return board;
+  }
+}
@@ -0,0 +1,74 @@
+import javalib.worldimages.*;
+
+////////// SPRITE CACHE //////////
+// Represents the images of GamePieces that have already been drawn at the current size, so
+// that makeScene draws each kind of GamePiece once rather than every GamePiece on every frame.
+// A GamePiece's image depends only on:
+// - its wires, as a bit mask of its sides (16 masks for square GamePieces, 64 for hexagons)
+// - the color of its wires (see colorBucket in GamePiece): 4 colors
+// - whether it is the power station
+// so these are the key of its image (see keyOf), and there are at most
+// 16 * 4 * 2 square images or 64 * 4 * 2 hexagonal images.
+// The same images are also kept painted as pixels (stamps), for the raster backend of makeScene
+// (see RasterFrame).
+// The images are forgotten when the GamePieces are drawn at a new size.
+class SpriteCache {
+  // the images by key, or null for those not drawn yet
+  WorldImage[] sprites;
+  // the stamps by key, or null for those not painted yet
+  RasterFrame[] stamps;
+  // the size in pixels that the images were drawn at
+  int spriteWidth;
+  int spriteHeight;
+
+  // Constructor takes the number of sides of each GamePiece, and begins with no images
+  SpriteCache(int sides) {
+    this.sprites = new WorldImage[(1 << sides) * 4 * 2];
+    this.stamps = new RasterFrame[this.sprites.length];
+    this.spriteWidth = -1;
+    this.spriteHeight = -1;
+  }
+
+  // Returns the key of the image of a GamePiece with the given wires, color of wires and
+  // power station
+  int keyOf(int wires, int colorBucket, boolean powerStation) {
+    int key = (wires * 4 + colorBucket) * 2;
+    if (powerStation) {
+      key = key + 1;
+    }
+    return key;
+  }
+
+  // Returns whether the GamePieces are now drawn at a different size than the images were.
+  // EFFECT: if so, forgets every image and stamp
+  boolean resize(int spriteWidth, int spriteHeight) {
+    if (spriteWidth == this.spriteWidth && spriteHeight == this.spriteHeight) {
+      return false;
+    }
+    this.sprites = new WorldImage[this.sprites.length];
+    this.stamps = new RasterFrame[this.sprites.length];
+    this.spriteWidth = spriteWidth;
+    this.spriteHeight = spriteHeight;
+    return true;
+  }
+
+  // Returns the image with the given key, or null if it has not been drawn at this size
+  WorldImage get(int key) {
+    return this.sprites[key];
+  }
+
+  // EFFECT: remembers the given image as the image with the given key
+  void put(int key, WorldImage sprite) {
+    this.sprites[key] = sprite;
+  }
+
+  // Returns the stamp with the given key, or null if it has not been painted at this size
+  RasterFrame getStamp(int key) {
+    return this.stamps[key];
+  }
+
+  // EFFECT: remembers the given stamp as the stamp with the given key
+  void putStamp(int key, RasterFrame stamp) {
+    this.stamps[key] = stamp;
+  }
+}
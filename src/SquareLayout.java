@@ -0,0 +1,77 @@
+import javalib.worldimages.*;
+
+////////// SQUARE LAYOUT //////////
+// Represents a board of square GamePieces in a grid of rectangles of the same size
+class SquareLayout implements BoardLayout {
+  int width;
+  int height;
+  // the size of each GamePiece, in pixels
+  int tileWidth;
+  int tileHeight;
+  // where the top-left corner of the board is drawn on the canvas
+  int originX;
+  int originY;
+
+  // Constructor takes the number of columns and rows, and the width and height of each
+  // GamePiece in pixels, for a board drawn from the top-left corner of the canvas
+  SquareLayout(int width, int height, int tileWidth, int tileHeight) {
+    this(width, height, tileWidth, tileHeight, 0, 0);
+  }
+
+  // Constructor takes the number of columns and rows, the width and height of each GamePiece
+  // in pixels, and where the top-left corner of the board is drawn on the canvas
+  SquareLayout(int width, int height, int tileWidth, int tileHeight, int originX, int originY) {
+    if (tileWidth < 0 || tileHeight < 0) {
+      throw new IllegalArgumentException("Cannot have GamePieces of a negative size.");
+    }
+    this.width = width;
+    this.height = height;
+    this.tileWidth = tileWidth;
+    this.tileHeight = tileHeight;
+    this.originX = originX;
+    this.originY = originY;
+  }
+
+  // Returns the x-coordinate of the center of the GamePiece at the given row and column
+  public int centerX(int row, int col) {
+    return this.originX + (col * this.tileWidth) + (this.tileWidth / 2);
+  }
+
+  // Returns the y-coordinate of the center of the GamePiece at the given row and column
+  public int centerY(int row, int col) {
+    return this.originY + (row * this.tileHeight) + (this.tileHeight / 2);
+  }
+
+  // Returns the flat index of the GamePiece under the given point, or -1 if the point is not
+  // on the board: the column and row are the point's coordinates divided by the size of a
+  // GamePiece
+  public int tileAt(Posn pos) {
+    int x = pos.x - this.originX;
+    int y = pos.y - this.originY;
+    if (x < 0 || x >= this.tileWidth * this.width
+        || y < 0 || y >= this.tileHeight * this.height) {
+      return -1;
+    }
+    return (y / this.tileHeight) * this.width + (x / this.tileWidth);
+  }
+
+  // Returns the row that is drawn at the given y-coordinate
+  public int rowNear(int y) {
+    return Math.floorDiv(y - this.originY, Math.max(1, this.tileHeight));
+  }
+
+  // Returns the column that is drawn at the given x-coordinate
+  public int colNear(int x) {
+    return Math.floorDiv(x - this.originX, Math.max(1, this.tileWidth));
+  }
+
+  // Returns the width of the whole board in pixels
+  public int pixelWidth() {
+    return this.tileWidth * this.width;
+  }
+
+  // Returns the height of the whole board in pixels
+  public int pixelHeight() {
+    return this.tileHeight * this.height;
+  }
+}
@@ -0,0 +1,45 @@
+import java.awt.Color;
+
+////////// SQUARE PAINTER //////////
+// Represents painting square GamePieces of the given width and height in pixels: the raster
+// version of draw in the GamePiece class, with a line from the center to the middle of each
+// wired side
+class SquarePainter extends TilePainter {
+  int tileWidth;
+  int tileHeight;
+
+  // Constructor takes the width and height of each GamePiece in pixels
+  SquarePainter(int tileWidth, int tileHeight) {
+    if (tileWidth <= 0 || tileHeight <= 0) {
+      throw new IllegalArgumentException("Cannot paint GamePieces without pixels.");
+    }
+    this.tileWidth = tileWidth;
+    this.tileHeight = tileHeight;
+  }
+
+  // Returns a new stamp of a square GamePiece that fills its place in the grid
+  RasterFrame paint(int wires, int colorBucket, boolean powerStation) {
+    RasterFrame stamp = new RasterFrame(this.tileWidth, this.tileHeight);
+    stamp.fillRect(0, 0, this.tileWidth, this.tileHeight, Color.BLACK.getRGB());
+    stamp.fillRect(1, 1, this.tileWidth - 2, this.tileHeight - 2, Color.DARK_GRAY.getRGB());
+    int midX = this.tileWidth / 2;
+    int midY = this.tileHeight / 2;
+    // the middle of each side: top, right, bottom, left
+    int[] endX = new int[] {midX, this.tileWidth - 1, midX, 0};
+    int[] endY = new int[] {0, midY, this.tileHeight - 1, midY};
+    for (int side = 0; side < 4; side++) {
+      if ((wires & (1 << side)) != 0) {
+        stamp.drawLine(midX, midY, endX[side], endY[side], this.wirePalette[colorBucket]);
+      }
+    }
+    if (powerStation) {
+      this.paintPowerStation(stamp, midX, midY, midY / 2);
+    }
+    return stamp;
+  }
+
+  // Returns the layout of a grid of these GamePieces
+  BoardLayout layout(int width, int height, int originX, int originY) {
+    return new SquareLayout(width, height, this.tileWidth, this.tileHeight, originX, originY);
+  }
+}
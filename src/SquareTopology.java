@@ -0,0 +1,41 @@
+////////// SQUARE TOPOLOGY //////////
+// Represents square tiles, with sides numbered 0 top, 1 right, 2 bottom, 3 left
+class SquareTopology extends Topology {
+  int[] rowOffsets = new int[] {-1, 0, 1, 0};
+  int[] colOffsets = new int[] {0, 1, 0, -1};
+  int[] opposites = new int[] {2, 3, 0, 1};
+  int[] rotations = new int[] {1, 2, 3, 0};
+  // the right and bottom neighbors
+  int[] forward = new int[] {1, 2};
+
+  // Returns the number of sides of each tile
+  int sides() {
+    return 4;
+  }
+
+  // Returns the change in row from a tile to its neighbor on the given side
+  int rowOffset(int side) {
+    return this.rowOffsets[side];
+  }
+
+  // Returns the change in column from a tile in the given row to its neighbor on the given
+  // side, which is the same in every row
+  int colOffset(int row, int side) {
+    return this.colOffsets[side];
+  }
+
+  // Returns the side of a tile's neighbor that faces the given side of the tile
+  int opposite(int side) {
+    return this.opposites[side];
+  }
+
+  // Returns the side that a wire on the given side of a tile is on after one clockwise rotation
+  int rotated(int side) {
+    return this.rotations[side];
+  }
+
+  // Returns the sides whose neighbors come later in row-major order than the tile
+  int[] forwardSides() {
+    return this.forward;
+  }
+}
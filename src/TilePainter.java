@@ -0,0 +1,29 @@
+import java.awt.Color;
+
+////////// TILE PAINTER //////////
+// Represents how GamePieces of one shape and size are painted as pixels (see RasterFrame): the
+// stamp of a GamePiece with given wires, color of wires and power station, and where each
+// GamePiece of a board is placed (its BoardLayout).
+// A painter only needs the wires of a GamePiece as a bit mask of its sides, numbered clockwise
+// as in the Topology of its shape, so it paints the GamePieces of a live game (see stampOf in
+// the GameEngine class) and the tiles of a PackedBoard (see BoardExporter) the same way.
+abstract class TilePainter {
+  // the color of the wires, as ARGB, by color bucket (see colorBucket in ITile): grey when not
+  // lit, then yellow, orange and pink the farther from the power station
+  int[] wirePalette = new int[] {Color.LIGHT_GRAY.getRGB(), Color.YELLOW.getRGB(),
+    Color.ORANGE.getRGB(), Color.PINK.getRGB()};
+
+  // Returns a new stamp of a GamePiece with the given wires, color of wires and power station
+  abstract RasterFrame paint(int wires, int colorBucket, boolean powerStation);
+
+  // Returns the layout of a board of the given number of columns and rows of these GamePieces,
+  // with its top-left corner at the given point
+  abstract BoardLayout layout(int width, int height, int originX, int originY);
+
+  // EFFECT: paints the power station on the given stamp, centered on the given point: a red
+  // disc of the given radius, around a yellow one
+  void paintPowerStation(RasterFrame stamp, int midX, int midY, int radius) {
+    stamp.fillDisc(midX, midY, radius, Color.RED.getRGB());
+    stamp.fillDisc(midX, midY, radius / 2, Color.YELLOW.getRGB());
+  }
+}
@@ -0,0 +1,72 @@
+import java.util.Arrays;
+
+////////// TILE QUEUE //////////
+// Represents a first-in-first-out queue of GamePieces by their flat index on the board
+// (row * width + col), which is used as the workList of every breadth-first search.
+// The queue is a ring buffer over a primitive array: dequeuing only moves the head forward,
+// rather than shifting every remaining item down the way ArrayList.remove(0) does.
+class TileQueue {
+  int[] items;
+  // the position in items of the next tile to be dequeued
+  int head;
+  // the number of tiles in this queue
+  int size;
+
+  // Constructor takes the number of tiles this queue is expected to hold at once
+  TileQueue(int capacity) {
+    this.items = new int[Math.max(1, capacity)];
+    this.head = 0;
+    this.size = 0;
+  }
+
+  // Returns whether there are no tiles in this queue
+  boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  // EFFECT: adds the given tile to the back of this queue, growing the ring buffer
+  // if it is full
+  void enqueue(int tile) {
+    if (this.size == this.items.length) {
+      int[] grown = Arrays.copyOf(this.unwrap(), this.items.length * 2);
+      this.items = grown;
+      this.head = 0;
+    }
+    this.items[(this.head + this.size) % this.items.length] = tile;
+    this.size = this.size + 1;
+  }
+
+  // Returns and removes the tile at the front of this queue
+  int dequeue() {
+    if (this.size == 0) {
+      throw new IllegalStateException("Cannot dequeue from an empty queue.");
+    }
+    int tile = this.items[this.head];
+    this.head = (this.head + 1) % this.items.length;
+    this.size = this.size - 1;
+    return tile;
+  }
+
+  // Returns the tile at the front of this queue, without removing it
+  int peek() {
+    if (this.size == 0) {
+      throw new IllegalStateException("Cannot peek into an empty queue.");
+    }
+    return this.items[this.head];
+  }
+
+  // EFFECT: removes every tile from this queue, keeping its buffer for reuse
+  void clear() {
+    this.head = 0;
+    this.size = 0;
+  }
+
+  // Returns the tiles in this queue from front to back, in a new array
+  int[] unwrap() {
+    int[] inOrder = new int[this.size];
+    for (int i = 0; i < this.size; i++) {
+      inOrder[i] = this.items[(this.head + i) % this.items.length];
+    }
+    return inOrder;
+  }
+}
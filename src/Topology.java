@@ -0,0 +1,56 @@
+////////// TOPOLOGY //////////
+// Represents the shape of the tiles of a game board: how many sides each tile has, where the
+// neighbor on each side is, and how the sides move when a tile is rotated.
+// The sides of a tile are numbered clockwise, and everything that walks the board (generating
+// it, lighting it, scoring it) is written once in terms of these numbers, in the GameEngine.
+// The neighbor on each side is found by offsets in row and column from the tile, where the
+// offset in column may depend on whether the tile's row is even or odd (as it does for rows of
+// hexagons, which are offset from each other).
+// Finding the neighbor from those offsets is written once here, for every board of tiles by
+// flat index (row * width + col): the GameEngine and the PackedBoard both walk their boards
+// with it.
+abstract class Topology {
+  // Returns the number of sides of each tile
+  abstract int sides();
+
+  // Returns the change in row from a tile to its neighbor on the given side
+  abstract int rowOffset(int side);
+
+  // Returns the change in column from a tile in the given row to its neighbor on the given side
+  abstract int colOffset(int row, int side);
+
+  // Returns the side of a tile's neighbor that faces the given side of the tile
+  abstract int opposite(int side);
+
+  // Returns the side that a wire on the given side of a tile is on after the tile is rotated
+  // clockwise once
+  abstract int rotated(int side);
+
+  // Returns the sides whose neighbors come later in row-major order than the tile, in the
+  // order that the edges to them are generated, so that each edge is generated once
+  abstract int[] forwardSides();
+
+  // Returns the flat index of the neighbor on the given side of the tile at the given flat
+  // index, on a board of the given number of columns and rows, or -1 if that side is on the
+  // edge of the board
+  int neighbor(int idx, int side, int width, int height) {
+    int row = idx / width;
+    int neighborRow = row + this.rowOffset(side);
+    int neighborCol = idx % width + this.colOffset(row, side);
+    if (neighborRow < 0 || neighborRow >= height || neighborCol < 0 || neighborCol >= width) {
+      return -1;
+    }
+    return neighborRow * width + neighborCol;
+  }
+
+  // Returns the side of the tile at flat index from that faces its neighbor at flat index to,
+  // on a board of the given number of columns and rows, or -1 if they are not neighbors
+  int sideToward(int from, int to, int width, int height) {
+    for (int side = 0; side < this.sides(); side++) {
+      if (this.neighbor(from, side, width, height) == to) {
+        return side;
+      }
+    }
+    return -1;
+  }
+}
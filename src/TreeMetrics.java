@@ -0,0 +1,116 @@
+import java.util.Arrays;
+
+////////// TREE METRICS //////////
+// Represents the shape of a spanning tree of GamePieces (the min spanning tree that the board
+// is generated from), computed once from its EdgeList and cached with the board:
+// - eccentricity: how far each GamePiece, by flat index, is from the GamePiece farthest from it
+// - diameter: the greatest eccentricity, which is the length of the longest path in the tree
+// - center: a GamePiece with the least eccentricity, which is the best position for the power
+//   station, since the whole tree is closest to it
+// In a tree, the GamePiece farthest from any GamePiece is always one of the two ends of a
+// longest path, so every eccentricity is found with three breadth-first searches rather than
+// one search per GamePiece: one to find an end of a longest path, one from that end to find the
+// other end, and one from the other end. If the edges form more than one tree (a forest), each
+// tree is measured on its own.
+class TreeMetrics {
+  int[] eccentricity;
+  int diameter;
+  int center;
+  // The edges out of each GamePiece, by flat index: the neighbors of GamePiece i in the tree
+  // are adjacent[adjacentStart[i]] up to (but not including) adjacent[adjacentStart[i + 1]]
+  int[] adjacentStart;
+  int[] adjacent;
+
+  // Constructor takes the edges of the tree and the number of GamePieces in it
+  TreeMetrics(EdgeList tree, int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Cannot measure a negative number of elements.");
+    }
+    this.adjacentStart = new int[size + 1];
+    this.adjacent = new int[tree.size * 2];
+    for (int i = 0; i < tree.size; i++) {
+      this.adjacentStart[tree.from[i] + 1] += 1;
+      this.adjacentStart[tree.to[i] + 1] += 1;
+    }
+    for (int i = 0; i < size; i++) {
+      this.adjacentStart[i + 1] += this.adjacentStart[i];
+    }
+    int[] next = Arrays.copyOf(this.adjacentStart, size);
+    for (int i = 0; i < tree.size; i++) {
+      this.adjacent[next[tree.from[i]]] = tree.to[i];
+      next[tree.from[i]] += 1;
+      this.adjacent[next[tree.to[i]]] = tree.from[i];
+      next[tree.to[i]] += 1;
+    }
+    this.eccentricity = new int[size];
+    this.diameter = 0;
+    this.center = 0;
+    this.measure(size);
+  }
+
+  // EFFECT: fills in the eccentricity of every GamePiece, the diameter and the center, one tree
+  // at a time
+  void measure(int size) {
+    boolean[] measured = new boolean[size];
+    int[] fromEnd = new int[size];
+    int[] fromOtherEnd = new int[size];
+    int[] parent = new int[size];
+    int[] order = new int[size];
+    for (int root = 0; root < size; root++) {
+      if (!measured[root]) {
+        int end = this.farthestFrom(root, fromEnd, parent, order);
+        int otherEnd = this.farthestFrom(end, fromEnd, parent, order);
+        int treeSize = this.reach(otherEnd, fromOtherEnd, parent, order);
+        // The center of this tree is the GamePiece in it with the least eccentricity, and it
+        // becomes the center of the board if this is the widest tree so far:
+        int treeCenter = otherEnd;
+        for (int i = 0; i < treeSize; i++) {
+          int v = order[i];
+          measured[v] = true;
+          this.eccentricity[v] = Math.max(fromEnd[v], fromOtherEnd[v]);
+          if (this.eccentricity[v] < this.eccentricity[treeCenter]) {
+            treeCenter = v;
+          }
+        }
+        if (root == 0 || fromOtherEnd[end] > this.diameter) {
+          this.diameter = fromOtherEnd[end];
+          this.center = treeCenter;
+        }
+      }
+    }
+  }
+
+  // Returns the GamePiece that is farthest from the given GamePiece in its tree.
+  // EFFECT: see reach
+  int farthestFrom(int from, int[] dist, int[] parent, int[] order) {
+    int treeSize = this.reach(from, dist, parent, order);
+    return order[treeSize - 1];
+  }
+
+  // Returns the number of GamePieces in the tree of the given GamePiece, using breadth-first
+  // search, where the order array itself is the workList.
+  // EFFECT: sets the distance of every GamePiece in the tree from the given GamePiece in dist,
+  // the GamePiece it was reached from in parent, and lists the GamePieces in the tree at the
+  // start of order, in the order they were reached (so, in order of distance)
+  int reach(int from, int[] dist, int[] parent, int[] order) {
+    dist[from] = 0;
+    parent[from] = -1;
+    order[0] = from;
+    int count = 1;
+    for (int read = 0; read < count; read++) {
+      int v = order[read];
+      for (int i = this.adjacentStart[v]; i < this.adjacentStart[v + 1]; i++) {
+        int w = this.adjacent[i];
+        // A tree has no cycles, so the only neighbor that has already been reached is the one
+        // that this GamePiece was reached from:
+        if (w != parent[v]) {
+          dist[w] = dist[v] + 1;
+          parent[w] = v;
+          order[count] = w;
+          count = count + 1;
+        }
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,68 @@
+////////// UNION FIND //////////
+// Represents a disjoint-set forest used by Kruskal's algorithm to determine whether
+// adding an Edge to the min spanning tree would create a cycle.
+// Every GamePiece is represented by its flat index on the board (row * width + col),
+// so looking up a representative never has to search through the list of nodes.
+// Representatives are kept in two primitive arrays:
+// - parent: the index of the parent of each element (an element is a root if it is its
+//   own parent)
+// - rank: an upper bound on the height of the tree rooted at each element, which is used
+//   to always hang the shorter tree under the taller one when two trees are unioned
+class UnionFind {
+  int[] parent;
+  int[] rank;
+
+  // Constructor takes the number of elements, and begins with every element being
+  // its own representative
+  UnionFind(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Cannot represent a negative number of elements.");
+    }
+    this.parent = new int[size];
+    this.rank = new int[size];
+    for (int i = 0; i < size; i++) {
+      this.parent[i] = i;
+    }
+  }
+
+  // Returns the representative of the tree that contains the given element.
+  // EFFECT: compresses the path that was followed, by pointing every element on the
+  // way to the representative at its grandparent (path halving), so that later finds
+  // along this path are close to constant time
+  int find(int elem) {
+    int cur = elem;
+    while (this.parent[cur] != cur) {
+      this.parent[cur] = this.parent[this.parent[cur]];
+      cur = this.parent[cur];
+    }
+    return cur;
+  }
+
+  // Returns whether the two given elements already share a representative
+  boolean sameTree(int elem1, int elem2) {
+    return this.find(elem1) == this.find(elem2);
+  }
+
+  // Returns true if the two given elements were in different trees before this call.
+  // EFFECT: unions the trees of the two given elements by rank: the root of the shorter
+  // tree is pointed at the root of the taller tree, and the rank only grows when both
+  // trees are the same height
+  boolean union(int elem1, int elem2) {
+    int root1 = this.find(elem1);
+    int root2 = this.find(elem2);
+    if (root1 == root2) {
+      return false;
+    }
+    if (this.rank[root1] < this.rank[root2]) {
+      this.parent[root1] = root2;
+    }
+    else if (this.rank[root1] > this.rank[root2]) {
+      this.parent[root2] = root1;
+    }
+    else {
+      this.parent[root2] = root1;
+      this.rank[root1] = this.rank[root1] + 1;
+    }
+    return true;
+  }
+}
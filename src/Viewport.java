@@ -0,0 +1,117 @@
+////////// VIEWPORT //////////
+// Represents the part of the board that is shown on the canvas, for boards too large to fit:
+// how large each GamePiece is drawn (the zoom), and which pixel of the whole board is at the
+// top-left corner of the canvas (the scroll).
+// The view of a board starts with GamePieces no smaller than minTileSize, so that they can still
+// be seen and clicked; a board that would need smaller GamePieces to fit is scrolled instead.
+// Only the GamePieces in view are drawn, so drawing costs the same on a board of any size.
+// The player may zoom further out, to see more of the board at a lower level of detail:
+// - GamePieces smaller than detailSize are drawn as cells of a single color, without wires
+// - past cellSize, each cell is a block of blockSize by blockSize GamePieces, colored by how
+//   many of them are lit (see LitDensity), and tileWidth and tileHeight are the size of a block
+class Viewport {
+  // the size of the canvas that the board is drawn on, in pixels
+  int canvasWidth;
+  int canvasHeight;
+  // the size of each GamePiece in pixels (for hexagons, tileWidth is the length of a side)
+  int tileWidth;
+  int tileHeight;
+  // the pixel of the whole board that is drawn at the top-left corner of the canvas
+  int left;
+  int top;
+  // the number of GamePieces across (and down) each block drawn as one cell: 1 unless zoomed
+  // out past cellSize, and always a power of two
+  int blockSize;
+  int minTileSize = 4;
+  int maxTileSize = 256;
+  int detailSize = 8;
+  int cellSize = 2;
+  // the block size whose one block covers the whole board, past which there is nothing to see
+  int maxBlockSize = 1 << 30;
+
+  // Constructor takes the size of the canvas, and the size of each GamePiece that would fit
+  // the whole board on it, and shows the top-left corner of the board
+  Viewport(int canvasWidth, int canvasHeight, int tileWidth, int tileHeight) {
+    this.canvasWidth = canvasWidth;
+    this.canvasHeight = canvasHeight;
+    this.tileWidth = Math.max(this.minTileSize, tileWidth);
+    this.tileHeight = Math.max(this.minTileSize, tileHeight);
+    this.blockSize = 1;
+    this.left = 0;
+    this.top = 0;
+  }
+
+  // EFFECT: scrolls the view by the given number of pixels
+  void pan(int dx, int dy) {
+    this.left = this.left + dx;
+    this.top = this.top + dy;
+  }
+
+  // EFFECT: doubles the size of the GamePieces (or halves it, if zooming out), keeping the
+  // same pixel of the board at the center of the canvas. The size stays between cellSize and
+  // maxTileSize; zooming out past cellSize doubles the blocks instead, and zooming back in
+  // halves them before the GamePieces grow again.
+  void zoom(boolean zoomIn) {
+    int newWidth = this.tileWidth;
+    int newHeight = this.tileHeight;
+    int newBlock = this.blockSize;
+    if (zoomIn && this.blockSize > 1) {
+      newBlock = this.blockSize / 2;
+    }
+    else if (zoomIn) {
+      newWidth = Math.min(this.maxTileSize, this.tileWidth * 2);
+      newHeight = Math.min(this.maxTileSize, this.tileHeight * 2);
+    }
+    else if (this.tileWidth > this.cellSize || this.tileHeight > this.cellSize) {
+      newWidth = Math.max(this.cellSize, this.tileWidth / 2);
+      newHeight = Math.max(this.cellSize, this.tileHeight / 2);
+    }
+    else {
+      newBlock = Math.min(this.maxBlockSize, this.blockSize * 2);
+    }
+    // The center of the canvas, as a pixel of the board, is scaled with the pixels drawn for
+    // each GamePiece (the size of a cell over the GamePieces across it):
+    long centerX = (long) (this.left + this.canvasWidth / 2) * newWidth * this.blockSize
+        / ((long) this.tileWidth * newBlock);
+    long centerY = (long) (this.top + this.canvasHeight / 2) * newHeight * this.blockSize
+        / ((long) this.tileHeight * newBlock);
+    this.left = (int) (centerX - this.canvasWidth / 2);
+    this.top = (int) (centerY - this.canvasHeight / 2);
+    this.tileWidth = newWidth;
+    this.tileHeight = newHeight;
+    this.blockSize = newBlock;
+  }
+
+  // Returns whether the GamePieces are drawn one by one, large enough to show their wires
+  boolean showsDetail() {
+    return this.blockSize == 1 && Math.min(this.tileWidth, this.tileHeight) >= this.detailSize;
+  }
+
+  // Returns whether each cell drawn is a block of more than one GamePiece
+  boolean showsBlocks() {
+    return this.blockSize > 1;
+  }
+
+  // EFFECT: limits the blocks to the size whose one block covers a board of the given number
+  // of columns and rows (see LitDensity)
+  void limitBlocks(int width, int height) {
+    int limit = 2;
+    while (limit < Math.max(width, height)) {
+      limit = limit * 2;
+    }
+    this.maxBlockSize = limit;
+    this.blockSize = Math.min(this.blockSize, limit);
+  }
+
+  // EFFECT: keeps the view on a board of the given size in pixels: the view is never scrolled
+  // past the right or bottom edge of the board, nor before its top-left corner
+  void clamp(int boardWidth, int boardHeight) {
+    this.left = Math.max(0, Math.min(this.left, boardWidth - this.canvasWidth));
+    this.top = Math.max(0, Math.min(this.top, boardHeight - this.canvasHeight));
+  }
+
+  // Returns whether the given point is on the part of the canvas where the board is drawn
+  boolean contains(int x, int y) {
+    return x >= 0 && x < this.canvasWidth && y >= 0 && y < this.canvasHeight;
+  }
+}